@@ -0,0 +1,193 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.client;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A file compiled from text files, such as the RATs or the random names, so
+ * they don't have to be parsed every time. Every such file starts with a
+ * magic number and version, a fingerprint of the text files it was compiled
+ * from and a table of all the distinct strings in it, which the rest of the
+ * file refers to by index.
+ */
+abstract class CacheFile {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final long fingerprint;
+    final String[] strings;
+
+    /**
+     * Reads the header and string table, leaving the buffer at the rest of
+     * the file.
+     *
+     * @throws IOException if the header isn't the given one or the string
+     *             table doesn't fit in the file
+     */
+    CacheFile(ByteBuffer buffer, int magic, int version) throws IOException {
+        if ((buffer.getInt() != magic) || (buffer.getInt() != version)) {
+            throw new IOException("Not a cache file of this version");
+        }
+        fingerprint = buffer.getLong();
+        strings = new String[checkCount(buffer, buffer.getInt(), 4)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[checkCount(buffer, buffer.getInt(), 1)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, UTF8);
+        }
+    }
+
+    /**
+     * @return the fingerprint of the text files this was compiled from
+     */
+    long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return the given index into the string table, if it is one
+     */
+    int checkString(int index) throws IOException {
+        if ((index < 0) || (index >= strings.length)) {
+            throw new IOException("Cache file refers to a missing string");
+        }
+        return index;
+    }
+
+    /**
+     * @return the given number of items of the given size, if that many fit
+     *         in the rest of the buffer
+     */
+    static int checkCount(ByteBuffer buffer, int items, int size) throws IOException {
+        if ((items < 0) || (items > (buffer.remaining() / size))) {
+            throw new IOException("Cache file is truncated");
+        }
+        return items;
+    }
+
+    /**
+     * Reads all of the given file into memory.
+     */
+    static ByteBuffer readFile(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of cache file");
+                }
+            }
+            buffer.flip();
+            return buffer;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Saves a compiled cache file. It is written to a new file that then
+     * takes the place of the old one, so a save that fails part way leaves
+     * the old file as it was.
+     */
+    static void save(File file, byte[] data) throws IOException {
+        File temp = File.createTempFile(file.getName(), ".tmp",
+                file.getAbsoluteFile().getParentFile());
+        try {
+            FileOutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(data);
+            } finally {
+                out.close();
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            // Only still there if the save failed
+            temp.delete();
+        }
+    }
+
+    /**
+     * @return the fingerprint of a text file, known by the given name, which
+     *         changes when the file does; the fingerprints of several files
+     *         are added up, so the order they are listed in doesn't matter
+     */
+    static long fingerprint(String name, File file) {
+        long h = name.hashCode();
+        h = (h * 0x9E3779B97F4A7C15L) + file.lastModified();
+        h = (h * 0x9E3779B97F4A7C15L) + file.length();
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * The table of distinct strings of a file being compiled.
+     */
+    static class Strings {
+        private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+        private final List<String> table = new ArrayList<String>();
+
+        void add(String s) {
+            if (!indexes.containsKey(s)) {
+                indexes.put(s, table.size());
+                table.add(s);
+            }
+        }
+
+        /**
+         * @return the index of a string that was added
+         */
+        int indexOf(String s) {
+            return indexes.get(s);
+        }
+
+        /**
+         * Writes the header of a cache file with these strings.
+         */
+        void writeHeader(DataOutputStream out, int magic, int version,
+                long fingerprint) throws IOException {
+            out.writeInt(magic);
+            out.writeInt(version);
+            out.writeLong(fingerprint);
+            out.writeInt(table.size());
+            for (String s : table) {
+                byte[] b = s.getBytes(UTF8);
+                out.writeInt(b.length);
+                out.write(b);
+            }
+        }
+    }
+}
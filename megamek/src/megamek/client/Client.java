@@ -100,6 +100,7 @@ import megamek.common.net.DisconnectedEvent;
 import megamek.common.net.IConnection;
 import megamek.common.net.Packet;
 import megamek.common.net.PacketReceivedEvent;
+import megamek.common.net.marshall.PacketMarshallerFactory;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
 import megamek.common.preference.PreferenceManager;
@@ -168,8 +169,6 @@ public class Client implements IClientCommandHandler {
 
         public void run() {
             while (!shouldStop) {
-                // Write any queued packets
-                flushConn();
                 // Wait for new input
                 updateConnection();
                 if ((connection == null) || connection.isClosed()) {
@@ -677,7 +676,6 @@ public class Client implements IClientCommandHandler {
         }
 
         send(new Packet(Packet.COMMAND_ENTITY_DEPLOY, data));
-        flushConn();
     }
     
     /**
@@ -710,7 +708,6 @@ public class Client implements IClientCommandHandler {
         data[1] = attacks;
 
         send(new Packet(Packet.COMMAND_ENTITY_ATTACK, data));
-        flushConn();
     }
 
     /**
@@ -749,7 +746,6 @@ public class Client implements IClientCommandHandler {
      */
     public void sendChat(String message) {
         send(new Packet(Packet.COMMAND_CHAT, message));
-        flushConn();
     }
 
     /**
@@ -758,7 +754,6 @@ public class Client implements IClientCommandHandler {
     public void sendServerChat(int connId, String message) {
         Object[] data = {message, connId};
         send(new Packet(Packet.COMMAND_CHAT, data));
-        flushConn();
     }
 
     /**
@@ -766,7 +761,6 @@ public class Client implements IClientCommandHandler {
      */
     public synchronized void sendDone(boolean done) {
         send(new Packet(Packet.COMMAND_PLAYER_READY, new Boolean(done)));
-        flushConn();
     }
 
     /**
@@ -964,6 +958,16 @@ public class Client implements IClientCommandHandler {
         }
     }
 
+    /**
+     * Applies the changed entities from the data in the net command.
+     */
+    @SuppressWarnings("unchecked")
+    protected void receiveEntityDelta(Packet c) {
+        List<Entity> changedEntities = (List<Entity>) c.getObject(0);
+        List<Integer> entityIds = (List<Integer>) c.getObject(1);
+        game.updateEntities(entityIds, changedEntities);
+    }
+
     /**
      * Loads entity update data from the data in the net command.
      */
@@ -1174,10 +1178,9 @@ public class Client implements IClientCommandHandler {
     }
 
     /**
-     * send all buffered packets on their way this should be called after
-     * everything which causes us to wait for a reply. For example "done" button
-     * presses etc. to make stuff more efficient, this should only be called
-     * after a batch of packets is sent,not separately for each packet
+     * Waits for all queued packets to be written. Packets are written by the
+     * connection's own thread as soon as they are sent, so this is only
+     * needed before the connection is closed.
      */
     protected void flushConn() {
         if (connection != null) {
@@ -1197,6 +1200,16 @@ public class Client implements IClientCommandHandler {
                 break;
             case Packet.COMMAND_SERVER_GREETING:
                 connected = true;
+                // Newer servers offer a more compact marshalling type; older
+                // ones send no data at all
+                if ((c.getData() != null) && (c.getData().length > 0)
+                        && (c.getObject(0) instanceof Integer)) {
+                    int marshallingType = c.getIntValue(0);
+                    if (PacketMarshallerFactory.getInstance().getMarshaller(
+                            marshallingType) != null) {
+                        connection.setMarshallingType(marshallingType);
+                    }
+                }
                 send(new Packet(Packet.COMMAND_CLIENT_NAME, name));
                 Object[] versionData = new Object[2];
                 versionData[0] = MegaMek.VERSION;
@@ -1310,6 +1323,9 @@ public class Client implements IClientCommandHandler {
             case Packet.COMMAND_SENDING_ENTITIES:
                 receiveEntities(c);
                 break;
+            case Packet.COMMAND_SENDING_ENTITY_DELTA:
+                receiveEntityDelta(c);
+                break;
             case Packet.COMMAND_SENDING_REPORTS:
             case Packet.COMMAND_SENDING_REPORTS_TACTICAL_GENIUS:
                 phaseReport = receiveReport((Vector<Report>) c.getObject(0));
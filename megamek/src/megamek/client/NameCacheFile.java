@@ -0,0 +1,198 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled form of the random name files. The file starts with a
+ * fingerprint of the text files it was compiled from and a table of all the
+ * distinct strings, followed by the male first names, female first names and
+ * surnames by ethnic group and then, for each faction, the weights of the
+ * surname ethnic groups and of the first name ethnic groups that go with each
+ * of them. Every list of names is stored as pairs of string and weight.
+ * <p>
+ * Unlike the RAT cache, all of it is needed as soon as a name is generated,
+ * so the whole file is read when it is opened.
+ */
+class NameCacheFile extends CacheFile {
+
+    private static final int MAGIC = 0x4D4D4E43; // "MMNC"
+    private static final int VERSION = 1;
+
+    final Map<String, NameTable> firstm;
+    final Map<String, NameTable> firstf;
+    final Map<String, NameTable> last;
+    final Map<String, NameTable> factionLast;
+    final Map<String, Map<String, NameTable>> factionFirst;
+
+    private NameCacheFile(ByteBuffer buffer) throws IOException {
+        super(buffer, MAGIC, VERSION);
+        firstm = readTables(buffer);
+        firstf = readTables(buffer);
+        last = readTables(buffer);
+        int factions = checkCount(buffer, buffer.getInt(), 12);
+        factionLast = new HashMap<String, NameTable>();
+        factionFirst = new HashMap<String, Map<String, NameTable>>();
+        for (int i = 0; i < factions; i++) {
+            String key = strings[checkString(buffer.getInt())];
+            factionLast.put(key, readTable(buffer));
+            factionFirst.put(key, readTables(buffer));
+        }
+    }
+
+    private Map<String, NameTable> readTables(ByteBuffer buffer) throws IOException {
+        int count = checkCount(buffer, buffer.getInt(), 8);
+        Map<String, NameTable> tables = new HashMap<String, NameTable>();
+        for (int i = 0; i < count; i++) {
+            String key = strings[checkString(buffer.getInt())];
+            tables.put(key, readTable(buffer));
+        }
+        return tables;
+    }
+
+    private NameTable readTable(ByteBuffer buffer) throws IOException {
+        int count = checkCount(buffer, buffer.getInt(), 8);
+        NameTable table = new NameTable(count);
+        for (int i = 0; i < count; i++) {
+            String name = strings[checkString(buffer.getInt())];
+            table.add(name, buffer.getInt());
+        }
+        return table;
+    }
+
+    /**
+     * Reads the given cache file.
+     *
+     * @throws IOException if the file can't be read or isn't a cache file
+     */
+    static NameCacheFile open(File file) throws IOException {
+        return read(readFile(file));
+    }
+
+    /**
+     * Reads a cache file written to an array by {@link #compile}.
+     */
+    static NameCacheFile read(byte[] data) throws IOException {
+        return read(ByteBuffer.wrap(data));
+    }
+
+    private static NameCacheFile read(ByteBuffer buffer) throws IOException {
+        try {
+            return new NameCacheFile(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Name cache file is corrupt", e);
+        }
+    }
+
+    /**
+     * Works out the fingerprint of the given name files and of the files in
+     * the given faction directory, which changes when any of them is added,
+     * removed, renamed or changed.
+     */
+    static long fingerprint(File[] files, File factionDir) {
+        long result = 0;
+        for (File file : files) {
+            result += fingerprint(file.getName(), file);
+        }
+        String[] factions = factionDir.list();
+        if (null != factions) {
+            for (String faction : factions) {
+                result += fingerprint(factionDir.getName() + '/' + faction,
+                        new File(factionDir, faction));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the given names.
+     *
+     * @return the contents of a cache file
+     */
+    static byte[] compile(long fingerprint, Map<String, NameTable> firstm,
+            Map<String, NameTable> firstf, Map<String, NameTable> last,
+            Map<String, NameTable> factionLast,
+            Map<String, Map<String, NameTable>> factionFirst) throws IOException {
+        Strings strings = new Strings();
+        addStrings(strings, firstm);
+        addStrings(strings, firstf);
+        addStrings(strings, last);
+        for (Map.Entry<String, NameTable> faction : factionLast.entrySet()) {
+            strings.add(faction.getKey());
+            addStrings(strings, faction.getValue());
+            addStrings(strings, factionFirst.get(faction.getKey()));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        strings.writeHeader(out, MAGIC, VERSION, fingerprint);
+        writeTables(out, strings, firstm);
+        writeTables(out, strings, firstf);
+        writeTables(out, strings, last);
+        out.writeInt(factionLast.size());
+        for (Map.Entry<String, NameTable> faction : factionLast.entrySet()) {
+            out.writeInt(strings.indexOf(faction.getKey()));
+            writeTable(out, strings, faction.getValue());
+            writeTables(out, strings, factionFirst.get(faction.getKey()));
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static void addStrings(Strings strings, Map<String, NameTable> tables) {
+        if (null == tables) {
+            return;
+        }
+        for (Map.Entry<String, NameTable> entry : tables.entrySet()) {
+            strings.add(entry.getKey());
+            addStrings(strings, entry.getValue());
+        }
+    }
+
+    private static void addStrings(Strings strings, NameTable names) {
+        for (int i = 0; i < names.size(); i++) {
+            strings.add(names.getName(i));
+        }
+    }
+
+    private static void writeTables(DataOutputStream out, Strings strings,
+            Map<String, NameTable> tables) throws IOException {
+        if (null == tables) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(tables.size());
+        for (Map.Entry<String, NameTable> entry : tables.entrySet()) {
+            out.writeInt(strings.indexOf(entry.getKey()));
+            writeTable(out, strings, entry.getValue());
+        }
+    }
+
+    private static void writeTable(DataOutputStream out, Strings strings,
+            NameTable names) throws IOException {
+        out.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            out.writeInt(strings.indexOf(names.getName(i)));
+            out.writeInt(names.getWeight(i));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.client;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import megamek.common.Compute;
+import megamek.common.MMRandom;
+
+/**
+ * A list of names to pick from at random, each with its own weight. Each name
+ * is held once, next to the running total of the weights up to and including
+ * it, so a roll from 0 to the total weight is turned into a name with a
+ * binary search.
+ */
+class NameTable implements Serializable {
+
+    private static final long serialVersionUID = -2466212470372045413L;
+
+    private String[] names;
+    private int[] cumulative;
+    private int size;
+
+    NameTable() {
+        this(8);
+    }
+
+    NameTable(int capacity) {
+        names = new String[Math.max(capacity, 1)];
+        cumulative = new int[names.length];
+    }
+
+    /**
+     * Adds a name; names with a weight of 0 or less can never be picked and
+     * are left out.
+     */
+    void add(String name, int weight) {
+        if (weight <= 0) {
+            return;
+        }
+        int total = getTotalWeight() + weight;
+        if (total < 0) {
+            throw new IllegalArgumentException("Total weight of names is too large");
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            cumulative = Arrays.copyOf(cumulative, size * 2);
+        }
+        names[size] = name;
+        cumulative[size] = total;
+        size++;
+    }
+
+    /**
+     * Frees the room left over for names that weren't added.
+     */
+    void trim() {
+        if (size < names.length) {
+            names = Arrays.copyOf(names, Math.max(size, 1));
+            cumulative = Arrays.copyOf(cumulative, names.length);
+        }
+    }
+
+    /**
+     * @return the number of names
+     */
+    int size() {
+        return size;
+    }
+
+    String getName(int index) {
+        return names[index];
+    }
+
+    int getWeight(int index) {
+        return (index == 0) ? cumulative[0] : cumulative[index] - cumulative[index - 1];
+    }
+
+    int getTotalWeight() {
+        return (size == 0) ? 0 : cumulative[size - 1];
+    }
+
+    /**
+     * @param roll a number from 0 to one less than the total weight
+     * @return the name that roll falls on
+     */
+    String get(int roll) {
+        if ((roll < 0) || (roll >= getTotalWeight())) {
+            throw new IndexOutOfBoundsException("Roll " + roll + " of " + getTotalWeight());
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > roll) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return names[low];
+    }
+
+    /**
+     * @return a name picked at random by weight, or null if there are none
+     */
+    String pick() {
+        int total = getTotalWeight();
+        return (total == 0) ? null : get(Compute.randomInt(MMRandom.Stream.CLIENT, total));
+    }
+}
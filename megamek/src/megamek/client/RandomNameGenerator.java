@@ -24,10 +24,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Scanner;
-import java.util.Vector;
 
 import megamek.common.Compute;
 import megamek.common.Configuration;
+import megamek.common.MMRandom;
 
 /** 
  * This class sets up a random name generator that can then
@@ -46,8 +46,7 @@ import megamek.common.Configuration;
  * There ar three comma-delimited fields in each of these data files: fld1,fld2,fld3
  * <ul>
  * <li>fld1 - The name itself, either a male/female first name or a surname.</li>
- * <li>fld2 - a frequency weight to account for some names being more common than others. Currently this is
- *           not being used.</li>
+ * <li>fld2 - a frequency weight to account for some names being more common than others.</li>
  * <li>fld3 - the numeric code identifying the "ethnic" group this name belongs to.</li>
  * </ul>
  * </p>
@@ -69,6 +68,10 @@ import megamek.common.Configuration;
  *                 listed in fld1.
  * </ul>
  * </p>
+ * <p>
+ * The files are compiled into {@code names.cache} in the same directory the first time they are read,
+ * and the compiled form is read instead until any of them changes.
+ * </p>
  * @author Jay Lawson
  */
 public class RandomNameGenerator implements Serializable {
@@ -84,6 +87,9 @@ public class RandomNameGenerator implements Serializable {
     /** Default filename for the list of surnames names. */
     private static final String FILENAME_SURNAMES = "surnames.txt"; //$NON-NLS-1$
 
+    /** Default filename for the compiled form of the name files. */
+    private static final String FILENAME_NAMES_CACHE = "names.cache"; //$NON-NLS-1$
+
     
     /**
      *
@@ -94,11 +100,11 @@ public class RandomNameGenerator implements Serializable {
     private static boolean interrupted;
     private static boolean dispose;
 
-    Map<String, Vector<String>> firstm;
-    Map<String, Vector<String>> firstf;
-    Map<String, Vector<String>> last;
-    Map<String, Vector<String>> factionLast;
-    Map<String, Map<String, Vector<String>>> factionFirst;
+    Map<String, NameTable> firstm;
+    Map<String, NameTable> firstf;
+    Map<String, NameTable> last;
+    Map<String, NameTable> factionLast;
+    Map<String, Map<String, NameTable>> factionFirst;
 
     private int percentFemale;
     private String chosenFaction;
@@ -112,234 +118,146 @@ public class RandomNameGenerator implements Serializable {
     }
 
     public void populateNames() {
-
-        // TODO: how do I weight name vectors by frequency, without making them
-        // gargantuan?
-        if (null == firstm) {
-            firstm = new HashMap<String, Vector<String>>();
-        }
-        if (null == firstf) {
-            firstf = new HashMap<String, Vector<String>>();
-        }
-        if (null == last) {
-            last = new HashMap<String, Vector<String>>();
-        }
-        if (null == factionLast) {
-            factionLast = new HashMap<String, Vector<String>>();
-        }
-        if (null == factionFirst) {
-            factionFirst = new HashMap<String, Map<String, Vector<String>>>();
-        }
-
-        Scanner input = null;
-
-        // READ IN MALE FIRST NAMES
-        File male_firstnames_path = new File(Configuration.namesDir(), FILENAME_FIRSTNAMES_MALE);
-        FileInputStream fnms = null;
-        try {            
-            fnms = new FileInputStream(male_firstnames_path);
-            input = new Scanner(fnms, "UTF-8");
-            int linen = 0;
-            while (input.hasNextLine()) {
-                // Check to see if we've been interrupted
-                if (interrupted) {
-                    if (dispose) {
+        File dir = Configuration.namesDir();
+        File male_firstnames_path = new File(dir, FILENAME_FIRSTNAMES_MALE);
+        File female_firstnames_path = new File(dir, FILENAME_FIRSTNAMES_FEMALE);
+        File surnames_path = new File(dir, FILENAME_SURNAMES);
+        File factions_dir_path = new File(dir, DIR_NAME_FACTIONS);
+        long fingerprint = NameCacheFile.fingerprint(new File[] {
+                male_firstnames_path, female_firstnames_path, surnames_path },
+                factions_dir_path);
+
+        // Use the compiled names if the text files haven't changed since
+        File cacheFile = new File(dir, FILENAME_NAMES_CACHE);
+        if (cacheFile.exists()) {
+            try {
+                NameCacheFile cache = NameCacheFile.open(cacheFile);
+                if (cache.getFingerprint() == fingerprint) {
+                    firstm = cache.firstm;
+                    firstf = cache.firstf;
+                    last = cache.last;
+                    factionLast = cache.factionLast;
+                    factionFirst = cache.factionFirst;
+                    if (interrupted && dispose) {
                         clear();
                     }
-                    fnms.close();
-                    input.close();
                     return;
                 }
-                String line = input.nextLine();
-                linen++;
-                String[] values = line.split(",");
-                if (values.length < 3) {
-                    System.err.println(
-                            "Not enough fields in '" + male_firstnames_path.toString() + "' on " + linen
-                    );
-                    continue;
-                }
-                String name = values[0];
-                int weight = Integer.parseInt(values[1]);
-                String key = values[2];
-                int i = 0;
-                if (!firstm.containsKey(key)) {
-                    Vector<String> v = new Vector<String>();
-                    while (i < weight) {
-                        v.add(name);
-                        i++;
-                    }
-                    firstm.put(key, v);
-                } else {
-                    while (i < weight) {
-                        firstm.get(key).add(name);
-                        i++;
-                    }
-                }
-            }
-        } catch (IOException fne) {
-            System.err.println("RandomNameGenerator.populateNames(): Could not find '" + male_firstnames_path + "'");
-        } finally {
-            try {
-                if (fnms != null){
-                    fnms.close();
-                }
-                if (input != null){
-                    input.close();
-                }
             } catch (IOException e) {
-                // Nothing to do...
+                System.err.println("RandomNameGenerator.populateNames(): Unable to read '"
+                        + cacheFile + "': " + e.getMessage());
             }
         }
 
-        // READ IN FEMALE FIRST NAMES
-        File female_firstnames_path = new File(Configuration.namesDir(), FILENAME_FIRSTNAMES_FEMALE);
-        FileInputStream fnfs = null;
-        try {
-            fnfs = new FileInputStream(female_firstnames_path);
-            input = new Scanner(fnfs, "UTF-8");
-            int linen = 0;
-            while (input.hasNextLine()) {
-                // Check to see if we've been interrupted
-                if (interrupted) {
-                    if (dispose) {
-                        clear();
-                    }
-                    fnfs.close();
-                    input.close();
-                    return;
-                }
-                String line = input.nextLine();
-                linen++;
-                String[] values = line.split(",");
-                if (values.length < 3) {
-                    System.err.println(
-                            "RandomNameGenerator.populateNames(): Not enough fields in '" + female_firstnames_path.toString() + "' on " + linen
-                    );
-                    continue;
-                }
-                String name = values[0];
-                int weight = Integer.parseInt(values[1]);
-                String key = values[2];
-                int i = 0;
-                if (!firstf.containsKey(key)) {
-                    Vector<String> v = new Vector<String>();
-                    while (i < weight) {
-                        v.add(name);
-                        i++;
-                    }
-                    firstf.put(key, v);
-                } else {
-                    while (i < weight) {
-                        firstf.get(key).add(name);
-                        i++;
-                    }
-                }
-            }
-        } catch (IOException fne) {
-            System.err.println("RandomNameGenerator.populateNames(): Could not find '" + female_firstnames_path + "'");
-        } finally {
-            try {
-                if (fnfs != null){
-                    fnfs.close();
-                }
-                if (input != null){
-                    input.close();
-                }
-            } catch (IOException e){
-                
+        firstm = new HashMap<String, NameTable>();
+        firstf = new HashMap<String, NameTable>();
+        last = new HashMap<String, NameTable>();
+        factionLast = new HashMap<String, NameTable>();
+        factionFirst = new HashMap<String, Map<String, NameTable>>();
+
+        // The same names and ethnic group codes turn up over and over, so
+        // only keep one copy of each
+        Map<String, String> interned = new HashMap<String, String>();
+        if (!readNames(male_firstnames_path, firstm, interned)
+                || !readNames(female_firstnames_path, firstf, interned)
+                || !readNames(surnames_path, last, interned)
+                || !readFactions(factions_dir_path, interned)) {
+            if (dispose) {
+                clear();
             }
+            return;
         }
 
-        // READ IN SURNAMES
-        File surnames_path = new File(Configuration.namesDir(), FILENAME_SURNAMES);
-        FileInputStream lns = null;
         try {
-            lns = new FileInputStream(surnames_path);
-            input = new Scanner(lns, "UTF-8");
+            saveCache(cacheFile, NameCacheFile.compile(fingerprint, firstm,
+                    firstf, last, factionLast, factionFirst));
+        } catch (IOException e) {
+            System.err.println("RandomNameGenerator.populateNames(): Unable to compile the names: "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a file of names into tables by ethnic group.
+     *
+     * @return false if reading was interrupted
+     */
+    private boolean readNames(File path, Map<String, NameTable> tables,
+            Map<String, String> interned) {
+        FileInputStream fis = null;
+        Scanner input = null;
+        try {
+            fis = new FileInputStream(path);
+            input = new Scanner(fis, "UTF-8");
             int linen = 0;
             while (input.hasNextLine()) {
                 // Check to see if we've been interrupted
                 if (interrupted) {
-                    if (dispose) {
-                        clear();
-                    }
-                    lns.close();
-                    input.close();
-                    return;
+                    return false;
                 }
                 String line = input.nextLine();
                 linen++;
                 String[] values = line.split(",");
                 if (values.length < 3) {
-                    System.err.println(
-                            "Not enough fields in '" + surnames_path + "' on " + linen
-                    );
+                    System.err.println("RandomNameGenerator.populateNames(): Not enough fields in '"
+                            + path + "' on " + linen);
                     continue;
                 }
-                String name = values[0];
+                String name = intern(interned, values[0]);
                 int weight = Integer.parseInt(values[1]);
-                String key = values[2];
-                int i = 0;
-                if (!last.containsKey(key)) {
-                    Vector<String> v = new Vector<String>();
-                    while (i < weight) {
-                        v.add(name);
-                        i++;
-                    }
-                    last.put(key, v);
-                } else {
-                    while (i < weight) {
-                        last.get(key).add(name);
-                        i++;
-                    }
+                String key = intern(interned, values[2]);
+                NameTable names = tables.get(key);
+                if (null == names) {
+                    names = new NameTable();
+                    tables.put(key, names);
                 }
+                names.add(name, weight);
             }
         } catch (IOException fne) {
-            System.err.println("RandomNameGenerator.populateNames(): Could not find '" + surnames_path + "'");
+            System.err.println("RandomNameGenerator.populateNames(): Could not find '" + path + "'");
         } finally {
             try {
-                if (lns != null){
-                    lns.close();
+                if (fis != null) {
+                    fis.close();
                 }
-                if (input != null){
+                if (input != null) {
                     input.close();
                 }
-            } catch (IOException e){
+            } catch (IOException e) {
                 // Nothing to do...
             }
         }
+        for (NameTable names : tables.values()) {
+            names.trim();
+        }
+        return true;
+    }
 
-        // READ IN FACTION FILES
-        // all faction files should be in the faction directory
-        File factions_dir_path = new File(Configuration.namesDir(), DIR_NAME_FACTIONS);
+    /**
+     * Reads the faction files, which all should be in the faction directory.
+     *
+     * @return false if reading was interrupted
+     */
+    private boolean readFactions(File factions_dir_path, Map<String, String> interned) {
         String[] filenames = factions_dir_path.list();
         if (null == filenames) {
-            return;
+            return true;
         }
         for (int filen = 0; filen < filenames.length; filen++) {
             // Check to see if we've been interrupted
             if (interrupted) {
-                if (dispose) {
-                    clear();
-                }
-                return;
-            }
-            // Check to see if we've been interrupted
-            if (interrupted){
-                if (dispose){
-                    clear();
-                }
-                return;
+                return false;
             }
             String filename = filenames[filen];
             String key = filename.split("\\.txt")[0];
             if ((key.length() < 1) || factionLast.containsKey(key)) {
                 continue;
             }
-            factionLast.put(key, new Vector<String>());
-            factionFirst.put(key, new HashMap<String, Vector<String>>());
+            NameTable ethnicities = new NameTable();
+            factionLast.put(key, ethnicities);
+            factionFirst.put(key, new HashMap<String, NameTable>());
             File ff = new File(factions_dir_path, filename);
+            Scanner input;
             try {
                 FileInputStream fs = new FileInputStream(ff);
                 input = new Scanner(fs, "UTF-8");
@@ -347,40 +265,51 @@ public class RandomNameGenerator implements Serializable {
                 System.err.println("RandomNameGenerator.populateNames(): Could not find '" + ff + "'");
                 continue;
             }
-            Map<String, Vector<String>> hash = new HashMap<String, Vector<String>>();
+            Map<String, NameTable> hash = new HashMap<String, NameTable>();
             while (input.hasNextLine()) {
                 // Check to see if we've been interrupted
                 if (interrupted) {
-                    if (dispose) {
-                        clear();
-                    }
                     input.close();
-                    return;
+                    return false;
                 }
                 String line = input.nextLine();
                 String[] values = line.split(",");
-                String ethnicity = values[0];
-                int freq = Integer.parseInt(values[2]);
-                while (freq > 0) {
-                    factionLast.get(key).add(ethnicity);
-                    freq--;
-                }
-                Vector<String> v = new Vector<String>();
+                String ethnicity = intern(interned, values[0]);
+                ethnicities.add(ethnicity, Integer.parseInt(values[2]));
+                NameTable firstEthnicities = new NameTable(values.length - 3);
                 for (int i = 3; i < values.length; i++) {
-                    freq = Integer.parseInt(values[i]);
                     // TODO: damm - I don't have the integer codes for ethnicity
                     // here, for now just assume they are the
                     // same as i-2
-                    while (freq > 0) {
-                        v.add(Integer.toString(i - 2));
-                        freq--;
-                    }
+                    firstEthnicities.add(intern(interned, Integer.toString(i - 2)),
+                            Integer.parseInt(values[i]));
                 }
-                hash.put(ethnicity, v);
+                firstEthnicities.trim();
+                hash.put(ethnicity, firstEthnicities);
             }
+            ethnicities.trim();
             factionFirst.put(key, hash);
             input.close();
         }
+        return true;
+    }
+
+    private static String intern(Map<String, String> interned, String s) {
+        String result = interned.get(s);
+        if (null == result) {
+            interned.put(s, s);
+            result = s;
+        }
+        return result;
+    }
+
+    private void saveCache(File cacheFile, byte[] data) {
+        try {
+            CacheFile.save(cacheFile, data);
+        } catch (IOException e) {
+            System.err.println("RandomNameGenerator.populateNames(): Unable to save '"
+                    + cacheFile + "': " + e.getMessage());
+        }
     }
 
     /**
@@ -402,30 +331,27 @@ public class RandomNameGenerator implements Serializable {
             // we should only spit out first names
             boolean isClan = chosenFaction.toLowerCase().contains("clan");
 
-            Vector<String> ethnicities = factionLast.get(chosenFaction);
-            if ((null != ethnicities) && (ethnicities.size() > 0)) {
-                String eLast = ethnicities.get(Compute.randomInt(ethnicities
-                        .size()));
+            NameTable ethnicities = factionLast.get(chosenFaction);
+            if ((null != ethnicities) && (ethnicities.getTotalWeight() > 0)) {
+                String eLast = ethnicities.pick();
                 // ok now we need to decide on a first name list
                 ethnicities = factionFirst.get(chosenFaction).get(eLast);
-                if ((null != ethnicities) && (ethnicities.size() > 0)) {
-                    String eFirst = ethnicities.get(Compute
-                            .randomInt(ethnicities.size()));
-                    // ok now we can get the first and last name vectors
+                if ((null != ethnicities) && (ethnicities.getTotalWeight() > 0)) {
+                    String eFirst = ethnicities.pick();
+                    // ok now we can get the first and last name tables
                     if (isClan) {
                         eFirst = eLast;
                     }
-                    Vector<String> fnames = firstm.get(eFirst);
+                    NameTable fnames = firstm.get(eFirst);
                     if (isFemale) {
                         fnames = firstf.get(eFirst);
                     }
-                    Vector<String> lnames = last.get(eLast);
+                    NameTable lnames = last.get(eLast);
                     if ((null != fnames) && (null != lnames)
-                            && (fnames.size() > 0) && (lnames.size() > 0)) {
-                        String first = fnames.get(Compute.randomInt(fnames
-                                .size()));
-                        String last = lnames.get(Compute.randomInt(lnames
-                                .size()));
+                            && (fnames.getTotalWeight() > 0)
+                            && (lnames.getTotalWeight() > 0)) {
+                        String first = fnames.pick();
+                        String last = lnames.pick();
                         if (isClan) {
                             return first;
                         }
@@ -466,7 +392,7 @@ public class RandomNameGenerator implements Serializable {
      * @return true if female
      */
     public boolean isFemale() {
-        return Compute.randomInt(100) < percentFemale;
+        return Compute.randomInt(MMRandom.Stream.CLIENT, 100) < percentFemale;
     }
 
     public void dispose() {
@@ -23,6 +23,7 @@ import megamek.common.ConvFighter;
 import megamek.common.Entity;
 import megamek.common.EntityMovementMode;
 import megamek.common.Infantry;
+import megamek.common.MMRandom;
 import megamek.common.Mech;
 import megamek.common.SmallCraft;
 import megamek.common.SupportTank;
@@ -236,7 +237,7 @@ public class RandomSkillsGenerator implements Serializable {
                 lbonus += 4;
             }
 
-            int lvlroll = Compute.d6(2) + lbonus;
+            int lvlroll = Compute.d6(MMRandom.Stream.CLIENT, 2) + lbonus;
 
             // restate level based on roll
             if (lvlroll < 6) {
@@ -263,8 +264,8 @@ public class RandomSkillsGenerator implements Serializable {
             bonus++;
         }
 
-        int gunroll = Compute.d6(1) + bonus;
-        int pilotroll = Compute.d6(1) + bonus;
+        int gunroll = Compute.d6(MMRandom.Stream.CLIENT, 1) + bonus;
+        int pilotroll = Compute.d6(MMRandom.Stream.CLIENT, 1) + bonus;
 
         int glevel = 0;
         int plevel = 0;
@@ -20,18 +20,24 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.common.Configuration;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
+import megamek.common.util.AliasTable;
 
 /**
  * This class sets up a random unit generator that can then
@@ -48,6 +54,10 @@ import megamek.common.MechSummaryCache;
  * name of that unit written as <Model> <Chassis> Comment lines can also be
  * added with "#"
  * </p>
+ * <p>
+ * The files are compiled into a cache file in the same directory, which is
+ * only rebuilt when they change. RATs none of whose units exist are left out.
+ * </p>
  * 
  * @author Jay Lawson
  */
@@ -58,6 +68,14 @@ public class RandomUnitGenerator implements Serializable {
      */
     private static final long serialVersionUID = 5765118329881301375L;
 
+    private static final String FILENAME_RAT_CACHE = "rat.cache"; //$NON-NLS-1$
+
+    /**
+     * How deep "@" references are followed, in case some RATs refer to each
+     * other in a loop
+     */
+    private static final int MAX_REFERENCE_DEPTH = 100;
+
     // The RATs are stored in a hashmap of string vectors. The keys are the RAT
     // names
     // and the vectors just contain the unit names listed a number of times
@@ -72,6 +90,18 @@ public class RandomUnitGenerator implements Serializable {
     private boolean initializing;
     
     private ArrayList<ActionListener> listeners;
+
+    private RatCacheFile ratCache;
+
+    /**
+     * The RATs of the cache file, by their index in it
+     */
+    private RatEntry[] cachedRats;
+
+    /**
+     * The RATs rolled on so far, ready to roll on again
+     */
+    private final Map<RatEntry, CompiledRat> compiledRats = new ConcurrentHashMap<>();
     
     /**
      * Plain old data class used to represent nodes in a Random Assignment Table
@@ -102,13 +132,76 @@ public class RandomUnitGenerator implements Serializable {
     protected class RatEntry {
         private Vector<String> units;
         private Vector<Float> weights;
+
+        /**
+         * The index in the cache file of the RAT each entry refers to, or -1
+         */
+        private int[] references;
+
+        /**
+         * The index of this RAT in the cache file, until its entries are read
+         */
+        private int cacheIndex = -1;
+
+        /**
+         * An earlier RAT of the same name, used instead if none of the units
+         * in this one exist
+         */
+        private RatEntry previous;
         
         RatEntry(){
             setUnits(new Vector<String>());
             setWeights(new Vector<Float>());
         }
 
+        RatEntry(int cacheIndex, RatEntry previous) {
+            this.cacheIndex = cacheIndex;
+            this.previous = previous;
+        }
+
+        /**
+         * Reads the entries from the cache file, leaving out the units that
+         * don't exist.
+         */
+        private synchronized void load() {
+            if (cacheIndex < 0) {
+                return;
+            }
+            RatCacheFile.Entries entries = ratCache.getEntries(cacheIndex);
+            Vector<String> names = new Vector<String>(entries.names.length);
+            Vector<Float> chances = new Vector<Float>(entries.names.length);
+            int[] refs = new int[entries.names.length];
+            float sum = 0;
+            for (int i = 0; i < entries.names.length; i++) {
+                String name = entries.names[i];
+                // The @ symbol denotes a reference to another RAT rather than a unit.
+                if (!name.startsWith("@") && (null == getMechByName(name))) {
+                    System.err.println("The unit " + name + " could not be found in the "
+                                       + ratCache.getKey(cacheIndex) + " RAT");
+                    continue;
+                }
+                refs[names.size()] = entries.references[i];
+                names.add(name);
+                chances.add((float) entries.weights[i]);
+                sum += entries.weights[i];
+            }
+            for (int i = 0; i < chances.size(); i++) {
+                chances.set(i, chances.get(i) / sum);
+            }
+            if (names.isEmpty() && (null != previous)) {
+                names = previous.getUnits();
+                chances = previous.getWeights();
+                refs = previous.getReferences();
+            }
+            units = names;
+            weights = chances;
+            references = refs;
+            cacheIndex = -1;
+            previous = null;
+        }
+
         public Vector<String> getUnits() {
+            load();
             return units;
         }
 
@@ -117,14 +210,41 @@ public class RandomUnitGenerator implements Serializable {
         }
 
         public Vector<Float> getWeights() {
+            load();
             return weights;
         }
 
+        /**
+         * @return the index in the cache file of the RAT each entry refers
+         *         to, or -1, or null if the RAT didn't come from the cache
+         */
+        int[] getReferences() {
+            load();
+            return references;
+        }
+
         public void setWeights(Vector<Float> weights) {
             this.weights = weights;
         }
     }
 
+    /**
+     * A RAT ready to roll on: an alias table over its entries, and the name
+     * of the unit or the RAT each of them gives. Units are looked up when
+     * they are rolled, so they come from the unit cache as it is then.
+     */
+    private static class CompiledRat {
+        private final AliasTable alias;
+        private final String[] units;
+        private final RatEntry[] references;
+
+        CompiledRat(AliasTable alias, String[] units, RatEntry[] references) {
+            this.alias = alias;
+            this.units = units;
+            this.references = references;
+        }
+    }
+
     private RatTreeNode ratTree;
     private RatTreeNode currentNode;
 
@@ -147,7 +267,36 @@ public class RandomUnitGenerator implements Serializable {
         initRats();
         initRatTree();
 
-        loadRatsFromDirectory(Configuration.armyTablesDir());
+        File dir = Configuration.armyTablesDir();
+        long fingerprint = RatCacheFile.fingerprint(dir);
+        File cacheFile = new File(dir, FILENAME_RAT_CACHE);
+        RatCacheFile cache = null;
+        if (cacheFile.exists()) {
+            try {
+                cache = RatCacheFile.open(cacheFile);
+                if (cache.getFingerprint() != fingerprint) {
+                    cache = null;
+                }
+            } catch (IOException e) {
+                System.err.println("Unable to read the RAT cache: " + e.getMessage());
+            }
+        }
+        if (null == cache) {
+            List<RatCacheFile.Table> tables = new ArrayList<>();
+            loadRatsFromDirectory(dir, tables);
+            if (!interrupted) {
+                try {
+                    byte[] data = RatCacheFile.compile(fingerprint, tables, ratTree);
+                    saveCache(cacheFile, data);
+                    cache = RatCacheFile.read(data);
+                } catch (IOException e) {
+                    System.err.println("Unable to compile the RATs: " + e.getMessage());
+                }
+            }
+        }
+        if ((null != cache) && !interrupted) {
+            loadRatsFromCache(cache);
+        }
         if (!interrupted) {
             rug.initialized = true;
             rug.notifyListenersOfInitialization();
@@ -185,7 +334,70 @@ public class RandomUnitGenerator implements Serializable {
         rats.put(ratName, ratEntry);
     }
 
-    private void loadRatsFromDirectory(File dir) {
+    private void saveCache(File cacheFile, byte[] data) {
+        try {
+            CacheFile.save(cacheFile, data);
+        } catch (IOException e) {
+            System.err.println("Unable to save the RAT cache: " + e.getMessage());
+        }
+    }
+
+    void loadRatsFromCache(RatCacheFile cache) {
+        ratCache = cache;
+        cachedRats = new RatEntry[cache.size()];
+        for (int i = 0; i < cachedRats.length; i++) {
+            String key = cache.getKey(i);
+            cachedRats[i] = new RatEntry(i, rats.get(key));
+            rats.put(key, cachedRats[i]);
+        }
+        // Leave out the RATs none of whose units exist, as only the last RAT
+        // of a name is looked up, after falling back on the earlier ones
+        Set<String> empty = new HashSet<>();
+        for (Iterator<Map.Entry<String, RatEntry>> i = rats.entrySet().iterator(); i.hasNext();) {
+            if (interrupted) {
+                return;
+            }
+            Map.Entry<String, RatEntry> rat = i.next();
+            if (rat.getValue().getUnits().isEmpty()) {
+                empty.add(rat.getKey());
+                i.remove();
+            }
+        }
+        ratTree = cache.getTree();
+        pruneRatTree(ratTree, empty);
+    }
+
+    /**
+     * Removes the given RATs from the tree, along with the categories that
+     * are left empty.
+     */
+    private static void pruneRatTree(RatTreeNode node, Set<String> rats) {
+        for (Iterator<RatTreeNode> i = node.children.iterator(); i.hasNext();) {
+            RatTreeNode child = i.next();
+            if (child.children.isEmpty()) {
+                if (rats.contains(child.name)) {
+                    i.remove();
+                }
+            } else {
+                pruneRatTree(child, rats);
+                if (child.children.isEmpty()) {
+                    i.remove();
+                }
+            }
+        }
+    }
+
+    static boolean isIgnoredDirectory(File dir) {
+        // Subversion work directories
+        return dir.getName().toLowerCase().equals("_svn")
+                || dir.getName().toLowerCase().equals(".svn");
+    }
+
+    static boolean isRatFile(File file) {
+        return file.getName().toLowerCase().endsWith(".txt");
+    }
+
+    private void loadRatsFromDirectory(File dir, List<RatCacheFile.Table> tables) {
 
         if (interrupted) {
             return;
@@ -215,8 +427,7 @@ public class RandomUnitGenerator implements Serializable {
 
             // READ IN RATS
             if (ratFile.isDirectory()) {
-                if (ratFile.getName().toLowerCase().equals("_svn") 
-                        || ratFile.getName().toLowerCase().equals(".svn")) {
+                if (isIgnoredDirectory(ratFile)) {
                     // This is a Subversion work directory. Lets ignore it.
                     continue;
                 }
@@ -231,7 +442,7 @@ public class RandomUnitGenerator implements Serializable {
                 }
 
                 // recursion is fun
-                loadRatsFromDirectory(ratFile);
+                loadRatsFromDirectory(ratFile, tables);
 
                 // Prune empty nodes (this removes the "Unofficial" place holder)
                 if (currentNode.children.size() == 0) {
@@ -241,7 +452,7 @@ public class RandomUnitGenerator implements Serializable {
                 currentNode = oldParentNode;
                 continue;
             }
-            if (!ratFile.getName().toLowerCase().endsWith(".txt")) {
+            if (!isRatFile(ratFile)) {
                 continue;
             }
             FileInputStream ratInputStream = null;
@@ -249,8 +460,7 @@ public class RandomUnitGenerator implements Serializable {
                 ratInputStream = new FileInputStream(ratFile);
                 input = new Scanner(ratInputStream, "UTF-8");
                 int lineNumber = 0;
-                String key = "Huh";
-                RatEntry re = new RatEntry();
+                RatCacheFile.Table table = new RatCacheFile.Table("Huh");
                 while (input.hasNextLine()) {
                     if (interrupted) {
                         return;
@@ -261,7 +471,7 @@ public class RandomUnitGenerator implements Serializable {
                     }
                     lineNumber++;
                     if (lineNumber == 1) {
-                        key = line;
+                        table = new RatCacheFile.Table(line);
                     } else {
                         String[] values = line.split(",");
                         if (values.length < 2) {
@@ -269,7 +479,7 @@ public class RandomUnitGenerator implements Serializable {
                             continue;
                         }
                         String name = values[0];
-                        float weight;
+                        int weight;
                         try {
                             weight = Integer.parseInt(values[1].trim());
                         } catch (NumberFormatException nef) {
@@ -278,31 +488,16 @@ public class RandomUnitGenerator implements Serializable {
                             continue;
                         }
 
-                        // The @ symbol denotes a reference to another RAT rather than a unit.
-                        MechSummary unit = null;
-                        if (!name.startsWith("@")) {
-                            unit = MechSummaryCache.getInstance().getMech(name);
-                        }
-                        if ((null == unit) && !name.startsWith("@")) {
-                            System.err.println("The unit " + name + " could not be found in the " + key + " RAT (" +
-                                               ratFile.getPath() + ")");
-                        } else {
-                            re.getUnits().add(name);
-                            re.getWeights().add(weight);
-                        }
+                        // Units are checked once the RATs are read from the
+                        // cache, so the cache doesn't depend on the units
+                        table.names.add(name);
+                        table.weights.add(weight);
                     }
                 }
-                if (re.getUnits().size() > 0) {
-                    float sum = 0;
-                    for (int i = 0; i < re.getWeights().size(); i++) {
-                        sum += re.getWeights().get(i);
-                    }
-                    for (int i = 0; i < re.getWeights().size(); i++) {
-                        re.getWeights().set(i, re.getWeights().get(i) / sum);
-                    }  
-                    rats.put(key, re);
+                if (table.names.size() > 0) {
+                    tables.add(table);
                     if (null != currentNode) {
-                        currentNode.children.add(new RatTreeNode(key));
+                        currentNode.children.add(new RatTreeNode(table.key));
                     }
                 }
             } catch (FileNotFoundException fne) {
@@ -330,30 +525,11 @@ public class RandomUnitGenerator implements Serializable {
         ArrayList<MechSummary> units = new ArrayList<>();
 
         try {
-            Map<String, RatEntry> ratMap = getRatMap();
+            Map<String, RatEntry> ratMap = rats;
             if (null != ratMap) {
                 RatEntry re = ratMap.get(ratName);
-                if ((null != re) && (re.getUnits().size() > 0)) {
-                    for (int roll = 0; roll < numRolls; roll++) {
-                        double rand = getRandom();
-                        int i = 0;
-                        while (i < re.getWeights().size() && rand > re.getWeights().get(i)) {
-                            rand -= re.getWeights().get(i);
-                            i++;
-                        }
-                        String name = re.getUnits().get(i);
-
-                        // If this is a RAT reference, roll the unit on the referenced RAT.
-                        if (name.startsWith("@")) {
-                            units.addAll(generate(1, name.replaceFirst("@", "")));
-                            continue;
-                        }
-
-                        MechSummary unit = getMechByName(name);
-                        if (null != unit) {
-                            units.add(unit);
-                        }
-                    }
+                if (null != re) {
+                    generate(numRolls, re, units, 0);
                 }
             }
         } catch (Exception e) {
@@ -362,6 +538,63 @@ public class RandomUnitGenerator implements Serializable {
         return units;
     }
 
+    private void generate(int numRolls, RatEntry re, List<MechSummary> units, int depth) {
+        CompiledRat rat = getCompiledRat(re);
+        if (null == rat) {
+            return;
+        }
+        for (int roll = 0; roll < numRolls; roll++) {
+            int i = rat.alias.sample(getRandom());
+
+            // If this is a RAT reference, roll the unit on the referenced RAT.
+            if (null != rat.references[i]) {
+                if (depth < MAX_REFERENCE_DEPTH) {
+                    generate(1, rat.references[i], units, depth + 1);
+                }
+                continue;
+            }
+
+            if (null != rat.units[i]) {
+                MechSummary unit = getMechByName(rat.units[i]);
+                if (null != unit) {
+                    units.add(unit);
+                }
+            }
+        }
+    }
+
+    private CompiledRat getCompiledRat(RatEntry re) {
+        CompiledRat rat = compiledRats.get(re);
+        if (null != rat) {
+            return rat;
+        }
+        Vector<String> names = re.getUnits();
+        Vector<Float> weights = re.getWeights();
+        int[] refs = re.getReferences();
+        double[] chances = new double[names.size()];
+        String[] units = new String[chances.length];
+        RatEntry[] references = new RatEntry[chances.length];
+        double sum = 0;
+        for (int i = 0; i < chances.length; i++) {
+            chances[i] = weights.get(i);
+            sum += chances[i];
+            String name = names.get(i);
+            if (!name.startsWith("@")) {
+                units[i] = name;
+            } else if (null == refs) {
+                references[i] = rats.get(name.replaceFirst("@", ""));
+            } else if (refs[i] >= 0) {
+                references[i] = cachedRats[refs[i]];
+            }
+        }
+        if (!(sum > 0)) {
+            return null;
+        }
+        rat = new CompiledRat(new AliasTable(chances), units, references);
+        compiledRats.put(re, rat);
+        return rat;
+    }
+
     protected MechSummary getMechByName(String name) {
         return MechSummaryCache.getInstance().getMech(name);
     }
@@ -408,6 +641,9 @@ public class RandomUnitGenerator implements Serializable {
     public void clear() {
         rug = null;
         rats = null;
+        ratCache = null;
+        cachedRats = null;
+        compiledRats.clear();
         ratTree = null;
         initialized = false;
         initializing = false;
@@ -0,0 +1,297 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled form of the random assignment tables. The file starts with a
+ * fingerprint of the text files it was compiled from and a table of all the
+ * distinct strings, followed by one record per RAT, the tree of RAT
+ * categories and a pool of entries. Each entry is the name as written in the
+ * RAT, the RAT it refers to, if it's an "@" reference, and its weight.
+ * <p>
+ * Opening a file reads it into memory in one go and checks that everything
+ * in it is where it should be; the entries of a RAT are only read when asked
+ * for with {@link #getEntries(int)}.
+ */
+class RatCacheFile extends CacheFile {
+
+    private static final int MAGIC = 0x4D4D5243; // "MMRC"
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bytes in a RAT record: the key and the offset and number
+     * of its entries
+     */
+    private static final int RECORD_SIZE = 3 * 4;
+
+    /**
+     * The number of ints in an entry: the name, the RAT referred to or -1,
+     * and the weight
+     */
+    private static final int ENTRY_SIZE = 3;
+
+    /**
+     * A RAT as read from its text file.
+     */
+    static class Table {
+        final String key;
+        final List<String> names = new ArrayList<String>();
+        final List<Integer> weights = new ArrayList<Integer>();
+
+        Table(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * The entries of a RAT, in the order they were written.
+     */
+    static class Entries {
+        final String[] names;
+        final int[] references;
+        final int[] weights;
+
+        Entries(int count) {
+            names = new String[count];
+            references = new int[count];
+            weights = new int[count];
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int recordStart;
+    private final RandomUnitGenerator.RatTreeNode tree;
+    private final int poolStart;
+
+    private RatCacheFile(ByteBuffer buffer) throws IOException {
+        super(buffer, MAGIC, VERSION);
+        this.buffer = buffer;
+        count = checkCount(buffer, buffer.getInt(), RECORD_SIZE);
+        recordStart = buffer.position();
+        buffer.position(recordStart + (count * RECORD_SIZE));
+        tree = readNode();
+        poolStart = buffer.position();
+        checkEntries();
+    }
+
+    private RandomUnitGenerator.RatTreeNode readNode() throws IOException {
+        RandomUnitGenerator.RatTreeNode node = new RandomUnitGenerator.RatTreeNode(
+                strings[checkString(buffer.getInt())]);
+        int children = checkCount(buffer, buffer.getInt(), 8);
+        for (int i = 0; i < children; i++) {
+            node.children.add(readNode());
+        }
+        return node;
+    }
+
+    /**
+     * Checks that the entries of the RATs follow each other and fill the
+     * pool to the end of the file, and that they only refer to strings and
+     * RATs that exist, so that reading them later can't go wrong.
+     */
+    private void checkEntries() throws IOException {
+        long entries = 0;
+        for (int index = 0; index < count; index++) {
+            int pos = recordStart + (index * RECORD_SIZE);
+            checkString(buffer.getInt(pos));
+            if ((buffer.getInt(pos + 4) != entries) || (buffer.getInt(pos + 8) < 0)) {
+                throw new IOException("RAT cache file has a bad RAT record");
+            }
+            entries += buffer.getInt(pos + 8);
+        }
+        if ((poolStart + (4 * ENTRY_SIZE * entries)) != buffer.limit()) {
+            throw new IOException("RAT cache file's entries don't fill the file");
+        }
+        for (int entry = poolStart; entry < buffer.limit(); entry += 4 * ENTRY_SIZE) {
+            checkString(buffer.getInt(entry));
+            int reference = buffer.getInt(entry + 4);
+            if ((reference < -1) || (reference >= count)) {
+                throw new IOException("RAT cache file refers to a missing RAT");
+            }
+        }
+    }
+
+    /**
+     * Reads the given cache file.
+     *
+     * @throws IOException if the file can't be read or isn't a cache file
+     */
+    static RatCacheFile open(File file) throws IOException {
+        return read(readFile(file));
+    }
+
+    /**
+     * Reads a cache file written to an array by {@link #compile}.
+     */
+    static RatCacheFile read(byte[] data) throws IOException {
+        return read(ByteBuffer.wrap(data));
+    }
+
+    private static RatCacheFile read(ByteBuffer buffer) throws IOException {
+        try {
+            return new RatCacheFile(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("RAT cache file is corrupt", e);
+        }
+    }
+
+    /**
+     * @return the number of RATs in the file
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * @return the name of the RAT stored at the given index
+     */
+    String getKey(int index) {
+        return strings[buffer.getInt(recordStart + (index * RECORD_SIZE))];
+    }
+
+    /**
+     * @return a new copy of the tree of RAT categories
+     */
+    RandomUnitGenerator.RatTreeNode getTree() {
+        return copy(tree);
+    }
+
+    private static RandomUnitGenerator.RatTreeNode copy(RandomUnitGenerator.RatTreeNode node) {
+        RandomUnitGenerator.RatTreeNode result = new RandomUnitGenerator.RatTreeNode(node.name);
+        for (RandomUnitGenerator.RatTreeNode child : node.children) {
+            result.children.add(copy(child));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the entries of the RAT stored at the given index.
+     */
+    Entries getEntries(int index) {
+        int pos = recordStart + (index * RECORD_SIZE);
+        int offset = buffer.getInt(pos + 4);
+        Entries entries = new Entries(buffer.getInt(pos + 8));
+        for (int i = 0; i < entries.names.length; i++) {
+            int entry = poolStart + (4 * ENTRY_SIZE * (offset + i));
+            entries.names[i] = strings[buffer.getInt(entry)];
+            entries.references[i] = buffer.getInt(entry + 4);
+            entries.weights[i] = buffer.getInt(entry + 8);
+        }
+        return entries;
+    }
+
+    /**
+     * Works out the fingerprint of the text files under the given directory,
+     * which changes when any of them is added, removed, renamed or changed.
+     */
+    static long fingerprint(File dir) {
+        long[] result = new long[1];
+        addFingerprint(dir, "", result);
+        return result[0];
+    }
+
+    private static void addFingerprint(File dir, String path, long[] result) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = path + '/' + file.getName();
+            if (file.isDirectory()) {
+                if (!RandomUnitGenerator.isIgnoredDirectory(file)) {
+                    addFingerprint(file, name, result);
+                }
+            } else if (RandomUnitGenerator.isRatFile(file)) {
+                result[0] += fingerprint(name, file);
+            }
+        }
+    }
+
+    /**
+     * Compiles the given RATs, in the order they were read, and the tree of
+     * their categories. Where several RATs have the same name, "@" references
+     * refer to the last, as that's the one that is looked up by name.
+     *
+     * @return the contents of a cache file
+     */
+    static byte[] compile(long fingerprint, List<Table> tables,
+            RandomUnitGenerator.RatTreeNode tree) throws IOException {
+        Strings strings = new Strings();
+        Map<String, Integer> tableIds = new HashMap<String, Integer>();
+        for (int i = 0; i < tables.size(); i++) {
+            Table rat = tables.get(i);
+            strings.add(rat.key);
+            for (String name : rat.names) {
+                strings.add(name);
+            }
+            tableIds.put(rat.key, i);
+        }
+        addNames(strings, tree);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        strings.writeHeader(out, MAGIC, VERSION, fingerprint);
+        out.writeInt(tables.size());
+        int offset = 0;
+        for (Table rat : tables) {
+            out.writeInt(strings.indexOf(rat.key));
+            out.writeInt(offset);
+            out.writeInt(rat.names.size());
+            offset += rat.names.size();
+        }
+        writeNode(out, strings, tree);
+        for (Table rat : tables) {
+            for (int i = 0; i < rat.names.size(); i++) {
+                String name = rat.names.get(i);
+                Integer reference = null;
+                if (name.startsWith("@")) {
+                    reference = tableIds.get(name.substring(1));
+                }
+                out.writeInt(strings.indexOf(name));
+                out.writeInt(reference == null ? -1 : reference.intValue());
+                out.writeInt(rat.weights.get(i));
+            }
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static void addNames(Strings strings, RandomUnitGenerator.RatTreeNode node) {
+        strings.add(node.name);
+        for (RandomUnitGenerator.RatTreeNode child : node.children) {
+            addNames(strings, child);
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, Strings strings,
+            RandomUnitGenerator.RatTreeNode node) throws IOException {
+        out.writeInt(strings.indexOf(node.name));
+        out.writeInt(node.children.size());
+        for (RandomUnitGenerator.RatTreeNode child : node.children) {
+            writeNode(out, strings, child);
+        }
+    }
+}
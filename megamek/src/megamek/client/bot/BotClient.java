@@ -53,6 +53,7 @@ import megamek.common.IBoard;
 import megamek.common.IGame;
 import megamek.common.IPlayer;
 import megamek.common.Infantry;
+import megamek.common.MMRandom;
 import megamek.common.Mech;
 import megamek.common.Minefield;
 import megamek.common.MiscType;
@@ -74,6 +75,7 @@ import megamek.common.event.GamePlayerChatEvent;
 import megamek.common.event.GameReportEvent;
 import megamek.common.event.GameTurnChangeEvent;
 import megamek.common.net.Packet;
+import megamek.common.options.GameOptions;
 import megamek.common.options.OptionsConstants;
 import megamek.common.pathfinder.AbstractPathFinder;
 import megamek.common.pathfinder.ShortestPathFinder;
@@ -95,6 +97,14 @@ public abstract class BotClient extends Client {
      */
     ClientGUI clientgui = null;
 
+    /**
+     * The RNG this bot makes its decisions with, and the options it was set
+     * up from
+     */
+    private MMRandom random;
+    private int rngType;
+    private int rngSeed;
+
     public class CalculateBotTurn implements Runnable {
         public void run() {
             calculateMyTurn();
@@ -163,6 +173,24 @@ public abstract class BotClient extends Client {
 
     BotConfiguration config = new BotConfiguration();
 
+    /**
+     * Returns the RNG of this bot, which no other bot or the server takes
+     * numbers from. In a game with a seed, it is seeded from that seed and
+     * the bot's name, so the same bot decides the same way when the game is
+     * played again.
+     */
+    public synchronized MMRandom getRNG() {
+        int type = game.getOptions().intOption("rng_type");
+        int seed = game.getOptions().intOption("rng_seed");
+        if ((random == null) || (type != rngType) || (seed != rngSeed)) {
+            rngType = type;
+            rngSeed = seed;
+            random = MMRandom.generate(type, (seed == 0) ? System.nanoTime()
+                    : (((long) seed << 32) ^ getName().hashCode()));
+        }
+        return random;
+    }
+
     public abstract void initialize();
 
     protected abstract void processChat(GamePlayerChatEvent ge);
@@ -261,13 +289,13 @@ public abstract class BotClient extends Client {
                      */
                     // if the game is not double blind and I can't see anyone
                     // else on the board I should kill myself.
-                    if (!(game.getOptions().booleanOption("double_blind")) //$NON-NLS-1$
+                    if (!(game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND))
                         && ((game.getEntitiesOwnedBy(getLocalPlayer())
                              - game.getNoOfEntities()) == 0)) {
                         die();
                     }
 
-                    if (Compute.randomInt(4) == 1) {
+                    if (Compute.randomInt(getRNG(), 4) == 1) {
                         String message = getRandomBotMessage();
                         if (message != null) {
                             sendChat(message);
@@ -353,7 +381,7 @@ public abstract class BotClient extends Client {
                 unMoved.add(e);
             }
         }
-        return unMoved.get(Compute.randomInt(unMoved.size()));
+        return unMoved.get(Compute.randomInt(getRNG(), unMoved.size()));
     }
 
     synchronized protected void calculateMyTurn() {
@@ -927,7 +955,7 @@ public abstract class BotClient extends Client {
                             // heat), consider shutting
                             // off the armor
 
-                            trigger_range = 13 + Compute.randomInt(7);
+                            trigger_range = 13 + Compute.randomInt(getRNG(), 7);
                             if (check_ent.heat > trigger_range) {
                                 new_stealth = 0;
                             } else {
@@ -994,7 +1022,7 @@ public abstract class BotClient extends Client {
             BufferedReader dis = new BufferedReader(new InputStreamReader(fis));
             while (dis.ready()) {
                 message = dis.readLine();
-                if (Compute.randomInt(10) == 1) {
+                if (Compute.randomInt(getRNG(), 10) == 1) {
                     break;
                 }
             }
@@ -60,6 +60,22 @@ public class BotConfiguration {
         return forced;
     }
 
+    /**
+     * @return the number of seconds the bot may spend working out a move,
+     *         after which it uses the best moves it has found so far, or 0
+     *         for no limit
+     */
+    public int getMoveTimeLimit() {
+        int limit = 60;
+        try {
+            limit = Integer.parseInt(BotProperties.getProperty(
+                    "moveTimeLimit", "60")); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (Exception e) {
+            // do nothing
+        }
+        return Math.max(limit, 0);
+    }
+
     public boolean isDebug() {
         try {
             if ("true".equalsIgnoreCase(BotProperties.getProperty("Debug",
@@ -29,6 +29,7 @@ import megamek.common.Coords;
 import megamek.common.Entity;
 import megamek.common.GunEmplacement;
 import megamek.common.Infantry;
+import megamek.common.MMRandom;
 import megamek.common.Mech;
 import megamek.common.MiscType;
 import megamek.common.Mounted;
@@ -55,6 +56,13 @@ public class CEntity {
         private static final long serialVersionUID = 6437109733397107056L;
         private TestBot tb;
 
+        /**
+         * While frozen, the table is a snapshot that several threads can read
+         * at once. An entity missing from it still gets characterized, but
+         * the result isn't kept.
+         */
+        private volatile boolean frozen = false;
+
         public Table(TestBot tb) {
             this.tb = tb;
         }
@@ -67,11 +75,17 @@ public class CEntity {
             CEntity result = null;
             if ((result = super.get(new Integer(es.getId()))) == null) {
                 result = new CEntity(es, tb);
-                this.put(result);
+                if (!frozen) {
+                    this.put(result);
+                }
             }
             return result;
         }
 
+        void setFrozen(boolean frozen) {
+            this.frozen = frozen;
+        }
+
         public CEntity get(int id) {
             return get(new Integer(id));
         }
@@ -201,7 +215,6 @@ public class CEntity {
 
     // used to determine the utility of combining attacks
     double[] expected_damage = { 0, 0, 0, 0, 0, 0, 0, 0 };
-    double[] possible_damage = { 0, 0, 0, 0, 0, 0, 0, 0 };
 
     double[] leg_health = { 0, 0 };
 
@@ -251,8 +264,9 @@ public class CEntity {
             Arrays.fill(damages[a], 0);
         }
         characterize();
-        resetPossibleDamage();
-        moves = null;
+        synchronized (this) {
+            moves = null;
+        }
         hasTakenDamage = false;
         Arrays.fill(expected_damage, 0);
         engaged = false;
@@ -267,14 +281,9 @@ public class CEntity {
                 Arrays.fill(damages[a], 0);
             }
             characterize();
-            resetPossibleDamage();
         }
     }
 
-    public void resetPossibleDamage() {
-        Arrays.fill(possible_damage, 0);
-    }
-
     /**
      * Simplifies the many game stats into something that can be quickly
      * calculated into a units combat effectiveness. The concept is similar to
@@ -291,7 +300,7 @@ public class CEntity {
         runMP = entity.getRunMP();
         if (entity instanceof Mech) {
             if (((Mech) entity).hasMASC()) {
-                if (((Mech) entity).getMASCTarget() <= (5 + Compute.randomInt(6))) {
+                if (((Mech) entity).getMASCTarget() <= (5 + Compute.randomInt(tb.getRNG(), 6))) {
                     masc_threat = false;
                 } else {
                     masc_threat = true;
@@ -1065,7 +1074,12 @@ public class CEntity {
         return new Integer(entity.getId());
     }
 
-    public MoveOption.Table getAllMoves(Client client) {
+    /**
+     * Gets every move this unit can make, working them out the first time.
+     * The move calculations of several units can ask for an enemy's moves at
+     * once, so only one of them works them out.
+     */
+    public synchronized MoveOption.Table getAllMoves(Client client) {
         if (moves == null) {
             moves = calculateMoveOptions(current, client);
         }
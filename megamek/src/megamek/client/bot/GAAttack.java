@@ -14,13 +14,15 @@
 package megamek.client.bot;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 
 import megamek.client.bot.ga.Chromosome;
 import megamek.client.bot.ga.GA;
 import megamek.common.Compute;
 import megamek.common.Entity;
 import megamek.common.IGame;
+import megamek.common.MMRandom;
 import megamek.common.Mech;
 import megamek.common.Terrains;
 import megamek.common.ToHitData;
@@ -30,22 +32,60 @@ import megamek.common.ToHitData;
  */
 public class GAAttack extends GA {
 
+    /**
+     * Room in the damage totals for each side a target can be hit on
+     */
+    private static final int SIDES = ToHitData.SIDE_RANDOM + 1;
+
+    /**
+     * Damage totals for a fitness pass, by target slot and side. Each thread
+     * has its own, so fitnesses can be worked out at once without touching
+     * the targets.
+     */
+    private static final ThreadLocal<double[]> damageScratch = new ThreadLocal<double[]>();
+
     protected ArrayList<ArrayList<AttackOption>> attack;
     protected CEntity attacker;
     protected IGame game;
-    protected CEntity.Table targets;
     protected ArrayList<Entity> target_array = null;
     protected ArrayList<Integer> valid_target_indexes = null;
     protected boolean overheat_eligible = false;
     protected int firing_arc = 0;
-    double[] damages = null;
+
+    /**
+     * Every target of an attack option, in the order they were found
+     */
+    private final CEntity[] slotTargets;
+
+    /**
+     * The index into <code>slotTargets</code> of each attack option's target,
+     * by gene and option, or -1 for the no fire option
+     */
+    private final int[][] slots;
+
+    /**
+     * The RNG this attack is planned with
+     */
+    private final MMRandom random;
 
     public GAAttack(TestBot tb, CEntity attacker,
             ArrayList<ArrayList<AttackOption>> attack, int population,
             int generations, boolean isEnemy) {
-        super(attack.size() + 1, population, .7, .05, generations, .4);
+        this(tb, attacker, attack, population, generations, isEnemy,
+                tb.getRNG());
+    }
+
+    /**
+     * @param random the RNG to plan the attack with, rather than the bot's
+     *            own, for a calculation that runs alongside others
+     */
+    public GAAttack(TestBot tb, CEntity attacker,
+            ArrayList<ArrayList<AttackOption>> attack, int population,
+            int generations, boolean isEnemy, MMRandom random) {
+        super(attack.size() + 1, population, .7, .05, generations, .4, random);
         this.attack = attack;
         this.attacker = attacker;
+        this.random = random;
         game = tb.getGame();
         target_array = new ArrayList<Entity>(game.getEntitiesVector());
         ArrayList<Integer> temp = new ArrayList<Integer>();
@@ -55,7 +95,6 @@ public class GAAttack extends GA {
                 temp.add(new Integer(i));
             }
         }
-        targets = new CEntity.Table(tb);
         valid_target_indexes = temp;
         if (attacker.tsm_offset) {
             overheat_eligible = true;
@@ -64,16 +103,41 @@ public class GAAttack extends GA {
                 || ((attacker.last != null) && (!attacker.last.inDanger || attacker.last.doomed))) {
             overheat_eligible = true;
         }
+
+        IdentityHashMap<CEntity, Integer> found = new IdentityHashMap<CEntity, Integer>();
+        ArrayList<CEntity> slotted = new ArrayList<CEntity>();
+        slots = new int[attack.size()][];
+        for (int iGene = 0; iGene < attack.size(); iGene++) {
+            ArrayList<AttackOption> options = attack.get(iGene);
+            slots[iGene] = new int[options.size()];
+            for (int i = 0; i < options.size(); i++) {
+                CEntity target = options.get(i).target;
+                if (target == null) {
+                    slots[iGene][i] = -1;
+                    continue;
+                }
+                Integer slot = found.get(target);
+                if (slot == null) {
+                    slot = slotted.size();
+                    found.put(target, slot);
+                    slotted.add(target);
+                }
+                slots[iGene][i] = slot;
+            }
+        }
+        slotTargets = slotted.toArray(new CEntity[slotted.size()]);
     }
 
     public int[] getResultChromosome() {
         return ((chromosomes[populationDim - 1]).genes);
     }
 
+    /**
+     * @return the damage utility of the fittest attack against the given
+     *         target, as worked out by {@link #getDamageUtilities()}
+     */
     public double getDamageUtility(CEntity to) {
-        if (damages == null) {
-            damages = getDamageUtilities();
-        }
+        double[] damages = getDamageUtilities();
         for (int k = 0; k < target_array.size(); k++) {
             Entity enemy = target_array.get(k);
             if (enemy.getId() == to.entity.getId()) {
@@ -83,76 +147,97 @@ public class GAAttack extends GA {
         return 0;
     }
 
+    /**
+     * Works out the damage utility of the fittest attack against each entity
+     * in the game, by the entity's index in the game. Nothing is written to
+     * the targets or the chromosome, so the result can be read while other
+     * attacks are planned against the same targets.
+     */
     public double[] getDamageUtilities() {
-        int iChromIndex = populationDim - 1;
-        targets.clear(); // could use ArrayList and not hashtable
-        double[] result = new double[target_array.size()];
-        Chromosome chromArrayList = chromosomes[iChromIndex];
+        Chromosome chromArrayList = chromosomes[populationDim - 1];
         // TODO should account for high heat?
-        @SuppressWarnings("unused")
-        int heat_total = 0;
-        if (chromArrayList.genes[chromosomeDim - 1] >= target_array.size()) {
-            chromArrayList.genes[chromosomeDim - 1] = valid_target_indexes.get(
-                    0).intValue();
+        int primary = chromArrayList.genes[chromosomeDim - 1];
+        if (primary >= target_array.size()) {
+            primary = valid_target_indexes.get(0).intValue();
         }
-        Entity target = target_array
-                .get(chromArrayList.genes[chromosomeDim - 1]);
+        Entity target = target_array.get(primary);
+        double[] damage = new double[slotTargets.length * SIDES];
         for (int iGene = 0; iGene < (chromosomeDim - 1); iGene++) {
-            AttackOption a = attack.get(iGene).get(chromArrayList.genes[iGene]);
+            int option = chromArrayList.genes[iGene];
+            AttackOption a = attack.get(iGene).get(option);
             if (a.target != null) { // if not the no fire option
-                targets.put(a.target);
-                double mod = 1;
+                int side = (slots[iGene][option] * SIDES)
+                        + a.toHit.getSideTable();
                 if (a.target.entity.getId() == target.getId()) {
-                    a.target.possible_damage[a.toHit.getSideTable()] += mod
-                            * a.primary_expected;
+                    damage[side] += a.primary_expected;
                 } else {
-                    a.target.possible_damage[a.toHit.getSideTable()] += mod
-                            * a.expected;
+                    damage[side] += a.expected;
                 }
-                heat_total += a.heat;
             }
         }
 
+        double[] result = new double[target_array.size()];
         for (int k = 0; k < target_array.size(); k++) {
-            Entity en = target_array.get(k);
-            CEntity enemy = null;
-            result[k] = 0;
-            if ((enemy = targets.get(new Integer(en.getId()))) != null) {
-                result[k] = getThreadUtility(enemy);
-                enemy.resetPossibleDamage();
+            int id = target_array.get(k).getId();
+            for (int slot = 0; slot < slotTargets.length; slot++) {
+                if (slotTargets[slot].entity.getId() == id) {
+                    result[k] = getThreadUtility(slotTargets[slot], damage,
+                            slot * SIDES);
+                    break;
+                }
             }
         }
         return result;
     }
 
-    private double getThreadUtility(CEntity enemy) {
-        if (enemy.possible_damage[ToHitData.SIDE_FRONT] > 0) {
+    /**
+     * @param damage the damage to the enemy on each side, starting at
+     *            <code>offset</code>
+     */
+    private static double getThreadUtility(CEntity enemy, double[] damage,
+            int offset) {
+        if (damage[offset + ToHitData.SIDE_FRONT] > 0) {
             return enemy.getThreatUtility(
-                    enemy.possible_damage[ToHitData.SIDE_FRONT],
+                    damage[offset + ToHitData.SIDE_FRONT],
                     ToHitData.SIDE_FRONT);
-        } else if (enemy.possible_damage[ToHitData.SIDE_REAR] > 0) {
+        } else if (damage[offset + ToHitData.SIDE_REAR] > 0) {
             return enemy.getThreatUtility(
-                    enemy.possible_damage[ToHitData.SIDE_REAR],
+                    damage[offset + ToHitData.SIDE_REAR],
                     ToHitData.SIDE_REAR);
-        } else if (enemy.possible_damage[ToHitData.SIDE_LEFT] > 0) {
+        } else if (damage[offset + ToHitData.SIDE_LEFT] > 0) {
             return enemy.getThreatUtility(
-                    enemy.possible_damage[ToHitData.SIDE_LEFT],
+                    damage[offset + ToHitData.SIDE_LEFT],
                     ToHitData.SIDE_LEFT);
-        } else if (enemy.possible_damage[ToHitData.SIDE_RIGHT] > 0) {
+        } else if (damage[offset + ToHitData.SIDE_RIGHT] > 0) {
             return enemy.getThreatUtility(
-                    enemy.possible_damage[ToHitData.SIDE_RIGHT],
+                    damage[offset + ToHitData.SIDE_RIGHT],
                     ToHitData.SIDE_RIGHT);
         }
         return 0;
     }
 
+    private static double[] getDamageScratch(int length) {
+        double[] damage = damageScratch.get();
+        if ((damage == null) || (damage.length < length)) {
+            damage = new double[length];
+            damageScratch.set(damage);
+        }
+        return damage;
+    }
+
+    @Override
+    protected boolean isFitnessThreadSafe() {
+        return true;
+    }
+
     @Override
     protected double getFitness(int iChromIndex) {
         return this.getFitness(chromosomes[iChromIndex]);
     }
 
     protected double getFitness(Chromosome chromArrayList) {
-        targets.clear(); // could use ArrayList and not hashtable
+        double[] damage = getDamageScratch(slotTargets.length * SIDES);
+        Arrays.fill(damage, 0, slotTargets.length * SIDES, 0);
         int heat_total = 0;
         Entity target = null;
         try {
@@ -167,7 +252,8 @@ public class GAAttack extends GA {
             final int[] genes = chromArrayList.genes;
             AttackOption a = attack.get(iGene).get(genes[iGene]);
             if (a.target != null) { // if not the no fire option
-                targets.put(a.target);
+                int side = (slots[iGene][genes[iGene]] * SIDES)
+                        + a.toHit.getSideTable();
                 double mod = 1;
                 if (a.primary_odds <= 0) {
                     mod = 0; // If there's no chance to hit at all...
@@ -187,21 +273,17 @@ public class GAAttack extends GA {
                     }
                 }
                 if (a.target.entity.getId() == target.getId()) {
-                    a.target.possible_damage[a.toHit.getSideTable()] += mod
-                            * a.primary_expected;
+                    damage[side] += mod * a.primary_expected;
                 } else {
-                    a.target.possible_damage[a.toHit.getSideTable()] += mod
-                            * a.expected;
+                    damage[side] += mod * a.expected;
                 }
                 heat_total += a.heat;
             }
         }
         double total_utility = 0;
-        Iterator<CEntity> j = targets.values().iterator();
-        while (j.hasNext()) {
-            CEntity enemy = j.next();
-            total_utility += getThreadUtility(enemy);
-            enemy.resetPossibleDamage();
+        for (int slot = 0; slot < slotTargets.length; slot++) {
+            total_utility += getThreadUtility(slotTargets[slot], damage, slot
+                    * SIDES);
         }
         // should be moved
         int capacity = attacker.entity.getHeatCapacityWithWater();
@@ -310,7 +392,7 @@ public class GAAttack extends GA {
         if (c1.genes.length < 1) {
             return;
         }
-        int r1 = (c1.genes.length > 2) ? Compute.randomInt(c1.genes.length - 1)
+        int r1 = (c1.genes.length > 2) ? Compute.randomInt(random, c1.genes.length - 1)
                 : 0;
         CEntity target = null;
         boolean done = false;
@@ -334,10 +416,10 @@ public class GAAttack extends GA {
         }
         if (target == null) { // then not shooting, so shoot something
             if ((attack.size() > r1) && (r1 > 1)) {
-                c1.genes[r1] = Compute.randomInt(attack.get(r1).size() - 1);
+                c1.genes[r1] = Compute.randomInt(random, attack.get(r1).size() - 1);
             } else {
                 // TODO : Is this the correct action to take?
-                c1.genes[r1] = Compute.randomInt(attack.get(0).size() - 1);
+                c1.genes[r1] = Compute.randomInt(random, attack.get(0).size() - 1);
             }
             AttackOption a = attack.get(r1).get(c1.genes[r1]);
             if (a.target != null) {
@@ -375,7 +457,7 @@ public class GAAttack extends GA {
         for (int i = 1; i < populationDim; i++) {
             Chromosome cv = chromosomes[i];
             for (int iGene = 0; iGene < (chromosomeDim - 1); iGene++) {
-                cv.genes[iGene] = Compute.randomInt(attack.get(iGene).size());
+                cv.genes[iGene] = Compute.randomInt(random, attack.get(iGene).size());
                 if (i <= attack.size()) {
                     if ((iGene + 1) == i) {
                         cv.genes[iGene] = 0; // fire
@@ -385,7 +467,7 @@ public class GAAttack extends GA {
                 }
             }
             cv.genes[chromosomeDim - 1] = valid_target_indexes.get(
-                    Compute.randomInt(valid_target_indexes.size())).intValue();
+                    Compute.randomInt(random, valid_target_indexes.size())).intValue();
             chromosomes[i].fitness = getFitness(i);
         }
     }
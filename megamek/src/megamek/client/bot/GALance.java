@@ -21,6 +21,7 @@ import megamek.client.bot.ga.Chromosome;
 import megamek.client.bot.ga.GA;
 import megamek.common.Compute;
 import megamek.common.Entity;
+import megamek.common.MMRandom;
 
 public class GALance extends GA {
 
@@ -30,7 +31,7 @@ public class GALance extends GA {
 
     public GALance(TestBot tb, ArrayList<MoveOption[]> moves, int population,
             int generations) {
-        super(moves.size(), population, .7, .05, generations, .5);
+        super(moves.size(), population, .7, .05, generations, .5, tb.getRNG());
         System.gc();
         System.out.println("Generated move lance with population=" + population
                 + " and generations=" + generations);
@@ -266,10 +267,10 @@ public class GALance extends GA {
         if (c1.genes.length < 1) {
             return;
         }
-        int r1 = (c1.genes.length > 2) ? Compute.randomInt(c1.genes.length - 1)
+        int r1 = (c1.genes.length > 2) ? Compute.randomInt(tb.getRNG(), c1.genes.length - 1)
                 : 0;
         if (r1 % 2 == 1) {
-            c1.genes[r1] = Compute.randomInt(this.moves.get(r1).length);
+            c1.genes[r1] = Compute.randomInt(tb.getRNG(), this.moves.get(r1).length);
             return;
         }
         for (int i = 1; i < c1.genes.length; i++) {
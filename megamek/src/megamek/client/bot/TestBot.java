@@ -21,6 +21,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.TreeSet;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import megamek.client.bot.MoveOption.DamageInfo;
 import megamek.common.AmmoType;
@@ -33,6 +38,7 @@ import megamek.common.EquipmentType;
 import megamek.common.IAimingModes;
 import megamek.common.IHex;
 import megamek.common.Infantry;
+import megamek.common.MMRandom;
 import megamek.common.Mech;
 import megamek.common.Minefield;
 import megamek.common.MiscType;
@@ -51,10 +57,25 @@ import megamek.common.actions.TorsoTwistAction;
 import megamek.common.actions.WeaponAttackAction;
 import megamek.common.containers.PlayerIDandList;
 import megamek.common.event.GamePlayerChatEvent;
+import megamek.common.logging.LogLevel;
+import megamek.common.logging.Logger;
 import megamek.common.options.OptionsConstants;
 
 public class TestBot extends BotClient {
 
+    private static final Logger logger = new Logger();
+
+    /**
+     * Works out the moves of each entity, for every TestBot in this JVM
+     */
+    private static final ForkJoinPool moveCalculators = new ForkJoinPool();
+
+    /**
+     * How often, in milliseconds, the other players are told the bot is still
+     * working out its move
+     */
+    private static final long MOVE_PROGRESS_INTERVAL = 5000;
+
     public CEntity.Table centities = new CEntity.Table(this);
     protected ChatProcessor chatp = new ChatProcessor();
     protected int ignore = 10;
@@ -80,20 +101,35 @@ public class TestBot extends BotClient {
 
     /**
      * Used by the function calculateMoveTurn to run each entities movement
-     * calculation in a separate thread.
+     * calculation in a separate thread. The best moves found so far are kept
+     * after each pass, so that they can be used if the calculation is stopped
+     * at the deadline.
      *
      * @author Mike Kiscaden
      */
     public class CalculateEntityMove implements Runnable {
         private Entity entity;
-        private MoveOption[] result;
+        private volatile MoveOption[] result;
+        private volatile MoveOption[] best;
+        private volatile boolean stopped = false;
+
+        /**
+         * The calculation's own RNG, so that it draws the same numbers however
+         * the calculations happen to be scheduled
+         */
+        private final MMRandom random;
 
         CalculateEntityMove(Entity entity) {
             this.entity = entity;
+            random = getRNG().split();
+            best = topMoves(centities.get(entity).pass.values().toArray(
+                    new MoveOption[0]));
         }
 
         public void run() {
-            result = calculateMove(entity);
+            if (!stopped) {
+                result = calculateMove(entity, this);
+            }
         }
 
         public Entity getEntity() {
@@ -101,7 +137,28 @@ public class TestBot extends BotClient {
         }
 
         public MoveOption[] getResult() {
-            return result;
+            return (result != null) ? result : best;
+        }
+
+        /**
+         * Asks the calculation to finish at the end of the current pass.
+         */
+        void stop() {
+            stopped = true;
+        }
+
+        /**
+         * Records the moves after a pass.
+         *
+         * @return true if the calculation should go no further
+         */
+        boolean checkpoint(MoveOption[] moves) {
+            best = topMoves(moves);
+            return stopped;
+        }
+
+        boolean isStopped() {
+            return stopped;
         }
 
     }
@@ -152,7 +209,14 @@ public class TestBot extends BotClient {
             Iterator<Entity> i = getEntitiesOwned().iterator();
             boolean short_circuit = false;
 
-            List<Thread> threads = new ArrayList<Thread>();
+            // Characterize everything up front so that the calculations share
+            // a table nobody changes
+            for (Entity entity : game.getEntitiesVector()) {
+                centities.get(entity);
+            }
+            centities.setFrozen(true);
+
+            List<Future<?>> futures = new ArrayList<Future<?>>();
             List<CalculateEntityMove> tasks = new ArrayList<CalculateEntityMove>();
             while (i.hasNext() && !short_circuit) {
                 Entity entity = i.next();
@@ -170,36 +234,13 @@ public class TestBot extends BotClient {
 
                 CalculateEntityMove task = new CalculateEntityMove(entity);
                 tasks.add(task);
-                Thread worker = new Thread(task);
-                worker.setName("Entity:" + entity.getId());
-                worker.start();
-                threads.add(worker);
-
-            }
-            int running = 0;
-            synchronized (this) {
-                do {
-                    running = 0;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive()) {
-                            running++;
-                        }
-                    }
-                    try {
-                        Thread.sleep(5000);
-                    } catch (InterruptedException e1) {
-                        System.out
-                                .println("Interrupted waiting for Bot to move.");
-                        e1.printStackTrace();
-                    } // Technically we should be using wait() but its not
-                    // waking up reliably.
-                    if (running > 0) {
-                        sendChat("Calculating the move for " + running
-                                 + " units. ");
-                    } else {
-                        sendChat("Finalizing move.");
-                    }
-                } while (running > 0);
+                futures.add(moveCalculators.submit(task));
+
+            }
+            try {
+                waitForMoves(tasks, futures);
+            } finally {
+                centities.setFrozen(false);
             }
             // Threads are done running. Process the results.
             for (CalculateEntityMove task : tasks) {
@@ -331,7 +372,79 @@ public class TestBot extends BotClient {
         return min;
     }
 
+    /**
+     * Waits for the move calculations to finish, telling the other players
+     * how many are still running every so often. Calculations still running
+     * at the deadline set in the bot configuration are stopped at the end of
+     * their current pass.
+     */
+    private void waitForMoves(List<CalculateEntityMove> tasks,
+                              List<Future<?>> futures) {
+        final String METHOD_NAME = "waitForMoves(List<CalculateEntityMove>, List<Future<?>>)";
+        int limit = config.getMoveTimeLimit();
+        long deadline = (limit > 0) ? (System.currentTimeMillis() + (limit * 1000L))
+                                    : Long.MAX_VALUE;
+        boolean stopped = false;
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (!future.isDone()) {
+                long wait = MOVE_PROGRESS_INTERVAL;
+                if (!stopped) {
+                    wait = Math.max(1, Math.min(wait,
+                            deadline - System.currentTimeMillis()));
+                }
+                try {
+                    future.get(wait, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (!stopped && (System.currentTimeMillis() >= deadline)) {
+                        for (CalculateEntityMove task : tasks) {
+                            task.stop();
+                        }
+                        stopped = true;
+                        sendChat("Out of time, using the best moves found so far.");
+                    } else {
+                        int running = 0;
+                        for (Future<?> other : futures) {
+                            if (!other.isDone()) {
+                                running++;
+                            }
+                        }
+                        sendChat("Calculating the move for " + running
+                                 + " units. ");
+                    }
+                } catch (InterruptedException e) {
+                    logger.log(getClass(), METHOD_NAME, LogLevel.WARNING,
+                               "Interrupted waiting for Bot to move.");
+                    for (CalculateEntityMove task : tasks) {
+                        task.stop();
+                    }
+                    stopped = true;
+                    // Still wait for the stopped calculations, which won't be
+                    // long, so nothing is changing the entities afterwards
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    logger.log(getClass(), METHOD_NAME, e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        sendChat("Finalizing move.");
+    }
+
     public MoveOption[] calculateMove(Entity entity) {
+        return calculateMove(entity, null);
+    }
+
+    /**
+     * @param progress if not null, the best moves are recorded with it after
+     *            each pass, and the calculation ends early if it's stopped;
+     *            its RNG is used rather than the bot's
+     */
+    private MoveOption[] calculateMove(Entity entity,
+                                       CalculateEntityMove progress) {
+        MMRandom random = (progress != null) ? progress.random : getRNG();
         List<Entity> enemy_array = myEnemies(entity);
         ArrayList<Entity> entities = new ArrayList<Entity>(
                 game.getEntitiesVector());
@@ -346,6 +459,9 @@ public class TestBot extends BotClient {
         // top damage
         filterMoves(move_array, self.pass, new MoveOption.WeightedComparator(
                 .5, 1), 50);
+        if ((progress != null) && progress.checkpoint(move_array)) {
+            return progress.getResult();
+        }
 
         move_array = thirdPass(self, enemy_array);
 
@@ -370,13 +486,20 @@ public class TestBot extends BotClient {
             option.self_threat -= terrain;
         }
 
-        move_array = fourthPass(self, enemy_array);
+        if ((progress != null) && progress.checkpoint(move_array)) {
+            return progress.getResult();
+        }
+
+        move_array = fourthPass(self, enemy_array, random);
         // top balanced
         filterMoves(move_array, self.pass, new MoveOption.WeightedComparator(1,
                                                                              1), 20);
         // top damage
         filterMoves(move_array, self.pass, new MoveOption.WeightedComparator(
                 .5, 1), 20);
+        if ((progress != null) && progress.checkpoint(move_array)) {
+            return progress.getResult();
+        }
 
         // reduce transient damage estimates
         for (MoveOption option : self.pass.values()) {
@@ -384,7 +507,7 @@ public class TestBot extends BotClient {
             option.self_damage *= .5;
         }
 
-        move_array = fifthPass(self, enemy_array);
+        move_array = fifthPass(self, enemy_array, progress, random);
 
         /*******************************************************************************************
          * Return top twenty moves to the lance algorithm
@@ -465,17 +588,18 @@ public class TestBot extends BotClient {
                     double max = option.getMaxModifiedDamage(enemy.current,
                                                              mod, modifiers[MoveOption.DEFENCE_PC]);
                     if (en.isSelectableThisTurn()) {
-                        enemy.current.addStep(MoveStepType.TURN_RIGHT);
+                        // Turn copies, as other calculations read the
+                        // enemy's current move
+                        MoveOption twisted = enemy.current.clone();
+                        twisted.addStep(MoveStepType.TURN_RIGHT);
                         max = Math.max(option.getMaxModifiedDamage(
-                                enemy.current, mod + 1,
+                                twisted, mod + 1,
                                 modifiers[MoveOption.DEFENCE_PC]), max);
-                        enemy.current.removeLastStep();
-                        enemy.current.addStep(MoveStepType.TURN_LEFT);
+                        twisted = enemy.current.clone();
+                        twisted.addStep(MoveStepType.TURN_LEFT);
                         max = Math.max(option.getMaxModifiedDamage(
-                                enemy.current, mod + 1,
+                                twisted, mod + 1,
                                 modifiers[MoveOption.DEFENCE_PC]), max);
-                        // return to original facing
-                        enemy.current.removeLastStep();
                     }
                     max = self.getThreatUtility(max, self_hit_arc);
                     if (enemy.getEntity().isProne()) {
@@ -807,7 +931,8 @@ public class TestBot extends BotClient {
      * fourth pass, speculation on top moves use averaging to filter
      * ********************************************************************
      */
-    private MoveOption[] fourthPass(CEntity self, List<Entity> enemy_array) {
+    private MoveOption[] fourthPass(CEntity self, List<Entity> enemy_array,
+                                    MMRandom random) {
         MoveOption[] move_array = self.pass.values().toArray(new MoveOption[0]);
         self.pass.clear();
         for (int e = 0; e < enemy_array.size(); e++) { // for each enemy
@@ -865,7 +990,7 @@ public class TestBot extends BotClient {
                         if (enemy_move_array.size() < compare) {
                             to_check.add(enemy_move_array.get(k));
                         } else {
-                            int value = Compute.randomInt(enemy_move_array
+                            int value = Compute.randomInt(random, enemy_move_array
                                                                   .size());
                             if ((value % 2) == 1) {
                                 to_check.add(enemy_move_array.get(value));
@@ -980,14 +1105,20 @@ public class TestBot extends BotClient {
      * from the previous pass would cause the mech to die
      * ********************************************************************
      */
-    private MoveOption[] fifthPass(CEntity self, List<Entity> enemy_array) {
+    private MoveOption[] fifthPass(CEntity self, List<Entity> enemy_array,
+                                   CalculateEntityMove progress,
+                                   MMRandom random) {
         MoveOption[] move_array = self.pass.values().toArray(new MoveOption[0]);
         self.pass.clear();
 
         if (self.engaged) {
             for (MoveOption option : move_array) {
+                // Options not revised at the deadline keep their estimates
+                if ((progress != null) && progress.isStopped()) {
+                    break;
+                }
                 option.setState();
-                GAAttack temp = this.bestAttack(option);
+                GAAttack temp = bestAttack(option, null, 2, random);
                 if (temp != null) {
                     option.damage = (option.damage + temp
                             .getFittestChromosomesFitness()) / 2;
@@ -1092,6 +1223,15 @@ public class TestBot extends BotClient {
         return move_array;
     }
 
+    /**
+     * @return the twenty best of the given moves, best first
+     */
+    private static MoveOption[] topMoves(MoveOption[] move_array) {
+        MoveOption[] sorted = move_array.clone();
+        Arrays.sort(sorted, new MoveOption.WeightedComparator(1, 1));
+        return Arrays.copyOf(sorted, Math.min(sorted.length, 20));
+    }
+
     private void filterMoves(MoveOption[] move_array, MoveOption.Table pass,
                              MoveOption.WeightedComparator comp, int filter) {
         Arrays.sort(move_array, comp);
@@ -1219,6 +1359,11 @@ public class TestBot extends BotClient {
     }
 
     public GAAttack bestAttack(MoveOption es, CEntity target, int search_level) {
+        return bestAttack(es, target, search_level, getRNG());
+    }
+
+    private GAAttack bestAttack(MoveOption es, CEntity target,
+                                int search_level, MMRandom random) {
         Entity en = es.getEntity();
         int attacks[] = new int[4];
         ArrayList<AttackOption> c = new ArrayList<AttackOption>();
@@ -1373,7 +1518,8 @@ public class TestBot extends BotClient {
                 GAAttack test = new GAAttack(this, centities.get(en), v,
                                              Math.max((v.size() + attacks[i]) * search_level,
                                                       20 * search_level), 30 * search_level,
-                                             en.isEnemyOf(getEntitiesOwned().get(0))
+                                             en.isEnemyOf(getEntitiesOwned().get(0)),
+                                             random
                 );
                 test.setFiringArc(i);
                 test.evolve();
@@ -1682,7 +1828,7 @@ public class TestBot extends BotClient {
                     // good turn, keep up the work, but randomize to reduce
                     // predictability
                     if ((friend_sum - foe_sum) >= ((.9 * unit_values) - enemy_values)) {
-                        if (Compute.randomInt(2) == 1) {
+                        if (Compute.randomInt(getRNG(), 2) == 1) {
                             centity.strategy.target += .3;
                         }
                         // lost that turn, but still in the fight, just get a
@@ -1998,9 +2144,9 @@ public class TestBot extends BotClient {
     protected void deployMinefields(Vector<Minefield> deployedMinefields,
                                     int number, int type) {
         for (int i = 0; i < number; i++) {
-            Coords coords = new Coords(Compute.randomInt(game.getBoard()
+            Coords coords = new Coords(Compute.randomInt(getRNG(), game.getBoard()
                                                              .getWidth()),
-                                       Compute.randomInt(game.getBoard().getHeight())
+                                       Compute.randomInt(getRNG(), game.getBoard().getHeight())
             );
 
             if (game.containsMinefield(coords)) {
@@ -2552,7 +2698,7 @@ public class TestBot extends BotClient {
                         // If the location is at least close to being breached
                         // or the target is immobile
 
-                        if (values[temp_index] <= Compute.randomInt(5)) {
+                        if (values[temp_index] <= Compute.randomInt(getRNG(), 5)) {
                             aimed_attack.setAimedLocation(best_loc);
                         } else {
                             aimed_attack
@@ -14,9 +14,36 @@
  */
 package megamek.client.bot.ga;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import megamek.common.Compute;
+import megamek.common.MMRandom;
 
 public abstract class GA {
+    /**
+     * Shared by every GA whose fitness function can be run on several threads
+     * at once.
+     */
+    private static final ForkJoinPool fitnessPool = new ForkJoinPool();
+
+    /**
+     * A fitness pass is split into about this many batches per thread, so a
+     * thread that gets the cheap chromosomes can pick up more work.
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    /**
+     * Populations are not split into batches smaller than this; below it the
+     * hand-off costs more than the fitness functions.
+     */
+    private static final int MIN_BATCH_SIZE = 16;
+
     final double mutationProb; // probability of a mutation occuring during
                                // genetic mating. For example, 0.03 means 3% chance
     final int maxGenerations; // maximum generations to evolve
@@ -33,12 +60,26 @@ public abstract class GA {
     double[] genAvgFitness; // statistics--average fitness of current
     protected final int best;
 
+    /**
+     * The RNG the population evolves with, or null for Math.random()
+     */
+    private final MMRandom random;
+
     abstract protected void initPopulation();
 
     abstract protected void doRandomMutation(int index);
 
     abstract protected double getFitness(int index);
 
+    /**
+     * Override to return true if <code>getFitness</code> only reads the
+     * population and the state of the game, so that the fitness of several
+     * chromosomes can be worked out at once.
+     */
+    protected boolean isFitnessThreadSafe() {
+        return false;
+    }
+
     protected void doHeuristicPass() {
         // no default
     }
@@ -46,6 +87,18 @@ public abstract class GA {
     public GA(int chromosomeDim, int populationDim, double crossoverProb,
             double randomSelectionChance, int maxGenerations,
             double mutationProb) {
+        this(chromosomeDim, populationDim, crossoverProb,
+                randomSelectionChance, maxGenerations, mutationProb, null);
+    }
+
+    /**
+     * @param random the RNG to evolve the population with, so that the same
+     *            numbers give the same result; null for Math.random()
+     */
+    public GA(int chromosomeDim, int populationDim, double crossoverProb,
+            double randomSelectionChance, int maxGenerations,
+            double mutationProb, MMRandom random) {
+        this.random = random;
         this.randomSelectionChance = randomSelectionChance;
         this.chromosomeDim = chromosomeDim;
         this.populationDim = populationDim;
@@ -71,10 +124,16 @@ public abstract class GA {
     }
 
     int getRandom(int upperBound) {
+        if (random != null) {
+            return Compute.randomInt(random, upperBound);
+        }
         return (int) (Math.random() * upperBound);
     }
 
     double getRandom(double upperBound) {
+        if (random != null) {
+            return (Compute.randomInt(random, 1 << 30) * upperBound) / (1 << 30);
+        }
         return Math.random() * upperBound;
     }
 
@@ -160,12 +219,53 @@ public abstract class GA {
     }
 
     void computeFitnessRankings() {
-        for (int i = 0; i < populationDim; i++)
-            this.chromosomes[i].fitness = getFitness(i);
+        int batches = Math.min(Runtime.getRuntime().availableProcessors()
+                * BATCHES_PER_THREAD, populationDim / MIN_BATCH_SIZE);
+        if (isFitnessThreadSafe() && (batches > 1)) {
+            computeFitnesses(batches);
+        } else {
+            for (int i = 0; i < populationDim; i++)
+                this.chromosomes[i].fitness = getFitness(i);
+        }
 
+        // Each fitness lands on its own chromosome, so the ranking comes out
+        // the same however the work was split.
         Arrays.sort(chromosomes);
     }
 
+    private void computeFitnesses(int batches) {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(batches);
+        for (int batch = 0; batch < batches; batch++) {
+            final int start = (batch * populationDim) / batches;
+            final int end = ((batch + 1) * populationDim) / batches;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = start; i < end; i++) {
+                        chromosomes[i].fitness = getFitness(i);
+                    }
+                    return null;
+                }
+            });
+        }
+        try {
+            for (Future<Void> done : fitnessPool.invokeAll(tasks)) {
+                done.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     void doGeneticMating() {
         int max = populationDim - 1;
         for (int i = 0; i < max; i += 2) {
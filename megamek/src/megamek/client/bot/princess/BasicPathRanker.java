@@ -61,9 +61,25 @@ import megamek.common.options.OptionsConstants;
  */
 public class BasicPathRanker extends PathRanker {
 
-    protected final DecimalFormat LOG_DECIMAL = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance());
-    protected final NumberFormat LOG_INT = NumberFormat.getIntegerInstance();
-    protected final NumberFormat LOG_PERCENT = NumberFormat.getPercentInstance();
+    // Formats aren't thread safe, and paths may be ranked on several threads at once.
+    protected final ThreadLocal<DecimalFormat> LOG_DECIMAL = new ThreadLocal<DecimalFormat>() {
+        @Override
+        protected DecimalFormat initialValue() {
+            return new DecimalFormat("0.00", DecimalFormatSymbols.getInstance());
+        }
+    };
+    protected final ThreadLocal<NumberFormat> LOG_INT = new ThreadLocal<NumberFormat>() {
+        @Override
+        protected NumberFormat initialValue() {
+            return NumberFormat.getIntegerInstance();
+        }
+    };
+    protected final ThreadLocal<NumberFormat> LOG_PERCENT = new ThreadLocal<NumberFormat>() {
+        @Override
+        protected NumberFormat initialValue() {
+            return NumberFormat.getPercentInstance();
+        }
+    };
 
     private FireControl fireControl;
     private PathEnumerator pathEnumerator;
@@ -230,8 +246,8 @@ public class BasicPathRanker extends PathRanker {
         double pilotingFailure = (1 - successProbability);
         double fallShame = owner.getBehaviorSettings().getFallShameValue();
         double fallMod = pilotingFailure * (pilotingFailure == 1 ? -1000 : fallShame);
-        formula.append("fall mod [").append(LOG_DECIMAL.format(fallMod)).append(" = ")
-               .append(LOG_DECIMAL.format(pilotingFailure)).append(" * ").append(LOG_DECIMAL.format(fallShame))
+        formula.append("fall mod [").append(LOG_DECIMAL.get().format(fallMod)).append(" = ")
+               .append(LOG_DECIMAL.get().format(pilotingFailure)).append(" * ").append(LOG_DECIMAL.get().format(fallShame))
                .append("]");
         return fallMod;
     }
@@ -356,8 +372,8 @@ public class BasicPathRanker extends PathRanker {
         }
         double aggression = getOwner().getBehaviorSettings().getHyperAggressionValue();
         double aggressionMod = distToEnemy * aggression;
-        formula.append(" - aggressionMod [").append(LOG_DECIMAL.format(aggressionMod)).append(" = ")
-               .append(LOG_DECIMAL.format(distToEnemy)).append(" * ").append(LOG_DECIMAL.format(aggression))
+        formula.append(" - aggressionMod [").append(LOG_DECIMAL.get().format(aggressionMod)).append(" = ")
+               .append(LOG_DECIMAL.get().format(distToEnemy)).append(" * ").append(LOG_DECIMAL.get().format(aggression))
                .append("]");
         return aggressionMod;
     }
@@ -372,8 +388,8 @@ public class BasicPathRanker extends PathRanker {
         double distanceToAllies = friendsCoords.distance(path.getFinalCoords());
         double herding = getOwner().getBehaviorSettings().getHerdMentalityValue();
         double herdingMod = distanceToAllies * herding;
-        formula.append(" - herdingMod [").append(LOG_DECIMAL.format(herdingMod)).append(" = ")
-               .append(LOG_DECIMAL.format(distanceToAllies)).append(" * ").append(LOG_DECIMAL.format(herding))
+        formula.append(" - herdingMod [").append(LOG_DECIMAL.get().format(herdingMod)).append(" = ")
+               .append(LOG_DECIMAL.get().format(distanceToAllies)).append(" * ").append(LOG_DECIMAL.get().format(herding))
                .append("]");
         return herdingMod;
     }
@@ -400,9 +416,9 @@ public class BasicPathRanker extends PathRanker {
             facingDiff = 3;
         }
         double facingMod = Math.max(0.0, 50 * (facingDiff - 1));
-        formula.append(" - facingMod [").append(LOG_DECIMAL.format(facingMod)).append(" = max(")
-               .append(LOG_INT.format(0)).append(", ").append(LOG_INT.format(50)).append(" * {")
-               .append(LOG_INT.format(facingDiff)).append(" - ").append(LOG_INT.format(1)).append("})]");
+        formula.append(" - facingMod [").append(LOG_DECIMAL.get().format(facingMod)).append(" = max(")
+               .append(LOG_INT.get().format(0)).append(", ").append(LOG_INT.get().format(50)).append(" * {")
+               .append(LOG_INT.get().format(facingDiff)).append(" - ").append(LOG_INT.get().format(1)).append("})]");
         return facingMod;
     }
 
@@ -412,9 +428,9 @@ public class BasicPathRanker extends PathRanker {
             int newDistanceToHome = distanceToHomeEdge(path.getFinalCoords(), getOwner().getHomeEdge(), game);
             double selfPreservation = getOwner().getBehaviorSettings().getSelfPreservationValue();
             double selfPreservationMod = newDistanceToHome * selfPreservation;
-            formula.append(" - selfPreservationMod [").append(LOG_DECIMAL.format(selfPreservationMod))
-                   .append(" = ").append(LOG_DECIMAL.format(newDistanceToHome)).append(" * ")
-                   .append(LOG_DECIMAL.format(selfPreservation)).append("]");
+            formula.append(" - selfPreservationMod [").append(LOG_DECIMAL.get().format(selfPreservationMod))
+                   .append(" = ").append(LOG_DECIMAL.get().format(newDistanceToHome)).append(" * ")
+                   .append(LOG_DECIMAL.get().format(selfPreservation)).append("]");
             return selfPreservationMod;
         }
         return 0.0;
@@ -522,11 +538,11 @@ public class BasicPathRanker extends PathRanker {
             // how much damage I can do (weighted by bravery), less the damage I might take.
             double braveryValue = getOwner().getBehaviorSettings().getBraveryValue();
             double braveryMod = successProbability * ((maximumDamageDone * braveryValue) - expectedDamageTaken);
-            formula.append(" + braveryMod [").append(LOG_DECIMAL.format(braveryMod)).append(" = ")
-                   .append(LOG_PERCENT.format(successProbability)).append(" * ((")
-                   .append(LOG_DECIMAL.format(maximumDamageDone)).append(" * ")
-                   .append(LOG_DECIMAL.format(braveryValue)).append(") - ")
-                   .append(LOG_DECIMAL.format(expectedDamageTaken)).append("]");
+            formula.append(" + braveryMod [").append(LOG_DECIMAL.get().format(braveryMod)).append(" = ")
+                   .append(LOG_PERCENT.get().format(successProbability)).append(" * ((")
+                   .append(LOG_DECIMAL.get().format(maximumDamageDone)).append(" * ")
+                   .append(LOG_DECIMAL.get().format(braveryValue)).append(") - ")
+                   .append(LOG_DECIMAL.get().format(expectedDamageTaken)).append("]");
             utility += braveryMod;
 
             //noinspection StatementWithEmptyBody
@@ -806,7 +822,7 @@ public class BasicPathRanker extends PathRanker {
                     break;
             }
         }
-        logMsg.append("\n\tTotal Hazard = ").append(LOG_DECIMAL.format(hazardValue));
+        logMsg.append("\n\tTotal Hazard = ").append(LOG_DECIMAL.get().format(hazardValue));
 
         return hazardValue;
     }
@@ -829,14 +845,14 @@ public class BasicPathRanker extends PathRanker {
 
         // Get the odds of failing the piloting roll while moving through the building.
         double odds = (1.0 - (Compute.oddsAbove(movingUnit.getCrew().getPiloting()) / 100));
-        logMsg.append("\n\t\tChance to fail piloting roll: ").append(LOG_PERCENT.format(odds));
+        logMsg.append("\n\t\tChance to fail piloting roll: ").append(LOG_PERCENT.get().format(odds));
 
         // Hazard is based on potential damage taken.
         double dmg = board.getBuildingAt(step.getPosition()).getCurrentCF(step.getPosition()) / 10D;
-        logMsg.append("\n\t\tPotential building damage: ").append(LOG_DECIMAL.format(dmg));
+        logMsg.append("\n\t\tPotential building damage: ").append(LOG_DECIMAL.get().format(dmg));
 
         double hazard = dmg * odds;
-        logMsg.append("\n\t\tHazard value (").append(LOG_DECIMAL.format(hazard)).append(").");
+        logMsg.append("\n\t\tHazard value (").append(LOG_DECIMAL.get().format(hazard)).append(").");
         return hazard;
     }
 
@@ -859,10 +875,10 @@ public class BasicPathRanker extends PathRanker {
 
         // Hazard is based on chance to break through to the water underneath.
         double breakthroughMod = jumpLanding ? 0.5 : 0.1667;
-        logMsg.append("\n\t\tChance to break through ice: ").append(LOG_PERCENT.format(breakthroughMod));
+        logMsg.append("\n\t\tChance to break through ice: ").append(LOG_PERCENT.get().format(breakthroughMod));
 
         double hazard = calcWaterHazard(movingUnit, hex, step, logMsg) * breakthroughMod;
-        logMsg.append("\n\t\tHazard value (").append(LOG_DECIMAL.format(hazard)).append(").");
+        logMsg.append("\n\t\tHazard value (").append(LOG_DECIMAL.get().format(hazard)).append(").");
         return hazard;
     }
 
@@ -1010,18 +1026,18 @@ public class BasicPathRanker extends PathRanker {
             return calcLavaHazard(endHex, movingUnit, step, logMsg);
         } else {
             double breakThroughMod = jumpLanding ? 0.5 : 0.1667;
-            logMsg.append("\n\t\tChance to break through crust = ").append(LOG_PERCENT.format(breakThroughMod));
+            logMsg.append("\n\t\tChance to break through crust = ").append(LOG_PERCENT.get().format(breakThroughMod));
 
             // Factor in the chance to break through.
             double lavalHazard = calcLavaHazard(endHex, movingUnit, step, logMsg) * breakThroughMod;
-            logMsg.append("\n\t\t\tLava hazard (").append(LOG_DECIMAL.format(lavalHazard)).append(").");
+            logMsg.append("\n\t\t\tLava hazard (").append(LOG_DECIMAL.get().format(lavalHazard)).append(").");
             hazardValue += lavalHazard;
 
             // Factor in heat.
             if (movingUnit.getHeatCapacity() != Entity.DOES_NOT_TRACK_HEAT) {
                 double heatMod = (endHex ? 5 : 2) * (1 - breakThroughMod);
                 hazardValue += heatMod;
-                logMsg.append("\n\t\tHeat gain (").append(LOG_DECIMAL.format(heatMod)).append(").");
+                logMsg.append("\n\t\tHeat gain (").append(LOG_DECIMAL.get().format(heatMod)).append(").");
             }
         }
 
@@ -1050,7 +1066,7 @@ public class BasicPathRanker extends PathRanker {
         // Factor in heat.
         double heat = endHex ? 10.0 : 5.0;
         hazardValue += heat;
-        logMsg.append("\n\t\tHeat gain (").append(heat).append(LOG_DECIMAL.format(heat)).append(").");
+        logMsg.append("\n\t\tHeat gain (").append(heat).append(LOG_DECIMAL.get().format(heat)).append(").");
 
         // Factor in potential damage.
         double dmg;
@@ -1068,7 +1084,7 @@ public class BasicPathRanker extends PathRanker {
             dmg = 28;
             logMsg.append("legs (");
         }
-        logMsg.append(LOG_DECIMAL.format(dmg)).append(").");
+        logMsg.append(LOG_DECIMAL.get().format(dmg)).append(").");
         hazardValue += dmg;
 
         return hazardValue;
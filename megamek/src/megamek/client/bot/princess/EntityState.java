@@ -112,6 +112,33 @@ public class EntityState {
         setSecondaryFacing(getFacing());
     }
 
+    private EntityState(EntityState other) {
+        position = other.position;
+        facing = other.facing;
+        secondaryFacing = other.secondaryFacing;
+        heat = other.heat;
+        hexesMoved = other.hexesMoved;
+        prone = other.prone;
+        immobile = other.immobile;
+        jumping = other.jumping;
+        movementType = other.movementType;
+        building = other.building;
+        aero = other.aero;
+        airborne = other.airborne;
+        naturalAptGun = other.naturalAptGun;
+        naturalAptPilot = other.naturalAptPilot;
+    }
+
+    /**
+     * Returns a copy of this state with the torso twisted to the given facing, leaving this state and the entity
+     * alone.
+     */
+    EntityState withSecondaryFacing(int secondaryFacing) {
+        EntityState twisted = new EntityState(this);
+        twisted.setSecondaryFacing(secondaryFacing);
+        return twisted;
+    }
+
     public Coords getPosition() {
         return position;
     }
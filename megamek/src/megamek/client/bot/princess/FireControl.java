@@ -305,6 +305,31 @@ public class FireControl {
             targetState = new EntityState(target);
         }
 
+        ToHitCache cache = getToHitCache();
+        if (cache == null) {
+            return calculateToHitModifierHelperForAnyAttack(shooter, shooterState, target, targetState, distance,
+                                                            game);
+        }
+        ToHitCache.Key key = new ToHitCache.Key("any attack", shooter.getId(), shooterState.getPosition(),
+                                                shooterState.getMovementType(), shooterState.isProne(),
+                                                shooterState.isAero(), target.getTargetType(),
+                                                target.getTargetId(), targetState.getPosition(),
+                                                targetState.getMovementType(), targetState.getHexesMoved(),
+                                                targetState.isJumping(), targetState.isProne(),
+                                                targetState.isImmobile(), targetState.isAirborneAero(), distance);
+        ToHitData toHitData = cache.get(key);
+        if (toHitData == null) {
+            toHitData = calculateToHitModifierHelperForAnyAttack(shooter, shooterState, target, targetState,
+                                                                 distance, game);
+            cache.put(key, toHitData);
+        }
+        return toHitData;
+    }
+
+    private ToHitData calculateToHitModifierHelperForAnyAttack(Entity shooter, EntityState shooterState,
+                                                               Targetable target, EntityState targetState,
+                                                               int distance, IGame game) {
+
         // Can't shoot if one of us is not on the board.
         // todo exception for off-board artillery.
         if ((shooterState.getPosition() == null) || (targetState.getPosition() == null)) {
@@ -663,6 +688,51 @@ public class FireControl {
         return Compute.getDamageWeaponMods(attacker, weapon);
     }
 
+    /**
+     * Works out the to hit modifiers for the line of sight between a shooter and its target, or gets them from the
+     * {@link ToHitCache} if they've been worked out before.
+     *
+     * @param shooter         The {@link Entity} doing the shooting.
+     * @param shooterPosition The {@link Coords} the shooter fires from.
+     * @param target          The {@link Targetable} being shot at.
+     * @param targetPosition  The {@link Coords} of the target.
+     * @param game            The {@link IGame being played.}
+     * @return The line of sight modifiers as a {@link ToHitData} object.
+     */
+    private ToHitData guessLosModifiers(Entity shooter, Coords shooterPosition, Targetable target,
+                                        Coords targetPosition, IGame game) {
+        ToHitCache cache = getToHitCache();
+        ToHitCache.Key key = null;
+        if (cache != null) {
+            key = new ToHitCache.Key("line of sight", shooter.getId(), shooterPosition, target.getTargetType(),
+                                     target.getTargetId(), targetPosition);
+            ToHitData losModifiers = cache.get(key);
+            if (losModifiers != null) {
+                return losModifiers;
+            }
+        }
+
+        // There is kindly already a class that will calculate line of sight for me
+        // todo take into account spotting for indirect fire.
+        LosEffects losEffects = getLosEffects(game, shooter.getId(), target, shooterPosition, targetPosition, false);
+
+        // water is a separate los effect
+        IHex targetHex = game.getBoard().getHex(targetPosition);
+        if (target instanceof Entity) {
+            if (targetHex.containsTerrain(Terrains.WATER)
+                && (targetHex.terrainLevel(Terrains.WATER) == 1)
+                && (((Entity) target).height() > 0)) {
+                losEffects.setTargetCover(losEffects.getTargetCover() | LosEffects.COVER_HORIZONTAL);
+            }
+        }
+
+        ToHitData losModifiers = losEffects.losModifiers(game);
+        if (cache != null) {
+            cache.put(key, losModifiers);
+        }
+        return losModifiers;
+    }
+
     private boolean isLargeTarget(Targetable target) {
         if ((target instanceof LargeSupportTank) || (target instanceof FixedWingSupport) ||
             (target instanceof Dropship && target.isAirborne())) {
@@ -796,27 +866,14 @@ public class FireControl {
         ToHitData toHit = new ToHitData(shooter.getCrew().getGunnery(), TH_GUNNERY);
         toHit.append(baseMods);
 
-        // There is kindly already a class that will calculate line of sight for me
-        // todo take into account spotting for indirect fire.
-        LosEffects losEffects = getLosEffects(game, shooter.getId(), target, shooterState.getPosition(),
-                                              targetState.getPosition(), false);
-
-        // water is a separate los effect
-        IHex targetHex = game.getBoard().getHex(targetState.getPosition());
         Entity targetEntity = null;
         if (target instanceof Entity) {
             targetEntity = (Entity) target;
         }
-        if (targetEntity != null) {
-            if (targetHex.containsTerrain(Terrains.WATER)
-                && (targetHex.terrainLevel(Terrains.WATER) == 1)
-                && (targetEntity.height() > 0)) {
-                losEffects.setTargetCover(losEffects.getTargetCover() | LosEffects.COVER_HORIZONTAL);
-            }
-        }
 
         // Can we still hit after taking into account LoS?
-        toHit.append(losEffects.losModifiers(game));
+        toHit.append(guessLosModifiers(shooter, shooterState.getPosition(), target, targetState.getPosition(),
+                                       game));
         if ((toHit.getValue() == TargetRoll.IMPOSSIBLE) || (toHit.getValue() == TargetRoll.AUTOMATIC_FAIL)) {
             return toHit; // you can't hit what you can't see
         }
@@ -1778,6 +1835,23 @@ public class FireControl {
         return rightTwistPlan;
     }
 
+    /**
+     * Gets the state to guess a torso twist with. The twists used to be guessed by turning the shooter itself,
+     * which other threads ranking paths may be reading, so now only a copy of the shooter's state is turned.
+     * When a state is given the guesses never looked at the shooter's facing, so that state is used as it is.
+     *
+     * @param shooter      The unit doing the shooting.
+     * @param shooterState The state of the shooting unit, or null for its current state.
+     * @param twist        1 for a twist to the right, -1 for one to the left.
+     * @return the state to guess the twisted plan with.
+     */
+    private EntityState twistedState(Entity shooter, @Nullable EntityState shooterState, int twist) {
+        if (shooterState != null) {
+            return shooterState;
+        }
+        return new EntityState(shooter).withSecondaryFacing(correctFacing(shooter.getSecondaryFacing() + twist));
+    }
+
     /**
      * Guesses the 'best' firing plan under a certain heat includes the option  of twisting
      *
@@ -1802,26 +1876,18 @@ public class FireControl {
             return noTwistPlan;
         }
 
-        // Keep track of our original facing so we can go back to it.
-        int originalFacing = shooter.getSecondaryFacing();
-
         // Turn to the right.
-        shooter.setSecondaryFacing(correctFacing(originalFacing + 1));
-        FiringPlan rightTwistPlan = guessBestFiringPlanUnderHeat(shooter, shooterState, target, targetState,
-                                                                 maxHeat, game);
+        FiringPlan rightTwistPlan = guessBestFiringPlanUnderHeat(shooter, twistedState(shooter, shooterState, 1),
+                                                                 target, targetState, maxHeat, game);
         rightTwistPlan.setTwist(1);
 
         // Turn to the left.
-        shooter.setSecondaryFacing(correctFacing(originalFacing - 1));
-        FiringPlan leftTwistPlan = guessBestFiringPlanUnderHeat(shooter, shooterState, target, targetState,
-                                                                maxHeat, game);
+        FiringPlan leftTwistPlan = guessBestFiringPlanUnderHeat(shooter, twistedState(shooter, shooterState, -1),
+                                                                target, targetState, maxHeat, game);
         leftTwistPlan.setTwist(-1);
 
         // todo extended torso twist.
 
-        // Back to where we started.
-        shooter.setSecondaryFacing(originalFacing);
-
         // Return the highest utility plan.
         if ((noTwistPlan.getUtility() > rightTwistPlan.getUtility()) &&
             (noTwistPlan.getUtility() > leftTwistPlan.getUtility())) {
@@ -1847,25 +1913,18 @@ public class FireControl {
             return noTwistPlan;
         }
 
-        // Keep track of our original facing so we can go back to it.
-        int originalFacing = shooter.getSecondaryFacing();
-
         // Turn to the right.
-        shooter.setSecondaryFacing(correctFacing(originalFacing + 1));
-        FiringPlan rightTwistPlan = guessBestFiringPlan(shooter, shooterState, target, targetState,
-                                                        game);
+        FiringPlan rightTwistPlan = guessBestFiringPlan(shooter, twistedState(shooter, shooterState, 1), target,
+                                                        targetState, game);
         rightTwistPlan.setTwist(1);
 
         // Turn to the left.
-        shooter.setSecondaryFacing(correctFacing(originalFacing - 1));
-        FiringPlan leftTwistPlan = guessBestFiringPlan(shooter, shooterState, target, targetState, game);
+        FiringPlan leftTwistPlan = guessBestFiringPlan(shooter, twistedState(shooter, shooterState, -1), target,
+                                                       targetState, game);
         leftTwistPlan.setTwist(-1);
 
         // todo extended torso twist.
 
-        // Back to where we started.
-        shooter.setSecondaryFacing(originalFacing);
-
         // Return the highest utility plan.
         if ((noTwistPlan.getUtility() > rightTwistPlan.getUtility()) &&
             (noTwistPlan.getUtility() > leftTwistPlan.getUtility())) {
@@ -2069,6 +2128,23 @@ public class FireControl {
      */
     private List<Targetable> additionalTargets = new ArrayList<>();
 
+    private ToHitCache toHitCache = null;
+
+    /**
+     * @return The cache of to hit modifiers, or null if the modifiers are worked out every time.
+     */
+    public ToHitCache getToHitCache() {
+        return toHitCache;
+    }
+
+    /**
+     * Has the to hit modifiers that don't depend on the weapon kept in the given cache, or worked out every time if
+     * it is null.  Whoever sets the cache has to clear it when units move or the phase changes.
+     */
+    public void setToHitCache(ToHitCache toHitCache) {
+        this.toHitCache = toHitCache;
+    }
+
     public List<Targetable> getAdditionalTargets() {
         return additionalTargets;
     }
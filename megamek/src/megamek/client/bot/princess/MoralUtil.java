@@ -16,11 +16,13 @@
 
 package megamek.client.bot.princess;
 
+import megamek.client.bot.BotClient;
 import megamek.common.Compute;
 import megamek.common.Entity;
 import megamek.common.IGame;
 import megamek.common.IPlayer;
 import megamek.common.Infantry;
+import megamek.client.bot.BotClient;
 import megamek.common.Protomech;
 import megamek.common.logging.LogLevel;
 import megamek.common.logging.Logger;
@@ -45,9 +47,11 @@ public class MoralUtil implements IMoralUtil {
     private final Set<Integer> BROKEN_UNITS = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
 
     private final Logger logger;
+    private final BotClient owner;
 
-    public MoralUtil(Logger logger) {
+    public MoralUtil(Logger logger, BotClient owner) {
         this.logger = logger;
+        this.owner = owner;
     }
 
     @Override
@@ -150,10 +154,10 @@ public class MoralUtil implements IMoralUtil {
     }
 
     /**
-     * @return The result of a 2d6 roll from {@link Compute#d6(int)}
+     * @return The result of a 2d6 roll with the bot's own RNG
      */
     protected int rollDice() {
-        return Compute.d6(2);
+        return Compute.d6(owner.getRNG(), 2);
     }
 
     private int calcBvRatioMod(IPlayer player, IGame game, StringBuilder logMsg) {
@@ -14,12 +14,17 @@
 package megamek.client.bot.princess;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import megamek.client.bot.princess.BotGeometry.ConvexBoardArea;
@@ -39,6 +44,12 @@ import megamek.common.pathfinder.ShortestPathFinder;
 
 public class PathEnumerator {
 
+    /**
+     * Finds the paths of several units at once; shared by all bots in the
+     * process. Its threads are daemons, so they never keep the JVM alive.
+     */
+    private static final ForkJoinPool pathFinders = new ForkJoinPool();
+
     private final Princess owner;
     private final IGame game;
     private final Map<Integer, List<MovePath>> unitPaths = new ConcurrentHashMap<>();
@@ -279,6 +290,51 @@ public class PathEnumerator {
         }
     }
 
+    /**
+     * Calculates all moves for each of the given units, like
+     * {@link #recalculateMovesFor(Entity)}, but works on several units at
+     * once. The game must not change until this returns.
+     */
+    public void recalculateMovesFor(Collection<Entity> movers) {
+        final String METHOD_NAME = "recalculateMovesFor(Collection<Entity>)";
+        getOwner().methodBegin(getClass(), METHOD_NAME);
+        try {
+            if (movers.size() == 1) {
+                recalculateMovesFor(movers.iterator().next());
+                return;
+            }
+
+            List<Callable<Void>> tasks = new ArrayList<>(movers.size());
+            for (final Entity mover : movers) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        recalculateMovesFor(mover);
+                        return null;
+                    }
+                });
+            }
+            for (Future<Void> result : pathFinders.invokeAll(tasks)) {
+                try {
+                    result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    // Fail like the unit's paths had been found on this thread
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        } finally {
+            getOwner().methodEnd(getClass(), METHOD_NAME);
+        }
+    }
+
     private void adjustPathsForBridges(List<MovePath> paths) {
         if (!worryAboutBridges()) {
             return;
@@ -21,6 +21,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import megamek.client.ui.SharedUtility;
 import megamek.common.Aero;
@@ -39,9 +43,22 @@ import megamek.common.util.StringUtil;
 
 public class PathRanker {
 
+    /**
+     * Ranks paths for all bots in the process when ranking in parallel. Its
+     * threads are daemons, so they never keep the JVM alive.
+     */
+    private static final ForkJoinPool rankers = new ForkJoinPool();
+
+    /**
+     * The number of batches to split the paths into for each thread, so that
+     * threads that finish early can take on more.
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
     private static Princess owner;
     private int highestEnemyInitiativeBonus = 0;
     private int highestEnemyInitiativeId = -1;
+    private boolean parallelRanking = Runtime.getRuntime().availableProcessors() > 1;
 
     public PathRanker(Princess princess) {
         owner = princess;
@@ -87,6 +104,11 @@ public class PathRanker {
 
             Coords allyCenter = calcAllyCenter(movePaths.get(0).getEntity().getId(), friends, game);
 
+            if (isParallelRanking() && (validPaths.size() > 1)) {
+                return rankPathsInParallel(validPaths, game, maxRange, fallTollerance, startingHomeDistance, enemies,
+                                           allyCenter);
+            }
+
             ArrayList<RankedPath> returnPaths = new ArrayList<>(validPaths.size());
             final BigDecimal numberPaths = new BigDecimal(validPaths.size());
             BigDecimal count = BigDecimal.ZERO;
@@ -95,13 +117,7 @@ public class PathRanker {
                 count = count.add(BigDecimal.ONE);
                 returnPaths.add(rankPath(path, game, maxRange, fallTollerance, startingHomeDistance, enemies,
                                          allyCenter));
-                BigDecimal percent = count.divide(numberPaths, 2, RoundingMode.DOWN).multiply(new BigDecimal(100))
-                                          .round(new MathContext(0, RoundingMode.DOWN));
-                if ((percent.compareTo(interval) >= 0)
-                    && (LogLevel.INFO.getLevel() <= owner.getVerbosity().getLevel())) {
-                    owner.sendChat("... " + percent.intValue() + "% complete.");
-                    interval = percent.add(new BigDecimal(5));
-                }
+                interval = reportProgress(count, numberPaths, interval);
             }
             return returnPaths;
         } finally {
@@ -109,6 +125,92 @@ public class PathRanker {
         }
     }
 
+    /**
+     * Ranks the paths in batches on the pool of rankers. The ranked paths are
+     * returned in the same order as the given paths, just as if they had been
+     * ranked one after another.
+     */
+    private ArrayList<RankedPath> rankPathsInParallel(List<MovePath> validPaths, final IGame game,
+                                                      final int maxRange, final double fallTollerance,
+                                                      final int startingHomeDistance, final List<Entity> enemies,
+                                                      final Coords allyCenter) {
+        final String METHOD_NAME = "rankPathsInParallel(List<MovePath>, IGame, int, double, int, List<Entity>, " +
+                                   "Coords)";
+
+        int batchCount = Math.min(validPaths.size(), rankers.getParallelism() * BATCHES_PER_THREAD);
+        List<Future<List<RankedPath>>> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            final List<MovePath> batch = validPaths.subList((i * validPaths.size()) / batchCount,
+                                                            ((i + 1) * validPaths.size()) / batchCount);
+            batches.add(rankers.submit(new Callable<List<RankedPath>>() {
+                @Override
+                public List<RankedPath> call() {
+                    List<RankedPath> rankedBatch = new ArrayList<>(batch.size());
+                    for (MovePath path : batch) {
+                        rankedBatch.add(rankPath(path, game, maxRange, fallTollerance, startingHomeDistance,
+                                                 enemies, allyCenter));
+                    }
+                    return rankedBatch;
+                }
+            }));
+        }
+
+        ArrayList<RankedPath> returnPaths = new ArrayList<>(validPaths.size());
+        final BigDecimal numberPaths = new BigDecimal(validPaths.size());
+        BigDecimal interval = new BigDecimal(5);
+        for (Future<List<RankedPath>> batch : batches) {
+            try {
+                returnPaths.addAll(batch.get());
+            } catch (InterruptedException e) {
+                owner.log(getClass(), METHOD_NAME, LogLevel.WARNING, "Interrupted after ranking " +
+                                                                     returnPaths.size() + " paths.");
+                for (Future<List<RankedPath>> unfinished : batches) {
+                    unfinished.cancel(false);
+                }
+                Thread.currentThread().interrupt();
+                return returnPaths;
+            } catch (ExecutionException e) {
+                // Fail like the path had been ranked on this thread
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+            interval = reportProgress(new BigDecimal(returnPaths.size()), numberPaths, interval);
+        }
+        return returnPaths;
+    }
+
+    /**
+     * Tells the players how far along ranking the paths is, every 5%.
+     *
+     * @return The percentage at which to report next.
+     */
+    private BigDecimal reportProgress(BigDecimal count, BigDecimal numberPaths, BigDecimal interval) {
+        BigDecimal percent = count.divide(numberPaths, 2, RoundingMode.DOWN).multiply(new BigDecimal(100))
+                                  .round(new MathContext(0, RoundingMode.DOWN));
+        if ((percent.compareTo(interval) >= 0)
+            && (LogLevel.INFO.getLevel() <= owner.getVerbosity().getLevel())) {
+            owner.sendChat("... " + percent.intValue() + "% complete.");
+            return percent.add(new BigDecimal(5));
+        }
+        return interval;
+    }
+
+    /**
+     * @return TRUE if {@link #rankPaths(List, IGame, int, double, int, List, List)} ranks paths on several threads
+     * at once.  By default it does if there's more than one processor.
+     */
+    public boolean isParallelRanking() {
+        return parallelRanking;
+    }
+
+    public void setParallelRanking(boolean parallelRanking) {
+        this.parallelRanking = parallelRanking;
+    }
+
     private List<MovePath> validatePaths(List<MovePath> startingPathList, IGame game, int maxRange,
                                          double fallTolerance, int startingHomeDistance) {
         final String METHOD_NAME = "validatePaths(List<MovePath>, IGame, Targetable, int, double, int, int)";
@@ -266,9 +368,12 @@ public class PathRanker {
                                                         owner.getForcedWithdrawal())) {
                     enemies.add(entity);
                     int initBonus = entity.getHQIniBonus() + entity.getMDIniBonus() + entity.getQuirkIniBonus();
-                    if (initBonus > highestEnemyInitiativeBonus) {
-                        highestEnemyInitiativeBonus = initBonus;
-                        highestEnemyInitiativeId = entity.getId();
+                    // Paths may be ranked on several threads at once.
+                    synchronized (this) {
+                        if (initBonus > highestEnemyInitiativeBonus) {
+                            highestEnemyInitiativeBonus = initBonus;
+                            highestEnemyInitiativeId = entity.getId();
+                        }
                     }
                 }
             }
@@ -496,7 +601,7 @@ public class PathRanker {
         return center;
     }
 
-    public int getHighestEnemyInitiativeId() {
+    public synchronized int getHighestEnemyInitiativeId() {
         return highestEnemyInitiativeId;
     }
 }
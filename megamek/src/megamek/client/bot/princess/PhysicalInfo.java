@@ -37,8 +37,19 @@ import java.text.NumberFormat;
  * @since 12/18/13 1:29 PM
  */
 public class PhysicalInfo {
-    private static final NumberFormat LOG_PER = NumberFormat.getPercentInstance();
-    private static final NumberFormat LOG_DEC = DecimalFormat.getInstance();
+    // Formats aren't thread safe, and paths may be ranked on several threads at once.
+    private static final ThreadLocal<NumberFormat> LOG_PER = new ThreadLocal<NumberFormat>() {
+        @Override
+        protected NumberFormat initialValue() {
+            return NumberFormat.getPercentInstance();
+        }
+    };
+    private static final ThreadLocal<NumberFormat> LOG_DEC = new ThreadLocal<NumberFormat>() {
+        @Override
+        protected NumberFormat initialValue() {
+            return DecimalFormat.getInstance();
+        }
+    };
 
     private Entity shooter;
     private Targetable target;
@@ -388,11 +399,11 @@ public class PhysicalInfo {
     }
 
     String getDebugDescription() {
-        return getAttackType().toString() + " P. Hit: " + LOG_PER.format(getProbabilityToHit())
-               + ", Max Dam: " + LOG_DEC.format(getMaxDamage())
-               + ", Exp. Dam: " + LOG_DEC.format(getExpectedDamageOnHit())
-               + ", Num Crits: " + LOG_DEC.format(getExpectedCriticals())
-               + ", Kill Prob: " + LOG_PER.format(getKillProbability());
+        return getAttackType().toString() + " P. Hit: " + LOG_PER.get().format(getProbabilityToHit())
+               + ", Max Dam: " + LOG_DEC.get().format(getMaxDamage())
+               + ", Exp. Dam: " + LOG_DEC.get().format(getExpectedDamageOnHit())
+               + ", Num Crits: " + LOG_DEC.get().format(getExpectedCriticals())
+               + ", Kill Prob: " + LOG_PER.get().format(getKillProbability());
 
     }
 }
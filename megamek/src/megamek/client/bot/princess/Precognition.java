@@ -235,6 +235,9 @@ public class Precognition implements Runnable {
             case Packet.COMMAND_SENDING_ENTITIES:
                 receiveEntities(c);
                 break;
+            case Packet.COMMAND_SENDING_ENTITY_DELTA:
+                receiveEntityDelta(c);
+                break;
             case Packet.COMMAND_SENDING_REPORTS:
             case Packet.COMMAND_SENDING_REPORTS_TACTICAL_GENIUS:
                 getGame().addReports((Vector<Report>) c.getObject(0));
@@ -384,15 +387,8 @@ public class Precognition implements Runnable {
                 if (getDone().get()) {
                     return;
                 }
-                
-                Integer entityId = getDirtyUnits().pollFirst();
-                Entity entity = getGame().getEntity(entityId);
-                if (entity != null) {
-                    getOwner().log(getClass(), METHOD_NAME, "recalculating paths for " + entity.getDisplayName());
-                    getPathEnumerator().recalculateMovesFor(entity);
-                    getOwner().log(getClass(), METHOD_NAME, "finished recalculating paths for " + entity
-                            .getDisplayName());
-                }
+
+                recalculateDirtyUnits(METHOD_NAME);
             }
         } finally {
             getOwner().methodEnd(getClass(), METHOD_NAME);
@@ -412,14 +408,8 @@ public class Precognition implements Runnable {
                     ecmInfo = ComputeECM.computeAllEntitiesECMInfo(
                             getGame().getEntitiesVector());
                 } else if (!getDirtyUnits().isEmpty()) {
-                    Entity entity = getGame().getEntity(getDirtyUnits().pollFirst());
-                    if (entity != null) {
-                        unPause();
-                        getOwner().log(getClass(), METHOD_NAME, "recalculating paths for " + entity.getDisplayName());
-                        getPathEnumerator().recalculateMovesFor(entity);
-                        getOwner().log(getClass(), METHOD_NAME, "finished recalculating paths for " + entity
-                                .getDisplayName());
-                    }
+                    unPause();
+                    recalculateDirtyUnits(METHOD_NAME);
                 } else if (getWaitWhenDone().get()) {
                     waitForUnpause(); // paused for a reason
                 } else {
@@ -431,6 +421,35 @@ public class Precognition implements Runnable {
         }
     }
 
+    /**
+     * Recalculates the paths of all the units that are dirty now. Their
+     * paths are found at the same time, while this thread holds off on
+     * processing game events, so the game doesn't change underneath them.
+     * Units made dirty in the meantime are left for the next call.
+     */
+    private void recalculateDirtyUnits(String methodName) {
+        List<Entity> movers = new ArrayList<>();
+        Integer entityId;
+        while ((entityId = getDirtyUnits().pollFirst()) != null) {
+            Entity entity = getGame().getEntity(entityId);
+            if (entity != null) {
+                movers.add(entity);
+            }
+        }
+        if (movers.isEmpty()) {
+            return;
+        }
+
+        for (Entity entity : movers) {
+            getOwner().log(getClass(), methodName, "recalculating paths for " + entity.getDisplayName());
+        }
+        getPathEnumerator().recalculateMovesFor(movers);
+        for (Entity entity : movers) {
+            getOwner().log(getClass(), methodName, "finished recalculating paths for " + entity
+                    .getDisplayName());
+        }
+    }
+
     public void signalDone() {
         getDone().set(true);
     }
@@ -522,6 +541,7 @@ public class Precognition implements Runnable {
                     GamePhaseChangeEvent phaseChange = (GamePhaseChangeEvent) event;
                     getOwner().log(getClass(), METHOD_NAME, "Phase change detected: " + phaseChange.getNewPhase()
                                                                                                    .name());
+                    clearToHitCache();
                     // this marks when I can all I can start recalculating paths.
                     // All units are dirty
                     if (phaseChange.getNewPhase() == IGame.Phase.PHASE_MOVEMENT) {
@@ -549,6 +569,8 @@ public class Precognition implements Runnable {
         getOwner().methodBegin(getClass(), METHOD_NAME);
 
         try {
+            clearToHitCache();
+
             // first of all, if a unit has been removed, remove it from the list and
             // stop
             if (getGame().getEntity(id) == null) {
@@ -616,6 +638,17 @@ public class Precognition implements Runnable {
         }
     }
 
+    /**
+     * Forgets the to hit modifiers guessed by the bot's {@link FireControl}, since they are only good while units
+     * stay put.
+     */
+    private void clearToHitCache() {
+        FireControl fireControl = getOwner().getFireControl();
+        if ((fireControl != null) && (fireControl.getToHitCache() != null)) {
+            fireControl.getToHitCache().clear();
+        }
+    }
+
     public PathEnumerator getPathEnumerator() {
         PATH_ENUMERATOR_LOCK.readLock().lock();
         try {
@@ -748,6 +781,16 @@ public class Precognition implements Runnable {
         }
     }
 
+    /**
+     * Applies the changed entities from the data in the net command.
+     */
+    @SuppressWarnings("unchecked")
+    protected void receiveEntityDelta(Packet c) {
+        List<Entity> changedEntities = (List<Entity>) c.getObject(0);
+        List<Integer> entityIds = (List<Integer>) c.getObject(1);
+        getGame().updateEntities(entityIds, changedEntities);
+    }
+
     /**
      * Loads entity update data from the data in the net command.
      */
@@ -85,7 +85,7 @@ public class Princess extends BotClient {
     private boolean fallBack = false;
     protected ChatProcessor chatProcessor = new ChatProcessor();
     private boolean fleeBoard = false;
-    private IMoralUtil moralUtil = new MoralUtil(logger);
+    private IMoralUtil moralUtil = new MoralUtil(logger, this);
     private final Set<Integer> attackedWhileFleeing =
             Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
     private final Set<Integer> myFleeingEntities = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
@@ -1094,6 +1094,8 @@ public class Princess extends BotClient {
             pathRanker = new BasicPathRanker(this);
             pathSearcher.ranker = pathRanker;
             fireControl = new FireControl(this);
+            // Precognition clears the cache whenever units move.
+            fireControl.setToHitCache(new ToHitCache());
             pathRanker.setFireControl(fireControl);
             pathRanker.setPathEnumerator(precognition.getPathEnumerator());
 
@@ -0,0 +1,122 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import megamek.common.ToHitData;
+
+/**
+ * Remembers the to hit modifiers {@link FireControl} guesses for a shooter and target in a given
+ * {@link EntityState}, such as the line of sight and terrain modifiers, so that they are worked out once rather than
+ * for every weapon and every path being ranked.
+ * <p/>
+ * The modifiers are only good as long as the units and the board don't change, so the cache has to be cleared
+ * whenever a unit moves and at every phase change.  It may be used by several threads at once.
+ */
+public class ToHitCache {
+
+    /**
+     * Beyond this many entries, the cache starts over rather than grow without bounds.
+     */
+    private static final int MAX_ENTRIES = 200000;
+
+    private final Map<Key, ToHitData> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param key The {@link Key} the modifiers were stored under.
+     * @return A copy of the modifiers stored under the given key, or null if there aren't any.
+     */
+    ToHitData get(Key key) {
+        ToHitData toHit = entries.get(key);
+        if (toHit == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return copy(toHit);
+    }
+
+    /**
+     * Stores a copy of the given modifiers.
+     */
+    void put(Key key, ToHitData toHit) {
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(key, copy(toHit));
+    }
+
+    /**
+     * Forgets all modifiers.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Only the modifiers are kept, which is all {@link FireControl} sets on the modifiers it caches.
+     */
+    private static ToHitData copy(ToHitData toHit) {
+        ToHitData copy = new ToHitData();
+        copy.append(toHit);
+        return copy;
+    }
+
+    /**
+     * Identifies a set of modifiers by everything they were worked out from.
+     */
+    static final class Key {
+        private final Object[] parts;
+        private final int hashCode;
+
+        Key(Object... parts) {
+            this.parts = parts;
+            hashCode = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            return (hashCode == ((Key) o).hashCode) && Arrays.equals(parts, ((Key) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -30,8 +30,19 @@ import java.text.NumberFormat;
  * @since: 11/24/14 2:50 PM
  */
 public class WeaponFireInfo {
-    private static final NumberFormat LOG_PER = NumberFormat.getPercentInstance();
-    private static final NumberFormat LOG_DEC = DecimalFormat.getInstance();
+    // Formats aren't thread safe, and paths may be ranked on several threads at once.
+    private static final ThreadLocal<NumberFormat> LOG_PER = new ThreadLocal<NumberFormat>() {
+        @Override
+        protected NumberFormat initialValue() {
+            return NumberFormat.getPercentInstance();
+        }
+    };
+    private static final ThreadLocal<NumberFormat> LOG_DEC = new ThreadLocal<NumberFormat>() {
+        @Override
+        protected NumberFormat initialValue() {
+            return DecimalFormat.getInstance();
+        }
+    };
 
     private WeaponAttackAction action;
     private Entity shooter;
@@ -382,14 +393,14 @@ public class WeaponFireInfo {
                 msg.append("\n\tAttacker has Natural Aptitude Gunnery");
             }
             setProbabilityToHit(Compute.oddsAbove(getToHit().getValue(), getShooterState().hasNaturalAptGun()) / 100);
-            msg.append("\n\tHit Chance: ").append(LOG_PER.format(getProbabilityToHit()));
+            msg.append("\n\tHit Chance: ").append(LOG_PER.get().format(getProbabilityToHit()));
 
             setHeat(((WeaponType) getWeapon().getType()).getHeat());
             msg.append("\n\tHeat: ").append(getHeat());
 
             setExpectedDamageOnHit(computeExpectedDamage());
             setMaxDamage(getExpectedDamageOnHit());
-            msg.append("\n\tMax Damage: ").append(LOG_DEC.format(maxDamage));
+            msg.append("\n\tMax Damage: ").append(LOG_DEC.get().format(maxDamage));
 
             double expectedCriticalHitCount = ProbabilityCalculator.getExpectedCriticalHitCount();
 
@@ -480,11 +491,11 @@ public class WeaponFireInfo {
     }
 
     String getDebugDescription() {
-        return getWeapon().getName() + " P. Hit: " + LOG_PER.format(getProbabilityToHit())
-                + ", Max Dam: " + LOG_DEC.format(getMaxDamage())
-                + ", Exp. Dam: " + LOG_DEC.format(getExpectedDamageOnHit())
-                + ", Num Crits: " + LOG_DEC.format(getExpectedCriticals())
-                + ", Kill Prob: " + LOG_PER.format(getKillProbability());
+        return getWeapon().getName() + " P. Hit: " + LOG_PER.get().format(getProbabilityToHit())
+                + ", Max Dam: " + LOG_DEC.get().format(getMaxDamage())
+                + ", Exp. Dam: " + LOG_DEC.get().format(getExpectedDamageOnHit())
+                + ", Num Crits: " + LOG_DEC.get().format(getExpectedCriticals())
+                + ", Kill Prob: " + LOG_PER.get().format(getKillProbability());
 
     }
 }
\ No newline at end of file
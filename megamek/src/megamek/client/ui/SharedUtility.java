@@ -29,6 +29,7 @@ import megamek.common.EntityMovementType;
 import megamek.common.IGame;
 import megamek.common.IHex;
 import megamek.common.Infantry;
+import megamek.common.MMRandom;
 import megamek.common.Mech;
 import megamek.common.MovePath;
 import megamek.common.MovePath.MoveStepType;
@@ -535,7 +536,7 @@ public class SharedUtility {
                     break;
                 }
                 if (a.isRandomMove()) {
-                    int roll = Compute.d6(1);
+                    int roll = Compute.d6(MMRandom.Stream.CLIENT, 1);
                     switch (roll) {
                     case 1:
                         md.addStep(MoveStepType.TURN_LEFT);
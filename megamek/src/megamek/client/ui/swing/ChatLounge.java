@@ -2657,7 +2657,7 @@ public class ChatLounge extends AbstractPhaseDisplay implements ActionListener,
         final IGame game = client.getGame();
         final GameOptions gOpts = game.getOptions();
         // enforce exclusive deployment zones in double blind
-        if (gOpts.booleanOption("double_blind") //$NON-NLS-1$
+        if (gOpts.booleanOption(GameOptions.DOUBLE_BLIND)
                 && gOpts.booleanOption("exclusive_db_deployment")) { //$NON-NLS-1$
             int i = client.getLocalPlayer().getStartingPos();
             if (i == 0) {
@@ -1013,8 +1013,7 @@ public class EquipChoicePanel extends JPanel implements Serializable {
                 }
 
                 if (m_Manipmounted != null){
-                    entity.getEquipment().remove(m_Manipmounted);
-                    entity.getMisc().remove(m_Manipmounted);
+                    entity.removeMisc(m_Manipmounted);
                 }            
                 
                 // Was no manipulator selected?
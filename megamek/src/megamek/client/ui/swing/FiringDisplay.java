@@ -92,6 +92,7 @@ import megamek.common.actions.UnjamTurretAction;
 import megamek.common.actions.WeaponAttackAction;
 import megamek.common.event.GamePhaseChangeEvent;
 import megamek.common.event.GameTurnChangeEvent;
+import megamek.common.options.GameOptions;
 import megamek.common.options.OptionsConstants;
 
 public class FiringDisplay extends StatusBarPhaseDisplay implements
@@ -1601,7 +1602,7 @@ public class FiringDisplay extends StatusBarPhaseDisplay implements
             boolean hasLos = LosEffects.calculateLos(game, cen, target)
                     .canSee();
             // In double blind, we need to "spot" the target as well as LoS
-            if (game.getOptions().booleanOption("double_blind")
+            if (game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)
                     && !Compute.inVisualRange(game, ce(), target)
                     && !Compute.inSensorRange(game, ce(), target, null)) {
                 hasLos = false;
@@ -17,7 +17,6 @@ package megamek.client.ui.swing;
 import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -38,6 +37,7 @@ import megamek.common.BuildingTarget;
 import megamek.common.Coords;
 import megamek.common.Entity;
 import megamek.common.EntityMovementType;
+import megamek.common.EquipmentFlags;
 import megamek.common.EquipmentMode;
 import megamek.common.HexTarget;
 import megamek.common.IBoard;
@@ -1282,7 +1282,7 @@ public class MapMenu extends JPopupMenu {
         return false;
     }
 
-    private boolean hasWeaponFlag(BigInteger weaponFlag) {
+    private boolean hasWeaponFlag(EquipmentFlags weaponFlag) {
 
         if (myEntity.getWeaponList().size() < 1) {
             return false;
@@ -56,11 +56,11 @@ import megamek.client.bot.ui.swing.BotGUI;
 import megamek.client.ui.IMegaMekGUI;
 import megamek.client.ui.Messages;
 import megamek.client.ui.swing.util.MegaMekController;
-import megamek.common.Compute;
 import megamek.common.Configuration;
 import megamek.common.IGame;
 import megamek.common.IPlayer;
 import megamek.common.KeyBindParser;
+import megamek.common.MMRandom;
 import megamek.common.MechFileParser;
 import megamek.common.MechSummaryCache;
 import megamek.common.Player;
@@ -345,7 +345,7 @@ public class MegaMekGUI implements IMegaMekGUI {
         }
 
         // kick off a RNG check
-        d6();
+        d6(MMRandom.Stream.CLIENT);
         // start server
         try {
             server = new Server(hd.serverPass, hd.port, hd.register, hd.register ? hd.metaserver : "");
@@ -434,7 +434,7 @@ public class MegaMekGUI implements IMegaMekGUI {
         }
 
         // kick off a RNG check
-        d6();
+        d6(MMRandom.Stream.CLIENT);
         // start server
         try {
             server = new Server(hd.serverPass, hd.port, hd.register, hd.register ? hd.metaserver : "");
@@ -620,7 +620,7 @@ public class MegaMekGUI implements IMegaMekGUI {
         }
 
         // kick off a RNG check
-        Compute.d6();
+        d6(MMRandom.Stream.CLIENT);
 
         // start server
         try {
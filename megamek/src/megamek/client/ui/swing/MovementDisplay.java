@@ -57,6 +57,7 @@ import megamek.common.IGame;
 import megamek.common.IHex;
 import megamek.common.IPlayer;
 import megamek.common.Infantry;
+import megamek.common.MMRandom;
 import megamek.common.ManeuverType;
 import megamek.common.Mech;
 import megamek.common.Minefield;
@@ -3382,7 +3383,7 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
             dumpBombsDialog.getChoices();
             // first make a control roll
             PilotingRollData psr = ce().getBasePilotingRoll(overallMoveType);
-            int ctrlroll = Compute.d6(2);
+            int ctrlroll = Compute.d6(MMRandom.Stream.CLIENT, 2);
             Report r = new Report(9500);
             r.subject = ce().getId();
             r.add(ce().getDisplayName());
@@ -186,7 +186,7 @@ public class StartingPositionDialog extends JDialog implements ActionListener {
         final GameOptions gOpts = client.getGame().getOptions();
         for (int i = 0; i < 11; i++) {
             if (ev.getSource().equals(butStartPos[i])) {
-                if (gOpts.booleanOption("double_blind") //$NON-NLS-1$
+                if (gOpts.booleanOption(GameOptions.DOUBLE_BLIND)
                         && gOpts.booleanOption("exclusive_db_deployment")) { //$NON-NLS-1$
                     if (i == 0) {
                         clientgui.doAlertDialog(
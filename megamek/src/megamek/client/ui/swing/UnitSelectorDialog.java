@@ -25,6 +25,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Map;
 
 import javax.swing.DefaultComboBoxModel;
@@ -64,6 +65,7 @@ import megamek.common.MechFileParser;
 import megamek.common.MechSearchFilter;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
+import megamek.common.MechSummaryIndex;
 import megamek.common.MechView;
 import megamek.common.TechConstants;
 import megamek.common.UnitType;
@@ -119,6 +121,8 @@ public class UnitSelectorDialog extends JDialog implements Runnable,
     private final static int KEY_TIMEOUT = 1000;
 
     private MechSummary[] mechs;
+    /** Index over <code>mechs</code>, whose rows are the table's rows. */
+    private MechSummaryIndex index;
 
     // For MML
     private Entity chosenEntity;
@@ -499,6 +503,21 @@ public class UnitSelectorDialog extends JDialog implements Runnable,
         final int nUnit = comboUnitType.getSelectedIndex() - 1;
         final boolean checkSupportVee = comboUnitType.getSelectedItem().equals(
                 Messages.getString("MechSelectorDialog.SupportVee"));
+        int year = null != client ? client.getGame().getOptions().intOption("year") : 999999;
+        // The criteria the index can answer are checked once for all units
+        final BitSet matches;
+        if (index != null) {
+            MechSummaryIndex.Query query = index.query().techLevel(nType)
+                    .years(Integer.MIN_VALUE, year).filter(searchFilter);
+            if (checkSupportVee) {
+                query.support(true);
+            } else if (nUnit != -1) {
+                query.unitType(UnitType.getTypeName(nUnit));
+            }
+            matches = query.toBitSet();
+        } else {
+            matches = null;
+        }
         //If current expression doesn't parse, don't update.
         try {
             unitTypeFilter = new RowFilter<MechTableModel,Integer>() {
@@ -506,38 +525,12 @@ public class UnitSelectorDialog extends JDialog implements Runnable,
                 public boolean include(Entry<? extends MechTableModel, ? extends Integer> entry) {
                     MechTableModel mechModel = entry.getModel();
                     MechSummary mech = mechModel.getMechSummary(entry.getIdentifier());
-                    int year = null != client ? client.getGame().getOptions().intOption("year") : 999999;
                     if (/* Weight */
                             ((nClass == EntityWeightClass.SIZE) || (mech.getWeightClass() == nClass)) &&
                             /*Canon*/
                             ((null != client && !client.getGame().getOptions().booleanOption("canon_only")) || mech.isCanon() || useAlternate) &&
-                            /*Technology Level*/
-                            ((nType == TechConstants.T_ALL)
-                                || (nType == mech.getType())
-                                || ((nType == TechConstants.T_IS_TW_ALL)
-                                    && ((mech.getType() <= TechConstants.T_IS_TW_NON_BOX)
-                                     || (mech.getType() == TechConstants.T_INTRO_BOXSET)))
-                                || ((nType == TechConstants.T_TW_ALL)
-                                    && ((mech.getType() <= TechConstants.T_IS_TW_NON_BOX)
-                                     || (mech.getType() <= TechConstants.T_INTRO_BOXSET)
-                                     || (mech.getType() <= TechConstants.T_CLAN_TW)))
-                                || ((nType == TechConstants.T_ALL_IS)
-                                    && ((mech.getType() <= TechConstants.T_IS_TW_NON_BOX)
-                                     || (mech.getType() == TechConstants.T_INTRO_BOXSET)
-                                     || (mech.getType() == TechConstants.T_IS_ADVANCED)
-                                     || (mech.getType() == TechConstants.T_IS_EXPERIMENTAL)
-                                     || (mech.getType() == TechConstants.T_IS_UNOFFICIAL)))
-                                || ((nType == TechConstants.T_ALL_CLAN)
-                                    && ((mech.getType() == TechConstants.T_CLAN_TW)
-                                     || (mech.getType() == TechConstants.T_CLAN_ADVANCED)
-                                     || (mech.getType() == TechConstants.T_CLAN_EXPERIMENTAL)
-                                     || (mech.getType() == TechConstants.T_CLAN_UNOFFICIAL))))
-                            && ((nUnit == -1) 
-                                    || (!checkSupportVee && mech.getUnitType().equals(UnitType.getTypeName(nUnit)))
-                                    || (checkSupportVee && mech.isSupport()))
-                            /*Advanced Search*/
-                            && ((searchFilter==null) || MechSearchFilter.isMatch(mech, searchFilter))
-                            && !(mech.getYear() > year)) {
+                            /*Technology Level, Unit Type, Advanced Search, Year*/
+                            ((matches == null) || matches.get(entry.getIdentifier()))) {
                         if(txtFilter.getText().length() > 0) {
                             String text = txtFilter.getText();
                             return mech.getName().toLowerCase().contains(text.toLowerCase());
@@ -665,6 +658,7 @@ public class UnitSelectorDialog extends JDialog implements Runnable,
          // "Please wait..." dialog to behave properly on various Java VMs.
          MechSummaryCache mscInstance = MechSummaryCache.getInstance();
          mechs = mscInstance.getAllMechs();
+         index = mscInstance.getIndex();
 
          // break out if there are no units to filter
          if (mechs == null) {
@@ -317,8 +317,12 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
     // Initial scale factor for sprites and map
     float scale = 1.00f;
-    private ImageCache<Integer, Image> scaledImageCache =
-            new ImageCache<Integer, Image>();
+    /**
+     * Scaled images, by zoom level and base image; see
+     * {@link #scaledImageKey(Image)}.
+     */
+    private ImageCache<Long, Image> scaledImageCache =
+            new ImageCache<Long, Image>();
     private ImageCache<Integer, BufferedImage> shadowImageCache =
             new ImageCache<Integer, BufferedImage>();
 
@@ -422,7 +426,15 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             throws java.io.IOException {
         this.game = game;
 
-        hexImageCache = new ImageCache<Coords, HexImageCacheEntry>();
+        // Hex images are the bulk of what the board view caches, so they get
+        // a bigger share of the heap
+        hexImageCache = new ImageCache<Coords, HexImageCacheEntry>(
+                ImageCache.MAX_SIZE, Runtime.getRuntime().maxMemory() / 4) {
+            @Override
+            protected long sizeOf(HexImageCacheEntry entry) {
+                return estimateSize(entry.hexImage);
+            }
+        };
 
         tileManager = new TilesetManager(this);
         ToolTipManager.sharedInstance().registerComponent(this);
@@ -2850,7 +2862,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 continue;
             }
             if ((localPlayer != null)
-                && game.getOptions().booleanOption("double_blind")
+                && game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)
                 && entity.getOwner().isEnemyOf(localPlayer)
                 && !entity.hasSeenEntity(localPlayer)
                 && !entity.hasDetectedEntity(localPlayer)) {
@@ -4243,7 +4255,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             if ((mp != null) && (mp.size() > 0) && guip.getShowMoveStep()
                     && !gopts.booleanOption("simultaneous_movement")) {
                 if ((localPlayer == null)
-                        || !game.getOptions().booleanOption("double_blind")
+                        || !game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)
                         || !en.getOwner().isEnemyOf(localPlayer)
                         || en.hasSeenEntity(localPlayer)) {
                     addMovingUnit(en, mp);
@@ -5081,8 +5093,6 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
         hex_size = new Dimension((int) (HEX_W * scale), (int) (HEX_H * scale));
 
-        scaledImageCache = new ImageCache<Integer, Image>();
-
         cursorSprite.prepare();
         highlightSprite.prepare();
         selectedSprite.prepare();
@@ -5151,7 +5161,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         Image scaled;
         if (useCache) {
             // Check the cache
-            scaled = scaledImageCache.get(base.hashCode());
+            scaled = scaledImageCache.get(scaledImageKey(base));
         } else {
             scaled = null;
         }
@@ -5188,12 +5198,21 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             tracker.removeImage(scaled);
             // Cache the image if the flag is set
             if (useCache) {
-                scaledImageCache.put(base.hashCode(), scaled);
+                scaledImageCache.put(scaledImageKey(base), scaled);
             }
         }
         return scaled;
     }
 
+    /**
+     * Returns the key of the given image, scaled to the current zoom level, in
+     * the scaled image cache. Scaled images for other zoom levels stay cached
+     * so that zooming back doesn't have to scale them again.
+     */
+    private long scaledImageKey(Image base) {
+        return ((long) zoomIndex << 32) | (base.hashCode() & 0xFFFFFFFFL);
+    }
+
     /**
      * The actual scaling code.
      */
@@ -36,6 +36,7 @@ import megamek.common.RangeType;
 import megamek.common.Tank;
 import megamek.common.TechConstants;
 import megamek.common.WeaponType;
+import megamek.common.options.GameOptions;
 import megamek.common.options.OptionsConstants;
 import megamek.common.options.PilotOptions;
 import megamek.common.preference.PreferenceManager;
@@ -652,9 +653,9 @@ class EntitySprite extends Sprite {
         if (localPlayer == null) {
             return false;
         }
-        if (this.bv.game.getOptions().booleanOption("double_blind") //$NON-NLS-1$
+        if (this.bv.game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)
                 && ((e.getOwner().getId() == this.bv.getLocalPlayer().getId()) || (this.bv.game
-                        .getOptions().booleanOption("team_vision") //$NON-NLS-1$
+                        .getOptions().booleanOption(GameOptions.TEAM_VISION)
                 && (e.getOwner().getTeam() == this.bv.getLocalPlayer().getTeam())))) {
             return true;
         }
@@ -669,11 +670,11 @@ class EntitySprite extends Sprite {
      */
     private boolean onlyDetectedBySensors() {
         boolean sensors = bv.game.getOptions().booleanOption(
-                "tacops_sensors");
+                GameOptions.TACOPS_SENSORS);
         boolean sensorsDetectAll = bv.game.getOptions().booleanOption(
                 "sensors_detect_all");
         boolean doubleBlind = bv.game.getOptions().booleanOption(
-                "double_blind");
+                GameOptions.DOUBLE_BLIND);
         boolean hasVisual = entity.hasSeenEntity(bv.getLocalPlayer());
         boolean hasDetected = entity.hasDetectedEntity(bv.getLocalPlayer());
 
@@ -23,6 +23,7 @@ import megamek.common.IGame.Phase;
 import megamek.common.event.GameListener;
 import megamek.common.event.GameListenerAdapter;
 import megamek.common.event.GameTurnChangeEvent;
+import megamek.common.options.GameOptions;
 import megamek.common.preference.IPreferenceChangeListener;
 import megamek.common.preference.PreferenceChangeEvent;
 
@@ -185,7 +186,7 @@ class FovHighlightingAndDarkening {
                 if (!los.canSee() || (dist > visualRange)) {
                     if (darken) {
                         if (boardView1.game.getOptions().booleanOption(
-                                "tacops_sensors")
+                                GameOptions.TACOPS_SENSORS)
                                 && (dist > minSensorRange)
                                 && (dist <= maxSensorRange)) {
                             boardView1.drawHexLayer(p, boardGraph,
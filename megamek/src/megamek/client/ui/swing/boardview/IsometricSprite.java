@@ -17,6 +17,7 @@ import megamek.common.Coords;
 import megamek.common.Entity;
 import megamek.common.GunEmplacement;
 import megamek.common.IPlayer;
+import megamek.common.options.GameOptions;
 import megamek.common.options.IOptions;
 
 /**
@@ -192,9 +193,9 @@ class IsometricSprite extends Sprite {
             return false;
         }
         IOptions opts = this.bv.game.getOptions();
-        if (opts.booleanOption("double_blind") //$NON-NLS-1$
+        if (opts.booleanOption(GameOptions.DOUBLE_BLIND)
                 && ((e.getOwner().getId() == localPlayer.getId()) 
-                        || (opts.booleanOption("team_vision") //$NON-NLS-1$
+                        || (opts.booleanOption(GameOptions.TEAM_VISION)
                 && (e.getOwner().getTeam() == localPlayer.getTeam())))) {
             return true;
         }
@@ -209,11 +210,11 @@ class IsometricSprite extends Sprite {
      */
     private boolean onlyDetectedBySensors() {
         boolean sensors = bv.game.getOptions().booleanOption(
-                "tacops_sensors");
+                GameOptions.TACOPS_SENSORS);
         boolean sensorsDetectAll = bv.game.getOptions().booleanOption(
                 "sensors_detect_all");
         boolean doubleBlind = bv.game.getOptions().booleanOption(
-                "double_blind");
+                GameOptions.DOUBLE_BLIND);
         boolean hasVisual = entity.hasSeenEntity(bv.getLocalPlayer());
         boolean hasDetected = entity.hasDetectedEntity(bv.getLocalPlayer());
 
@@ -15,41 +15,80 @@
 
 package megamek.client.ui.swing.util;
 
-import java.util.Hashtable;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * An ImageCache that keeps a Hashtable of mapped keys and values.
- * 
+ * An ImageCache that keeps the most recently used key/value pairs. Once the
+ * cache holds more than its maximum number of entries, or its values take up
+ * more than its byte budget, the least recently used entries are dropped.
+ * The size of a value is estimated from the dimensions of the images in it.
+ *
  * @author Arlith
  */
 public class ImageCache<K, V> {
-    
+
     /**
      * Default maximum size
      */
     public static int MAX_SIZE = 20000;
-    
 
     /**
-     * The cache of Key/Value pairs.
+     * Default byte budget: an eighth of the heap.
+     */
+    public static final long DEFAULT_MAX_BYTES = Runtime.getRuntime()
+            .maxMemory() / 8;
+
+    /**
+     * The cache of Key/Value pairs, in order of use.
+     */
+    private LinkedHashMap<K, V> cache;
+
+    /**
+     * The estimated size of each value, so that it needn't be recomputed
+     * when the value is dropped.
      */
-    private Hashtable<K, V> cache;
-        
+    private Map<K, Long> sizes;
+
+    private int maxSize;
+    private long maxBytes;
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
     /**
      * Create a cache with the default maximum size.
      */
     public ImageCache() {
-        cache = new Hashtable<K, V>(MAX_SIZE * 5 / 4, .75f);
+        this(MAX_SIZE);
     }
 
-    
     public ImageCache(int max) {
-        cache = new Hashtable<K, V>(max * 5 / 4, .75f);
+        this(max, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Create a cache with the given maximum number of entries and byte
+     * budget.
+     */
+    public ImageCache(int max, long maxBytes) {
+        maxSize = max;
+        this.maxBytes = maxBytes;
+        cache = new LinkedHashMap<K, V>(16, .75f, true);
+        sizes = new HashMap<K, Long>();
     }
 
     /**
      * Adds a new key/value pair into the cache.
-     * 
+     *
      * @param key
      * @param value
      * @return
@@ -57,28 +96,118 @@ public class ImageCache<K, V> {
     public synchronized V put(K key, V value) {
         if ((key == null) || (value == null))
             return null;
-      
+
+        remove(key);
+        long size = sizeOf(value);
         cache.put(key, value);
+        sizes.put(key, size);
+        bytes += size;
+        evict();
         return value;
     }
 
     public synchronized V get(K key) {
-        if (!cache.containsKey(key))
-            return null;
-
-        return cache.get(key);
+        V value = cache.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
     }
 
-    public void remove(Object key) {
-        cache.remove(key);
+    public synchronized void remove(Object key) {
+        if (cache.remove(key) != null) {
+            bytes -= sizes.remove(key);
+        }
     }
-    
-    public int size(){
+
+    public synchronized int size(){
         return cache.size();
     }
-    
-    public void clear() {
+
+    public synchronized void clear() {
         cache.clear();
+        sizes.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return the estimated number of bytes taken up by the cached values
+     */
+    public synchronized long getByteSize() {
+        return bytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the number of entries dropped to stay within the limits
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImageCache[" + cache.size() + " entries, " + bytes
+                + " bytes, " + hits + " hits, " + misses + " misses, "
+                + evictions + " evictions]";
+    }
+
+    /**
+     * Drops the least recently used entries until the cache is within its
+     * limits. The most recent entry is always kept.
+     */
+    private void evict() {
+        Iterator<K> keys = cache.keySet().iterator();
+        while (((cache.size() > maxSize) || (bytes > maxBytes))
+                && (cache.size() > 1)) {
+            K eldest = keys.next();
+            keys.remove();
+            bytes -= sizes.remove(eldest);
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns the estimated size in bytes of a value. By default images and
+     * collections of images are measured; subclasses can override this for
+     * other kinds of values.
+     */
+    protected long sizeOf(V value) {
+        return estimateSize(value);
+    }
+
+    /**
+     * Estimates the memory taken up by the pixels of an image, or of all the
+     * images in a collection. Anything else counts as one byte.
+     */
+    public static long estimateSize(Object value) {
+        if (value instanceof BufferedImage) {
+            DataBuffer buffer = ((BufferedImage) value).getRaster()
+                    .getDataBuffer();
+            return (long) buffer.getSize() * buffer.getNumBanks()
+                    * (DataBuffer.getDataTypeSize(buffer.getDataType()) / 8);
+        } else if (value instanceof Image) {
+            Image image = (Image) value;
+            // Assume 32 bits per pixel; images that aren't loaded yet count
+            // as a single pixel
+            return 4L * Math.max(1, image.getWidth(null))
+                    * Math.max(1, image.getHeight(null));
+        } else if (value instanceof Collection<?>) {
+            long size = 0;
+            for (Object element : (Collection<?>) value) {
+                size += estimateSize(element);
+            }
+            return Math.max(1, size);
+        }
+        return 1;
     }
-    
 }
@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.Vector;
 
 import megamek.common.MovePath.MoveStepType;
+import megamek.common.options.GameOptions;
 import megamek.common.options.OptionsConstants;
 import megamek.common.weapons.EnergyWeapon;
 import megamek.common.weapons.PPCWeapon;
@@ -3567,7 +3568,7 @@ public class Aero extends Entity {
      */
     @Override
     public int getECMRange() {
-        if (!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
         return Math.min(super.getECMRange(), 0);
@@ -3578,7 +3579,7 @@ public class Aero extends Entity {
      */
     @Override
     public double getECCMStrength() {
-        if (!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.getECCMStrength();
         }
         if (hasActiveECCM()) {
@@ -15,7 +15,6 @@
 
 package megamek.common;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -134,60 +133,47 @@ public class AmmoType extends EquipmentType {
     public static final int NUM_TYPES = 104;
 
     // ammo flags
-    public static final BigInteger F_MG = BigInteger.valueOf(1).shiftLeft(0);
-    public static final BigInteger F_BATTLEARMOR = BigInteger.valueOf(1)
-            .shiftLeft(1); // only
+    public static final EquipmentFlags F_MG = EquipmentFlags.of(0);
+    public static final EquipmentFlags F_BATTLEARMOR = EquipmentFlags.of(1); // only
     // used
     // by
     // BA
     // squads
-    public static final BigInteger F_PROTOMECH = BigInteger.valueOf(1)
-            .shiftLeft(2); // only
+    public static final EquipmentFlags F_PROTOMECH = EquipmentFlags.of(2); // only
     // used
     // by
     // Protomechs
-    public static final BigInteger F_HOTLOAD = BigInteger.valueOf(1).shiftLeft(
-            3); // Ammo
+    public static final EquipmentFlags F_HOTLOAD = EquipmentFlags.of(3); // Ammo
     // Can
     // be
     // hotloaded
-    public static final BigInteger F_ENCUMBERING = BigInteger.valueOf(1)
-            .shiftLeft(4); // BA
+    public static final EquipmentFlags F_ENCUMBERING = EquipmentFlags.of(4); // BA
     // can't
     // jump
     // or
     // make
     // antimech until dumped
-    public static final BigInteger F_MML_LRM = BigInteger.valueOf(1).shiftLeft(
-            5); // LRM
+    public static final EquipmentFlags F_MML_LRM = EquipmentFlags.of(5); // LRM
     // type
-    public static final BigInteger F_AR10_WHITE_SHARK = BigInteger.valueOf(1)
-            .shiftLeft(6); // White
+    public static final EquipmentFlags F_AR10_WHITE_SHARK = EquipmentFlags.of(6); // White
     // shark
     // type
-    public static final BigInteger F_AR10_KILLER_WHALE = BigInteger.valueOf(1)
-            .shiftLeft(7); // Killer
+    public static final EquipmentFlags F_AR10_KILLER_WHALE = EquipmentFlags.of(7); // Killer
     // Whale
     // type
-    public static final BigInteger F_AR10_BARRACUDA = BigInteger.valueOf(1)
-            .shiftLeft(8); // barracuda
+    public static final EquipmentFlags F_AR10_BARRACUDA = EquipmentFlags.of(8); // barracuda
     // type
-    public static final BigInteger F_NUCLEAR = BigInteger.valueOf(1).shiftLeft(
-            9); // Nuclear
+    public static final EquipmentFlags F_NUCLEAR = EquipmentFlags.of(9); // Nuclear
     // missile
-    public static final BigInteger F_TELE_MISSILE = BigInteger.valueOf(1)
-            .shiftLeft(10); // Tele-Missile
-    public static final BigInteger F_CAP_MISSILE = BigInteger.valueOf(1)
-            .shiftLeft(11); // Tele-Missile
-    public static final BigInteger F_SPACE_BOMB = BigInteger.valueOf(1)
-            .shiftLeft(12); // can
+    public static final EquipmentFlags F_TELE_MISSILE = EquipmentFlags.of(10); // Tele-Missile
+    public static final EquipmentFlags F_CAP_MISSILE = EquipmentFlags.of(11); // Tele-Missile
+    public static final EquipmentFlags F_SPACE_BOMB = EquipmentFlags.of(12); // can
     // be
     // used
     // to
     // space
     // bomb
-    public static final BigInteger F_GROUND_BOMB = BigInteger.valueOf(1)
-            .shiftLeft(13); // can
+    public static final EquipmentFlags F_GROUND_BOMB = EquipmentFlags.of(13); // can
     // be
     // used
     // to
@@ -236,7 +236,7 @@ public class Board implements Serializable, IBoard {
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 if (coords.distance(x, y) == distance) {
-                    retVal.add(new Coords(x, y));
+                    retVal.add(Coords.valueOf(x, y));
                     // retVal.add(getHex(x, y));
                 }
             }
@@ -429,7 +429,7 @@ public class Board implements Serializable, IBoard {
             hex.setExits(other, i, roadsAutoExit);
         }
         if (event) {
-            processBoardEvent(new BoardEvent(this, new Coords(x, y),
+            processBoardEvent(new BoardEvent(this, Coords.valueOf(x, y),
                                              BoardEvent.BOARD_CHANGED_HEX));
         }
     }
@@ -528,8 +528,8 @@ public class Board implements Serializable, IBoard {
             if (currHex.hasExitableTerrain()) {
                 for (int dir = 0; dir < 6; dir++) {
                     if (currHex.containsExit(dir)) {
-                        needsUpdate.add(new Coords(Coords.xInDir(x, y, dir),
-                                                   Coords.yInDir(x, y, dir)));
+                        needsUpdate.add(Coords.valueOf(Coords.xInDir(x, y, dir),
+                                                       Coords.yInDir(x, y, dir)));
                     }
                 }
             }
@@ -791,7 +791,7 @@ public class Board implements Serializable, IBoard {
                     }
                     int elevation = Integer.parseInt(args[1]);
                     int newIndex = indexFor(args[0], nw, y_pos);
-                    nd[newIndex] = new Hex(elevation, args[2], args[3], new Coords(x_pos - 1, y_pos - 1));
+                    nd[newIndex] = new Hex(elevation, args[2], args[3], Coords.valueOf(x_pos - 1, y_pos - 1));
                     x_pos++;
                     if (x_pos > nw) {
                         y_pos++;
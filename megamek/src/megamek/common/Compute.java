@@ -38,6 +38,7 @@ import megamek.common.actions.PushAttackAction;
 import megamek.common.actions.ThrashAttackAction;
 import megamek.common.actions.TripAttackAction;
 import megamek.common.actions.WeaponAttackAction;
+import megamek.common.options.GameOptions;
 import megamek.common.options.OptionsConstants;
 import megamek.common.weapons.ArtilleryCannonWeapon;
 import megamek.common.weapons.BayWeapon;
@@ -126,27 +127,31 @@ public class Compute {
      * Wrapper to random#d6(n)
      */
     public static int d6(int dice) {
-        Roll roll = random.d6(dice);
-        if (Server.getServerInstance() != null) {
-            if (Server.getServerInstance().getGame().getOptions()
-                      .booleanOption("rng_log")) {
-                Server.getServerInstance().reportRoll(roll);
-            }
-        }
+        return d6(MMRandom.Stream.COMBAT, dice);
+    }
+
+    /**
+     * Wrapper to random#d6(n), for the given part of the game
+     */
+    public static int d6(MMRandom.Stream stream, int dice) {
+        Roll roll = getRNG(stream).d6(dice);
+        reportRoll(stream, roll);
         return roll.getIntValue();
     }
 
+    /**
+     * Wrapper to rng#d6(n), for code with an RNG of its own, like a bot
+     */
+    public static int d6(MMRandom rng, int dice) {
+        return rng.d6(dice).getIntValue();
+    }
+
     /**
      * Wrapper to random#d6(n)
      */
     public static int d6(int dice, int keep) {
-        Roll roll = random.d6(dice, keep);
-        if (Server.getServerInstance() != null) {
-            if (Server.getServerInstance().getGame().getOptions()
-                      .booleanOption("rng_log")) {
-                Server.getServerInstance().reportRoll(roll);
-            }
-        }
+        Roll roll = getRNG(MMRandom.Stream.COMBAT).d6(dice, keep);
+        reportRoll(MMRandom.Stream.COMBAT, roll);
         return roll.getIntValue();
     }
 
@@ -154,31 +159,72 @@ public class Compute {
      * Wrapper to random#d6()
      */
     public static int d6() {
-        Roll roll = random.d6();
-        if (Server.getServerInstance() != null) {
+        return d6(MMRandom.Stream.COMBAT);
+    }
+
+    /**
+     * Wrapper to random#d6(), for the given part of the game
+     */
+    public static int d6(MMRandom.Stream stream) {
+        Roll roll = getRNG(stream).d6();
+        reportRoll(stream, roll);
+        return roll.getIntValue();
+    }
+
+    private static void reportRoll(MMRandom.Stream stream, Roll roll) {
+        if ((stream != MMRandom.Stream.CLIENT)
+            && (Server.getServerInstance() != null)) {
             if (Server.getServerInstance().getGame().getOptions()
                       .booleanOption("rng_log")) {
                 Server.getServerInstance().reportRoll(roll);
             }
         }
-        return roll.getIntValue();
     }
 
     /**
      * Wrapper to random#randomInt(n)
      */
     public static int randomInt(int maxValue) {
-        Roll roll = new MMRoll(random, maxValue);
+        return randomInt(MMRandom.Stream.COMBAT, maxValue);
+    }
+
+    /**
+     * Wrapper to random#randomInt(n), for the given part of the game
+     */
+    public static int randomInt(MMRandom.Stream stream, int maxValue) {
+        Roll roll = new MMRoll(getRNG(stream), maxValue);
         return roll.getIntValue();
     }
 
     /**
-     * Sets the RNG to the desired type
+     * Wrapper to rng#randomInt(n), for code with an RNG of its own, like a
+     * bot
+     */
+    public static int randomInt(MMRandom rng, int maxValue) {
+        return new MMRoll(rng, maxValue).getIntValue();
+    }
+
+    /**
+     * Sets the RNG to the desired type. This is only used where the game's
+     * server has no RNG of its own.
      */
     public static void setRNG(int type) {
         random = MMRandom.generate(type);
     }
 
+    /**
+     * Returns the RNG of the game being played on the current thread, if its
+     * server has one, and the shared RNG otherwise. The client stream always
+     * comes from the shared RNG, so it never takes numbers from a game or
+     * ends up in its journal.
+     */
+    private static MMRandom getRNG(MMRandom.Stream stream) {
+        Server server = (stream == MMRandom.Stream.CLIENT) ? null
+                : Server.getServerInstance();
+        MMRandom rng = (server != null) ? server.getRNG() : null;
+        return ((rng != null) ? rng : random).getStream(stream);
+    }
+
     /**
      * Returns the odds that a certain number or above will be rolled on 2d6.
      */
@@ -758,7 +804,7 @@ public class Compute {
                         target, true);
                 ToHitData mods = los.losModifiers(game);
                 // If the target isn't spotted, can't target
-                if (game.getOptions().booleanOption("double_blind")
+                if (game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)
                     && !Compute.inVisualRange(game, los, other, target)
                     && !Compute.inSensorRange(game, los, other, target, null)) {
                     mods.addModifier(TargetRoll.IMPOSSIBLE,
@@ -1045,7 +1091,7 @@ public class Compute {
             && game.getOptions().booleanOption("indirect_fire")
             && !game.getOptions().booleanOption("indirect_always_possible")
             && LosEffects.calculateLos(game, ae.getId(), target).canSee()
-            && (!game.getOptions().booleanOption("double_blind") || Compute
+            && (!game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND) || Compute
                 .canSee(game, ae, target))
             && !(wtype instanceof ArtilleryCannonWeapon)
             && !(wtype instanceof MekMortarWeapon)) {
@@ -3681,7 +3727,7 @@ public class Compute {
     public static boolean inSensorRange(IGame game, LosEffects los, Entity ae, 
             Targetable target, List<ECMInfo> allECMInfo) {
 
-        if (!game.getOptions().booleanOption("tacops_sensors")) {
+        if (!game.getOptions().booleanOption(GameOptions.TACOPS_SENSORS)) {
             return false;
         }
 
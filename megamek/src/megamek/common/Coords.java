@@ -16,6 +16,7 @@ package megamek.common;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Coords stores x and y values. Since these are hexes, coordinates with odd x
@@ -56,9 +57,58 @@ public class Coords implements Serializable {
      */
     public static final int MAX_BOARD_WIDTH = (Integer.MAX_VALUE - Coords.MAX_BOARD_HEIGHT) >> (Coords.SHIFT + 2);
 
+    /**
+     * The most lines kept by the intervening() cache before it is cleared.
+     */
+    private static final int INTERVENING_CACHE_SIZE = 1 << 15;
+
+    /**
+     * Offsets are only cached up to this distance in either direction.
+     */
+    private static final int INTERVENING_CACHE_RANGE = 1 << 11;
+
+    /**
+     * Cache of the lines computed by intervening(). The line between two hexes
+     * only depends on their offset and on whether the starting column is odd,
+     * so the hexes are stored as x, y offsets from the start, keyed by
+     * <code>interveningKey</code>.
+     */
+    private static final ConcurrentHashMap<Integer, int[]> interveningCache = new ConcurrentHashMap<Integer, int[]>();
+
+    /**
+     * Canonical instances of the coordinates that can be on a board, by column
+     * and row. Columns are created as they are first used.
+     */
+    private static final Coords[][] pool = new Coords[MAX_BOARD_HEIGHT + 1][];
+
     private final int x;
     private final int y;
 
+    /**
+     * Returns the coordinate pair at (x, y). Coordinates that can be on a board
+     * are shared instances, so this does not allocate for them; anything else
+     * is a new instance.
+     */
+    public static Coords valueOf(int x, int y) {
+        if ((x < 0) || (y < 0) || (x > MAX_BOARD_HEIGHT)
+                || (y > MAX_BOARD_HEIGHT)) {
+            return new Coords(x, y);
+        }
+        Coords[] column = pool[x];
+        if (column == null) {
+            column = new Coords[MAX_BOARD_HEIGHT + 1];
+            pool[x] = column;
+        }
+        Coords c = column[y];
+        if (c == null) {
+            // Coords are immutable, so racing threads can at worst each
+            // create their own
+            c = new Coords(x, y);
+            column[y] = c;
+        }
+        return c;
+    }
+
     /**
      * Constructs a new coordinate pair at (x, y).
      */
@@ -96,7 +146,7 @@ public class Coords implements Serializable {
     public final Coords translated(int dir, int distance) {
         int newx = xInDir(getX(), getY(), dir, distance);
         int newy = yInDir(getX(), getY(), dir, distance);
-        return new Coords(newx, newy);
+        return valueOf(newx, newy);
     }
 
     public final Coords translated(String dir) {
@@ -209,7 +259,15 @@ public class Coords implements Serializable {
      * @param d the destination coordinate.
      */
     public int direction(Coords d) {
-        return (int) Math.round(radian(d) / HEXSIDE) % 6;
+        return direction(getX(), getY(), d.getX(), d.getY());
+    }
+
+    /**
+     * Returns the direction in which the coordinate (x2, y2) lies from the
+     * coordinate (x1, y1); 0 if the coordinates are equal.
+     */
+    public static int direction(int x1, int y1, int x2, int y2) {
+        return (int) Math.round(radian(x1, y1, x2, y2) / HEXSIDE) % 6;
     }
 
     /**
@@ -218,8 +276,16 @@ public class Coords implements Serializable {
      * @param d the destination coordinate.
      */
     public final double radian(Coords d) {
-        final IdealHex src = IdealHex.get(this);
-        final IdealHex dst = IdealHex.get(d);
+        return radian(getX(), getY(), d.getX(), d.getY());
+    }
+
+    /**
+     * Returns the radian direction of the coordinate (x2, y2) from the
+     * coordinate (x1, y1).
+     */
+    public static double radian(int x1, int y1, int x2, int y2) {
+        final IdealHex src = IdealHex.get(x1, y1);
+        final IdealHex dst = IdealHex.get(x2, y2);
 
         // don't divide by 0
         if (src.cy == dst.cy) {
@@ -252,28 +318,35 @@ public class Coords implements Serializable {
      * Returns the distance to another coordinate.
      */
     public final int distance(Coords c) {
+        return distance(getX(), getY(), c.getX(), c.getY());
+    }
+
+    public final int distance(int distx, int disty) {
+        return distance(getX(), getY(), distx, disty);
+    }
+
+    /**
+     * Returns the distance between the coordinates (x1, y1) and (x2, y2).
+     */
+    public static int distance(int x1, int y1, int x2, int y2) {
         // based off of
         // http://www.rossmack.com/ab/RPG/traveller/AstroHexDistance.asp
         // since I'm too dumb to make my own
         int xd, ym, ymin, ymax, yo;
-        xd = Math.abs(this.getX() - c.getX());
-        yo = (xd / 2) + (!isXOdd() && c.isXOdd() ? 1 : 0);
-        ymin = this.getY() - yo;
+        xd = Math.abs(x1 - x2);
+        yo = (xd / 2) + (((x1 & 1) == 0) && ((x2 & 1) == 1) ? 1 : 0);
+        ymin = y1 - yo;
         ymax = ymin + xd;
         ym = 0;
-        if (c.getY() < ymin) {
-            ym = ymin - c.getY();
+        if (y2 < ymin) {
+            ym = ymin - y2;
         }
-        if (c.getY() > ymax) {
-            ym = c.getY() - ymax;
+        if (y2 > ymax) {
+            ym = y2 - ymax;
         }
         return xd + ym;
     }
 
-    public final int distance(int distx, int disty) {
-        return distance(new Coords(distx, disty));
-    }
-
     /**
      * Returns a string representing a coordinate in "board number" format.
      */
@@ -341,7 +414,7 @@ public class Coords implements Serializable {
             hashx = -hashx;
         if (negy)
             hashy = -hashy;
-        return new Coords(hashx, hashy);
+        return valueOf(hashx, hashy);
     }
 
     @Override
@@ -387,6 +460,64 @@ public class Coords implements Serializable {
      * @return The list of intervening coordinates.
      */
     public static ArrayList<Coords> intervening(Coords src, Coords dest, boolean split) {
+        int dx = dest.getX() - src.getX();
+        int dy = dest.getY() - src.getY();
+        // Negative coordinates have a different idea of odd columns
+        if ((src.getX() < 0) || (src.getY() < 0) || (dest.getX() < 0)
+                || (dest.getY() < 0) || (Math.abs(dx) >= INTERVENING_CACHE_RANGE)
+                || (Math.abs(dy) >= INTERVENING_CACHE_RANGE)) {
+            return computeIntervening(src, dest, split);
+        }
+        // Lines that run exactly along a hex corner are traced in an order
+        // that depends on floating point rounding of the actual positions,
+        // so those are not shared between offsets
+        int dyIdeal = (2 * dy) + (dest.isXOdd() ? 1 : 0) - (src.isXOdd() ? 1 : 0);
+        if (!split && (dx != 0) && (Math.abs(dyIdeal) == (3 * Math.abs(dx)))) {
+            return computeIntervening(src, dest, split);
+        }
+        Integer key = interveningKey(dx, dy, src.isXOdd(), split);
+        int[] offsets = interveningCache.get(key);
+        if (offsets == null) {
+            ArrayList<Coords> hexes = computeIntervening(src, dest, split);
+            offsets = new int[hexes.size() * 2];
+            for (int i = 0; i < hexes.size(); i++) {
+                offsets[2 * i] = hexes.get(i).getX() - src.getX();
+                offsets[(2 * i) + 1] = hexes.get(i).getY() - src.getY();
+            }
+            if (interveningCache.size() >= INTERVENING_CACHE_SIZE) {
+                interveningCache.clear();
+            }
+            interveningCache.put(key, offsets);
+            return hexes;
+        }
+        ArrayList<Coords> hexes = new ArrayList<>(offsets.length / 2);
+        hexes.add(src);
+        for (int i = 2; i < (offsets.length - 2); i += 2) {
+            hexes.add(valueOf(src.getX() + offsets[i], src.getY()
+                    + offsets[i + 1]));
+        }
+        if (offsets.length > 2) {
+            hexes.add(dest);
+        }
+        return hexes;
+    }
+
+    /**
+     * Returns the intervening() cache key for a line from a hex in an odd or
+     * even column to the hex at the given offset.
+     */
+    private static int interveningKey(int dx, int dy, boolean oddColumn,
+            boolean split) {
+        return ((dx + INTERVENING_CACHE_RANGE) << 14)
+                | ((dy + INTERVENING_CACHE_RANGE) << 2)
+                | (oddColumn ? 2 : 0) | (split ? 1 : 0);
+    }
+
+    /**
+     * Computes the line for intervening(), without the cache.
+     */
+    private static ArrayList<Coords> computeIntervening(Coords src,
+            Coords dest, boolean split) {
         IdealHex iSrc = IdealHex.get(src);
         IdealHex iDest = IdealHex.get(dest);
 
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.Vector;
 
+import megamek.common.options.GameOptions;
 import megamek.common.weapons.BayWeapon;
 
 /**
@@ -1412,7 +1413,7 @@ public class Dropship extends SmallCraft {
      */
     @Override
     public boolean hasActiveECM() {
-        if (!game.getOptions().booleanOption("stratops_ecm")
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)
                 || !game.getBoard().inSpace()) {
             return super.hasActiveECM();
         }
@@ -1427,7 +1428,7 @@ public class Dropship extends SmallCraft {
      */
     @Override
     public int getECMRange() {
-        if (!game.getOptions().booleanOption("stratops_ecm")
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)
                 || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
@@ -16,7 +16,6 @@
 package megamek.common;
 
 import java.io.Serializable;
-import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -441,6 +440,13 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     protected ArrayList<Mounted> miscList = new ArrayList<Mounted>();
 
+    /**
+     * The misc equipment, by flag, so that looking for equipment of a type
+     * only looks at the mounts of that type. It is rebuilt whenever misc
+     * equipment is added or removed.
+     */
+    private transient volatile MiscIndex miscIndex = null;
+
     protected ArrayList<INarcPod> pendingINarcPods = new ArrayList<INarcPod>();
     protected ArrayList<INarcPod> iNarcPods = new ArrayList<INarcPod>();
     protected ArrayList<NarcPod> pendingNarcPods = new ArrayList<NarcPod>();
@@ -3037,6 +3043,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         }
         if (mounted.getType() instanceof MiscType) {
             miscList.add(mounted);
+            miscIndex = null;
         }
     }
 
@@ -3378,7 +3385,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         return bombList;
     }
 
-    public Vector<Mounted> getBombs(BigInteger flag) {
+    public Vector<Mounted> getBombs(EquipmentFlags flag) {
         Vector<Mounted> bombs = new Vector<Mounted>();
         for (Mounted bomb : getBombs()) {
             BombType btype = (BombType) bomb.getType();
@@ -3399,11 +3406,22 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             if (mounted.getName().equals(toRemove)) {
                 miscList.remove(mounted);
                 equipmentList.remove(mounted);
+                miscIndex = null;
                 break;
             }
         }
     }
 
+    /**
+     * Removes the given misc eq. Used for swapping out battle armor
+     * manipulators.
+     */
+    public void removeMisc(Mounted toRemove) {
+        miscList.remove(toRemove);
+        equipmentList.remove(toRemove);
+        miscIndex = null;
+    }
+
     public void removeWeapon(String toRemove) {
         for (Mounted mounted : getMisc()) {
             if (mounted.getName().equals(toRemove)) {
@@ -3482,7 +3500,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param flag A MiscType.F_XXX
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingMisc(BigInteger flag) {
+    public boolean hasWorkingMisc(EquipmentFlags flag) {
         return hasWorkingMisc(flag, -1);
     }
 
@@ -3493,8 +3511,8 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param secondary A MiscType.S_XXX or -1 for don't care
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingMisc(BigInteger flag, long secondary) {
-        for (Mounted m : miscList) {
+    public boolean hasWorkingMisc(EquipmentFlags flag, long secondary) {
+        for (Mounted m : getMiscIndex().get(flag)) {
             if ((m.getType() instanceof MiscType) && m.isReady()) {
                 MiscType type = (MiscType) m.getType();
                 if (type.hasFlag(flag)
@@ -3506,8 +3524,8 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         return false;
     }
     
-    public boolean hasMisc(BigInteger flag) {
-        for (Mounted m : miscList) {
+    public boolean hasMisc(EquipmentFlags flag) {
+        for (Mounted m : getMiscIndex().get(flag)) {
             if ((m.getType() instanceof MiscType)) {
                 MiscType type = (MiscType) m.getType();
                 if (type.hasFlag(flag)) {
@@ -3524,13 +3542,13 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param flag
      * @return
      */
-    public int countWorkingMisc(BigInteger flag) {
+    public int countWorkingMisc(EquipmentFlags flag) {
         return countWorkingMisc(flag, -1);
     }
 
-    public int countWorkingMisc(BigInteger flag, int location) {
+    public int countWorkingMisc(EquipmentFlags flag, int location) {
         int count = 0;
-        for (Mounted m : getMisc()) {
+        for (Mounted m : getMiscIndex().get(flag)) {
             if (!m.isInoperable() && m.getType().hasFlag(flag)
                 && (!m.getType().hasModes() || m.curMode().equals("On"))) { //$NON-NLS-1$
                 if ((location == -1) || (m.getLocation() == location)) {
@@ -3567,7 +3585,10 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param location  The location to check e.g. Mech.LOC_LARM
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingMisc(BigInteger flag, long secondary, int location) {
+    public boolean hasWorkingMisc(EquipmentFlags flag, long secondary, int location) {
+        if (getMiscIndex().get(flag).length == 0) {
+            return false;
+        }
         // go through the location slot by slot, because of misc equipment that
         // is spreadable
         for (int slot = 0; slot < getNumberOfCriticals(location); slot++) {
@@ -3590,12 +3611,72 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         return false;
     }
 
+    private MiscIndex getMiscIndex() {
+        MiscIndex index = miscIndex;
+        if (index == null) {
+            index = new MiscIndex(miscList);
+            miscIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * The misc equipment of an entity by flag. Only which equipment is mounted
+     * is indexed; whether it works is up to the callers, as that changes with
+     * every hit, mode switch and phase.
+     */
+    private static final class MiscIndex {
+        private static final Mounted[] NO_MOUNTS = new Mounted[0];
+
+        private final Mounted[] mounts;
+
+        /**
+         * The flags of all the mounts
+         */
+        private final EquipmentFlags flags;
+
+        private final Map<EquipmentFlags, Mounted[]> mountsByFlag = new ConcurrentHashMap<EquipmentFlags, Mounted[]>();
+
+        MiscIndex(List<Mounted> miscList) {
+            mounts = miscList.toArray(new Mounted[miscList.size()]);
+            EquipmentFlags allFlags = EquipmentFlags.NONE;
+            for (Mounted m : mounts) {
+                if (m.getType() != null) {
+                    allFlags = allFlags.or(m.getType().getFlags());
+                }
+            }
+            flags = allFlags;
+        }
+
+        /**
+         * @return the mounts with any of the given flags, in the order they
+         *         were mounted
+         */
+        Mounted[] get(EquipmentFlags flag) {
+            if (!flags.intersects(flag)) {
+                return NO_MOUNTS;
+            }
+            Mounted[] found = mountsByFlag.get(flag);
+            if (found == null) {
+                List<Mounted> matches = new ArrayList<Mounted>();
+                for (Mounted m : mounts) {
+                    if ((m.getType() != null) && m.getType().hasFlag(flag)) {
+                        matches.add(m);
+                    }
+                }
+                found = matches.toArray(new Mounted[matches.size()]);
+                mountsByFlag.put(flag, found);
+            }
+            return found;
+        }
+    }
+
     /**
      * Check if the entity has an arbitrary type of weapon
      *
      * @param flag A WeaponType.F_XXX
      */
-    public boolean hasWorkingWeapon(BigInteger flag) {
+    public boolean hasWorkingWeapon(EquipmentFlags flag) {
         return hasWorkingWeapon(flag, -1);
     }
 
@@ -3606,7 +3687,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param secondary A WeaponType.S_XXX or -1 for don't care
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingWeapon(BigInteger flag, long secondary) {
+    public boolean hasWorkingWeapon(EquipmentFlags flag, long secondary) {
         for (Mounted m : weaponList) {
             if ((m.getType() instanceof WeaponType) && m.isReady()) {
                 WeaponType type = (WeaponType) m.getType();
@@ -3645,7 +3726,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param location  The location to check e.g. Mech.LOC_LARM
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingWeapon(BigInteger flag, int secondary, int location) {
+    public boolean hasWorkingWeapon(EquipmentFlags flag, int secondary, int location) {
         // go through the location slot by slot, because of misc equipment that
         // is spreadable
         for (int slot = 0; slot < getNumberOfCriticals(location); slot++) {
@@ -4276,7 +4357,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveECM(boolean stealth) {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption("stratops_ecm")) {
+            && !game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             return false;
         }
         if (!isShutDown()) {
@@ -4306,7 +4387,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveAngelECM() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption("stratops_ecm")) {
+            && !game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             return false;
         }
         if (game.getOptions().booleanOption("tacops_angel_ecm")
@@ -4331,7 +4412,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveNovaECM() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption("stratops_ecm")) {
+            && !game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             return false;
         }
         if (!isShutDown()) {
@@ -4400,11 +4481,11 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveECCM() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption("stratops_ecm")) {
+            && !game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             return false;
         }
         if ((game.getOptions().booleanOption("tacops_eccm") || game
-                .getOptions().booleanOption("stratops_ecm")) && !isShutDown()) {
+                .getOptions().booleanOption(GameOptions.STRATOPS_ECM)) && !isShutDown()) {
             for (Mounted m : getMisc()) {
                 EquipmentType type = m.getType();
                 // TacOps p. 100 Angle ECM can have 1 ECM and 1 ECCM at the same
@@ -4459,7 +4540,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public int getECMRange() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption("stratops_ecm")) {
+            && !game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             return Entity.NONE;
         }
         // If we have stealth up and running, there's no bubble.
@@ -8207,7 +8288,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public boolean isVisibleToEnemy() {
         // If double blind isn't on, the unit is always visible
-        if ((game != null) && !game.getOptions().booleanOption("double_blind")) {
+        if ((game != null) && !game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)) {
             return true;
         }
         return visibleToEnemy;
@@ -8219,7 +8300,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public boolean isDetectedByEnemy() {
         // If double blind isn't on, the unit is always detected
-        if ((game != null) && !game.getOptions().booleanOption("double_blind")) {
+        if ((game != null) && !game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)) {
             return true;
         }
         return detectedByEnemy;
@@ -8250,7 +8331,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public boolean hasSeenEntity(IPlayer p) {
         // No double blind - everyone sees everything
-        if ((game == null) || !game.getOptions().booleanOption("double_blind")) {
+        if ((game == null) || !game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)) {
             return true;
         }
         // Null players see nothing
@@ -8266,7 +8347,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             return true;
         }
         // If team vision, see if any players on team can see
-        if (game.getOptions().booleanOption("team_vision")) {
+        if (game.getOptions().booleanOption(GameOptions.TEAM_VISION)) {
             for (IPlayer teammate : game.getPlayersVector()) {
                 if ((teammate.getTeam() == p.getTeam())
                         && entitySeenBy.contains(teammate)) {
@@ -8312,7 +8393,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasDetectedEntity(IPlayer p) {
         // No sensors - no one detects anything
         if ((game == null)
-                || !game.getOptions().booleanOption("tacops_sensors")) {
+                || !game.getOptions().booleanOption(GameOptions.TACOPS_SENSORS)) {
             return false;
         }
         // Null players detect nothing
@@ -8328,7 +8409,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             return true;
         }
         // If team vision, see if any players on team can see
-        if (game.getOptions().booleanOption("team_vision")) {
+        if (game.getOptions().booleanOption(GameOptions.TEAM_VISION)) {
             for (IPlayer teammate : game.getPlayersVector()) {
                 if ((teammate.getTeam() == p.getTeam())
                         && entityDetectedBy.contains(teammate)) {
@@ -8352,14 +8433,14 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         boolean alliedUnit = 
                 !getOwner().isEnemyOf(spotter)
                 || (getOwner().getTeam() == spotter.getTeam() 
-                    && game.getOptions().booleanOption("team_vision"));
+                    && game.getOptions().booleanOption(GameOptions.TEAM_VISION));
         
         boolean sensors = game.getOptions().booleanOption(
-                "tacops_sensors");
+                GameOptions.TACOPS_SENSORS);
         boolean sensorsDetectAll = game.getOptions().booleanOption(
                 "sensors_detect_all");
         boolean doubleBlind = game.getOptions().booleanOption(
-                "double_blind");
+                GameOptions.DOUBLE_BLIND);
         
         return sensors && doubleBlind && !alliedUnit && !sensorsDetectAll 
                 && !hasSeenEntity(spotter) && hasDetectedEntity(spotter);
@@ -10538,7 +10619,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         for (Mounted misc : getMisc()) {
             if (misc.getType().hasFlag(MiscType.F_BAP)
                 && (this instanceof Aero)
-                && gameOpts.booleanOption("stratops_ecm")) {
+                && gameOpts.booleanOption(GameOptions.STRATOPS_ECM)) {
                 ArrayList<String> modes = new ArrayList<String>();
                 String[] stringArray = {};
                 modes.add("Short");
@@ -10556,7 +10637,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
                     if (misc.getType().hasFlag(MiscType.F_ANGEL_ECM)) {
                         modes.add("ECM & ECCM");
                     }
-                } else if (gameOpts.booleanOption("stratops_ecm")
+                } else if (gameOpts.booleanOption(GameOptions.STRATOPS_ECM)
                            && (this instanceof Aero)) {
                     modes.add("ECCM");
                     if (misc.getType().hasFlag(MiscType.F_ANGEL_ECM)) {
@@ -10808,7 +10889,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         // E(C)CM operates differently in space (SO pg 110)
         if (game.getBoard().inSpace()) {
             // No ECM in space unless SO rule is on
-            if (!game.getOptions().booleanOption("stratops_ecm")) {
+            if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
                 return null;
             }
             int range = getECMRange();
@@ -10882,7 +10963,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         // E(C)CM operates differently in space (SO pg 110)
         if (game.getBoard().inSpace()) {
             // No ECCM in space unless SO rule is on
-            if (!game.getOptions().booleanOption("stratops_ecm")) {
+            if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
                 return null;
             }
             int bapRange = getBAPRange();
@@ -13343,7 +13424,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public int getTechLevelYear() {
         if (game != null) {
-            return game.getOptions().intOption("year");
+            return game.getOptions().intOption(GameOptions.YEAR);
         }
         return year;
     }
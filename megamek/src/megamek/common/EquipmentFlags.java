@@ -0,0 +1,149 @@
+/*
+ * MegaMek - Copyright (C) 2002,2003,2004 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ */
+
+package megamek.common;
+
+import java.io.Serializable;
+
+/**
+ * A set of equipment flags, such as <code>MiscType.F_CASE</code>. Like the
+ * <code>BigInteger</code> flags it replaces, it is immutable, but it is a
+ * fixed number of bits held in plain longs, so that checking for a flag
+ * doesn't create any objects.
+ */
+public final class EquipmentFlags implements Serializable {
+
+    private static final long serialVersionUID = -6361738372829178254L;
+
+    /**
+     * The number of flags a set can hold
+     */
+    public static final int SIZE = 256;
+
+    public static final EquipmentFlags NONE = new EquipmentFlags(0, 0, 0, 0);
+
+    private final long bits0;
+    private final long bits1;
+    private final long bits2;
+    private final long bits3;
+
+    private EquipmentFlags(long bits0, long bits1, long bits2, long bits3) {
+        this.bits0 = bits0;
+        this.bits1 = bits1;
+        this.bits2 = bits2;
+        this.bits3 = bits3;
+    }
+
+    /**
+     * @param bit the number of the flag, from 0 to <code>SIZE - 1</code>
+     * @return the set holding just the given flag
+     */
+    public static EquipmentFlags of(int bit) {
+        if ((bit < 0) || (bit >= SIZE)) {
+            throw new IllegalArgumentException("No equipment flag #" + bit);
+        }
+        long mask = 1L << bit;
+        switch (bit >>> 6) {
+            case 0:
+                return new EquipmentFlags(mask, 0, 0, 0);
+            case 1:
+                return new EquipmentFlags(0, mask, 0, 0);
+            case 2:
+                return new EquipmentFlags(0, 0, mask, 0);
+            default:
+                return new EquipmentFlags(0, 0, 0, mask);
+        }
+    }
+
+    /**
+     * @return the flags in this set or the other
+     */
+    public EquipmentFlags or(EquipmentFlags other) {
+        return new EquipmentFlags(bits0 | other.bits0, bits1 | other.bits1,
+                bits2 | other.bits2, bits3 | other.bits3);
+    }
+
+    /**
+     * @return the flags in both this set and the other
+     */
+    public EquipmentFlags and(EquipmentFlags other) {
+        return new EquipmentFlags(bits0 & other.bits0, bits1 & other.bits1,
+                bits2 & other.bits2, bits3 & other.bits3);
+    }
+
+    /**
+     * @return the flags in this set but not the other
+     */
+    public EquipmentFlags andNot(EquipmentFlags other) {
+        return new EquipmentFlags(bits0 & ~other.bits0, bits1 & ~other.bits1,
+                bits2 & ~other.bits2, bits3 & ~other.bits3);
+    }
+
+    /**
+     * @return all flags not in this set
+     */
+    public EquipmentFlags not() {
+        return new EquipmentFlags(~bits0, ~bits1, ~bits2, ~bits3);
+    }
+
+    /**
+     * @return true if this set and the other have any flag in common
+     */
+    public boolean intersects(EquipmentFlags other) {
+        return ((bits0 & other.bits0) | (bits1 & other.bits1)
+                | (bits2 & other.bits2) | (bits3 & other.bits3)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return (bits0 | bits1 | bits2 | bits3) == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EquipmentFlags)) {
+            return false;
+        }
+        EquipmentFlags other = (EquipmentFlags) o;
+        return (bits0 == other.bits0) && (bits1 == other.bits1)
+                && (bits2 == other.bits2) && (bits3 == other.bits3);
+    }
+
+    @Override
+    public int hashCode() {
+        long h = bits0;
+        h = (31 * h) + bits1;
+        h = (31 * h) + bits2;
+        h = (31 * h) + bits3;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @return the numbers of the flags in the set, as in "{3, 64}"
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        long[] words = { bits0, bits1, bits2, bits3 };
+        for (int word = 0; word < words.length; word++) {
+            for (int bit = 0; bit < 64; bit++) {
+                if ((words[word] & (1L << bit)) != 0) {
+                    if (sb.length() > 1) {
+                        sb.append(", ");
+                    }
+                    sb.append((word * 64) + bit);
+                }
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
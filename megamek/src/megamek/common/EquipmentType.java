@@ -20,7 +20,6 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -182,7 +181,7 @@ public class EquipmentType {
 
     protected Map<Integer, Integer> techLevel = new HashMap<Integer, Integer>();
 
-    protected BigInteger flags = BigInteger.valueOf(0);
+    protected EquipmentFlags flags = EquipmentFlags.NONE;
 
     protected long subType = 0;
 
@@ -221,7 +220,7 @@ public class EquipmentType {
         // default constructor
     }
 
-    public void setFlags(BigInteger inF) {
+    public void setFlags(EquipmentFlags inF) {
         flags = inF;
     }
 
@@ -403,12 +402,12 @@ public class EquipmentType {
         return toHitModifier;
     }
 
-    public BigInteger getFlags() {
+    public EquipmentFlags getFlags() {
         return flags;
     }
 
-    public boolean hasFlag(BigInteger flag) {
-        return !(flags.and(flag)).equals(BigInteger.valueOf(0));
+    public boolean hasFlag(EquipmentFlags flag) {
+        return flags.intersects(flag);
     }
 
     public double getBV(Entity entity) {
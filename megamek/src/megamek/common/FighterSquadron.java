@@ -22,6 +22,7 @@ import java.util.Set;
 import java.util.Vector;
 
 import megamek.common.IGame.Phase;
+import megamek.common.options.GameOptions;
 
 /**
  * @author Jay Lawson Fighter squadrons are basically "containers" for a bunch
@@ -240,7 +241,7 @@ public class FighterSquadron extends Aero {
 
     @Override
     public boolean hasActiveECM() {
-        if (!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.hasActiveECM();
         }
         boolean hasActiveECM = false;
@@ -933,6 +933,28 @@ public class Game implements Serializable, IGame {
         processGameEvent(new GameEntityNewEvent(this, entities));
     }
 
+    public synchronized void updateEntities(List<Integer> ids,
+            List<Entity> changedEntities) {
+        Map<Integer, Entity> changed = new HashMap<Integer, Entity>();
+        for (Entity entity : changedEntities) {
+            changed.put(entity.getId(), entity);
+        }
+        List<Entity> newEntities = new ArrayList<Entity>(ids.size());
+        for (Integer id : ids) {
+            Entity entity = changed.get(id);
+            if (entity == null) {
+                entity = entityIds.get(id);
+            }
+            if (entity != null) {
+                newEntities.add(entity);
+            } else {
+                System.err.println("Game#updateEntities: unknown unchanged "
+                        + "entity #" + id);
+            }
+        }
+        setEntitiesVector(newEntities);
+    }
+
     /**
      * Returns the actual vector for the out-of-game entities
      */
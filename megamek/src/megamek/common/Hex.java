@@ -30,17 +30,54 @@ public class Hex implements IHex, Serializable {
      *
      */
     private static final long serialVersionUID = 82483704768044698L;
+
+    private static final ITerrain[] NO_TERRAINS = new ITerrain[0];
+
+    /**
+     * Terrain types that can burn.
+     */
+    private static final long IGNITABLE_MASK = (1L << Terrains.WOODS)
+            | (1L << Terrains.JUNGLE) | (1L << Terrains.BUILDING)
+            | (1L << Terrains.FUEL_TANK) | (1L << Terrains.FIELDS)
+            | (1L << Terrains.INDUSTRIAL);
+
+    /**
+     * Terrain types that don't keep aircraft from taking off.
+     */
+    private static final long TAKEOFF_MASK = (1L << Terrains.PAVEMENT)
+            | (1L << Terrains.ROAD) | (1L << Terrains.FLUFF)
+            | (1L << Terrains.ARMS) | (1L << Terrains.LEGS)
+            | (1L << Terrains.SNOW) | (1L << Terrains.MUD)
+            | (1L << Terrains.SMOKE) | (1L << Terrains.METAL_CONTENT);
+
+    static {
+        // The terrain types have to fit the bits of terrainMask
+        assert Terrains.SIZE <= Long.SIZE;
+    }
+
     private int level;
     /**
-     * An array to store the terrain types present in this hex.  The array
-     * allows for constant access to the terrain type given a terrain id.
+     * The terrain types present in this hex, as a bit mask with bit
+     * <code>1L << type</code> set for each type present.
+     */
+    private long terrainMask;
+    /**
+     * The terrains present in this hex, in order of their type. The terrain
+     * of a given type is at the index given by the number of bits set in
+     * <code>terrainMask</code> below its bit, so it can be looked up in
+     * constant time without keeping a slot for every terrain type.
+     */
+    private ITerrain[] presentTerrains = NO_TERRAINS;
+    /**
+     * The terrains by type, as hexes were saved before
+     * <code>terrainMask</code>. Only set while such a hex is read back from an
+     * older saved game, see {@link #readResolve()}, and null otherwise, so it
+     * isn't saved again; it can't be transient, as XStream wouldn't read it.
      */
     private ITerrain[] terrains;
     /**
-     * A HashMap analog to <code>terrains</code>.  It contains the exact
-     *  same terrain types as <code>terrains</code>, however it allows an
-     *  efficient way to access all present terrains.
-     *
+     * The terrain types of a hex saved before <code>terrainMask</code>; only
+     * there so that such a hex can still be read.
      */
     private HashSet<Integer> hsTerrains;
     private String theme;
@@ -53,26 +90,20 @@ public class Hex implements IHex, Serializable {
 
     /** Constructs clean, plain hex at specified level. */
     public Hex(int level) {
-        this(level, new ITerrain[Terrains.SIZE], null, new Coords(0,0));
+        this(level, NO_TERRAINS, null, Coords.valueOf(0, 0));
     }
 
     public Hex(int level, ITerrain[] terrains, String theme) {
-        this(level, terrains, theme, new Coords(0,0));
+        this(level, terrains, theme, Coords.valueOf(0, 0));
     }
 
     /** Constructs hex with all parameters. */
     public Hex(int level, ITerrain[] terrains, String theme, Coords c) {
         this.level = level;
         coords = c;
-        this.terrains = terrains;
-        // Creates a HM with a capacity that is 25% larger than the number of
-        //  terrain types.  This should prevent us from every having to resize
-        hsTerrains = new HashSet<Integer>(
-                (int)((Terrains.SIZE * 1.25) + 0.5), 0.75f);
-
-        for (int i = 0; i < terrains.length; i++){
-            if (terrains[i] != null){
-                hsTerrains.add(i);
+        for (ITerrain terrain : terrains) {
+            if (terrain != null) {
+                addTerrain(terrain);
             }
         }
 
@@ -84,12 +115,12 @@ public class Hex implements IHex, Serializable {
     }
 
     public Hex(int level, String terrain, String theme) {
-        this(level,terrain,theme,new Coords(0,0));
+        this(level,terrain,theme,Coords.valueOf(0, 0));
     }
 
     /** Contructs hex with string terrain info */
     public Hex(int level, String terrain, String theme, Coords c) {
-        this(level, new ITerrain[Terrains.SIZE], theme, c);
+        this(level, NO_TERRAINS, theme, c);
         for (StringTokenizer st = new StringTokenizer(terrain, ";", false); st
                 .hasMoreTokens();) {
             addTerrain(Terrains.getTerrainFactory().createTerrain(
@@ -97,16 +128,35 @@ public class Hex implements IHex, Serializable {
         }
     }
 
+    /**
+     * Rebuilds the terrains of a hex saved before <code>terrainMask</code>,
+     * such as in an older saved game, from the terrains it was saved with.
+     */
+    private Object readResolve() {
+        if (presentTerrains == null) {
+            presentTerrains = NO_TERRAINS;
+        }
+        if (terrains != null) {
+            for (ITerrain terrain : terrains) {
+                if (terrain != null) {
+                    addTerrain(terrain);
+                }
+            }
+        }
+        terrains = null;
+        hsTerrains = null;
+        return this;
+    }
+
     /*
      * (non-Javadoc)
      *
      * @see megamek.common.IHex#getTerrainTypes()
      */
     public int[] getTerrainTypes(){
-        int []rv = new int[hsTerrains.size()];
-        int tdx = 0;
-        for (Integer i : hsTerrains){
-            rv[tdx++] = i;
+        int []rv = new int[presentTerrains.length];
+        for (int tdx = 0; tdx < presentTerrains.length; tdx++) {
+            rv[tdx] = presentTerrains[tdx].getType();
         }
         return rv;
     }
@@ -153,9 +203,8 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#clearExits()
      */
     public void clearExits() {
-        for (Integer i : hsTerrains){
-            ITerrain t = terrains[i];
-            if ((t != null) && !t.hasExitsSpecified()) {
+        for (ITerrain t : presentTerrains) {
+            if (!t.hasExitsSpecified()) {
                 t.setExits(0);
             }
         }
@@ -176,16 +225,15 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#setExits(megamek.common.IHex, int, boolean)
      */
     public void setExits(IHex other, int direction, boolean roadsAutoExit) {
-        for (Integer i : hsTerrains){
-            ITerrain cTerr = getTerrain(i);
+        for (ITerrain cTerr : presentTerrains) {
             ITerrain oTerr;
 
-            if ((cTerr == null) || cTerr.hasExitsSpecified()) {
+            if (cTerr.hasExitsSpecified()) {
                 continue;
             }
 
             if (other != null) {
-                oTerr = other.getTerrain(i);
+                oTerr = other.getTerrain(cTerr.getType());
             } else {
                 oTerr = null;
             }
@@ -231,7 +279,7 @@ public class Hex implements IHex, Serializable {
 
             // See if we have an exit in the given direction.
             final int exits = terr.getExits();
-            final int exitInDir = (int) Math.pow(2, direction);
+            final int exitInDir = 1 << direction;
             if ((exits & exitInDir) > 0) {
                 result = true;
             }
@@ -245,11 +293,15 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#containsExit(int)
      */
     public boolean containsExit(int direction){
-        boolean rv = false;
-        for (Integer terrType : hsTerrains){
-            rv |= containsTerrainExit(terrType, direction);           
+        if ((direction < 0) || (direction > 5)) {
+            return false;
         }
-        return rv;
+        for (ITerrain terrain : presentTerrains) {
+            if ((terrain.getExits() & (1 << direction)) != 0) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /*
@@ -258,11 +310,12 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#hasExitableTerrain()
      */
     public boolean hasExitableTerrain(){
-        boolean rv = false;
-        for (Integer terrType : hsTerrains){
-            rv |= Terrains.exitableTerrain(terrType);           
+        for (ITerrain terrain : presentTerrains) {
+            if (Terrains.exitableTerrain(terrain.getType())) {
+                return true;
+            }
         }
-        return rv;
+        return false;
     }
 
     /*
@@ -364,8 +417,8 @@ public class Hex implements IHex, Serializable {
      * @return
      */
     public boolean hasTerrainfactor() {
-        for (int type : hsTerrains) {
-            if (terrains[type].getTerrainFactor() > 0) {
+        for (ITerrain terrain : presentTerrains) {
+            if (terrain.getTerrainFactor() > 0) {
                 return true;
             }
         }
@@ -378,7 +431,7 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#contains(int)
      */
     public boolean containsTerrain(int type) {
-        return getTerrain(type) != null;
+        return (terrainMask & (1L << type)) != 0;
     }
 
     /*
@@ -424,7 +477,11 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#getTerrain(int)
      */
     public ITerrain getTerrain(int type) {
-        return terrains[type];
+        long bit = 1L << type;
+        if ((terrainMask & bit) == 0) {
+            return null;
+        }
+        return presentTerrains[Long.bitCount(terrainMask & (bit - 1))];
     }
 
     /*
@@ -433,8 +490,19 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#addTerrain(megamek.common.Terrain)
      */
     public void addTerrain(ITerrain terrain) {
-        terrains[terrain.getType()] = terrain;
-        hsTerrains.add(terrain.getType());
+        long bit = 1L << terrain.getType();
+        int index = Long.bitCount(terrainMask & (bit - 1));
+        if ((terrainMask & bit) != 0) {
+            presentTerrains[index] = terrain;
+            return;
+        }
+        ITerrain[] newTerrains = new ITerrain[presentTerrains.length + 1];
+        System.arraycopy(presentTerrains, 0, newTerrains, 0, index);
+        newTerrains[index] = terrain;
+        System.arraycopy(presentTerrains, index, newTerrains, index + 1,
+                presentTerrains.length - index);
+        presentTerrains = newTerrains;
+        terrainMask |= bit;
     }
 
     /*
@@ -443,8 +511,17 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#removeTerrain(int)
      */
     public void removeTerrain(int type) {
-        terrains[type] = null;
-        hsTerrains.remove(type);
+        long bit = 1L << type;
+        if ((terrainMask & bit) == 0) {
+            return;
+        }
+        int index = Long.bitCount(terrainMask & (bit - 1));
+        ITerrain[] newTerrains = new ITerrain[presentTerrains.length - 1];
+        System.arraycopy(presentTerrains, 0, newTerrains, 0, index);
+        System.arraycopy(presentTerrains, index + 1, newTerrains, index,
+                newTerrains.length - index);
+        presentTerrains = newTerrains;
+        terrainMask &= ~bit;
     }
 
     /*
@@ -453,10 +530,8 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#removeAllTerrains()
      */
     public void removeAllTerrains() {
-        for (int i = 0; i < terrains.length; i++) {
-            terrains[i] = null;
-        }
-        hsTerrains.clear();
+        presentTerrains = NO_TERRAINS;
+        terrainMask = 0;
     }
 
     /*
@@ -466,9 +541,9 @@ public class Hex implements IHex, Serializable {
      */
     public int displayableTerrainsPresent() {
         int present = 0;
-        for (Integer i : hsTerrains){
-            if ((null != terrains[i]) &&
-                    (null != Terrains.getDisplayName(i,terrains[i].getLevel()))){
+        for (ITerrain terrain : presentTerrains) {
+            if (null != Terrains.getDisplayName(terrain.getType(),
+                    terrain.getLevel())) {
                 present++;
             }
         }
@@ -479,7 +554,7 @@ public class Hex implements IHex, Serializable {
      * report the number of terrains present for the tooltips.
      */
     public int terrainsPresent() {
-        return hsTerrains.size();
+        return presentTerrains.length;
     }
 
     /*
@@ -488,32 +563,26 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#duplicate
      */
     public IHex duplicate() {
-        ITerrain[] tcopy = new ITerrain[terrains.length];
+        ITerrain[] tcopy = new ITerrain[presentTerrains.length];
         ITerrainFactory f = Terrains.getTerrainFactory();
-        for (Integer i : hsTerrains){
-            if (terrains[i] != null) {
-                tcopy[i] = f.createTerrain(terrains[i]);
-            }
+        for (int i = 0; i < presentTerrains.length; i++) {
+            tcopy[i] = f.createTerrain(presentTerrains[i]);
         }
         return new Hex(level, tcopy, theme, coords);
     }
 
     public int terrainPilotingModifier(EntityMovementMode moveMode) {
         int rv = 0;
-        for (Integer i : hsTerrains){
-            if (terrains[i] != null) {
-                rv += terrains[i].pilotingModifier(moveMode);
-            }
+        for (ITerrain terrain : presentTerrains) {
+            rv += terrain.pilotingModifier(moveMode);
         }
         return rv;
     }
 
     public int movementCost(Entity entity) {
         int rv = 0;
-        for (Integer i : hsTerrains){
-            if (terrains[i] != null) {
-                rv += terrains[i].movementCost(entity);
-            }
+        for (ITerrain terrain : presentTerrains) {
+            rv += terrain.movementCost(entity);
         }
         return rv;
     }
@@ -523,47 +592,44 @@ public class Hex implements IHex, Serializable {
         String temp;
         temp = "Level: " + getLevel();
         temp = temp + "  Features: ";
-        for (Integer i : hsTerrains) {
-            ITerrain terrain = terrains[i];
-            if (terrain != null) {
-                switch (terrain.getType()) {
-                    case Terrains.WOODS:
-                        if (terrain.getLevel() == 2) {
-                            temp = temp + "Heavy Woods";
-                        } else if (terrain.getLevel() == 1) {
-                            temp = temp + "Light Woods";
-                        } else {
-                            temp = temp + "??? Woods";
-                        }
-                        break;
-                    case Terrains.WATER:
-                        temp = temp + "Water, depth: " + terrain.getLevel();
-                        break;
-                    case Terrains.ROAD:
-                        temp = temp + "Road";
-                        break;
-                    case Terrains.ROUGH:
-                        temp = temp + "Rough";
-                        break;
-                    case Terrains.RUBBLE:
-                        temp = temp + "Rubble";
-                        break;
-                    case Terrains.SWAMP:
-                        temp = temp + "Swamp";
-                        break;
-                    case Terrains.ARMS:
-                        temp = temp + "Arm";
-                        break;
-                    case Terrains.LEGS:
-                        temp = temp + "Leg";
-                        break;
-                    default:
-                        temp = temp + Terrains.getName(terrain.getType()) + "("
-                                + terrain.getLevel() + ", "
-                                + terrain.getTerrainFactor() + ")";
-                }
-                temp = temp + "; ";
+        for (ITerrain terrain : presentTerrains) {
+            switch (terrain.getType()) {
+                case Terrains.WOODS:
+                    if (terrain.getLevel() == 2) {
+                        temp = temp + "Heavy Woods";
+                    } else if (terrain.getLevel() == 1) {
+                        temp = temp + "Light Woods";
+                    } else {
+                        temp = temp + "??? Woods";
+                    }
+                    break;
+                case Terrains.WATER:
+                    temp = temp + "Water, depth: " + terrain.getLevel();
+                    break;
+                case Terrains.ROAD:
+                    temp = temp + "Road";
+                    break;
+                case Terrains.ROUGH:
+                    temp = temp + "Rough";
+                    break;
+                case Terrains.RUBBLE:
+                    temp = temp + "Rubble";
+                    break;
+                case Terrains.SWAMP:
+                    temp = temp + "Swamp";
+                    break;
+                case Terrains.ARMS:
+                    temp = temp + "Arm";
+                    break;
+                case Terrains.LEGS:
+                    temp = temp + "Leg";
+                    break;
+                default:
+                    temp = temp + Terrains.getName(terrain.getType()) + "("
+                            + terrain.getLevel() + ", "
+                            + terrain.getTerrainFactor() + ")";
             }
+            temp = temp + "; ";
         }
         return temp;
     }
@@ -573,10 +639,8 @@ public class Hex implements IHex, Serializable {
      */
     public int getIgnitionModifier() {
         int mod = 0;
-        for (Integer i : hsTerrains){
-            if (terrains[i] != null) {
-                mod += terrains[i].ignitionModifier();
-            }
+        for (ITerrain terrain : presentTerrains) {
+            mod += terrain.ignitionModifier();
         }
         return mod;
     }
@@ -585,26 +649,12 @@ public class Hex implements IHex, Serializable {
      * Is this hex ignitable?
      */
     public boolean isIgnitable() {
-        return (containsTerrain(Terrains.WOODS)
-                || containsTerrain(Terrains.JUNGLE)
-                || containsTerrain(Terrains.BUILDING)
-                || containsTerrain(Terrains.FUEL_TANK)
-                || containsTerrain(Terrains.FIELDS)
-                || containsTerrain(Terrains.INDUSTRIAL));
+        return (terrainMask & IGNITABLE_MASK) != 0;
 
     }
 
     public boolean isClearForTakeoff() {
-        for (Integer i : hsTerrains){
-            if(containsTerrain(i) && (i != Terrains.PAVEMENT) &&
-                    (i!=Terrains.ROAD)  && (i != Terrains.FLUFF) &&
-                    (i != Terrains.ARMS) && (i != Terrains.LEGS)
-                    && (i != Terrains.SNOW) && (i != Terrains.MUD)
-                    && (i != Terrains.SMOKE) && (i != Terrains.METAL_CONTENT)) {
-                return false;
-            }
-        }
-        return true;
+        return (terrainMask & ~TAKEOFF_MASK) == 0;
     }
 
     public boolean isClearForLanding() {
@@ -632,10 +682,9 @@ public class Hex implements IHex, Serializable {
     public int getBogDownModifier(EntityMovementMode moveMode,
             boolean largeVee) {
         int mod = TargetRoll.AUTOMATIC_SUCCESS;
-        for (Integer i : hsTerrains){
-            if ((terrains[i] != null) &&
-                    (mod < terrains[i].getBogDownModifier(moveMode,largeVee))){
-                mod = terrains[i].getBogDownModifier(moveMode, largeVee);
+        for (ITerrain terrain : presentTerrains) {
+            if (mod < terrain.getBogDownModifier(moveMode, largeVee)) {
+                mod = terrain.getBogDownModifier(moveMode, largeVee);
             }
         }
         return mod;
@@ -646,10 +695,8 @@ public class Hex implements IHex, Serializable {
      */
     public int getUnstuckModifier(int elev) {
         int mod = 0;
-        for (Integer i : hsTerrains){
-            if (terrains[i] != null) {
-                mod += terrains[i].getUnstuckModifier(elev);
-            }
+        for (ITerrain terrain : presentTerrains) {
+            mod += terrain.getUnstuckModifier(elev);
         }
         return mod;
     }
@@ -498,6 +498,17 @@ public interface IGame {
 
     public abstract void setEntitiesVector(List<Entity> entities);
 
+    /**
+     * Replaces the entities with the ones with the given ids, in that order.
+     * Entities in <code>changedEntities</code> replace the current instances;
+     * for all other ids the current instance is kept.
+     *
+     * @param entityIds the ids of the entities in the new list
+     * @param changedEntities the entities that changed
+     */
+    public abstract void updateEntities(List<Integer> entityIds,
+            List<Entity> changedEntities);
+
     /**
      * Returns the actual vector for the out-of-game entities
      */
@@ -28,20 +28,38 @@ public class IdealHex {
 
     private static final double XCONST = Math.tan(Math.PI / 6.0);
 
-    public double[] x = new double[6];
-    public double[] y = new double[6];
-    public double cx;
-    public double cy;
+    public final double[] x = new double[6];
+    public final double[] y = new double[6];
+    public final double cx;
+    public final double cy;
+
+    /**
+     * The cached hexes of a board of the given size. A cache is only ever
+     * replaced as a whole, so the hexes and their size always go together.
+     */
+    private static final class Cache {
+        final IdealHex[] hexes;
+        final int width;
+        final int height;
+
+        Cache(int width, int height) {
+            hexes = new IdealHex[width * height];
+            this.width = width;
+            this.height = height;
+        }
+    }
 
     // cache for hexes
-    private static IdealHex[] cache = null;
-    private static int cacheWidth = 0;
-    private static int cacheHeight = 0;
+    private static volatile Cache cache = new Cache(0, 0);
 
     public IdealHex(Coords c) {
+        this(c.getX(), c.getY());
+    }
+
+    public IdealHex(int hexX, int hexY) {
         // determine origin
-        double ox = c.getX() * XCONST * 3;
-        double oy = c.getY() * 2 + (c.isXOdd() ? 1 : 0);
+        double ox = hexX * XCONST * 3;
+        double oy = hexY * 2 + (((hexX & 1) == 1) ? 1 : 0);
 
         // center
         cx = ox + (XCONST * 2);
@@ -93,14 +111,16 @@ public class IdealHex {
 
     /**
      * Ensures that the cache will be at least the specified dimensions. If it
-     * is not, a new cache is created. Hopefully this won't happen too much.
+     * is not, a new cache is created that is large enough for both the old
+     * and the new dimensions, so boards of different shapes don't keep
+     * replacing each other's cache. Hopefully this won't happen too much.
      * Must be called at least once before get(), since the initial size is 0.
      */
-    public static void ensureCacheSize(int width, int height) {
-        if (cacheWidth < width || cacheHeight < height) {
-            cache = new IdealHex[width * height];
-            cacheWidth = width;
-            cacheHeight = height;
+    public static synchronized void ensureCacheSize(int width, int height) {
+        Cache current = cache;
+        if (current.width < width || current.height < height) {
+            cache = new Cache(Math.max(current.width, width),
+                    Math.max(current.height, height));
         }
     }
 
@@ -109,19 +129,28 @@ public class IdealHex {
      * cached yet, creates it. If the cache is too small, does not resize it.
      */
     public static IdealHex get(Coords coords) {
-        if (cache == null || coords.getX() >= cacheWidth || coords.getY() >= cacheHeight
-            || coords.getX() < 0 || coords.getY() < 0) {
+        return get(coords.getX(), coords.getY());
+    }
+
+    /**
+     * Gets the hex at the given coordinates from the cache, as above.
+     */
+    public static IdealHex get(int hexX, int hexY) {
+        Cache current = cache;
+        if (hexX >= current.width || hexY >= current.height
+            || hexX < 0 || hexY < 0) {
             // System.err.println("IdealHex cache miss on " + coords);
-            return new IdealHex(coords);
+            return new IdealHex(hexX, hexY);
         }
-        // okay, check cache
-        int index = (coords.getY() * cacheWidth) + coords.getX();
-        IdealHex hex = cache[index];
+        // okay, check cache; a hex is immutable, so if two threads both
+        // create it, either can be kept
+        int index = (hexY * current.width) + hexX;
+        IdealHex hex = current.hexes[index];
         if (hex != null) {
             return hex;
         }
-        hex = new IdealHex(coords);
-        cache[index] = hex;
+        hex = new IdealHex(hexX, hexY);
+        current.hexes[index] = hex;
         return hex;
     }
 }
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import megamek.common.options.GameOptions;
 import megamek.common.weapons.BayWeapon;
 
 /**
@@ -1067,7 +1068,7 @@ public class Jumpship extends Aero {
      */
     @Override
     public boolean hasActiveECM() {
-        if (!game.getOptions().booleanOption("stratops_ecm")
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)
                 || !game.getBoard().inSpace()) {
             return super.hasActiveECM();
         }
@@ -1082,7 +1083,7 @@ public class Jumpship extends Aero {
      */
     @Override
     public int getECMRange() {
-        if (!game.getOptions().booleanOption("stratops_ecm")
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)
                 || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
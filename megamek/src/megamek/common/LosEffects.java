@@ -1036,14 +1036,16 @@ public class LosEffects {
 
         // we are an attack in a building, +1 for each building hex between the
         // 2 units
-        if ((game.getBoard().getBuildingAt(ai.attackPos) != null)
-                && (game.getBoard().getBuildingAt(ai.targetPos) != null)
-                && (thruBldg != null)
-                && game.getBoard().getBuildingAt(ai.attackPos).equals(game.getBoard().getBuildingAt(ai.targetPos))
-                && ai.targetEntity && thruBldg.equals(game.getBoard().getBuildingAt(ai.attackPos))) {
+        if ((thruBldg != null) && ai.targetEntity
+                && thruBldg.equals(game.getBoard().getBuildingAt(ai.attackPos))
+                && thruBldg.equals(game.getBoard().getBuildingAt(ai.targetPos))) {
             los.buildingLevelsOrHexes += 1;
         }
 
+        // These get checked against every kind of terrain below
+        int attackDistance = ai.attackPos.distance(coords);
+        int targetDistance = ai.targetPos.distance(coords);
+
         IHex hex = game.getBoard().getHex(coords);
         int hexEl = ai.underWaterCombat ? hex.floor() : hex.surface();
 
@@ -1097,10 +1099,9 @@ public class LosEffects {
         int totalEl = hexEl + bldgEl;
         if (diagramLoS) {
             if (totalEl > (ai.targetAbsHeight
-                    * ai.attackPos.distance(coords) + ai.attackAbsHeight
-                    * ai.targetPos.distance(coords))
-                    / (ai.targetPos.distance(coords) + ai.attackPos
-                            .distance(coords))) {
+                    * attackDistance + ai.attackAbsHeight
+                    * targetDistance)
+                    / (targetDistance + attackDistance)) {
                 los.blocked = true;
                 if(hex.terrainLevel(Terrains.BLDG_CF) > 90) {
                     los.hardBuildings++;
@@ -1114,9 +1115,9 @@ public class LosEffects {
         } else if (((totalEl > ai.attackAbsHeight) && 
                     (totalEl > ai.targetAbsHeight))
                 || ((totalEl > ai.attackAbsHeight) && 
-                        (ai.attackPos.distance(coords) == 1))
+                        (attackDistance == 1))
                 || ((totalEl > ai.targetAbsHeight) && 
-                        (ai.targetPos.distance(coords) == 1))) {
+                        (targetDistance == 1))) {
             los.blocked = true;
             if (hex.terrainLevel(Terrains.BLDG_CF) > 90) {
                 los.hardBuildings++;
@@ -1147,10 +1148,8 @@ public class LosEffects {
             if (industrialLevel != ITerrain.LEVEL_NONE) {
                 for (int level = 1; level < 11; level++) {
                     if (((hexEl + level > ai.attackAbsHeight) && (hexEl + level > ai.targetAbsHeight))
-                            || ((hexEl + level > ai.attackAbsHeight) && (ai.attackPos
-                                    .distance(coords) == 1))
-                            || ((hexEl + level > ai.targetAbsHeight) && (ai.targetPos
-                                    .distance(coords) == 1))) {
+                            || ((hexEl + level > ai.attackAbsHeight) && (attackDistance == 1))
+                            || ((hexEl + level > ai.targetAbsHeight) && (targetDistance == 1))) {
                         // check industrial zone
                         if (industrialLevel == level) {
                             los.heavyIndustrial++;
@@ -1161,10 +1160,8 @@ public class LosEffects {
             //planted fields only rise one level above the terrain
             if (hex.containsTerrain(Terrains.FIELDS)) {
                 if (((hexEl + 1 > ai.attackAbsHeight) && (hexEl + 2 > ai.targetAbsHeight))
-                        || ((hexEl + 1 > ai.attackAbsHeight) && (ai.attackPos
-                                .distance(coords) == 1))
-                        || ((hexEl + 1 > ai.targetAbsHeight) && (ai.targetPos
-                                .distance(coords) == 1))) {
+                        || ((hexEl + 1 > ai.attackAbsHeight) && (attackDistance == 1))
+                        || ((hexEl + 1 > ai.targetAbsHeight) && (targetDistance == 1))) {
                     los.plantedFields++;
 
                 }
@@ -1179,10 +1176,8 @@ public class LosEffects {
                 // Regular smoke/woods/jungle rise 2 levels above the hex level
                 int terrainEl = hexEl + 2;
                 if (((terrainEl > ai.attackAbsHeight) && (terrainEl > ai.targetAbsHeight))
-                        || ((terrainEl > ai.attackAbsHeight) && (ai.attackPos
-                                .distance(coords) == 1))
-                        || ((terrainEl > ai.targetAbsHeight) && (ai.targetPos
-                                .distance(coords) == 1))) {
+                        || ((terrainEl > ai.attackAbsHeight) && (attackDistance == 1))
+                        || ((terrainEl > ai.targetAbsHeight) && (targetDistance == 1))) {
                     // smoke and woods stack for LOS so check them both
                     if ((smokeLevel == SmokeCloud.SMOKE_LIGHT)
                             || (smokeLevel == SmokeCloud.SMOKE_LI_LIGHT)
@@ -1203,10 +1198,8 @@ public class LosEffects {
                 // Ultra woods/jungle rise 3 levels above the hex level
                 terrainEl = hexEl + 3;
                 if (((terrainEl > ai.attackAbsHeight) && (terrainEl > ai.targetAbsHeight))
-                        || ((terrainEl > ai.attackAbsHeight) && (ai.attackPos
-                                .distance(coords) == 1))
-                        || ((terrainEl > ai.targetAbsHeight) && (ai.targetPos
-                                .distance(coords) == 1))) {
+                        || ((terrainEl > ai.attackAbsHeight) && (attackDistance == 1))
+                        || ((terrainEl > ai.targetAbsHeight) && (targetDistance == 1))) {
 
                     if ((woodsLevel == 3) || (jungleLevel == 3)) {
                         los.ultraWoods++;
@@ -1219,7 +1212,7 @@ public class LosEffects {
         // Partial Cover related code        
         boolean potentialCover = false;
         // check for target partial cover
-        if (ai.targetPos.distance(coords) == 1 && ai.targetIsMech){
+        if (targetDistance == 1 && ai.targetIsMech){
             if (los.blocked && partialCover) {
                 los.targetCover = COVER_FULL; 
                 potentialCover = true;
@@ -1231,7 +1224,7 @@ public class LosEffects {
             }
         }
         // check for attacker partial (horizontal) cover
-        if (ai.attackPos.distance(coords) == 1 && ai.attackerIsMech) {
+        if (attackDistance == 1 && ai.attackerIsMech) {
             if (los.blocked && partialCover) {
                 los.attackerCover = COVER_FULL; 
                 potentialCover = true;
@@ -36,12 +36,41 @@ public abstract class MMRandom {
     public static final int R_SUN = 0;
     public static final int R_CRYPTO = 1;
     public static final int R_POOL36 = 2;
+    public static final int R_SPLITTABLE = 3;
+
+    /**
+     * The parts of the game that roll dice. Seeded RNGs give each of them a
+     * stream of numbers of its own, so that, say, the weather changing
+     * doesn't change the outcome of the next attack. Other RNGs use the same
+     * numbers for all of them.
+     * <p>
+     * The CLIENT stream is for numbers that are none of the game's business,
+     * like random skills or names, and never comes from a server's RNG. Bots
+     * have an RNG of their own.
+     */
+    public enum Stream {
+        COMBAT, WEATHER, CLIENT
+    }
+
+    /**
+     * The journal the numbers given out are recorded in, if any
+     */
+    private RollJournal journal;
 
     /**
      * Gives you the type asked for, defaulting to SunRandom if there are any
      * errors.
      */
     static MMRandom generate(int type) {
+        return generate(type, System.nanoTime());
+    }
+
+    /**
+     * Gives you the type asked for, defaulting to SunRandom if there are any
+     * errors. Only SplittableRandom uses the seed; the same seed always gives
+     * the same numbers.
+     */
+    public static MMRandom generate(int type, long seed) {
         System.err.println("MMRandom: generating RNG type #" + type);
         try {
             switch (type) {
@@ -49,6 +78,8 @@ public abstract class MMRandom {
                     return new MMRandom.CryptoRandom();
                 case R_POOL36:
                     return new MMRandom.Pool36Random();
+                case R_SPLITTABLE:
+                    return new MMRandom.SplittableRandom(seed);
                 case R_SUN:
                 default:
                     return new MMRandom.SunRandom();
@@ -120,6 +151,56 @@ public abstract class MMRandom {
      */
     abstract int randomInt(int maxValue);
 
+    /**
+     * Returns <code>randomInt(maxValue)</code>, recording it in the journal if
+     * there is one. Everything that rolls dice should get its numbers here.
+     */
+    final int nextInt(int maxValue) {
+        int result = randomInt(maxValue);
+        if (journal != null) {
+            journal.record(getStreamId(), maxValue, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the RNG for the given part of the game
+     */
+    public MMRandom getStream(Stream stream) {
+        return this;
+    }
+
+    /**
+     * Splits off an RNG for work that runs alongside other work using this
+     * one, so that neither takes numbers from the other. A seeded RNG gives a
+     * new one seeded from its own numbers, so the same splits made in the same
+     * order give the same numbers, however the work is scheduled. The new RNG
+     * isn't recorded in the journal. RNGs without a seed can't be replayed
+     * anyway and just give themselves.
+     */
+    public MMRandom split() {
+        return this;
+    }
+
+    /**
+     * The stream recorded in the journal for the numbers given out here
+     */
+    int getStreamId() {
+        return Stream.COMBAT.ordinal();
+    }
+
+    /**
+     * Records all numbers given out from now on, for all streams, in the
+     * given journal, or stops recording them if it is <code>null</code>.
+     */
+    public void setJournal(RollJournal journal) {
+        this.journal = journal;
+    }
+
+    public RollJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Uses com.sun.java.util.collections.Random
      */
@@ -213,8 +294,8 @@ public abstract class MMRandom {
 
             // alakazam!
             for (int i = 0; i < NUM_SHUFFLES; i++) {
-                src = this.randomInt(pool.length);
-                dest = this.randomInt(pool.length);
+                src = this.nextInt(pool.length);
+                dest = this.nextInt(pool.length);
 
                 temp = pool[src];
                 pool[src] = pool[dest];
@@ -231,4 +312,121 @@ public abstract class MMRandom {
         }
     }
 
+    /**
+     * A seeded RNG that splits off an independent stream for each part of the
+     * game, so that a game can be played again with the same rolls. This is
+     * the SplitMix64 algorithm, as in <code>java.util.SplittableRandom</code>.
+     * Unlike SecureRandom, the streams of different games share nothing, so
+     * many games can roll at once.
+     */
+    static class SplittableRandom extends MMRandom {
+        private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+        private long seed;
+        private final long gamma;
+        private final int streamId;
+
+        /**
+         * The streams split off this RNG, by ordinal, if it is the root
+         */
+        private final SplittableRandom[] streams;
+
+        public SplittableRandom(long seed) {
+            this(mix64(seed), GOLDEN_GAMMA, Stream.COMBAT.ordinal(), true);
+        }
+
+        private SplittableRandom(long seed, long gamma, int streamId,
+                boolean root) {
+            this.seed = seed;
+            this.gamma = gamma;
+            this.streamId = streamId;
+            if (!root) {
+                streams = null;
+                return;
+            }
+            // Split the other streams off up front, so that they don't depend
+            // on the order they are first used in
+            streams = new SplittableRandom[Stream.values().length];
+            streams[streamId] = this;
+            for (Stream stream : Stream.values()) {
+                if (stream.ordinal() != streamId) {
+                    streams[stream.ordinal()] = new SplittableRandom(
+                            mix64(nextSeed()), mixGamma(nextSeed()),
+                            stream.ordinal(), false);
+                }
+            }
+        }
+
+        @Override
+        public MMRandom getStream(Stream stream) {
+            return (streams == null) ? this : streams[stream.ordinal()];
+        }
+
+        @Override
+        public MMRandom split() {
+            return new SplittableRandom(mix64(nextSeed()),
+                    mixGamma(nextSeed()), streamId, false);
+        }
+
+        @Override
+        int getStreamId() {
+            return streamId;
+        }
+
+        @Override
+        public void setJournal(RollJournal journal) {
+            super.setJournal(journal);
+            if (streams != null) {
+                for (SplittableRandom stream : streams) {
+                    if (stream != this) {
+                        stream.setJournal(journal);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int randomInt(int maxValue) {
+            if (maxValue <= 0) {
+                throw new IllegalArgumentException(
+                        "Must ask for a positive bound, not " + maxValue);
+            }
+            int r = mix32(nextSeed());
+            int m = maxValue - 1;
+            if ((maxValue & m) == 0) {
+                return r & m;
+            }
+            // Reject the top values that would make the lower results
+            // more likely than the higher ones
+            for (int u = r >>> 1; (u + m) - (r = u % maxValue) < 0; u = mix32(nextSeed()) >>> 1) {
+                // keep drawing
+            }
+            return r;
+        }
+
+        private synchronized long nextSeed() {
+            return seed += gamma;
+        }
+
+        private static long mix64(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        private static int mix32(long z) {
+            z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+            return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+        }
+
+        private static long mixGamma(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            z = (z ^ (z >>> 33)) | 1L;
+            // Gammas with too few bit flips make poor streams
+            int n = Long.bitCount(z ^ (z >>> 1));
+            return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+        }
+    }
+
 }
@@ -54,7 +54,7 @@ public class MMRoll extends Roll {
      */
     public MMRoll(MMRandom rng) {
         super(6, 1);
-        this.total = rng.randomInt(this.faces) + this.min;
+        this.total = rng.nextInt(this.faces) + this.min;
         all.addElement(this.total);
     }
 
@@ -67,7 +67,7 @@ public class MMRoll extends Roll {
      */
     public MMRoll(MMRandom rng, int max) {
         super(max, 0);
-        this.total = rng.randomInt(this.faces) + this.min;
+        this.total = rng.nextInt(this.faces) + this.min;
         all.addElement(this.total);
     }
 
@@ -83,7 +83,7 @@ public class MMRoll extends Roll {
      */
     public MMRoll(MMRandom rng, int count, int start) {
         super(count, start);
-        this.total = rng.randomInt(this.faces) + this.min;
+        this.total = rng.nextInt(this.faces) + this.min;
         all.addElement(this.total);
     }
     
@@ -100,7 +100,7 @@ public class MMRoll extends Roll {
     */
     public MMRoll(MMRandom rng, int count, int start, int keep) {
         super(count, start);
-        this.total = rng.randomInt(this.faces) + this.min;
+        this.total = rng.nextInt(this.faces) + this.min;
         all.addElement(this.total);
         this.keep = keep;
     }
@@ -113,7 +113,7 @@ public class MMRoll extends Roll {
     public void addRoll(MMRandom rng) {
 
         // Store the result for later processing.
-        int result = rng.randomInt(this.faces) + this.min;
+        int result = rng.nextInt(this.faces) + this.min;
 
         all.addElement(new Integer(result));
 
@@ -1637,8 +1637,7 @@ public class MULParser {
         }
 
         if (mountedManip != null){
-            entity.getEquipment().remove(mountedManip);
-            entity.getMisc().remove(mountedManip);
+            entity.removeMisc(mountedManip);
         }            
         
         // Was no manipulator selected?
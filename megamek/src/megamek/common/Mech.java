@@ -16,7 +16,6 @@
 package megamek.common;
 
 import java.io.PrintWriter;
-import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -1394,7 +1393,7 @@ public abstract class Mech extends Entity {
      * Adds heat sinks to the engine. Uses clan/normal depending on the
      * currently set techLevel
      */
-    public void addEngineSinks(int totalSinks, BigInteger heatSinkFlag) {
+    public void addEngineSinks(int totalSinks, EquipmentFlags heatSinkFlag) {
         addEngineSinks(totalSinks, heatSinkFlag, isClan());
     }
 
@@ -1402,7 +1401,7 @@ public abstract class Mech extends Entity {
      * Adds heat sinks to the engine. Adds either the engine capacity, or the
      * entire number of heat sinks, whichever is less
      */
-    public void addEngineSinks(int totalSinks, BigInteger heatSinkFlag,
+    public void addEngineSinks(int totalSinks, EquipmentFlags heatSinkFlag,
             boolean clan) {
         if (heatSinkFlag == MiscType.F_DOUBLE_HEAT_SINK) {
             addEngineSinks(totalSinks, clan ? "CLDoubleHeatSink"
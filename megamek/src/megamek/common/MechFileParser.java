@@ -863,6 +863,21 @@ public class MechFileParser {
 
         // Check if it's canon; if it is, mark it as such.
         ent.setCanon(false);// Guilty until proven innocent
+        int index = Collections.binarySearch(getCanonUnitNames(),
+                ent.getShortNameRaw()); 
+        if (index >= 0) {
+            ent.setCanon(true);
+        }        
+        ent.initMilitary();
+
+    } // End private void postLoadInit(Entity) throws EntityLoadingException
+
+    /**
+     * Returns the sorted list of official unit names, reading it the first
+     * time it is needed. Synchronized because units may be parsed on several
+     * threads at once.
+     */
+    private static synchronized Vector<String> getCanonUnitNames() {
         try {
             if (canonUnitNames == null) {
                 canonUnitNames = new Vector<String>();
@@ -886,14 +901,8 @@ public class MechFileParser {
             }
         } catch (IOException e) {
         }
-        int index = Collections.binarySearch(canonUnitNames,
-                ent.getShortNameRaw()); 
-        if (index >= 0) {
-            ent.setCanon(true);
-        }        
-        ent.initMilitary();
-
-    } // End private void postLoadInit(Entity) throws EntityLoadingException
+        return canonUnitNames;
+    }
 
     public static void main(String[] args) {
         if (args.length == 0) {
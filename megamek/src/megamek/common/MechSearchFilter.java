@@ -211,26 +211,38 @@ public class MechSearchFilter {
     }
     
     public static boolean isTechMatch(MechSummary mech, int nTechType) {
+        return isTechMatch(mech.getType(), nTechType);
+    }
+
+    /**
+     * Checks whether a unit of the given tech level is included in the given
+     * tech level selection.
+     *
+     * @param unitTechType  The unit's tech level
+     * @param nTechType     The selection, one of the
+     *                      <code>TechConstants</code> levels or groups
+     */
+    public static boolean isTechMatch(int unitTechType, int nTechType) {
         return ((nTechType == TechConstants.T_ALL)
-                || (nTechType == mech.getType())
+                || (nTechType == unitTechType)
                 || ((nTechType == TechConstants.T_IS_TW_ALL)
-                && ((mech.getType() <= TechConstants.T_IS_TW_NON_BOX)
-                || (mech.getType() == TechConstants.T_INTRO_BOXSET)))
+                && ((unitTechType <= TechConstants.T_IS_TW_NON_BOX)
+                || (unitTechType == TechConstants.T_INTRO_BOXSET)))
                 || ((nTechType == TechConstants.T_TW_ALL)
-                && ((mech.getType() <= TechConstants.T_IS_TW_NON_BOX)
-                || (mech.getType() <= TechConstants.T_INTRO_BOXSET)
-                || (mech.getType() <= TechConstants.T_CLAN_TW)))
+                && ((unitTechType <= TechConstants.T_IS_TW_NON_BOX)
+                || (unitTechType <= TechConstants.T_INTRO_BOXSET)
+                || (unitTechType <= TechConstants.T_CLAN_TW)))
                 || ((nTechType == TechConstants.T_ALL_IS)
-                && ((mech.getType() <= TechConstants.T_IS_TW_NON_BOX)
-                || (mech.getType() == TechConstants.T_INTRO_BOXSET)
-                || (mech.getType() == TechConstants.T_IS_ADVANCED)
-                || (mech.getType() == TechConstants.T_IS_EXPERIMENTAL)
-                || (mech.getType() == TechConstants.T_IS_UNOFFICIAL)))
+                && ((unitTechType <= TechConstants.T_IS_TW_NON_BOX)
+                || (unitTechType == TechConstants.T_INTRO_BOXSET)
+                || (unitTechType == TechConstants.T_IS_ADVANCED)
+                || (unitTechType == TechConstants.T_IS_EXPERIMENTAL)
+                || (unitTechType == TechConstants.T_IS_UNOFFICIAL)))
                 || ((nTechType == TechConstants.T_ALL_CLAN)
-                && ((mech.getType() == TechConstants.T_CLAN_TW)
-                || (mech.getType() == TechConstants.T_CLAN_ADVANCED)
-                || (mech.getType() == TechConstants.T_CLAN_EXPERIMENTAL)
-                || (mech.getType() == TechConstants.T_CLAN_UNOFFICIAL))));
+                && ((unitTechType == TechConstants.T_CLAN_TW)
+                || (unitTechType == TechConstants.T_CLAN_ADVANCED)
+                || (unitTechType == TechConstants.T_CLAN_EXPERIMENTAL)
+                || (unitTechType == TechConstants.T_CLAN_UNOFFICIAL))));
 
     }
 
@@ -444,6 +456,10 @@ public class MechSearchFilter {
             root = new ExpNode(n, q);
         }
 
+        public ExpNode getRoot() {
+            return root;
+        }
+
         public String toString() {
             if (root.children.size() == 0)
                 return "";
@@ -358,6 +358,16 @@ public class MechSummary implements Serializable {
         
     }
     
+    /**
+     * Sets the unique equipment names and their quantities directly, as read
+     * back from the unit cache.
+     */
+    public void setEquipment(Vector<String> names, Vector<Integer> quantities)
+    {
+        equipmentNames = names;
+        equipmentQuantities = quantities;
+    }
+
     public Vector<String> getEquipmentNames()
     {
         return equipmentNames;
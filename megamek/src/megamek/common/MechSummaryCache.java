@@ -15,15 +15,11 @@
 
 package megamek.common;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -31,9 +27,14 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -73,6 +74,8 @@ public class MechSummaryCache {
     private StringBuffer loadReport = new StringBuffer();
     private EntityVerifier entityVerifier = null;
     private Thread loader;
+    /** Parses unit files while the cache is being loaded. */
+    private ForkJoinPool parsers;
 
     public static synchronized MechSummaryCache getInstance() {
         return getInstance(false);
@@ -138,6 +141,7 @@ public class MechSummaryCache {
     }
 
     private MechSummary[] m_data;
+    private MechSummaryIndex m_index;
     private Map<String, MechSummary> m_nameMap;
     private Map<String, MechSummary> m_fileNameMap;
     private Map<String, String> hFailedFiles;
@@ -155,6 +159,20 @@ public class MechSummaryCache {
         return m_data;
     }
 
+    /**
+     * Get the index over all the units in the cache, for searching them. It
+     * is built the first time it is needed.
+     */
+    public MechSummaryIndex getIndex() {
+        block();
+        synchronized (this) {
+            if ((m_index == null) && (m_data != null)) {
+                m_index = new MechSummaryIndex(m_data);
+            }
+            return m_index;
+        }
+    }
+
     private void block() {
         if (!initialized) {
             synchronized (m_instance) {
@@ -206,18 +224,14 @@ public class MechSummaryCache {
                         && (unit_cache_path.lastModified() >= megamek.MegaMek.TIMESTAMP)) {
                     loadReport.append("  Reading from unit cache file...\n");
                     lLastCheck = unit_cache_path.lastModified();
-                    InputStream istream = new BufferedInputStream(
-                            new FileInputStream(unit_cache_path));
-                    ObjectInputStream fin = new ObjectInputStream(istream);
-                    Integer num_units = (Integer) fin.readObject();
-                    for (int i = 0; i < num_units; i++) {
+                    MechSummaryCacheFile cache = MechSummaryCacheFile
+                            .open(unit_cache_path);
+                    for (int i = 0; i < cache.size(); i++) {
                         if (interrupted) {
                             done();
-                            fin.close();
-                            istream.close();
                             return;
                         }
-                        MechSummary ms = (MechSummary) fin.readObject();
+                        MechSummary ms = cache.get(i);
                         // Verify that this file still exists and is older than
                         // the cache.
                         File fSource = ms.getSourceFile();
@@ -231,19 +245,38 @@ public class MechSummaryCache {
                             cacheCount++;
                         }
                     }
-                    fin.close();
-                    istream.close();
                 }
             } catch (Exception e) {
                 loadReport.append("  Unable to load unit cache: ")
                         .append(e.getMessage()).append("\n");
                 e.printStackTrace();
+                // Whatever was read can't be trusted to be complete
+                vMechs.clear();
+                sKnownFiles.clear();
+                cacheCount = 0;
+                lLastCheck = 0;
             }
         }
 
-        // load any changes since the last check time
-        boolean bNeedsUpdate = loadMechsFromDirectory(vMechs, sKnownFiles,
-                lLastCheck, Configuration.unitsDir(), ignoreUnofficial);
+        // load any changes since the last check time; the files are parsed in
+        // the background as they are found
+        parsers = new ForkJoinPool();
+        List<UnitFile> unitFiles = new ArrayList<UnitFile>();
+        boolean bNeedsUpdate = false;
+        try {
+            loadMechsFromDirectory(unitFiles, sKnownFiles, lLastCheck,
+                    Configuration.unitsDir(), ignoreUnofficial);
+            if (!interrupted) {
+                bNeedsUpdate = addParsedUnits(vMechs, sKnownFiles, unitFiles);
+            }
+        } finally {
+            parsers.shutdownNow();
+            parsers = null;
+        }
+        if (interrupted) {
+            done();
+            return;
+        }
 
         // convert to array
         m_data = new MechSummary[vMechs.size()];
@@ -325,15 +358,7 @@ public class MechSummaryCache {
     private void saveCache() throws Exception {
         loadReport.append("Saving unit cache.\n");
         File unit_cache_path = new File(getUnitCacheDir(), FILENAME_UNITS_CACHE);
-        ObjectOutputStream wr = new ObjectOutputStream(
-                new BufferedOutputStream(new FileOutputStream(unit_cache_path)));
-        Integer length = new Integer(m_data.length);
-        wr.writeObject(length);
-        for (MechSummary element : m_data) {
-            wr.writeObject(element);
-        }
-        wr.flush();
-        wr.close();
+        MechSummaryCacheFile.write(unit_cache_path, m_data);
     }
 
     private MechSummary getSummary(Entity e, File f, String entry) {
@@ -471,30 +496,65 @@ public class MechSummaryCache {
         return ms;
     }
 
+    /**
+     * A unit file, or an entry in a zip file, that is being parsed on the
+     * pool of parsers.
+     */
+    private class UnitFile implements Callable<MechSummary> {
+        final File file;
+        final String entryName;
+        /** The contents of the zip entry, until it has been parsed. */
+        byte[] data;
+        /** The equipment that failed to load, once parsed. */
+        final List<String> failedEquipment = new ArrayList<String>();
+        Future<MechSummary> result;
+
+        UnitFile(File file, String entryName, byte[] data) {
+            this.file = file;
+            this.entryName = entryName;
+            this.data = data;
+        }
+
+        public MechSummary call() throws EntityLoadingException {
+            MechFileParser mfp;
+            if (entryName == null) {
+                mfp = new MechFileParser(file);
+            } else {
+                mfp = new MechFileParser(new ByteArrayInputStream(data),
+                        entryName);
+                data = null;
+            }
+            Entity e = mfp.getEntity();
+            for (Iterator<String> i = e.getFailedEquipment(); i.hasNext();) {
+                failedEquipment.add(i.next());
+            }
+            return getSummary(e, file, entryName);
+        }
+    }
+
     /**
      * Loading a complete mech object for each summary is a bear and should be
-     * changed, but it lets me use the existing parsers
+     * changed, but it lets me use the existing parsers. The files that need
+     * parsing are handed to the pool of parsers as they are found and added
+     * to the list; {@link #addParsedUnits(Vector, Set, List)} collects the
+     * results.
      *
-     * @param vMechs
+     * @param unitFiles
      * @param sKnownFiles
      * @param lLastCheck
      * @param fDir
-     * @return
      */
-    private boolean loadMechsFromDirectory(Vector<MechSummary> vMechs,
+    private void loadMechsFromDirectory(List<UnitFile> unitFiles,
             Set<String> sKnownFiles, long lLastCheck, File fDir,
             boolean ignoreUnofficial) {
-        boolean bNeedsUpdate = false;
         loadReport.append("  Looking in ").append(fDir.getPath())
                 .append("...\n");
-        int thisDirectoriesFileCount = 0;
         String[] sa = fDir.list();
 
         if (sa != null) {
             for (String element : sa) {
                 if (interrupted) {
-                    done();
-                    return false;
+                    return;
                 }
                 File f = new File(fDir, element);
                 if (f.equals(new File(getUnitCacheDir(), FILENAME_UNITS_CACHE))) {
@@ -517,8 +577,11 @@ public class MechSummaryCache {
                         continue;
                     }
                     // recursion is fun
-                    bNeedsUpdate |= loadMechsFromDirectory(vMechs, sKnownFiles,
-                            lLastCheck, f, ignoreUnofficial);
+                    loadMechsFromDirectory(unitFiles, sKnownFiles, lLastCheck,
+                            f, ignoreUnofficial);
+                    if (interrupted) {
+                        return;
+                    }
                     continue;
                 }
                 if (f.getName().indexOf('.') == -1) {
@@ -543,64 +606,26 @@ public class MechSummaryCache {
                     continue;
                 }
                 if (f.getName().toLowerCase().endsWith(".zip")) {
-                    bNeedsUpdate |= loadMechsFromZipFile(vMechs, sKnownFiles,
-                            lLastCheck, f);
+                    loadMechsFromZipFile(unitFiles, sKnownFiles, lLastCheck, f);
+                    if (interrupted) {
+                        return;
+                    }
                     continue;
                 }
                 if ((f.lastModified() < lLastCheck)
                         && sKnownFiles.contains(f.toString())) {
                     continue;
                 }
-                try {
-                    MechFileParser mfp = new MechFileParser(f);
-                    Entity e = mfp.getEntity();
-                    MechSummary ms = getSummary(e, f, null);
-                    // if this is unit's MechSummary is already known,
-                    // remove it first, so we don't get duplicates
-                    if (sKnownFiles.contains(f.toString())) {
-                        vMechs.removeElement(ms);
-                    }
-                    vMechs.addElement(ms);
-                    sKnownFiles.add(f.toString());
-                    bNeedsUpdate = true;
-                    thisDirectoriesFileCount++;
-                    fileCount++;
-                    Iterator<String> failedEquipment = e.getFailedEquipment();
-                    if (failedEquipment.hasNext()) {
-                        loadReport.append("    Loading from ").append(f)
-                                .append("\n");
-                        while (failedEquipment.hasNext()) {
-                            loadReport
-                                    .append("      Failed to load equipment: ")
-                                    .append(failedEquipment.next())
-                                    .append("\n");
-                        }
-                    }
-                } catch (EntityLoadingException ex) {
-                    loadReport.append("    Loading from ").append(f)
-                            .append("\n");
-                    loadReport.append("***   Unable to load file: ");
-                    StringWriter stringWriter = new StringWriter();
-                    PrintWriter printWriter = new PrintWriter(stringWriter);
-                    ex.printStackTrace(printWriter);
-                    loadReport.append(stringWriter.getBuffer()).append("\n");
-                    hFailedFiles.put(f.toString(), ex.getMessage());
-                    continue;
-                }
+                UnitFile unitFile = new UnitFile(f, null, null);
+                unitFile.result = parsers.submit(unitFile);
+                unitFiles.add(unitFile);
             }
         }
-
-        loadReport.append("  ...loaded ").append(thisDirectoriesFileCount)
-                .append(" files.\n");
-
-        return bNeedsUpdate;
     }
 
-    private boolean loadMechsFromZipFile(Vector<MechSummary> vMechs,
+    private void loadMechsFromZipFile(List<UnitFile> unitFiles,
             Set<String> sKnownFiles, long lLastCheck, File fZipFile) {
-        boolean bNeedsUpdate = false;
         ZipFile zFile;
-        int thisZipFileCount = 0;
         try {
             zFile = new ZipFile(fZipFile);
         } catch (Exception ex) {
@@ -610,19 +635,14 @@ public class MechSummaryCache {
             PrintWriter printWriter = new PrintWriter(stringWriter);
             ex.printStackTrace(printWriter);
             loadReport.append(stringWriter.getBuffer()).append("\n");
-            return false;
+            return;
         }
         loadReport.append("  Looking in zip file ").append(fZipFile.getPath())
                 .append("...\n");
 
         for (Enumeration<?> i = zFile.entries(); i.hasMoreElements();) {
             if (interrupted) {
-                done();
-                try {
-                    zFile.close();
-                    return false;
-                } catch (IOException e) {
-                }
+                break;
             }
             ZipEntry zEntry = (ZipEntry) i.nextElement();
 
@@ -641,38 +661,18 @@ public class MechSummaryCache {
                 continue;
             }
 
+            // Read the entry here, so the zip file can be closed before the
+            // parsers get to it
             try {
-                MechFileParser mfp = new MechFileParser(
-                        zFile.getInputStream(zEntry), zEntry.getName());
-                Entity e = mfp.getEntity();
-                MechSummary ms = getSummary(e, fZipFile, zEntry.getName());
-                vMechs.addElement(ms);
-                sKnownFiles.add(zEntry.getName());
-                bNeedsUpdate = true;
-                thisZipFileCount++;
-                zipCount++;
-                Iterator<String> failedEquipment = e.getFailedEquipment();
-                if (failedEquipment.hasNext()) {
-                    loadReport.append("    Loading from zip file")
-                            .append(" >> ").append(zEntry.getName())
-                            .append("\n");
-                    while (failedEquipment.hasNext()) {
-                        loadReport.append("      Failed to load equipment: ")
-                                .append(failedEquipment.next()).append("\n");
-                    }
-                }
+                UnitFile unitFile = new UnitFile(fZipFile, zEntry.getName(),
+                        readFully(zFile.getInputStream(zEntry)));
+                unitFile.result = parsers.submit(unitFile);
+                unitFiles.add(unitFile);
             } catch (Exception ex) {
-                loadReport.append("    Loading from zip file").append(" >> ")
-                        .append(zEntry.getName()).append("\n");
-                loadReport.append("      Unable to load file: ");
-                StringWriter stringWriter = new StringWriter();
-                PrintWriter printWriter = new PrintWriter(stringWriter);
-                ex.printStackTrace(printWriter);
-                loadReport.append(stringWriter.getBuffer()).append("\n");
-                if (!(ex.getMessage() == null)) {
+                reportFailure(fZipFile.getName(), zEntry.getName(), ex);
+                if (ex.getMessage() != null) {
                     hFailedFiles.put(zEntry.getName(), ex.getMessage());
                 }
-                continue;
             }
         }
 
@@ -681,13 +681,99 @@ public class MechSummaryCache {
         } catch (Exception ex) {
             // whatever.
         }
+    }
 
-        loadReport.append("  ...loaded ").append(thisZipFileCount)
-                .append(" files.\n");
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+        } finally {
+            is.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Waits for the given unit files to be parsed and adds their summaries,
+     * in the order the files were found.
+     *
+     * @return <code>true</code> if any summaries were added
+     */
+    private boolean addParsedUnits(Vector<MechSummary> vMechs,
+            Set<String> sKnownFiles, List<UnitFile> unitFiles) {
+        boolean bNeedsUpdate = false;
+        for (UnitFile unitFile : unitFiles) {
+            if (interrupted) {
+                return false;
+            }
+            String fileName = (unitFile.entryName == null) ? unitFile.file
+                    .toString() : unitFile.entryName;
+            MechSummary ms;
+            try {
+                ms = unitFile.result.get();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                return false;
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                reportFailure(unitFile.entryName == null ? null
+                        : unitFile.file.getName(), fileName, cause);
+                if ((unitFile.entryName == null)
+                        || (cause.getMessage() != null)) {
+                    hFailedFiles.put(fileName, cause.getMessage());
+                }
+                continue;
+            }
+            // if this is unit's MechSummary is already known,
+            // remove it first, so we don't get duplicates
+            if ((unitFile.entryName == null) && sKnownFiles.contains(fileName)) {
+                vMechs.removeElement(ms);
+            }
+            vMechs.addElement(ms);
+            sKnownFiles.add(fileName);
+            bNeedsUpdate = true;
+            if (unitFile.entryName == null) {
+                fileCount++;
+            } else {
+                zipCount++;
+            }
+            if (!unitFile.failedEquipment.isEmpty()) {
+                loadReport.append("    Loading from ");
+                if (unitFile.entryName != null) {
+                    loadReport.append("zip file >> ");
+                }
+                loadReport.append(fileName).append("\n");
+                for (String failed : unitFile.failedEquipment) {
+                    loadReport.append("      Failed to load equipment: ")
+                            .append(failed).append("\n");
+                }
+            }
+        }
+
+        loadReport.append("  ...loaded ").append(fileCount)
+                .append(" files and ").append(zipCount)
+                .append(" zip file entries.\n");
 
         return bNeedsUpdate;
     }
 
+    private void reportFailure(String zipName, String fileName, Throwable ex) {
+        loadReport.append("    Loading from ");
+        if (zipName != null) {
+            loadReport.append("zip file ").append(zipName).append(" >> ");
+        }
+        loadReport.append(fileName).append("\n");
+        loadReport.append("***   Unable to load file: ");
+        StringWriter stringWriter = new StringWriter();
+        PrintWriter printWriter = new PrintWriter(stringWriter);
+        ex.printStackTrace(printWriter);
+        loadReport.append(stringWriter.getBuffer()).append("\n");
+    }
+
     public int getCacheCount() {
         return cacheCount;
     }
@@ -0,0 +1,331 @@
+/*
+ * MegaMek - Copyright (C) 2000-2004 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * The on-disk format of the unit cache. The file starts with a table of all
+ * the distinct strings used by the summaries, followed by one fixed-width
+ * record per summary and a pool of ints for the variable-length data (armor
+ * types and equipment). Strings are referred to by their index in the table,
+ * so names shared by many units are only stored, and read, once.
+ * <p>
+ * Opening a file reads it into memory in one go; the summaries themselves are
+ * only created when asked for with {@link #get(int)}.
+ */
+class MechSummaryCacheFile {
+
+    private static final int MAGIC = 0x4D4D5543; // "MMUC"
+    private static final int VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The number of bytes in a record: ten string indexes, fourteen ints, two
+     * floats, four longs, the flags and the offsets and lengths of the armor
+     * and equipment data.
+     */
+    private static final int RECORD_SIZE = (10 * 4) + (14 * 4) + (2 * 4)
+            + (4 * 8) + 4 + (4 * 4);
+
+    private static final int FLAG_CANON = 1;
+    private static final int FLAG_CLAN = 2;
+    private static final int FLAG_SUPPORT = 4;
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final int count;
+    private final int recordStart;
+    private final int poolStart;
+
+    private MechSummaryCacheFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if ((buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION)) {
+            throw new IOException("Not a unit cache file of this version");
+        }
+        strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, UTF8);
+        }
+        count = buffer.getInt();
+        recordStart = buffer.position();
+        poolStart = recordStart + (count * RECORD_SIZE);
+        if ((count < 0) || (poolStart > buffer.limit())) {
+            throw new IOException("Unit cache file is truncated");
+        }
+    }
+
+    /**
+     * Reads the given cache file.
+     *
+     * @throws IOException if the file can't be read or isn't a cache file
+     */
+    static MechSummaryCacheFile open(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of unit cache file");
+                }
+            }
+            buffer.flip();
+            return new MechSummaryCacheFile(buffer);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @return the number of summaries in the file
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Creates the summary stored at the given index.
+     */
+    MechSummary get(int index) {
+        int pos = recordStart + (index * RECORD_SIZE);
+        MechSummary ms = new MechSummary();
+        ms.setName(string(pos));
+        ms.setChassis(string(pos + 4));
+        ms.setModel(string(pos + 8));
+        ms.setUnitType(string(pos + 12));
+        ms.setUnitSubType(string(pos + 16));
+        String source = string(pos + 20);
+        ms.setSourceFile(source == null ? null : new File(source));
+        ms.setEntryName(string(pos + 24));
+        ms.setLevel(string(pos + 28));
+        ms.setEngineName(string(pos + 32));
+        ms.setMyomerName(string(pos + 36));
+        pos += 40;
+        ms.setYear(buffer.getInt(pos));
+        ms.setType(buffer.getInt(pos + 4));
+        ms.setBV(buffer.getInt(pos + 8));
+        ms.setGMBV(buffer.getInt(pos + 12));
+        ms.setRHBV(buffer.getInt(pos + 16));
+        ms.setRHGMBV(buffer.getInt(pos + 20));
+        ms.setWalkMp(buffer.getInt(pos + 24));
+        ms.setRunMp(buffer.getInt(pos + 28));
+        ms.setJumpMp(buffer.getInt(pos + 32));
+        ms.setTotalArmor(buffer.getInt(pos + 36));
+        ms.setTotalInternal(buffer.getInt(pos + 40));
+        ms.setInternalsType(buffer.getInt(pos + 44));
+        ms.setCockpitType(buffer.getInt(pos + 48));
+        ms.setGyroType(buffer.getInt(pos + 52));
+        pos += 56;
+        ms.setTons(buffer.getFloat(pos));
+        ms.setSuitWeight(buffer.getFloat(pos + 4));
+        pos += 8;
+        ms.setCost(buffer.getLong(pos));
+        ms.setUnloadedCost(buffer.getLong(pos + 8));
+        ms.setAlternateCost(buffer.getLong(pos + 16));
+        ms.setModified(buffer.getLong(pos + 24));
+        pos += 32;
+        int flags = buffer.getInt(pos);
+        ms.setCanon((flags & FLAG_CANON) != 0);
+        ms.setClan((flags & FLAG_CLAN) != 0);
+        ms.setSupport((flags & FLAG_SUPPORT) != 0);
+        pos += 4;
+
+        int armorOffset = buffer.getInt(pos);
+        int armorCount = buffer.getInt(pos + 4);
+        if (armorCount >= 0) {
+            int[] armorTypes = new int[armorCount];
+            int[] armorTechTypes = new int[armorCount];
+            for (int i = 0; i < armorCount; i++) {
+                armorTypes[i] = poolInt(armorOffset + i);
+                armorTechTypes[i] = poolInt(armorOffset + armorCount + i);
+            }
+            ms.setArmorType(armorTypes);
+            ms.setArmorTypes(armorTypes);
+            ms.setArmorTechTypes(armorTechTypes);
+        }
+        int equipmentOffset = buffer.getInt(pos + 8);
+        int equipmentCount = buffer.getInt(pos + 12);
+        if (equipmentCount >= 0) {
+            Vector<String> names = new Vector<String>(equipmentCount);
+            Vector<Integer> quantities = new Vector<Integer>(equipmentCount);
+            for (int i = 0; i < equipmentCount; i++) {
+                names.add(strings[poolInt(equipmentOffset + (2 * i))]);
+                quantities.add(poolInt(equipmentOffset + (2 * i) + 1));
+            }
+            ms.setEquipment(names, quantities);
+        }
+        return ms;
+    }
+
+    private String string(int pos) {
+        int index = buffer.getInt(pos);
+        return index < 0 ? null : strings[index];
+    }
+
+    private int poolInt(int index) {
+        return buffer.getInt(poolStart + (4 * index));
+    }
+
+    /**
+     * Writes the given summaries to the given file.
+     */
+    static void write(File file, MechSummary[] data) throws IOException {
+        Map<String, Integer> indexes = new HashMap<String, Integer>();
+        List<String> table = new ArrayList<String>();
+        for (MechSummary ms : data) {
+            add(indexes, table, ms.getName());
+            add(indexes, table, ms.getChassis());
+            add(indexes, table, ms.getModel());
+            add(indexes, table, ms.getUnitType());
+            add(indexes, table, ms.getUnitSubType());
+            add(indexes, table, sourcePath(ms));
+            add(indexes, table, ms.getEntryName());
+            add(indexes, table, ms.getLevel());
+            add(indexes, table, ms.getEngineName());
+            add(indexes, table, ms.getMyomerName());
+            if (ms.getEquipmentNames() != null) {
+                for (String name : ms.getEquipmentNames()) {
+                    add(indexes, table, name);
+                }
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(table.size());
+            for (String s : table) {
+                byte[] bytes = s.getBytes(UTF8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(data.length);
+
+            List<Integer> pool = new ArrayList<Integer>();
+            for (MechSummary ms : data) {
+                out.writeInt(index(indexes, ms.getName()));
+                out.writeInt(index(indexes, ms.getChassis()));
+                out.writeInt(index(indexes, ms.getModel()));
+                out.writeInt(index(indexes, ms.getUnitType()));
+                out.writeInt(index(indexes, ms.getUnitSubType()));
+                out.writeInt(index(indexes, sourcePath(ms)));
+                out.writeInt(index(indexes, ms.getEntryName()));
+                out.writeInt(index(indexes, ms.getLevel()));
+                out.writeInt(index(indexes, ms.getEngineName()));
+                out.writeInt(index(indexes, ms.getMyomerName()));
+                out.writeInt(ms.getYear());
+                out.writeInt(ms.getType());
+                out.writeInt(ms.getBV());
+                out.writeInt(ms.getGMBV());
+                out.writeInt(ms.getRHBV());
+                out.writeInt(ms.getRHGMBV());
+                out.writeInt(ms.getWalkMp());
+                out.writeInt(ms.getRunMp());
+                out.writeInt(ms.getJumpMp());
+                out.writeInt(ms.getTotalArmor());
+                out.writeInt(ms.getTotalInternal());
+                out.writeInt(ms.getInternalsType());
+                out.writeInt(ms.getCockpitType());
+                out.writeInt(ms.getGyroType());
+                out.writeFloat(ms.getTons());
+                out.writeFloat(ms.getSuitWeight());
+                out.writeLong(ms.getCost());
+                out.writeLong(ms.getUnloadedCost());
+                out.writeLong(ms.getAlternateCost());
+                out.writeLong(ms.getModified());
+                int flags = 0;
+                if (ms.isCanon()) {
+                    flags |= FLAG_CANON;
+                }
+                if (ms.isClan()) {
+                    flags |= FLAG_CLAN;
+                }
+                if (ms.isSupport()) {
+                    flags |= FLAG_SUPPORT;
+                }
+                out.writeInt(flags);
+
+                int[] armorTypes = ms.getArmorTypes();
+                int[] armorTechTypes = ms.getArmorTechTypes();
+                out.writeInt(pool.size());
+                if ((armorTypes == null) || (armorTechTypes == null)) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(armorTypes.length);
+                    for (int type : armorTypes) {
+                        pool.add(type);
+                    }
+                    for (int i = 0; i < armorTypes.length; i++) {
+                        pool.add(i < armorTechTypes.length ? armorTechTypes[i]
+                                : 0);
+                    }
+                }
+                Vector<String> names = ms.getEquipmentNames();
+                Vector<Integer> quantities = ms.getEquipmentQuantities();
+                out.writeInt(pool.size());
+                if ((names == null) || (quantities == null)) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(names.size());
+                    for (int i = 0; i < names.size(); i++) {
+                        pool.add(index(indexes, names.get(i)));
+                        pool.add(quantities.get(i));
+                    }
+                }
+            }
+            for (Integer value : pool) {
+                out.writeInt(value);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static String sourcePath(MechSummary ms) {
+        return ms.getSourceFile() == null ? null : ms.getSourceFile()
+                .getPath();
+    }
+
+    private static void add(Map<String, Integer> indexes, List<String> table,
+            String s) {
+        if ((s != null) && !indexes.containsKey(s)) {
+            indexes.put(s, table.size());
+            table.add(s);
+        }
+    }
+
+    private static int index(Map<String, Integer> indexes, String s) {
+        return s == null ? -1 : indexes.get(s);
+    }
+}
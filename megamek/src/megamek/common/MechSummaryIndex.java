@@ -0,0 +1,404 @@
+/*
+ * MegaMek - Copyright (C) 2002, 2003 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index over a fixed array of <code>MechSummary</code>s for answering
+ * searches without looking at every summary for every criterion. Numeric
+ * fields are kept in one array per field and categories (unit type, tech
+ * level, armor type, equipment) as one bit set per value, with bit
+ * <code>i</code> standing for the summary at index <code>i</code>.
+ * <p>
+ * Searches are built with {@link #query()}; each criterion narrows the set of
+ * matching units, and the results keep the order of the summary array.
+ * Indexes are immutable, so any number of threads can query one at once.
+ */
+public class MechSummaryIndex {
+
+    private final MechSummary[] units;
+
+    private final int[] bv;
+    private final int[] year;
+    private final float[] tons;
+    private final int[] walkMp;
+    private final int[] jumpMp;
+    private final int[] totalArmor;
+    private final int[] totalInternal;
+    private final int[] internalsType;
+    private final int[] cockpitType;
+
+    private final BitSet canon = new BitSet();
+    private final BitSet clan = new BitSet();
+    private final BitSet support = new BitSet();
+    private final Map<String, BitSet> unitTypes = new HashMap<String, BitSet>();
+    private final Map<Integer, BitSet> techTypes = new HashMap<Integer, BitSet>();
+    private final Map<Integer, BitSet> armorTypes = new HashMap<Integer, BitSet>();
+    private final Map<String, BitSet> equipment = new HashMap<String, BitSet>();
+
+    /**
+     * Indexes the given summaries. The array is not copied, and must not be
+     * changed while the index is in use.
+     */
+    public MechSummaryIndex(MechSummary[] units) {
+        this.units = units;
+        bv = new int[units.length];
+        year = new int[units.length];
+        tons = new float[units.length];
+        walkMp = new int[units.length];
+        jumpMp = new int[units.length];
+        totalArmor = new int[units.length];
+        totalInternal = new int[units.length];
+        internalsType = new int[units.length];
+        cockpitType = new int[units.length];
+        for (int i = 0; i < units.length; i++) {
+            MechSummary ms = units[i];
+            bv[i] = ms.getBV();
+            year[i] = ms.getYear();
+            tons[i] = ms.getTons();
+            walkMp[i] = ms.getWalkMp();
+            jumpMp[i] = ms.getJumpMp();
+            totalArmor[i] = ms.getTotalArmor();
+            totalInternal[i] = ms.getTotalInternal();
+            internalsType[i] = ms.getInternalsType();
+            cockpitType[i] = ms.getCockpitType();
+            canon.set(i, ms.isCanon());
+            clan.set(i, ms.isClan());
+            support.set(i, ms.isSupport());
+            bitsFor(unitTypes, ms.getUnitType()).set(i);
+            bitsFor(techTypes, ms.getType()).set(i);
+            for (Integer armorType : ms.getArmorType()) {
+                bitsFor(armorTypes, armorType).set(i);
+            }
+            if (ms.getEquipmentNames() != null) {
+                for (String name : ms.getEquipmentNames()) {
+                    bitsFor(equipment, name).set(i);
+                }
+            }
+        }
+    }
+
+    private static <K> BitSet bitsFor(Map<K, BitSet> map, K key) {
+        BitSet bits = map.get(key);
+        if (bits == null) {
+            bits = new BitSet();
+            map.put(key, bits);
+        }
+        return bits;
+    }
+
+    /**
+     * @return the number of summaries in the index
+     */
+    public int size() {
+        return units.length;
+    }
+
+    /**
+     * @return the summary at the given index
+     */
+    public MechSummary get(int index) {
+        return units[index];
+    }
+
+    /**
+     * @return a new query that matches every unit until it is narrowed down
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * A search on the index. Every method narrows the units matched down to
+     * those that also meet the given criterion, and returns the query so that
+     * calls can be chained.
+     */
+    public class Query {
+
+        private final BitSet matches = new BitSet(units.length);
+
+        Query() {
+            matches.set(0, units.length);
+        }
+
+        /**
+         * Keeps the units of any of the given unit types, as returned by
+         * {@link MechSummary#getUnitType()}.
+         */
+        public Query unitType(String... types) {
+            BitSet any = new BitSet();
+            for (String type : types) {
+                BitSet bits = unitTypes.get(type);
+                if (bits != null) {
+                    any.or(bits);
+                }
+            }
+            matches.and(any);
+            return this;
+        }
+
+        /**
+         * Keeps the units whose tech level is any of the given values from
+         * <code>TechConstants</code>.
+         */
+        public Query techTypes(int... types) {
+            BitSet any = new BitSet();
+            for (int type : types) {
+                BitSet bits = techTypes.get(type);
+                if (bits != null) {
+                    any.or(bits);
+                }
+            }
+            matches.and(any);
+            return this;
+        }
+
+        /**
+         * Keeps the units that match the given tech level selection, as
+         * decided by {@link MechSearchFilter#isTechMatch(int, int)}.
+         */
+        public Query techLevel(int nTechType) {
+            BitSet any = new BitSet();
+            for (Map.Entry<Integer, BitSet> entry : techTypes.entrySet()) {
+                if (MechSearchFilter.isTechMatch(entry.getKey(), nTechType)) {
+                    any.or(entry.getValue());
+                }
+            }
+            matches.and(any);
+            return this;
+        }
+
+        /**
+         * Keeps the units introduced between the given years, inclusive.
+         */
+        public Query years(int min, int max) {
+            return range(year, min, max);
+        }
+
+        /**
+         * Keeps the units with a battle value between the given values,
+         * inclusive.
+         */
+        public Query bv(int min, int max) {
+            return range(bv, min, max);
+        }
+
+        /**
+         * Keeps the units with a weight between the given tonnages,
+         * inclusive.
+         */
+        public Query tons(float min, float max) {
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches
+                    .nextSetBit(i + 1)) {
+                if ((tons[i] < min) || (tons[i] > max)) {
+                    matches.clear(i);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Keeps the canon units.
+         */
+        public Query canon() {
+            matches.and(canon);
+            return this;
+        }
+
+        /**
+         * Keeps either the Clan or the Inner Sphere units.
+         */
+        public Query clan(boolean isClan) {
+            return flag(clan, isClan);
+        }
+
+        /**
+         * Keeps either the support vehicles or all other units.
+         */
+        public Query support(boolean isSupport) {
+            return flag(support, isSupport);
+        }
+
+        /**
+         * Keeps the units that mount at least the given number of the given
+         * piece of equipment.
+         */
+        public Query equipment(String internalName, int qty) {
+            matches.and(equipmentBits(internalName, qty));
+            return this;
+        }
+
+        /**
+         * Keeps the units that pass the given advanced search filter; the
+         * result is the same as checking every unit with
+         * {@link MechSearchFilter#isMatch(MechSummary, MechSearchFilter)}.
+         */
+        public Query filter(MechSearchFilter f) {
+            if ((f == null) || f.isDisabled) {
+                return this;
+            }
+            int walk = parse(f.sWalk, -1);
+            if (walk > -1) {
+                compare(walkMp, f.iWalk, walk);
+            }
+            int jump = parse(f.sJump, -1);
+            if (jump > -1) {
+                compare(jumpMp, f.iJump, jump);
+            }
+            if (f.checkInternalsType) {
+                range(internalsType, f.internalsType, f.internalsType);
+            }
+            if (f.checkArmorType) {
+                BitSet bits = armorTypes.get(f.armorType);
+                if (bits == null) {
+                    matches.clear();
+                } else {
+                    matches.and(bits);
+                }
+            }
+            if (f.checkCockpitType) {
+                range(cockpitType, f.cockpitType, f.cockpitType);
+            }
+            if ((f.iArmor > 0) && (f.iArmor <= 4)) {
+                double fraction = new double[] { 0, .25, .5, .75, .9 }[f.iArmor];
+                for (int i = matches.nextSetBit(0); i >= 0; i = matches
+                        .nextSetBit(i + 1)) {
+                    int maxArmor = (totalInternal[i] * 2) + 3;
+                    if (totalArmor[i] < (maxArmor * fraction)) {
+                        matches.clear(i);
+                    }
+                }
+            }
+            if (f.checkEquipment) {
+                matches.and(evaluate(f.equipmentCriteria.getRoot()));
+            }
+            return years(parse(f.sStartYear, Integer.MIN_VALUE),
+                    parse(f.sEndYear, Integer.MAX_VALUE));
+        }
+
+        /**
+         * @return the number of units matched
+         */
+        public int count() {
+            return matches.cardinality();
+        }
+
+        /**
+         * @return a copy of the indexes of the units matched
+         */
+        public BitSet toBitSet() {
+            return (BitSet) matches.clone();
+        }
+
+        /**
+         * @return the units matched, in index order
+         */
+        public List<MechSummary> list() {
+            List<MechSummary> result = new ArrayList<MechSummary>(
+                    matches.cardinality());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches
+                    .nextSetBit(i + 1)) {
+                result.add(units[i]);
+            }
+            return result;
+        }
+
+        private Query range(int[] column, int min, int max) {
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches
+                    .nextSetBit(i + 1)) {
+                if ((column[i] < min) || (column[i] > max)) {
+                    matches.clear(i);
+                }
+            }
+            return this;
+        }
+
+        private Query flag(BitSet bits, boolean set) {
+            if (set) {
+                matches.and(bits);
+            } else {
+                matches.andNot(bits);
+            }
+            return this;
+        }
+
+        /**
+         * Applies a walk or jump criterion from the advanced search: 0 is at
+         * least, 1 is equal to and 2 is not more than the given value.
+         */
+        private void compare(int[] column, int op, int value) {
+            if (op == 0) {
+                range(column, value, Integer.MAX_VALUE);
+            } else if (op == 1) {
+                range(column, value, value);
+            } else if (op == 2) {
+                range(column, Integer.MIN_VALUE, value);
+            }
+        }
+
+        private BitSet evaluate(MechSearchFilter.ExpNode n) {
+            if (n.children.size() == 0) {
+                return equipmentBits(n.name, n.qty);
+            }
+            BitSet result = null;
+            for (MechSearchFilter.ExpNode child : n.children) {
+                BitSet bits = evaluate(child);
+                if (result == null) {
+                    result = bits;
+                } else if (n.operation == MechSearchFilter.BoolOp.AND) {
+                    result.and(bits);
+                } else {
+                    result.or(bits);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns a new bit set of the units with at least the given number of
+     * the given equipment.
+     */
+    private BitSet equipmentBits(String internalName, int qty) {
+        BitSet bits = equipment.get(internalName);
+        if (bits == null) {
+            return new BitSet();
+        }
+        BitSet result = (BitSet) bits.clone();
+        if (qty > 1) {
+            for (int i = result.nextSetBit(0); i >= 0; i = result
+                    .nextSetBit(i + 1)) {
+                MechSummary ms = units[i];
+                int index = ms.getEquipmentNames().indexOf(internalName);
+                if (ms.getEquipmentQuantities().get(index) < qty) {
+                    result.clear(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int parse(String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+}
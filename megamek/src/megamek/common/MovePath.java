@@ -17,6 +17,7 @@ package megamek.common;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
@@ -24,6 +25,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.TreeMap;
@@ -84,7 +86,45 @@ public class MovePath implements Cloneable, Serializable {
         }
     }
 
-    private Vector<MoveStep> steps = new Vector<>();
+    /**
+     * A step of a path, linked to the node of the step before it. Nodes never
+     * change once created, so a clone of a path shares all of its nodes, and
+     * paths that extend the same path share the nodes of their common steps.
+     */
+    private static final class StepNode implements Serializable {
+        private static final long serialVersionUID = 3417512237245781843L;
+
+        final MoveStep step;
+        final StepNode previous;
+
+        /**
+         * The number of steps up to and including this one
+         */
+        final int length;
+
+        /**
+         * Whether this or an earlier step starts a jump
+         */
+        final boolean jumping;
+
+        StepNode(final MoveStep step, final StepNode previous) {
+            this.step = step;
+            this.previous = previous;
+            length = (previous == null) ? 1 : previous.length + 1;
+            jumping = (step.getType() == MoveStepType.START_JUMP)
+                    || ((previous != null) && previous.jumping);
+        }
+    }
+
+    /**
+     * The last step of the path, or null if the path is empty
+     */
+    private StepNode last;
+
+    /**
+     * The steps in order, built when first asked for after a change
+     */
+    private transient Vector<MoveStep> stepVector;
 
     private transient IGame game;
     private transient Entity entity;
@@ -113,7 +153,7 @@ public class MovePath implements Cloneable, Serializable {
     @Override
     public String toString() {
         final StringBuffer sb = new StringBuffer();
-        for (final Enumeration<MoveStep> i = steps.elements(); i.hasMoreElements(); ) {
+        for (final Enumeration<MoveStep> i = getSteps(); i.hasMoreElements(); ) {
             sb.append(i.nextElement().toString());
             sb.append(' ');
         }
@@ -124,7 +164,15 @@ public class MovePath implements Cloneable, Serializable {
      * Returns the number of steps in this movement
      */
     public int length() {
-        return steps.size();
+        return (last == null) ? 0 : last.length;
+    }
+
+    /**
+     * Makes the given node the last step of this path.
+     */
+    private void setLast(final StepNode node) {
+        last = node;
+        stepVector = null;
     }
 
     /**
@@ -230,13 +278,13 @@ public class MovePath implements Cloneable, Serializable {
             return this;
         }
 
-        steps.addElement(step);
+        setLast(new StepNode(step, last));
 
         // transform lateral shifts for quads or maneuverability aces
         if (canShift()) {
 //            transformLateralShift();
         }
-        final MoveStep prev = getStep(steps.size() - 2);
+        final MoveStep prev = (last.previous == null) ? null : last.previous.step;
 
         if (compile) {
             try {
@@ -271,14 +319,16 @@ public class MovePath implements Cloneable, Serializable {
 
         // If the new step is legal and is a different position than
         // the previous step, then update the older steps, letting
-        // them know that they are no longer the end of the path.
-        if (step.isLegal() && (null != prev) && !land.equals(prev.getPosition())) {
+        // them know that they are no longer the end of the path. Steps
+        // only act on that when jumping into heavy woods needs a roll.
+        if (step.isLegal() && (null != prev) && !land.equals(prev.getPosition())
+                && getGame().getOptions().booleanOption("psr_jump_heavy_woods")) {
 
             // Loop through the steps from back to front.
             // Stop looping when the step says to, or we run out of steps.
-            int index = steps.size() - 2;
-            while ((index >= 0) && getStep(index).setEndPos(false)) {
-                index--;
+            StepNode node = last.previous;
+            while ((node != null) && node.step.setEndPos(false)) {
+                node = node.previous;
             }
 
         } // End step-is-legal
@@ -289,8 +339,8 @@ public class MovePath implements Cloneable, Serializable {
     public void compile(final IGame g, final Entity en) {
         setGame(g);
         setEntity(en);
-        final Vector<MoveStep> temp = new Vector<MoveStep>(steps);
-        steps.removeAllElements();
+        final Vector<MoveStep> temp = getStepVector();
+        clear();
         for (int i = 0; i < temp.size(); i++) {
             MoveStep step = temp.elementAt(i);
             if ((step.getTargetPosition() != null) && (step.getTarget(getGame()) != null)) {
@@ -320,36 +370,88 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void removeLastStep() {
-        if (steps.size() > 0) {
-            final MoveStep step1 = getStep(steps.size() - 1);
+        if (last != null) {
+            final MoveStep step1 = last.step;
 
             if (step1.getType() == MovePath.MoveStepType.START_JUMP) {
                 getEntity().setIsJumpingNow(false);
             }
 
-            steps.removeElementAt(steps.size() - 1);
+            setLast(last.previous);
         }
 
         // Find the new last step in the path.
-        int index = steps.size() - 1;
-        while ((index >= 0) && getStep(index).setEndPos(true) && !getStep(index).isLegal()) {
-            index--;
+        StepNode node = last;
+        while ((node != null) && node.step.setEndPos(true) && !node.step.isLegal()) {
+            node = node.previous;
         }
     }
 
     public void clear() {
-        steps.removeAllElements();
+        setLast(null);
     }
 
     public Enumeration<MoveStep> getSteps() {
-        return steps.elements();
+        return getStepVector().elements();
     }
 
     public MoveStep getStep(final int index) {
-        if ((index < 0) || (index >= steps.size())) {
+        if ((index < 0) || (index >= length())) {
             return null;
         }
-        return steps.elementAt(index);
+        if (index == (length() - 1)) {
+            return last.step;
+        }
+        return getStepVector().elementAt(index);
+    }
+
+    /**
+     * Returns the steps of this path from the last one back to the first.
+     * Unlike {@link #getSteps()}, this doesn't need the step vector.
+     */
+    Iterator<MoveStep> descendingSteps() {
+        return new Iterator<MoveStep>() {
+            private StepNode next = last;
+
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            public MoveStep next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                final MoveStep step = next.step;
+                next = next.previous;
+                return step;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Returns a new path made of the steps of this one up to and including
+     * the given step. The new path shares the steps before the given one with
+     * this path, and only goes through the checks done when adding a step for
+     * the given step.
+     *
+     * @throws NoSuchElementException if the step isn't part of this path
+     */
+    MovePath getPathUpTo(final MoveStep step) {
+        StepNode node = last;
+        while ((node != null) && (node.step != step)) {
+            node = node.previous;
+        }
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        final MovePath path = new MovePath(getGame(), getEntity());
+        path.last = node.previous;
+        path.addStep(step, false);
+        return path;
     }
 
     /**
@@ -457,7 +559,7 @@ public class MovePath implements Cloneable, Serializable {
      */
     public int getMaxElevation() {
         int maxElev = 0;
-        for (MoveStep step : steps) {
+        for (MoveStep step : getStepVector()) {
             maxElev = Math.max(maxElev,
                                getGame().getBoard().getHex(step.getPosition()).getLevel());
         }
@@ -509,23 +611,28 @@ public class MovePath implements Cloneable, Serializable {
         return getLastStep().getMovementType();
     }
 
+    /**
+     * Returns the steps of this path in order. The vector is kept until the
+     * path changes, and mustn't be modified.
+     */
     public Vector<MoveStep> getStepVector() {
-        return steps;
+        if (stepVector == null) {
+            final MoveStep[] array = new MoveStep[length()];
+            for (StepNode node = last; node != null; node = node.previous) {
+                array[node.length - 1] = node.step;
+            }
+            stepVector = new Vector<MoveStep>(Arrays.asList(array));
+        }
+        return stepVector;
     }
 
     public MoveStep getLastStep() {
-        for (int i = getStepVector().size() - 1; i >= 0; i--) {
-            MoveStep last = getStepVector().get(i);
-            if (last != null) {
-                return last;
-            }
-        }
-        return null;
+        return (last != null) ? last.step : null;
     }
 
     public MoveStep getSecondLastStep() {
-        if (steps.size() > 1) {
-            return getStep(steps.size() - 2);
+        if (length() > 1) {
+            return last.previous.step;
         }
         return getLastStep();
     }
@@ -533,7 +640,7 @@ public class MovePath implements Cloneable, Serializable {
     /* Debug method */
     public void printAllSteps() {
         System.out.println("*Steps*");
-        for (int i = 0; i < steps.size(); i++) {
+        for (int i = 0; i < length(); i++) {
             System.out.println("  " + i + ": " + getStep(i) + ", " + getStep(i).getMovementType());
         }
     }
@@ -542,14 +649,13 @@ public class MovePath implements Cloneable, Serializable {
      * Removes impossible steps.
      */
     public void clipToPossible() {
-        if (steps.size() == 0) {
+        if (length() == 0) {
             // nothing to clip
             return;
         }
         // Do a final check for bad moves, and clip movement after the first bad
         // one
-        final Vector<MoveStep> goodSteps = new Vector<MoveStep>();
-        Enumeration<MoveStep> i = steps.elements();
+        Enumeration<MoveStep> i = getSteps();
         MoveStep step = i.nextElement();
         // Make sure the parent path of the step is correct
         step.setParent(this);
@@ -595,17 +701,15 @@ public class MovePath implements Cloneable, Serializable {
                 }
             }
         }
-        i = steps.elements();
-        while (i.hasMoreElements()) {
-            step = i.nextElement();
-            if (step.getMovementType() != EntityMovementType.MOVE_ILLEGAL) {
-                goodSteps.addElement(step);
-            } else {
-                break;
+        StepNode good = last;
+        for (StepNode node = last; node != null; node = node.previous) {
+            if (node.step.getMovementType() == EntityMovementType.MOVE_ILLEGAL) {
+                good = node.previous;
             }
-
         }
-        steps = goodSteps;
+        if (good != last) {
+            setLast(good);
+        }
     }
 
     /**
@@ -616,10 +720,10 @@ public class MovePath implements Cloneable, Serializable {
      */
     @SuppressWarnings("unused")
     private void transformLateralShift() {
-        if (steps.size() < 3) {
+        if (length() < 3) {
             return;
         }
-        final int index = steps.size() - 3;
+        final int index = length() - 3;
         final MoveStep step1 = getStep(index);
         final MoveStep step2 = getStep(index + 1);
         final MoveStep step3 = getStep(index + 2);
@@ -629,9 +733,7 @@ public class MovePath implements Cloneable, Serializable {
             final MoveStepType stepType = step1.getType();
             final MoveStepType direction = step2.getType();
             // remove all old steps
-            steps.removeElementAt(index);
-            steps.removeElementAt(index);
-            steps.removeElementAt(index);
+            setLast(last.previous.previous.previous);
             // add new step
             final MoveStep shift = new MoveStep(this, lateralShiftForTurn(stepType, direction));
             addStep(shift);
@@ -726,16 +828,7 @@ public class MovePath implements Cloneable, Serializable {
      * Returns true if the entity is jumping or if it's a flying lam.
      */
     public boolean isJumping() {
-        if (steps.size() > 0) {
-            boolean jump = false;
-            for (MoveStep step : steps) {
-                if (step.getType() == MovePath.MoveStepType.START_JUMP) {
-                    jump = true;
-                }
-            }
-            return jump;
-        }
-        return false;
+        return (last != null) && last.jumping;
     }
 
     /**
@@ -825,9 +918,9 @@ public class MovePath implements Cloneable, Serializable {
             }
         }
         if (finPath != null) {
-            this.steps = finPath.steps;
+            setLast(finPath.last);
             // Ensure that the parent for each step is correct
-            for (MoveStep step : steps) {
+            for (MoveStep step : getStepVector()) {
                 step.setParent(this);
             }
         } else {
@@ -988,7 +1081,7 @@ public class MovePath implements Cloneable, Serializable {
         //System.out.println("iteration count: " + loopcount);
         if (getFinalCoords().distance(dest) > bestPath.getFinalCoords().distance(dest)) {
             // Make the path we found, this path.
-            steps = bestPath.steps;
+            setLast(bestPath.last);
         }
         if (!getFinalCoords().equals(dest)) {
             lazyPathfinder(dest, type);
@@ -1125,15 +1218,15 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     /**
-     * Clones this path, will contain a new clone of the steps so that the clone
-     * is independent from the original.
+     * Clones this path. The clone shares the steps of this path, but steps
+     * added to or removed from either path don't change the other.
      *
      * @return the cloned MovePath
      */
     @Override
     public MovePath clone() {
         final MovePath copy = new MovePath(getGame(), getEntity());
-        copy.steps = new Vector<MoveStep>(steps);
+        copy.last = last;
         copy.careful = careful;
         return copy;
     }
@@ -1172,7 +1265,7 @@ public class MovePath implements Cloneable, Serializable {
     public Coords getJumpPathHighestPoint() {
         Coords highestCoords = null;
         int highestElevation = 0;
-        for (MoveStep step : steps) {
+        for (MoveStep step : getStepVector()) {
             if (getGame().getBoard().getHex(step.getPosition()).getLevel() > highestElevation) {
                 highestElevation = step.getElevation();
                 highestCoords = step.getPosition();
@@ -1195,7 +1288,7 @@ public class MovePath implements Cloneable, Serializable {
      * @return TRUE if there are any buildings in a dropship's landing zone.
      */
     public boolean willCrushBuildings() {
-        for (MoveStep step : steps) {
+        for (MoveStep step : getStepVector()) {
             if (!step.getCrushedBuildingLocs().isEmpty()) {
                 return true;
             }
@@ -1275,7 +1368,7 @@ public class MovePath implements Cloneable, Serializable {
 
     public int countMp(boolean jumping) {
         int mp = 0;
-        for (MoveStep step : steps) {
+        for (MoveStep step : getStepVector()) {
             if (jumping && (step.getType() != MoveStepType.TURN_LEFT) &&
                     (step.getType() != MoveStepType.TURN_RIGHT)) {
                 mp += step.getMp();
@@ -1293,7 +1386,7 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void replaceSteps(Vector<MoveStep> path) {
-        steps.clear();
+        clear();
         addSteps(path, true);
     }
 }
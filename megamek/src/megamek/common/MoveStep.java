@@ -24,7 +24,6 @@ package megamek.common;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.TreeMap;
 import java.util.Vector;
@@ -363,17 +362,7 @@ public class MoveStep implements Serializable {
      * @return
      */
     public MovePath getParentUpToThisStep() {
-        Vector<MoveStep> steps = new Vector<MoveStep>();
-        MovePath toReturn = new MovePath(parent.getGame(), parent.getEntity());
-        for (Enumeration<MoveStep> e = parent.getSteps(); ; e.hasMoreElements()) {
-            MoveStep step = e.nextElement();
-            steps.add(step);
-            if (step.equals(this)) {
-                break;
-            }
-        }
-        toReturn.addSteps(steps, false);
-        return toReturn;
+        return parent.getPathUpTo(this);
     }
 
     /**
@@ -1442,9 +1431,9 @@ public class MoveStep implements Serializable {
         }
         
         // A step is an end position if it is the last legal step.
-        Vector<MoveStep> steps = parent.getStepVector();
-        for (int i = steps.size() - 1; i > 0; i--) {
-            MoveStep step = steps.get(i);
+        Iterator<MoveStep> steps = parent.descendingSteps();
+        for (int i = parent.length() - 1; i > 0; i--) {
+            MoveStep step = steps.next();
             boolean stepMatch = this.equals(step);
             // If there is a legal step after us, we're not the end
             if ((step.movementType != EntityMovementType.MOVE_ILLEGAL) 
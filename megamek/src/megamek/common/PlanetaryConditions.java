@@ -352,10 +352,10 @@ public class PlanetaryConditions implements Serializable {
         if (windDirection == -1) {
             // Initial wind direction. If using level 2 rules, this
             // will be the wind direction for the whole battle.
-            windDirection = Compute.d6(1) - 1;
+            windDirection = Compute.d6(MMRandom.Stream.WEATHER, 1) - 1;
         } else if (shiftWindDirection) {
             // Wind direction changes on a roll of 1 or 6
-            switch (Compute.d6()) {
+            switch (Compute.d6(MMRandom.Stream.WEATHER)) {
                 case 1: // rotate clockwise
                     windDirection = (windDirection + 1) % 6;
                     break;
@@ -365,7 +365,7 @@ public class PlanetaryConditions implements Serializable {
         }
         if (shiftWindStrength) {
             // Wind strength changes on a roll of 1 or 6
-            switch (Compute.d6()) {
+            switch (Compute.d6(MMRandom.Stream.WEATHER)) {
             case 1: // weaker
                 windStrength = Math.max(minWindStrength, --windStrength);
                 break;
@@ -15,7 +15,11 @@
 
 package megamek.common;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.Charset;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.Vector;
@@ -69,6 +73,8 @@ public class Report implements Serializable {
      */
 
     private static final long serialVersionUID = -5586008091586682078L;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
         
     private static final int MESSAGE_NONE = -1;
     
@@ -558,6 +564,90 @@ public class Report implements Serializable {
         return false;
     }
 
+    /**
+     * Internal method. Not for typical use.
+     * <p>
+     * Writes this report in the compact binary packet format. Like Java
+     * serialization, the transient server-only fields are not written.
+     *
+     * @param out the stream to write to
+     * @throws IOException
+     */
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeInt(messageId);
+        out.writeInt(indentation);
+        out.writeInt(newlines);
+        out.writeInt(tagData.size());
+        for (String data : tagData) {
+            writeNullableString(out, data);
+        }
+        writeNullableString(out, tagTranslate);
+        out.writeInt(obscuredIndexes.size());
+        for (Integer index : obscuredIndexes.keySet()) {
+            out.writeInt(index);
+            out.writeBoolean(obscuredIndexes.get(index));
+        }
+        out.writeInt(obscuredRecipients.size());
+        for (String name : obscuredRecipients) {
+            writeNullableString(out, name);
+        }
+    }
+
+    /**
+     * Internal method. Not for typical use.
+     * <p>
+     * Reads a report written by {@link #writeBinary(DataOutput)}.
+     *
+     * @param in the stream to read from
+     * @return the new report
+     * @throws IOException
+     */
+    public static Report readBinary(DataInput in) throws IOException {
+        Report r = new Report(in.readInt());
+        r.indentation = in.readInt();
+        r.newlines = in.readInt();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            r.tagData.addElement(readNullableString(in));
+        }
+        r.tagTranslate = readNullableString(in);
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int index = in.readInt();
+            r.obscuredIndexes.put(index, in.readBoolean());
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            r.obscuredRecipients.addElement(readNullableString(in));
+        }
+        return r;
+    }
+
+    /**
+     * Writes a string as its length and UTF-8 bytes, as report text can be
+     * longer than <code>writeUTF</code> allows; -1 stands for null.
+     */
+    private static void writeNullableString(DataOutput out, String value)
+            throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
     /**
      * Useful for debugging purposes.
      *
@@ -0,0 +1,174 @@
+/*
+ * MegaMek - Copyright (C) 2000-2002 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Records every number an <code>MMRandom</code> gives out, along with the
+ * stream it came from and the range it was asked for. Together with the RNG
+ * type and seed, this is enough to check that a game played again got exactly
+ * the same rolls, and to find the first roll where it didn't.
+ * <p/>
+ * Each roll takes a couple of bytes, so the journal of a long game is still
+ * small enough to be written next to every save.
+ */
+public class RollJournal {
+
+    private static final int MAGIC = 0x4d4d524a; // MMRJ
+    private static final int VERSION = 1;
+
+    private final int type;
+    private final long seed;
+
+    private byte[] data = new byte[4096];
+    private int length = 0;
+    private int rolls = 0;
+
+    /**
+     * @param type the <code>MMRandom</code> type of the RNG being recorded
+     * @param seed the seed it was generated with
+     */
+    public RollJournal(int type, long seed) {
+        this.type = type;
+        this.seed = seed;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the number of rolls recorded
+     */
+    public synchronized int size() {
+        return rolls;
+    }
+
+    /**
+     * Records one number given out.
+     *
+     * @param stream the ordinal of the <code>MMRandom.Stream</code> it came
+     *            from
+     * @param maxValue the range it was asked for
+     * @param result the number given out
+     */
+    synchronized void record(int stream, int maxValue, int result) {
+        // Rolls are mostly small numbers; the stream fits in the low bits
+        writeVarInt((result << 2) | stream);
+        writeVarInt(maxValue);
+        rolls++;
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        while ((value & ~0x7f) != 0) {
+            data[length++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * Finds the first roll that differs between this journal and another,
+     * in stream, range or result.
+     *
+     * @return the index of the first roll that differs, or -1 if the journals
+     *         hold the same rolls
+     */
+    public int firstDifference(RollJournal other) {
+        byte[] mine;
+        int myLength;
+        int myRolls;
+        synchronized (this) {
+            mine = data;
+            myLength = length;
+            myRolls = rolls;
+        }
+        byte[] theirs;
+        int theirLength;
+        int theirRolls;
+        synchronized (other) {
+            theirs = other.data;
+            theirLength = other.length;
+            theirRolls = other.rolls;
+        }
+        // Every roll ends with the last byte of its range
+        int roll = 0;
+        int fields = 0;
+        for (int i = 0; (i < myLength) && (i < theirLength); i++) {
+            if (mine[i] != theirs[i]) {
+                return roll;
+            }
+            if ((mine[i] & 0x80) == 0) {
+                fields++;
+                if ((fields % 2) == 0) {
+                    roll++;
+                }
+            }
+        }
+        return (myRolls == theirRolls) ? -1 : Math.min(myRolls, theirRolls);
+    }
+
+    /**
+     * Writes the journal to the given stream, which is left open.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream dout = new DataOutputStream(out);
+        synchronized (this) {
+            dout.writeInt(MAGIC);
+            dout.writeInt(VERSION);
+            dout.writeInt(type);
+            dout.writeLong(seed);
+            dout.writeInt(rolls);
+            dout.writeInt(length);
+            dout.write(data, 0, length);
+        }
+        dout.flush();
+    }
+
+    /**
+     * Reads a journal written by <code>writeTo</code>.
+     *
+     * @throws IOException if the stream doesn't hold a journal
+     */
+    public static RollJournal readFrom(InputStream in) throws IOException {
+        DataInputStream din = new DataInputStream(in);
+        if (din.readInt() != MAGIC) {
+            throw new IOException("Not a roll journal");
+        }
+        int version = din.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown roll journal version " + version);
+        }
+        RollJournal journal = new RollJournal(din.readInt(), din.readLong());
+        journal.rolls = din.readInt();
+        journal.length = din.readInt();
+        journal.data = new byte[Math.max(journal.length, 16)];
+        din.readFully(journal.data, 0, journal.length);
+        return journal;
+    }
+}
@@ -14,6 +14,8 @@
  */
 package megamek.common;
 
+import megamek.common.options.GameOptions;
+
 /**
  * @author Jay Lawson
  */
@@ -615,7 +617,7 @@ public class SmallCraft extends Aero {
      */
     @Override
     public boolean hasActiveECM() {
-        if (!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.hasActiveECM();
         }
         return getECMRange() >= 0;
@@ -629,7 +631,7 @@ public class SmallCraft extends Aero {
      */
     @Override
     public int getECMRange() {
-        if (!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if (!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
         if (!isMilitary()) {
@@ -16,6 +16,7 @@
  */
 package megamek.common;
 
+import megamek.common.options.GameOptions;
 
 /**
  * @author Jay Lawson
@@ -118,7 +119,7 @@ public class SpaceStation extends Jumpship {
      */
     @Override
     public boolean hasActiveECM() {
-        if(!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if(!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.hasActiveECM();
         }
         return getECMRange() >= 0;
@@ -132,7 +133,7 @@ public class SpaceStation extends Jumpship {
      */
     @Override
     public int getECMRange() {
-        if(!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if(!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
         if(!isMilitary()) {
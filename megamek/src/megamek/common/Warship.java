@@ -16,6 +16,8 @@
  */
 package megamek.common;
 
+import megamek.common.options.GameOptions;
+
 
 /**
  * @author Jay Lawson
@@ -246,7 +248,7 @@ public class Warship extends Jumpship {
      */
     @Override
     public boolean hasActiveECM() {
-        if(!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if(!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.hasActiveECM();
         }
         return getECMRange() >= 0;
@@ -260,7 +262,7 @@ public class Warship extends Jumpship {
      */
     @Override
     public int getECMRange() {
-        if(!game.getOptions().booleanOption("stratops_ecm") || !game.getBoard().inSpace()) {
+        if(!game.getOptions().booleanOption(GameOptions.STRATOPS_ECM) || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
         int range = 2;
@@ -67,6 +67,7 @@ import megamek.common.Terrains;
 import megamek.common.ToHitData;
 import megamek.common.VTOL;
 import megamek.common.WeaponType;
+import megamek.common.options.GameOptions;
 import megamek.common.options.OptionsConstants;
 import megamek.common.weapons.ArtilleryCannonWeapon;
 import megamek.common.weapons.ArtilleryWeapon;
@@ -775,7 +776,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements
 
         // Space ECM
         if (game.getBoard().inSpace()
-            && game.getOptions().booleanOption("stratops_ecm")) {
+            && game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             int ecm = ComputeECM.getLargeCraftECM(ae, ae.getPosition(),
                                                   target.getPosition());
             if (!ae.isLargeCraft()) {
@@ -2273,7 +2274,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements
         }
         // Space ECM
         if (game.getBoard().inSpace()
-            && game.getOptions().booleanOption("stratops_ecm")) {
+            && game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             int ecm = ComputeECM.getLargeCraftECM(ae, ae.getPosition(),
                                                   target.getPosition());
             if (!ae.isLargeCraft()) {
@@ -2967,7 +2968,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements
             && game.getOptions().booleanOption("indirect_fire")
             && !game.getOptions().booleanOption("indirect_always_possible")
             && LosEffects.calculateLos(game, ae.getId(), target).canSee()
-            && (!game.getOptions().booleanOption("double_blind") || Compute
+            && (!game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND) || Compute
                 .canSee(game, ae, target))
             && !(wtype instanceof ArtilleryCannonWeapon)
             && !(wtype instanceof MekMortarWeapon)) {
@@ -3634,7 +3635,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements
             && game.getOptions().booleanOption("indirect_fire")
             && !game.getOptions().booleanOption("indirect_always_possible")
             && LosEffects.calculateLos(game, attackerId, target).canSee()
-            && (!game.getOptions().booleanOption("double_blind") || Compute
+            && (!game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND) || Compute
                 .canSee(game, ae, target))
             && !(wtype instanceof ArtilleryCannonWeapon)
             && !(wtype instanceof MekMortarWeapon)) {
@@ -3803,7 +3804,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements
         // http://www.classicbattletech.com/forums/index.php/topic,47618.0.html
         // anything outside of visual range requires a "sensor lock" in order to
         // direct fire
-        if (game.getOptions().booleanOption("double_blind")
+        if (game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)
             && !Compute.inVisualRange(game, ae, target)
             && !Compute.inSensorRange(game, ae, target, null)
             && !isArtilleryIndirect && !isIndirect) {
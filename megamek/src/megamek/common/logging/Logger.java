@@ -67,7 +67,7 @@ public class Logger {
         if (level.getLevel() > verbosity.getLevel()) {
             return;
         }
-        StringBuilder msg = new StringBuilder(t.getMessage());
+        StringBuilder msg = new StringBuilder(String.valueOf(t.getMessage()));
         for (StackTraceElement e : t.getStackTrace()) {
             msg.append("\n").append(e.toString());
         }
@@ -15,18 +15,18 @@
 package megamek.common.net;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketException;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.Set;
 import java.util.Vector;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import megamek.common.net.marshall.PacketMarshaller;
 import megamek.common.net.marshall.PacketMarshallerFactory;
@@ -42,6 +42,22 @@ public abstract class AbstractConnection implements IConnection {
 
     private static final int DEFAULT_MARSHALLING = PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING;
 
+    /**
+     * The most packets that may wait to be sent on one connection
+     */
+    public static final int MAX_QUEUED_PACKETS = 2000;
+
+    /**
+     * The most bytes that may wait to be sent on one connection
+     */
+    public static final long MAX_QUEUED_BYTES = 32L * 1024 * 1024;
+
+    /**
+     * How long, in milliseconds, <code>flush()</code> waits for the queue to
+     * be written.
+     */
+    public static final long SEND_TIMEOUT = 30000;
+
     /**
      * Peer Host Non null in case if it's a client connection
      */
@@ -68,7 +84,7 @@ public abstract class AbstractConnection implements IConnection {
     private int id;
 
     /**
-     * Bytes send during the connection lifecycle
+     * Bytes written to the network during the connection lifecycle
      */
     private long bytesSent;
 
@@ -80,7 +96,8 @@ public abstract class AbstractConnection implements IConnection {
     /**
      * Queue of <code>Packets</code> to send
      */
-    private SendQueue sendQueue = new SendQueue();
+    private SendQueue sendQueue = new SendQueue(MAX_QUEUED_PACKETS,
+            MAX_QUEUED_BYTES);
 
     /**
      * Connection listeners list
@@ -154,7 +171,7 @@ public abstract class AbstractConnection implements IConnection {
      * 
      * @return the type of the marshalling used to send packets
      */
-    protected int getMarshallingType() {
+    public int getMarshallingType() {
         return marshallingType;
     }
 
@@ -163,7 +180,7 @@ public abstract class AbstractConnection implements IConnection {
      * 
      * @param marshallingType new marhalling type
      */
-    protected void setMarshallingType(int marshallingType) {
+    public synchronized void setMarshallingType(int marshallingType) {
         PacketMarshaller pm = marshallerFactory.getMarshaller(marshallingType);
         assert (pm != null) : "Unknown marshalling type";
         this.marshallingType = marshallingType;
@@ -265,22 +282,93 @@ public abstract class AbstractConnection implements IConnection {
     /**
      * Adds a packet to the send queue to be send on a seperate thread.
      */
-    public synchronized void send(Packet packet) {
-        sendQueue.addPacket(new SendPacket(packet));
-        // Send right now
-        flush();
+    public void send(Packet packet) {
+        send(new SendPacket(packet, marshallingType, zipData));
     }
 
     /**
-     * Send packet now; This is the blocking call.
+     * Adds an already marshalled packet to the send queue. The packet should
+     * have been encoded with this connection's marshalling type and
+     * compression setting; the packet's own marshalling type is what is
+     * written to the network header.
+     * <p>
+     * The packet is written by this connection's writer thread, so this never
+     * waits for the network. If the peer has fallen so far behind that the
+     * queue is full, the queued packets are dropped and the writer closes the
+     * connection.
      */
-    public void sendNow(SendPacket packet) {
+    public void send(SendPacket packet) {
+        startWriter();
+        boolean queued;
         try {
-            sendNetworkPacket(packet.getData(), packet.isCompressed());
-            debugLastFewCommandsSent.push(packet.getCommand());
-        } catch (Exception e) {
-            e.printStackTrace();
+            queued = sendQueue.addPacket(packet, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         }
+        if (queued) {
+            packetQueued();
+        } else if (!sendQueue.isFinished()) {
+            System.err.print(getConnectionTypeAbbrevation());
+            System.err.print(" send queue of connection #");
+            System.err.print(getId());
+            System.err.println(" is full, closing it");
+            sendQueue.abort();
+            sendQueueAborted();
+        }
+    }
+
+    /**
+     * Closes the connection once the packets in the queue have been sent.
+     * This doesn't wait; the connection is closed by the writer thread.
+     */
+    public void closeWhenSent() {
+        sendQueue.closeWhenSent();
+        startWriter();
+        packetQueued();
+    }
+
+    /**
+     * Makes sure the queued packets will be written, starting whatever does
+     * the writing if needed.
+     */
+    protected abstract void startWriter();
+
+    /**
+     * Returns <code>true</code> if the current thread is the one that writes
+     * this connection's packets.
+     */
+    protected abstract boolean isWriterThread();
+
+    /**
+     * Called after a packet has been added to the send queue.
+     */
+    protected void packetQueued() {
+    }
+
+    /**
+     * Called when the send queue has been given up on, to make the writer
+     * close the connection without finishing the packet it is writing.
+     */
+    protected abstract void sendQueueAborted();
+
+    /**
+     * Records a packet that has been written to the network.
+     */
+    protected void packetSent(SendPacket packet) {
+        debugLastFewCommandsSent.push(packet.getCommand());
+        synchronized (this) {
+            if (packet.getData() != null) {
+                bytesSent += packet.getData().length;
+            }
+        }
+    }
+
+    /**
+     * Returns the queue of packets waiting to be written
+     */
+    SendQueue getSendQueue() {
+        return sendQueue;
     }
 
     /**
@@ -288,12 +376,29 @@ public abstract class AbstractConnection implements IConnection {
      * 
      * @return <code>true</code> if there are pending packets
      */
-    public synchronized boolean hasPending() {
+    public boolean hasPending() {
         return sendQueue.hasPending();
     }
 
+    public int getSendQueueDepth() {
+        return sendQueue.size();
+    }
+
+    public int getMaxSendQueueDepth() {
+        return sendQueue.getMaxSize();
+    }
+
+    public long getSendQueueBytes() {
+        return sendQueue.getBytes();
+    }
+
+    public long getCoalescedCount() {
+        return sendQueue.getCoalescedCount();
+    }
+
     /**
-     * Returns a very approximate count of how many bytes were sent
+     * Returns a very approximate count of how many bytes were written to the
+     * network; packets still waiting in the queue don't count
      * 
      * @return a very approximate count of how many bytes were sent
      */
@@ -431,6 +536,22 @@ public abstract class AbstractConnection implements IConnection {
     }
 
     
+    /**
+     * Closes the socket without closing the connection, so that whatever is
+     * reading from or writing to it fails, and closes the connection on its
+     * own thread.
+     */
+    protected void closeSocket() {
+        Socket s = socket;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                // Being given up on anyway
+            }
+        }
+    }
+
     protected int getSendBufferSize() throws SocketException{
         return socket.getSendBufferSize();
     }
@@ -441,48 +562,28 @@ public abstract class AbstractConnection implements IConnection {
     }
         
     /**
-     * Process all incoming data, blocking on the input stream until new input
-     * is available.  This method should not be synchronized as it should only
-     * deal with the input side of things.  Without creating separate read/write
-     * locks, making this method synchronized would not allow synchronous reads
-     * and writes.
+     * Waits until all queued packets have been written, or until
+     * <code>SEND_TIMEOUT</code> has passed.  Does nothing when called from
+     * the writer thread itself.
      */
-    public void update() {
-        try {
-            INetworkPacket np;
-            while ((np = readNetworkPacket()) != null) {
-                processPacket(np);
-            }
-        } catch (SocketException e) {
-        	// Do nothing, happens when the socket closes
-            close();
-        } catch (EOFException e) {
-        	// Do nothing, happens when the socket closes
-            close();
-        } catch (IOException e) {
-            System.out
-                    .println("IOException during AbstractConnection#update()");
-            close();
-        } catch (Exception e) {
-            e.printStackTrace();
-            reportReceiveException(e);
-            close();
-        }
+    public void flush() {
+        flush(SEND_TIMEOUT);
     }
 
     /**
-     * Send all queued packets.  This method is synchronized since it deals with
-     * the non-thread-safe send queue.
+     * Waits until all queued packets have been written, or until the given
+     * number of milliseconds has passed.  Does nothing when called from the
+     * writer thread itself.
      */
-    public synchronized void flush() {
-        SendPacket packet = null;
+    public boolean flush(long timeout) {
+        if (isWriterThread()) {
+            return !hasPending();
+        }
         try {
-            while ((packet = sendQueue.getPacket()) != null) {
-                processPacket(packet);
-            }
-        } catch (Exception e) {
-            reportSendException(e, packet);
-            close();
+            return sendQueue.waitUntilSent(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return !hasPending();
         }
     }
 
@@ -493,6 +594,11 @@ public abstract class AbstractConnection implements IConnection {
         PacketMarshaller pm = marshallerFactory.getMarshaller(np
                 .getMarshallingType());
         assert (pm != null) : "Unknown marshalling type";
+        if (isServer() && (np.getMarshallingType() != marshallingType)) {
+            // The client switched to a marshalling type offered in the server
+            // greeting; answer in the same encoding from now on
+            setMarshallingType(np.getMarshallingType());
+        }
         Packet packet = null;
         byte[] data = np.getData();
         bytesReceived += data.length;
@@ -512,75 +618,276 @@ public abstract class AbstractConnection implements IConnection {
     }
 
     /**
-     * process a packet to be sent
-     */
-    protected void processPacket(SendPacket packet) throws Exception {
-        sendNow(packet);
-    }
-
-    /**
-     * Reads a complete <code>NetworkPacket</code> must not block, must return
-     * null instead
-     * 
-     * @return the <code>NetworkPacket</code> that was sent.
-     */
-    protected abstract INetworkPacket readNetworkPacket() throws Exception;
-
-    /**
-     * Sends the data must not block for too long
-     * 
-     * @param data data to send
-     * @param zipped should the data be compressed
-     * @throws Exception
-     */
-    protected abstract void sendNetworkPacket(byte[] data, boolean zipped)
-            throws Exception;
-
-    /**
-     * Wrapper around a <code>LinkedList</code> for keeping a queue of packets
-     * to send.  Note that this implementation is not synchronized.
+     * Bounded queue of packets to send, shared by the threads sending packets
+     * and the connection's writer thread.  When a packet is queued that
+     * carries a complete piece of state, such as the game settings, any older
+     * packet of the same command that hasn't been written yet is dropped, and
+     * the new one goes to the end of the queue, so it is sent after every
+     * packet queued before it.
+     * <p>
+     * The queue can be told to close the connection; the writer thread gets
+     * no more packets once it has written what is left, and closes the
+     * connection then.
      */
     static class SendQueue {
 
+        /**
+         * Commands whose packets replace the whole of what an earlier packet
+         * with the same command sent.
+         */
+        private static final Set<Integer> SUPERSEDING_COMMANDS = new HashSet<Integer>();
+
+        static {
+            SUPERSEDING_COMMANDS.add(Packet.COMMAND_SENDING_GAME_SETTINGS);
+            SUPERSEDING_COMMANDS.add(Packet.COMMAND_SENDING_MAP_DIMENSIONS);
+            SUPERSEDING_COMMANDS.add(Packet.COMMAND_SENDING_MAP_SETTINGS);
+            SUPERSEDING_COMMANDS
+                    .add(Packet.COMMAND_SENDING_PLANETARY_CONDITIONS);
+            SUPERSEDING_COMMANDS
+                    .add(Packet.COMMAND_SENDING_AVAILABLE_MAP_SIZES);
+            SUPERSEDING_COMMANDS.add(Packet.COMMAND_SENDING_ILLUM_HEXES);
+            SUPERSEDING_COMMANDS.add(Packet.COMMAND_SENDING_FLARES);
+            SUPERSEDING_COMMANDS.add(Packet.COMMAND_SENDING_ARTILLERYATTACKS);
+            SUPERSEDING_COMMANDS
+                    .add(Packet.COMMAND_SENDING_SPECIAL_HEX_DISPLAY);
+        }
+
         private LinkedList<SendPacket> queue = 
         		new LinkedList<SendPacket>();
         private boolean finished = false;
+        private boolean closing = false;
+        private boolean aborted = false;
+        private boolean writing = false;
+        private final int maxPackets;
+        private final long maxBytes;
+        private long bytes;
+        private int maxSize;
+        private long coalesced;
+
+        SendQueue(int maxPackets, long maxBytes) {
+            this.maxPackets = maxPackets;
+            this.maxBytes = maxBytes;
+        }
 
-        public void addPacket(SendPacket packet) {
+        /**
+         * Adds a packet to the end of the queue, waiting for room if the
+         * queue is full. A packet that supersedes a queued one doesn't need
+         * room, as the queued one is dropped.
+         *
+         * @param packet the packet to send
+         * @param timeout how many milliseconds to wait for room at most
+         * @return <code>false</code> if the queue has been finished or told
+         *         to close, or stayed full for the whole timeout
+         */
+        public synchronized boolean addPacket(SendPacket packet, long timeout)
+                throws InterruptedException {
+            if (finished || closing) {
+                return false;
+            }
+            if (SUPERSEDING_COMMANDS.contains(packet.getCommand())) {
+                for (ListIterator<SendPacket> i = queue.listIterator(); i
+                        .hasNext();) {
+                    SendPacket queued = i.next();
+                    if (queued.getCommand() == packet.getCommand()) {
+                        // Older packets are dropped when queued, so there is
+                        // at most one
+                        i.remove();
+                        bytes -= sizeOf(queued);
+                        coalesced++;
+                        queue.add(packet);
+                        bytes += sizeOf(packet);
+                        notifyAll();
+                        return true;
+                    }
+                }
+            }
+            long end = System.currentTimeMillis() + timeout;
+            while (!finished && !closing && !queue.isEmpty()
+                    && ((queue.size() >= maxPackets)
+                            || ((bytes + sizeOf(packet)) > maxBytes))) {
+                long wait = end - System.currentTimeMillis();
+                if (wait <= 0) {
+                    return false;
+                }
+                wait(wait);
+            }
+            if (finished || closing) {
+                return false;
+            }
             queue.add(packet);
+            bytes += sizeOf(packet);
+            maxSize = Math.max(maxSize, queue.size());
+            notifyAll();
+            return true;
         }
 
-        public void finish() {
+        public synchronized void finish() {
             queue.clear();
+            bytes = 0;
             finished = true;
+            notifyAll();
+        }
+
+        public synchronized boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * Takes no more packets; once the queued ones have been written, the
+         * writer gets no more and closes the connection.
+         */
+        public synchronized void closeWhenSent() {
+            closing = true;
+            notifyAll();
+        }
+
+        /**
+         * Drops the queued packets and takes no more, so the writer closes
+         * the connection as soon as it is done with what it is writing.
+         */
+        public synchronized void abort() {
+            queue.clear();
+            bytes = 0;
+            closing = true;
+            aborted = true;
+            notifyAll();
+        }
+
+        /**
+         * Returns <code>true</code> if the queue has been given up on.
+         */
+        public synchronized boolean isAborted() {
+            return aborted;
+        }
+
+        /**
+         * Returns <code>true</code> if the connection is to be closed once the
+         * queue is empty.
+         */
+        public synchronized boolean isClosing() {
+            return closing;
         }
 
         /**
-         * Waits for a packet to appear in the queue and then returns it.
+         * Returns the first packet in the queue without waiting.
          * 
          * @return the first available packet in the queue or null if none
          */
-        public SendPacket getPacket() {
+        public synchronized SendPacket getPacket() {
             if (!finished) {
-                return queue.poll();
+                SendPacket packet = queue.poll();
+                if (packet != null) {
+                    bytes -= sizeOf(packet);
+                    notifyAll();
+                }
+                return packet;
             } 
             return null;
         }
 
+        /**
+         * Waits for a packet to appear in the queue and then returns it. The
+         * packet counts as pending until <code>packetSent()</code> is called.
+         *
+         * @return the first packet in the queue, or null once the queue has
+         *         been finished, or is empty and told to close the connection
+         */
+        public synchronized SendPacket takePacket()
+                throws InterruptedException {
+            while (!finished && !closing && queue.isEmpty()) {
+                wait();
+            }
+            return pollPacket();
+        }
+
+        /**
+         * Returns the first packet in the queue without waiting. Like with
+         * <code>takePacket()</code>, the packet counts as pending until
+         * <code>packetSent()</code> is called.
+         *
+         * @return the first packet in the queue, or null if there is none
+         */
+        public synchronized SendPacket pollPacket() {
+            SendPacket packet = getPacket();
+            writing = packet != null;
+            return packet;
+        }
+
+        /**
+         * Marks the packet last returned by <code>takePacket()</code> as
+         * written.
+         */
+        public synchronized void packetSent() {
+            writing = false;
+            notifyAll();
+        }
+
+        /**
+         * Waits until every queued packet has been written.
+         *
+         * @param timeout how many milliseconds to wait at most
+         * @return <code>true</code> if nothing is left to write
+         */
+        public synchronized boolean waitUntilSent(long timeout)
+                throws InterruptedException {
+            long end = System.currentTimeMillis() + timeout;
+            while (!finished && hasPending()) {
+                long wait = end - System.currentTimeMillis();
+                if (wait <= 0) {
+                    return false;
+                }
+                wait(wait);
+            }
+            return !hasPending();
+        }
+
         /**
          * Returns true if this connection has pending data
          */
-        public boolean hasPending() {
-            return !queue.isEmpty();
+        public synchronized boolean hasPending() {
+            return !queue.isEmpty() || writing;
+        }
+
+        /**
+         * Returns the number of packets waiting to be written
+         */
+        public synchronized int size() {
+            return queue.size();
+        }
+
+        /**
+         * Returns the most packets that have waited in the queue at once
+         */
+        public synchronized int getMaxSize() {
+            return maxSize;
+        }
+
+        /**
+         * Returns the number of bytes waiting to be written
+         */
+        public synchronized long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the number of packets dropped because a newer packet
+         * superseded them
+         */
+        public synchronized long getCoalescedCount() {
+            return coalesced;
         }
 
-        public void reportContents() {
+        public synchronized void reportContents() {
             System.err.print("Contents of Send Queue: ");
             for (SendPacket p : queue) {
-                System.err.print(p.command);
+                System.err.print(p.getCommand());
             }
             System.err.println();
         }
+
+        private static long sizeOf(SendPacket packet) {
+            return packet.getData() == null ? 0 : packet.getData().length;
+        }
     }
 
     /**
@@ -607,48 +914,6 @@ public abstract class AbstractConnection implements IConnection {
         }
     }
 
-    private class SendPacket implements INetworkPacket {
-        byte[] data;
-        boolean zipped = false;
-        int command;
-
-        public SendPacket(Packet packet) {
-            command = packet.getCommand();
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            OutputStream out;
-            try {
-                if (zipData && packet.getData() != null) {
-                    out = new GZIPOutputStream(bos);
-                    zipped = true;
-                } else {
-                    out = bos;
-                }
-                marshaller.marshall(packet, out);
-                out.close();
-                data = bos.toByteArray();
-                bytesSent += data.length;
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-
-        public int getMarshallingType() {
-            return marshallingType;
-        }
-
-        public byte[] getData() {
-            return data;
-        }
-
-        public boolean isCompressed() {
-            return zipped;
-        }
-
-        public int getCommand() {
-            return command;
-        }
-    }
-
     /**
      * Connection layer data packet.
      */
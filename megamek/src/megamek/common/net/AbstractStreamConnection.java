@@ -0,0 +1,201 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * A connection that reads packets from the socket's input stream on the
+ * thread calling <code>update()</code> and writes them to the output stream
+ * on a writer thread of its own.
+ */
+abstract class AbstractStreamConnection extends AbstractConnection {
+
+    /**
+     * The thread that writes the queued packets to the socket, started with
+     * the first packet sent.
+     */
+    private volatile Thread writer;
+
+    /**
+     * Creates new client (connection from client to server) connection
+     *
+     * @param host target host
+     * @param port target port
+     * @param id connection ID
+     */
+    public AbstractStreamConnection(String host, int port, int id) {
+        super(host, port, id);
+    }
+
+    /**
+     * Creates new Server connection
+     *
+     * @param socket accepted socket
+     * @param id connection ID
+     */
+    public AbstractStreamConnection(Socket socket, int id) {
+        super(socket, id);
+    }
+
+    /**
+     * Starts the thread that writes the queued packets, unless it is running
+     * already or the connection is closed.
+     */
+    @Override
+    protected synchronized void startWriter() {
+        if ((writer == null) && !isClosed()) {
+            writer = new Thread(new Writer(), "Connection " + getId()
+                    + " writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    @Override
+    protected boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    /**
+     * The writer may be stuck writing to a peer that stopped reading, so the
+     * socket is closed under it; it then closes the connection.
+     */
+    @Override
+    protected void sendQueueAborted() {
+        closeSocket();
+    }
+
+    /**
+     * Send packet now; This is the blocking call.
+     */
+    public void sendNow(SendPacket packet) {
+        try {
+            sendNetworkPacket(packet.getMarshallingType(), packet.getData(),
+                    packet.isCompressed());
+            packetSent(packet);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Process all incoming data, blocking on the input stream until new input
+     * is available.  This method should not be synchronized as it should only
+     * deal with the input side of things.  Without creating separate read/write
+     * locks, making this method synchronized would not allow synchronous reads
+     * and writes.
+     */
+    public void update() {
+        try {
+            INetworkPacket np;
+            while ((np = readNetworkPacket()) != null) {
+                processPacket(np);
+            }
+        } catch (SocketException e) {
+        	// Do nothing, happens when the socket closes
+            close();
+        } catch (EOFException e) {
+        	// Do nothing, happens when the socket closes
+            close();
+        } catch (IOException e) {
+            System.out
+                    .println("IOException during AbstractStreamConnection#update()");
+            close();
+        } catch (Exception e) {
+            e.printStackTrace();
+            reportReceiveException(e);
+            close();
+        }
+    }
+
+    /**
+     * Writes out any data buffered by <code>sendNetworkPacket</code>. Called
+     * by the writer thread whenever the send queue runs empty.
+     *
+     * @throws Exception
+     */
+    protected void flushNetworkPackets() throws Exception {
+    }
+
+    /**
+     * Takes packets off the send queue and writes them, until the connection
+     * is closed, or the queue runs out after being told to close it.
+     */
+    private class Writer implements Runnable {
+
+        public void run() {
+            SendQueue sendQueue = getSendQueue();
+            SendPacket packet = null;
+            try {
+                while ((packet = sendQueue.takePacket()) != null) {
+                    try {
+                        processPacket(packet);
+                        if (sendQueue.size() == 0) {
+                            flushNetworkPackets();
+                        }
+                    } finally {
+                        sendQueue.packetSent();
+                    }
+                }
+                if (!sendQueue.isFinished()) {
+                    close();
+                }
+            } catch (InterruptedException e) {
+                // The connection is being closed
+            } catch (SocketException e) {
+                // The socket was closed while being written to; the connection
+                // is being broken anyway
+                if (!sendQueue.isFinished()) {
+                    close();
+                }
+            } catch (Exception e) {
+                if (!sendQueue.isFinished()) {
+                    reportSendException(e, packet);
+                    close();
+                }
+            }
+        }
+    }
+
+    /**
+     * process a packet to be sent
+     */
+    protected void processPacket(SendPacket packet) throws Exception {
+        sendNow(packet);
+    }
+
+    /**
+     * Reads a complete <code>NetworkPacket</code> must not block, must return
+     * null instead
+     *
+     * @return the <code>NetworkPacket</code> that was sent.
+     */
+    protected abstract INetworkPacket readNetworkPacket() throws Exception;
+
+    /**
+     * Sends the data must not block for too long
+     *
+     * @param marshallingType the marshalling type the data was encoded with
+     * @param data data to send
+     * @param zipped should the data be compressed
+     * @throws Exception
+     */
+    protected abstract void sendNetworkPacket(int marshallingType,
+            byte[] data, boolean zipped) throws Exception;
+}
@@ -13,6 +13,7 @@
  */
 package megamek.common.net;
 
+import java.io.IOException;
 import java.net.Socket;
 
 /**
@@ -22,6 +23,13 @@ public class ConnectionFactory {
 
     private static ConnectionFactory instance = new ConnectionFactory();
 
+    /**
+     * Whether server connections are served by a shared selector thread
+     */
+    private boolean useSelector;
+
+    private ConnectionSelector selector;
+
     private ConnectionFactory() {
     }
 
@@ -54,6 +62,42 @@ public class ConnectionFactory {
      * @return new Server coinnection
      */
     public IConnection createServerConnection(Socket socket, int id) {
+        if (useSelector && (socket.getChannel() != null)) {
+            return new NioConnection(socket, id, getSelector());
+        }
         return new DataStreamConnection(socket, id);
     }
+
+    /**
+     * Returns <code>true</code> if server connections are read and written by
+     * a single selector thread rather than by threads of their own.
+     * 
+     * @return <code>true</code> if the selector is used
+     */
+    public synchronized boolean isUsingSelector() {
+        return useSelector;
+    }
+
+    /**
+     * Sets whether server connections should be read and written by a single
+     * selector thread. Only sockets accepted from a
+     * <code>ServerSocketChannel</code> can be served this way; servers should
+     * check {@link #isUsingSelector()} before opening their socket.
+     * 
+     * @param useSelector
+     */
+    public synchronized void setUsingSelector(boolean useSelector) {
+        this.useSelector = useSelector;
+    }
+
+    private synchronized ConnectionSelector getSelector() {
+        if (selector == null) {
+            try {
+                selector = new ConnectionSelector();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return selector;
+    }
 }
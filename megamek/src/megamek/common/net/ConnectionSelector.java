@@ -0,0 +1,143 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A single thread that does the reading and writing for any number of
+ * <code>NioConnection</code>s, so that idle connections don't each need a
+ * thread of their own.
+ */
+class ConnectionSelector implements Runnable {
+
+    private final Selector selector;
+
+    private final Thread thread;
+
+    /**
+     * Connections that have to be registered or have packets to write; only
+     * the selector thread may change a connection's registration.
+     */
+    private final ConcurrentLinkedQueue<NioConnection> changes = new ConcurrentLinkedQueue<NioConnection>();
+
+    /**
+     * Runs the listeners of connections that were closed by the selector
+     * thread. Listeners may wait on other threads that are themselves waiting
+     * for the selector to write their packets, so they mustn't run on it.
+     */
+    private final ExecutorService events = Executors
+            .newSingleThreadExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "Connection Events");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    /**
+     * Opens the selector and starts its thread.
+     *
+     * @throws IOException if the selector can't be opened
+     */
+    ConnectionSelector() throws IOException {
+        selector = Selector.open();
+        thread = new Thread(this, "Connection Selector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Asks the selector thread to register the connection, or to start
+     * writing its queued packets.
+     */
+    void update(NioConnection connection) {
+        changes.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs the given task on the event thread.
+     */
+    void dispatch(Runnable task) {
+        events.execute(task);
+    }
+
+    /**
+     * Returns <code>true</code> if the current thread is the selector thread.
+     */
+    boolean isSelectorThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                e.printStackTrace();
+                continue;
+            }
+            NioConnection connection;
+            while ((connection = changes.poll()) != null) {
+                try {
+                    connection.register(selector);
+                } catch (RuntimeException e) {
+                    fail(connection, e);
+                }
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                connection = (NioConnection) key.attachment();
+                try {
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.write();
+                    }
+                } catch (RuntimeException e) {
+                    fail(connection, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes a connection that failed on the selector thread, so that the
+     * thread can go on serving the other connections.
+     */
+    private void fail(NioConnection connection, RuntimeException e) {
+        // A cancelled key just means the connection was closed meanwhile
+        if (!(e instanceof CancelledKeyException)) {
+            e.printStackTrace();
+        }
+        try {
+            connection.close();
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
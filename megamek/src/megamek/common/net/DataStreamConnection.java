@@ -18,16 +18,14 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
-import java.io.IOException;
 import java.net.Socket;
-import java.net.SocketException;
 
 /**
  * Implementation of the <code>Connection</code> that uses the
  * <code>DataInputStream</code> and <code>DataOutputStream</code> to
  * send/receive data.
  */
-class DataStreamConnection extends AbstractConnection {
+class DataStreamConnection extends AbstractStreamConnection {
 
     /**
      * Input stream
@@ -100,8 +98,8 @@ class DataStreamConnection extends AbstractConnection {
     }
 
     @Override
-    protected void sendNetworkPacket(byte[] data, boolean iszipped)
-            throws Exception {
+    protected void sendNetworkPacket(int marshallingType, byte[] data,
+            boolean iszipped) throws Exception {
     	
         if (out == null) {
             out = new DataOutputStream(new BufferedOutputStream(
@@ -116,29 +114,15 @@ class DataStreamConnection extends AbstractConnection {
     }
 
     /**
-     * override flush to flush the datastream after flushing packetqueue
+     * Flushes the datastream once the packet queue has been written
      */
     @Override
-    public void flush() {
-        // Sends all queued packets
-        super.flush();
-        try {
-            // Flush the output stream, to ensure all packets are sent
-            if (out != null)
-                synchronized (out) {
-                    out.flush();
-                }
-        } catch (SocketException se) {
-            // close this connection, because it's broken
-            // This can happen if the connection is closed while being written
-            // to, and it's not a big deal, since the connection is being broken
-            // anyways
-            close();
-        } catch (IOException ioe) {
-            // Log non-SocketException IOExceptions
-            ioe.printStackTrace();
-            // close this connection, because it's broken
-            close();
+    protected void flushNetworkPackets() throws Exception {
+        // Flush the output stream, to ensure all packets are sent
+        if (out != null) {
+            synchronized (out) {
+                out.flush();
+            }
         }
     }
 
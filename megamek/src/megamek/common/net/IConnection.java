@@ -65,16 +65,62 @@ public interface IConnection {
     public void update();
 
     /**
-     * Sibling of the update() method, will not read anything, will just flush
-     * the pending packets from the queue.
+     * Sibling of the update() method, will not read anything, will just wait
+     * for the pending packets in the queue to be sent.
      */
     public void flush();
 
     /**
-     * Adds a packet to the send queue to be send on a seperate thread.
+     * Waits at most the given number of milliseconds for the pending packets
+     * in the queue to be sent.
+     *
+     * @param timeout how many milliseconds to wait at most
+     * @return <code>true</code> if nothing is left to send
+     */
+    public boolean flush(long timeout);
+
+    /**
+     * Closes the connection once the packets in the queue have been sent.
+     * This doesn't wait; the connection is closed by the thread that writes
+     * the packets.
+     */
+    public void closeWhenSent();
+
+    /**
+     * Adds a packet to the send queue to be send on a seperate thread. This
+     * doesn't wait; if the queue is full the connection is closed.
      */
     public void send(Packet packet);
 
+    /**
+     * Adds an already marshalled packet to the send queue. The packet should
+     * be encoded for this connection, see
+     * {@link SendPacket#isEncodedFor(int, boolean)}.
+     */
+    public void send(SendPacket packet);
+
+    /**
+     * Returns the type of the marshalling used to send packets
+     * 
+     * @return the type of the marshalling used to send packets
+     */
+    public int getMarshallingType();
+
+    /**
+     * Sets the type of the marshalling used to send packets. The peer must be
+     * able to decode the given type.
+     * 
+     * @param marshallingType new marshalling type
+     */
+    public void setMarshallingType(int marshallingType);
+
+    /**
+     * Returns <code>true</code> if this connection compress the sent data
+     * 
+     * @return <code>true</code> if this connection compress the sent data
+     */
+    public boolean isCompressed();
+
     /**
      * Returns <code>true</code> if there are (send)pending packets
      * 
@@ -82,6 +128,35 @@ public interface IConnection {
      */
     public boolean hasPending();
 
+    /**
+     * Returns the number of packets waiting to be sent
+     * 
+     * @return the number of packets waiting to be sent
+     */
+    public int getSendQueueDepth();
+
+    /**
+     * Returns the most packets that have waited to be sent at once
+     * 
+     * @return the highest send queue depth so far
+     */
+    public int getMaxSendQueueDepth();
+
+    /**
+     * Returns the number of bytes waiting to be sent
+     * 
+     * @return the number of bytes waiting to be sent
+     */
+    public long getSendQueueBytes();
+
+    /**
+     * Returns the number of packets that were never sent because a newer
+     * packet replaced them while they were queued
+     * 
+     * @return the number of superseded packets dropped
+     */
+    public long getCoalescedCount();
+
     /**
      * Returns a very approximate count of how many bytes were sent
      * 
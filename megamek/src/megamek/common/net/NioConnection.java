@@ -0,0 +1,288 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Server connection on a non-blocking <code>SocketChannel</code>. Packets
+ * are framed like in <code>DataStreamConnection</code>, so either kind of
+ * connection can talk to the other, but all reading and writing is done by a
+ * shared <code>ConnectionSelector</code> thread instead of a thread for each
+ * connection.
+ */
+class NioConnection extends AbstractConnection {
+
+    /**
+     * Size of the packet header: compression flag, marshalling type and
+     * length
+     */
+    private static final int HEADER_SIZE = 9;
+
+    private final SocketChannel channel;
+
+    private final ConnectionSelector connectionSelector;
+
+    private SelectionKey key;
+
+    private boolean registered;
+
+    /**
+     * Header of the packet being read
+     */
+    private final ByteBuffer readHeader = ByteBuffer.allocate(HEADER_SIZE);
+
+    /**
+     * Data of the packet being read, or null while the header is read
+     */
+    private ByteBuffer readData;
+
+    private boolean zipped;
+
+    private int encoding;
+
+    /**
+     * The packet being written, or null if there is none
+     */
+    private SendPacket writing;
+
+    private final ByteBuffer writeHeader = ByteBuffer.allocate(HEADER_SIZE);
+
+    private ByteBuffer[] writeBuffers;
+
+    /**
+     * Creates new server connection
+     *
+     * @param socket an accepted socket that has a channel
+     * @param id
+     * @param connectionSelector the selector that does the reading and
+     *            writing
+     */
+    NioConnection(Socket socket, int id, ConnectionSelector connectionSelector) {
+        super(socket, id);
+        channel = socket.getChannel();
+        assert (channel != null) : "Socket without a channel";
+        this.connectionSelector = connectionSelector;
+    }
+
+    @Override
+    public synchronized boolean open() {
+        if (!super.open()) {
+            return false;
+        }
+        if (!registered) {
+            try {
+                channel.configureBlocking(false);
+            } catch (IOException e) {
+                return false;
+            }
+            registered = true;
+            connectionSelector.update(this);
+        }
+        return true;
+    }
+
+    /**
+     * Does nothing; packets are read by the selector thread.
+     */
+    @Override
+    public void update() {
+    }
+
+    @Override
+    protected void startWriter() {
+        // Packets are written by the selector thread
+    }
+
+    @Override
+    protected boolean isWriterThread() {
+        return connectionSelector.isSelectorThread();
+    }
+
+    @Override
+    protected void packetQueued() {
+        if (registered) {
+            connectionSelector.update(this);
+        }
+    }
+
+    @Override
+    protected void sendQueueAborted() {
+        packetQueued();
+    }
+
+    @Override
+    protected void processConnectionEvent(final ConnectionEvent event) {
+        if ((event.getType() == ConnectionEvent.DISCONNECTED)
+                && connectionSelector.isSelectorThread()) {
+            connectionSelector.dispatch(new Runnable() {
+                public void run() {
+                    NioConnection.super.processConnectionEvent(event);
+                }
+            });
+        } else {
+            super.processConnectionEvent(event);
+        }
+    }
+
+    /**
+     * Registers the channel with the selector if needed, and asks to be told
+     * when packets can be written. Called by the selector thread.
+     */
+    void register(Selector selector) {
+        if (getSendQueue().isAborted()) {
+            // The peer stopped reading, so the packet being written may never
+            // get out
+            close();
+            return;
+        }
+        try {
+            if (key == null) {
+                key = channel.register(selector, SelectionKey.OP_READ, this);
+            }
+            if (key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (ClosedChannelException e) {
+            close();
+        }
+    }
+
+    /**
+     * Reads whatever data is available and processes any complete packets.
+     * Called by the selector thread.
+     */
+    void read() {
+        try {
+            while (true) {
+                ByteBuffer buffer = (readData == null) ? readHeader : readData;
+                if (channel.read(buffer) < 0) {
+                    close();
+                    return;
+                }
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                if (readData == null) {
+                    readHeader.flip();
+                    zipped = readHeader.get() != 0;
+                    encoding = readHeader.getInt();
+                    int len = readHeader.getInt();
+                    readHeader.clear();
+                    if (len < 0) {
+                        throw new IOException("Invalid packet length " + len);
+                    }
+                    readData = ByteBuffer.allocate(len);
+                } else {
+                    byte[] data = readData.array();
+                    readData = null;
+                    processPacket(new NetworkPacket(zipped, encoding, data));
+                }
+            }
+        } catch (IOException e) {
+            // Happens when the socket closes
+            close();
+        } catch (Exception e) {
+            e.printStackTrace();
+            reportReceiveException(e);
+            close();
+        }
+    }
+
+    /**
+     * Writes queued packets until the queue is empty or the socket can't
+     * take any more data. Called by the selector thread.
+     */
+    void write() {
+        SendQueue sendQueue = getSendQueue();
+        try {
+            while (true) {
+                if (writing == null) {
+                    writing = sendQueue.pollPacket();
+                    if (writing == null) {
+                        if (sendQueue.isClosing()) {
+                            close();
+                            return;
+                        }
+                        key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                    if (writing.getData() == null) {
+                        // Failed to marshall
+                        writing = null;
+                        sendQueue.packetSent();
+                        continue;
+                    }
+                    writeHeader.clear();
+                    writeHeader.put((byte) (writing.isCompressed() ? 1 : 0));
+                    writeHeader.putInt(writing.getMarshallingType());
+                    writeHeader.putInt(writing.getData().length);
+                    writeHeader.flip();
+                    writeBuffers = new ByteBuffer[] { writeHeader,
+                            ByteBuffer.wrap(writing.getData()) };
+                }
+                channel.write(writeBuffers);
+                if (writeBuffers[0].hasRemaining()
+                        || writeBuffers[1].hasRemaining()) {
+                    // Wait for the socket to take more
+                    return;
+                }
+                packetSent(writing);
+                writing = null;
+                writeBuffers = null;
+                sendQueue.packetSent();
+            }
+        } catch (IOException e) {
+            if (writing != null) {
+                writing = null;
+                sendQueue.packetSent();
+            }
+            close();
+        }
+    }
+
+    private static class NetworkPacket implements INetworkPacket {
+
+        private boolean compressed;
+
+        private int marshallingType;
+
+        private byte[] data;
+
+        NetworkPacket(boolean compressed, int marshallingType, byte[] data) {
+            this.compressed = compressed;
+            this.marshallingType = marshallingType;
+            this.data = data;
+        }
+
+        public int getMarshallingType() {
+            return marshallingType;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public boolean isCompressed() {
+            return compressed;
+        }
+    }
+}
@@ -24,7 +24,7 @@ import java.net.Socket;
  * <code>ObjectInputStream</code> and <code>ObjectOutputStream</code> to
  * send/receive data.
  */
-class ObjectStreamConnection extends AbstractConnection {
+class ObjectStreamConnection extends AbstractStreamConnection {
 
     /**
      * Input stream
@@ -69,8 +69,8 @@ class ObjectStreamConnection extends AbstractConnection {
     }
 
     @Override
-    protected void sendNetworkPacket(byte[] data, boolean zipped)
-            throws Exception {
+    protected void sendNetworkPacket(int marshallingType, byte[] data,
+            boolean zipped) throws Exception {
         if (out == null) {
             out = new ObjectOutputStream(getOutputStream());
             out.flush();
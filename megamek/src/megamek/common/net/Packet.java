@@ -65,6 +65,7 @@ public class Packet {
     public static final int COMMAND_SENDING_ILLUM_HEXES = 275;
     public static final int COMMAND_CLEAR_ILLUM_HEXES = 276;
     public static final int COMMAND_SENDING_ENTITIES = 280;
+    public static final int COMMAND_SENDING_ENTITY_DELTA = 285;
     public static final int COMMAND_SENDING_PLAYERS = 290;
     public static final int COMMAND_SENDING_TURNS = 300;
     public static final int COMMAND_SENDING_REPORTS = 310;
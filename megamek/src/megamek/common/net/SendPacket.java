@@ -0,0 +1,101 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import megamek.common.net.marshall.PacketMarshaller;
+import megamek.common.net.marshall.PacketMarshallerFactory;
+
+/**
+ * Immutable, already marshalled representation of a <code>Packet</code>. A
+ * single instance may be queued on any number of connections that share the
+ * same marshalling type and compression setting, so a packet broadcast to all
+ * clients only has to be serialized and compressed once.
+ */
+public final class SendPacket implements AbstractConnection.INetworkPacket {
+
+    private final byte[] data;
+    private final boolean zipped;
+    private final boolean compressRequested;
+    private final int command;
+    private final int marshallingType;
+
+    /**
+     * Marshalls the given packet.
+     *
+     * @param packet the packet to encode
+     * @param marshallingType the marshalling type to encode the packet with
+     * @param compress should the data be compressed
+     */
+    public SendPacket(Packet packet, int marshallingType, boolean compress) {
+        PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+                .getMarshaller(marshallingType);
+        assert (marshaller != null) : "Unknown marshalling type";
+        command = packet.getCommand();
+        this.marshallingType = marshallingType;
+        compressRequested = compress;
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutputStream out;
+        boolean zip = false;
+        byte[] bytes = null;
+        try {
+            if (compress && (packet.getData() != null)) {
+                out = new GZIPOutputStream(bos);
+                zip = true;
+            } else {
+                out = bos;
+            }
+            marshaller.marshall(packet, out);
+            out.close();
+            bytes = bos.toByteArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        data = bytes;
+        zipped = zip;
+    }
+
+    /**
+     * Returns <code>true</code> if this packet can be sent as-is over a
+     * connection with the given settings.
+     *
+     * @param marshallingType the connection's marshalling type
+     * @param compress the connection's compression setting
+     * @return <code>true</code> if the encoding matches
+     */
+    public boolean isEncodedFor(int marshallingType, boolean compress) {
+        return (this.marshallingType == marshallingType)
+                && (compressRequested == compress);
+    }
+
+    public int getMarshallingType() {
+        return marshallingType;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public boolean isCompressed() {
+        return zipped;
+    }
+
+    public int getCommand() {
+        return command;
+    }
+}
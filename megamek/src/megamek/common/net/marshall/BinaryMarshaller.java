@@ -0,0 +1,724 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net.marshall;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+
+import megamek.common.Coords;
+import megamek.common.Report;
+import megamek.common.UnitLocation;
+import megamek.common.actions.FiringModeChangeAction;
+import megamek.common.actions.TorsoTwistAction;
+import megamek.common.actions.WeaponAttackAction;
+import megamek.common.net.Packet;
+
+/**
+ * Marshaller that writes the <code>Packet</code> data in a compact, tagged
+ * binary format. The values that make up the frequent packets (turn and phase
+ * changes, chat, reports, entity ids, coordinates, move paths, weapon attacks,
+ * torso twists and firing mode changes) and the JDK collections that hold
+ * them are written by hand. Strings are written once per packet and referred
+ * to by number after that, and collections met again are written as a
+ * reference to the first time.
+ * <p>
+ * Any other object, such as an <code>Entity</code>, is written with Java
+ * serialization. All such objects of one packet share one object stream
+ * after the binary section, so class descriptors are written once per packet
+ * and references between them survive.
+ * <p>
+ * Layout: format version (byte), length of the binary section (int), the
+ * binary section (command followed by the tagged data array), and the
+ * serialized objects, if any.
+ */
+class BinaryMarshaller extends PacketMarshaller {
+
+    /**
+     * Version of the binary format, bump whenever the layout changes
+     */
+    static final int FORMAT_VERSION = 3;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_TRUE = 1;
+    private static final int TAG_FALSE = 2;
+    private static final int TAG_INTEGER = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_INT_ARRAY = 7;
+    private static final int TAG_OBJECT_ARRAY = 8;
+    private static final int TAG_VECTOR = 9;
+    private static final int TAG_ARRAY_LIST = 10;
+    private static final int TAG_ENUM = 11;
+    private static final int TAG_COORDS = 12;
+    private static final int TAG_REPORT = 13;
+    private static final int TAG_UNIT_LOCATION = 14;
+    private static final int TAG_SERIALIZED = 15;
+    private static final int TAG_WEAPON_ATTACK = 16;
+    private static final int TAG_REFERENCE = 17;
+    private static final int TAG_TORSO_TWIST = 18;
+    private static final int TAG_BOOLEAN_ARRAY = 19;
+    private static final int TAG_BYTE_ARRAY = 20;
+    private static final int TAG_CHAR_ARRAY = 21;
+    private static final int TAG_SHORT_ARRAY = 22;
+    private static final int TAG_LONG_ARRAY = 23;
+    private static final int TAG_FLOAT_ARRAY = 24;
+    private static final int TAG_DOUBLE_ARRAY = 25;
+    private static final int TAG_FLOAT = 26;
+    private static final int TAG_SHORT = 27;
+    private static final int TAG_BYTE = 28;
+    private static final int TAG_CHARACTER = 29;
+    private static final int TAG_HASHTABLE = 30;
+    private static final int TAG_HASH_MAP = 31;
+    private static final int TAG_CONCURRENT_HASH_MAP = 32;
+    private static final int TAG_CONCURRENT_SET = 33;
+    private static final int TAG_STRING_BUFFER = 34;
+    private static final int TAG_FIRING_MODE_CHANGE = 35;
+
+    /**
+     * The class of the sets made by <code>Collections.newSetFromMap</code>,
+     * which entities use over a <code>ConcurrentHashMap</code>
+     */
+    private static final Class<?> SET_FROM_MAP_CLASS = Collections
+            .newSetFromMap(new ConcurrentHashMap<Object, Boolean>()).getClass();
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.net.marshall.PacketMarshaller#marshall(megamek.common.net.Packet,
+     *      java.io.OutputStream)
+     */
+    @Override
+    public void marshall(Packet packet, OutputStream stream) throws Exception {
+        Writer writer = new Writer();
+        writer.out.writeInt(packet.getCommand());
+        writer.writeValue(packet.getData());
+        writer.out.flush();
+        if (writer.objectStream != null) {
+            writer.objectStream.close();
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(writer.binary.size());
+        writer.binary.writeTo(out);
+        if (writer.serialized != null) {
+            writer.serialized.writeTo(out);
+        }
+        out.flush();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.net.marshall.PacketMarshaller#unmarshall(java.io.InputStream)
+     */
+    @Override
+    public Packet unmarshall(InputStream stream) throws Exception {
+        DataInputStream in = new DataInputStream(stream);
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary packet format version "
+                    + version);
+        }
+        byte[] binary = new byte[in.readInt()];
+        in.readFully(binary);
+        Reader reader = new Reader(binary, stream);
+        int command = reader.in.readInt();
+        Object[] data = (Object[]) reader.readValue();
+        return new Packet(command, data);
+    }
+
+    /**
+     * Per-packet writer state
+     */
+    private static class Writer {
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(binary);
+        ByteArrayOutputStream serialized;
+        ObjectOutputStream objectStream;
+        Map<Object, Integer> handles = new IdentityHashMap<Object, Integer>();
+        Map<String, Integer> strings = new HashMap<String, Integer>();
+        Map<Class<?>, Integer> classes = new HashMap<Class<?>, Integer>();
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(TAG_NULL);
+            } else if (value instanceof Boolean) {
+                out.writeByte(((Boolean) value).booleanValue() ? TAG_TRUE
+                        : TAG_FALSE);
+            } else if (value instanceof Integer) {
+                out.writeByte(TAG_INTEGER);
+                out.writeInt(((Integer) value).intValue());
+            } else if (value instanceof Long) {
+                out.writeByte(TAG_LONG);
+                out.writeLong(((Long) value).longValue());
+            } else if (value instanceof Double) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(((Double) value).doubleValue());
+            } else if (value instanceof Float) {
+                out.writeByte(TAG_FLOAT);
+                out.writeFloat(((Float) value).floatValue());
+            } else if (value instanceof Short) {
+                out.writeByte(TAG_SHORT);
+                out.writeShort(((Short) value).shortValue());
+            } else if (value instanceof Byte) {
+                out.writeByte(TAG_BYTE);
+                out.writeByte(((Byte) value).byteValue());
+            } else if (value instanceof Character) {
+                out.writeByte(TAG_CHARACTER);
+                out.writeChar(((Character) value).charValue());
+            } else if (value instanceof String) {
+                out.writeByte(TAG_STRING);
+                writeString((String) value);
+            } else if (value instanceof Enum) {
+                Enum<?> e = (Enum<?>) value;
+                out.writeByte(TAG_ENUM);
+                writeClass(e.getDeclaringClass());
+                writeString(e.name());
+            } else if (value.getClass() == Coords.class) {
+                Coords c = (Coords) value;
+                out.writeByte(TAG_COORDS);
+                out.writeInt(c.getX());
+                out.writeInt(c.getY());
+            } else if (value.getClass() == Report.class) {
+                out.writeByte(TAG_REPORT);
+                ((Report) value).writeBinary(out);
+            } else if (value.getClass() == UnitLocation.class) {
+                UnitLocation loc = (UnitLocation) value;
+                out.writeByte(TAG_UNIT_LOCATION);
+                out.writeInt(loc.getId());
+                writeValue(loc.getCoords());
+                out.writeInt(loc.getFacing());
+                out.writeInt(loc.getElevation());
+            } else if (value.getClass() == WeaponAttackAction.class) {
+                out.writeByte(TAG_WEAPON_ATTACK);
+                writeWeaponAttack((WeaponAttackAction) value);
+            } else if (value.getClass() == TorsoTwistAction.class) {
+                TorsoTwistAction twist = (TorsoTwistAction) value;
+                out.writeByte(TAG_TORSO_TWIST);
+                out.writeInt(twist.getEntityId());
+                out.writeInt(twist.getFacing());
+            } else if (value.getClass() == FiringModeChangeAction.class) {
+                FiringModeChangeAction change = (FiringModeChangeAction) value;
+                out.writeByte(TAG_FIRING_MODE_CHANGE);
+                out.writeInt(change.getEntityId());
+                out.writeInt(change.getEquipmentId());
+            } else if (handles.containsKey(value)) {
+                out.writeByte(TAG_REFERENCE);
+                out.writeInt(handles.get(value));
+            } else {
+                writeShared(value);
+            }
+        }
+
+        private void writeWeaponAttack(WeaponAttackAction attack)
+                throws IOException {
+            out.writeInt(attack.getEntityId());
+            out.writeInt(attack.getTargetType());
+            out.writeInt(attack.getTargetId());
+            out.writeInt(attack.getWeaponId());
+            out.writeInt(attack.getAmmoId());
+            out.writeInt(attack.getAimedLocation());
+            out.writeInt(attack.getAimingMode());
+            out.writeInt(attack.getOtherAttackInfo());
+            out.writeBoolean(attack.isNemesisConfused());
+            out.writeBoolean(attack.isSwarmingMissiles());
+            out.writeInt(attack.getOldTargetId());
+            out.writeInt(attack.getOldTargetType());
+            out.writeInt(attack.getSwarmMissiles());
+            out.writeBoolean(attack.isStrafing());
+            out.writeBoolean(attack.isStrafingFirstShot());
+            int[] bombs = attack.getBombPayload();
+            out.writeInt((bombs == null) ? -1 : bombs.length);
+            if (bombs != null) {
+                for (int b : bombs) {
+                    out.writeInt(b);
+                }
+            }
+        }
+
+        /**
+         * Writes an object that other objects of the packet may refer to as
+         * well; its handle is taken before its contents are written, so they
+         * can refer back to it.
+         */
+        private void writeShared(Object value) throws IOException {
+            Class<?> type = value.getClass();
+            if (type.isArray()) {
+                writeArray(value);
+            } else if (type == Vector.class) {
+                Vector<?> vector = (Vector<?>) value;
+                out.writeByte(TAG_VECTOR);
+                out.writeInt(vector.size());
+                addHandle(value);
+                for (Object o : vector) {
+                    writeValue(o);
+                }
+            } else if (type == ArrayList.class) {
+                ArrayList<?> list = (ArrayList<?>) value;
+                out.writeByte(TAG_ARRAY_LIST);
+                out.writeInt(list.size());
+                addHandle(value);
+                for (Object o : list) {
+                    writeValue(o);
+                }
+            } else if (type == Hashtable.class) {
+                out.writeByte(TAG_HASHTABLE);
+                writeMap((Map<?, ?>) value);
+            } else if (type == HashMap.class) {
+                out.writeByte(TAG_HASH_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == ConcurrentHashMap.class) {
+                out.writeByte(TAG_CONCURRENT_HASH_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == SET_FROM_MAP_CLASS) {
+                // Read back over a ConcurrentHashMap, which can't hold null
+                Set<?> set = (Set<?>) value;
+                Object[] elements = set.toArray();
+                for (Object o : elements) {
+                    if (o == null) {
+                        writeSerialized(value);
+                        return;
+                    }
+                }
+                out.writeByte(TAG_CONCURRENT_SET);
+                out.writeInt(elements.length);
+                addHandle(value);
+                for (Object o : elements) {
+                    writeValue(o);
+                }
+            } else if (type == StringBuffer.class) {
+                out.writeByte(TAG_STRING_BUFFER);
+                addHandle(value);
+                writeString(value.toString());
+            } else {
+                writeSerialized(value);
+            }
+        }
+
+        /**
+         * Writes an object with Java serialization, into the object stream
+         * shared by the packet.
+         */
+        private void writeSerialized(Object value) throws IOException {
+            out.writeByte(TAG_SERIALIZED);
+            if (objectStream == null) {
+                serialized = new ByteArrayOutputStream();
+                objectStream = new ObjectOutputStream(serialized);
+            }
+            objectStream.writeObject(value);
+        }
+
+        private void writeMap(Map<?, ?> map) throws IOException {
+            // Copied first, as the map might be changed by another thread
+            Object[] entries = map.entrySet().toArray();
+            out.writeInt(entries.length);
+            addHandle(map);
+            for (Object o : entries) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeArray(Object array) throws IOException {
+            Class<?> component = array.getClass().getComponentType();
+            if (component == int.class) {
+                int length = ((int[]) array).length;
+                out.writeByte(TAG_INT_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                for (int i : (int[]) array) {
+                    out.writeInt(i);
+                }
+            } else if (component == boolean.class) {
+                int length = ((boolean[]) array).length;
+                out.writeByte(TAG_BOOLEAN_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                for (boolean b : (boolean[]) array) {
+                    out.writeBoolean(b);
+                }
+            } else if (component == byte.class) {
+                int length = ((byte[]) array).length;
+                out.writeByte(TAG_BYTE_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                out.write((byte[]) array);
+            } else if (component == char.class) {
+                int length = ((char[]) array).length;
+                out.writeByte(TAG_CHAR_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                for (char c : (char[]) array) {
+                    out.writeChar(c);
+                }
+            } else if (component == short.class) {
+                int length = ((short[]) array).length;
+                out.writeByte(TAG_SHORT_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                for (short s : (short[]) array) {
+                    out.writeShort(s);
+                }
+            } else if (component == long.class) {
+                int length = ((long[]) array).length;
+                out.writeByte(TAG_LONG_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                for (long l : (long[]) array) {
+                    out.writeLong(l);
+                }
+            } else if (component == float.class) {
+                int length = ((float[]) array).length;
+                out.writeByte(TAG_FLOAT_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                for (float f : (float[]) array) {
+                    out.writeFloat(f);
+                }
+            } else if (component == double.class) {
+                int length = ((double[]) array).length;
+                out.writeByte(TAG_DOUBLE_ARRAY);
+                out.writeInt(length);
+                addHandle(array);
+                for (double d : (double[]) array) {
+                    out.writeDouble(d);
+                }
+            } else if (component == Object.class) {
+                Object[] objects = (Object[]) array;
+                out.writeByte(TAG_OBJECT_ARRAY);
+                out.writeInt(objects.length);
+                addHandle(array);
+                for (Object o : objects) {
+                    writeValue(o);
+                }
+            } else {
+                // Typed object arrays are read back as that type
+                writeSerialized(array);
+            }
+        }
+
+        private void addHandle(Object value) {
+            handles.put(value, handles.size());
+        }
+
+        /**
+         * Writes the number of a class; the first time a class is written,
+         * its name follows.
+         */
+        private void writeClass(Class<?> type) throws IOException {
+            Integer index = classes.get(type);
+            if (index != null) {
+                out.writeInt(index);
+                return;
+            }
+            out.writeInt(classes.size());
+            classes.put(type, classes.size());
+            writeString(type.getName());
+        }
+
+        /**
+         * Writes the number of a string; the first time a string is written,
+         * its UTF-8 bytes follow.
+         */
+        private void writeString(String value) throws IOException {
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.writeInt(index);
+                return;
+            }
+            out.writeInt(strings.size());
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(UTF8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Per-packet reader state
+     */
+    private static class Reader {
+        DataInputStream in;
+        InputStream serialized;
+        ObjectInputStream objectStream;
+        List<Object> handles = new ArrayList<Object>();
+        List<String> strings = new ArrayList<String>();
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+
+        Reader(byte[] binary, InputStream serialized) {
+            in = new DataInputStream(new ByteArrayInputStream(binary));
+            this.serialized = serialized;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Object readValue() throws IOException, ClassNotFoundException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_INTEGER:
+                    return Integer.valueOf(in.readInt());
+                case TAG_LONG:
+                    return Long.valueOf(in.readLong());
+                case TAG_DOUBLE:
+                    return Double.valueOf(in.readDouble());
+                case TAG_FLOAT:
+                    return Float.valueOf(in.readFloat());
+                case TAG_SHORT:
+                    return Short.valueOf(in.readShort());
+                case TAG_BYTE:
+                    return Byte.valueOf(in.readByte());
+                case TAG_CHARACTER:
+                    return Character.valueOf(in.readChar());
+                case TAG_STRING:
+                    return readString();
+                case TAG_ENUM: {
+                    Class enumClass = readClass();
+                    if (!enumClass.isEnum()) {
+                        throw new IOException(enumClass.getName()
+                                + " is not an enum");
+                    }
+                    return Enum.valueOf(enumClass, readString());
+                }
+                case TAG_COORDS: {
+                    int x = in.readInt();
+                    return Coords.valueOf(x, in.readInt());
+                }
+                case TAG_REPORT:
+                    return Report.readBinary(in);
+                case TAG_UNIT_LOCATION: {
+                    int id = in.readInt();
+                    Coords coords = (Coords) readValue();
+                    int facing = in.readInt();
+                    return new UnitLocation(id, coords, facing, in.readInt());
+                }
+                case TAG_WEAPON_ATTACK:
+                    return readWeaponAttack();
+                case TAG_TORSO_TWIST: {
+                    int entityId = in.readInt();
+                    return new TorsoTwistAction(entityId, in.readInt());
+                }
+                case TAG_FIRING_MODE_CHANGE: {
+                    int entityId = in.readInt();
+                    return new FiringModeChangeAction(entityId, in.readInt());
+                }
+                case TAG_REFERENCE: {
+                    int handle = in.readInt();
+                    if ((handle < 0) || (handle >= handles.size())) {
+                        throw new IOException("Bad object reference " + handle);
+                    }
+                    return handles.get(handle);
+                }
+                case TAG_INT_ARRAY: {
+                    int[] array = add(new int[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readInt();
+                    }
+                    return array;
+                }
+                case TAG_BOOLEAN_ARRAY: {
+                    boolean[] array = add(new boolean[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readBoolean();
+                    }
+                    return array;
+                }
+                case TAG_BYTE_ARRAY: {
+                    byte[] array = add(new byte[in.readInt()]);
+                    in.readFully(array);
+                    return array;
+                }
+                case TAG_CHAR_ARRAY: {
+                    char[] array = add(new char[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readChar();
+                    }
+                    return array;
+                }
+                case TAG_SHORT_ARRAY: {
+                    short[] array = add(new short[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readShort();
+                    }
+                    return array;
+                }
+                case TAG_LONG_ARRAY: {
+                    long[] array = add(new long[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readLong();
+                    }
+                    return array;
+                }
+                case TAG_FLOAT_ARRAY: {
+                    float[] array = add(new float[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readFloat();
+                    }
+                    return array;
+                }
+                case TAG_DOUBLE_ARRAY: {
+                    double[] array = add(new double[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readDouble();
+                    }
+                    return array;
+                }
+                case TAG_OBJECT_ARRAY: {
+                    Object[] array = add(new Object[in.readInt()]);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readValue();
+                    }
+                    return array;
+                }
+                case TAG_VECTOR: {
+                    int size = in.readInt();
+                    Vector<Object> vector = add(new Vector<Object>(size));
+                    for (int i = 0; i < size; i++) {
+                        vector.addElement(readValue());
+                    }
+                    return vector;
+                }
+                case TAG_ARRAY_LIST: {
+                    int size = in.readInt();
+                    ArrayList<Object> list = add(new ArrayList<Object>(size));
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case TAG_HASHTABLE:
+                    return readMap(new Hashtable<Object, Object>());
+                case TAG_HASH_MAP:
+                    return readMap(new HashMap<Object, Object>());
+                case TAG_CONCURRENT_HASH_MAP:
+                    return readMap(new ConcurrentHashMap<Object, Object>());
+                case TAG_CONCURRENT_SET: {
+                    int size = in.readInt();
+                    Set<Object> set = add(Collections
+                            .newSetFromMap(new ConcurrentHashMap<Object, Boolean>()));
+                    for (int i = 0; i < size; i++) {
+                        set.add(readValue());
+                    }
+                    return set;
+                }
+                case TAG_STRING_BUFFER:
+                    return add(new StringBuffer()).append(readString());
+                case TAG_SERIALIZED:
+                    if (objectStream == null) {
+                        objectStream = new ObjectInputStream(serialized);
+                    }
+                    return objectStream.readObject();
+                default:
+                    throw new IOException("Unknown binary packet tag " + tag);
+            }
+        }
+
+        private Map<Object, Object> readMap(Map<Object, Object> map)
+                throws IOException, ClassNotFoundException {
+            int size = in.readInt();
+            add(map);
+            for (int i = 0; i < size; i++) {
+                Object key = readValue();
+                map.put(key, readValue());
+            }
+            return map;
+        }
+
+        private WeaponAttackAction readWeaponAttack() throws IOException {
+            int entityId = in.readInt();
+            int targetType = in.readInt();
+            int targetId = in.readInt();
+            WeaponAttackAction attack = new WeaponAttackAction(entityId,
+                    targetType, targetId, in.readInt());
+            attack.setAmmoId(in.readInt());
+            attack.setAimedLocation(in.readInt());
+            attack.setAimingMode(in.readInt());
+            attack.setOtherAttackInfo(in.readInt());
+            attack.setNemesisConfused(in.readBoolean());
+            attack.setSwarmingMissiles(in.readBoolean());
+            attack.setOldTargetId(in.readInt());
+            attack.setOldTargetType(in.readInt());
+            attack.setSwarmMissiles(in.readInt());
+            attack.setStrafing(in.readBoolean());
+            attack.setStrafingFirstShot(in.readBoolean());
+            int bombs = in.readInt();
+            if (bombs < 0) {
+                attack.setBombPayload(null);
+            } else {
+                int[] payload = new int[bombs];
+                for (int i = 0; i < bombs; i++) {
+                    payload[i] = in.readInt();
+                }
+                attack.setBombPayload(payload);
+            }
+            return attack;
+        }
+
+        private <T> T add(T value) {
+            handles.add(value);
+            return value;
+        }
+
+        private Class<?> readClass() throws IOException, ClassNotFoundException {
+            int index = in.readInt();
+            if (index == classes.size()) {
+                classes.add(Class.forName(readString(), false,
+                        BinaryMarshaller.class.getClassLoader()));
+            } else if ((index < 0) || (index > classes.size())) {
+                throw new IOException("Bad class reference " + index);
+            }
+            return classes.get(index);
+        }
+
+        private String readString() throws IOException {
+            int index = in.readInt();
+            if (index == strings.size()) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                strings.add(new String(bytes, UTF8));
+            } else if ((index < 0) || (index > strings.size())) {
+                throw new IOException("Bad string reference " + index);
+            }
+            return strings.get(index);
+        }
+    }
+}
@@ -20,6 +20,8 @@ public class PacketMarshallerFactory {
 
     private NativeSerializationMarshaller nativeSerializationMarshaller;
 
+    private BinaryMarshaller binaryMarshaller;
+
     private PacketMarshallerFactory() {
     }
 
@@ -34,6 +36,11 @@ public class PacketMarshallerFactory {
                     nativeSerializationMarshaller = new NativeSerializationMarshaller();
                 }
                 return nativeSerializationMarshaller;
+            case PacketMarshaller.BINARY_MARSHALING:
+                if (binaryMarshaller == null) {
+                    binaryMarshaller = new BinaryMarshaller();
+                }
+                return binaryMarshaller;
             default:
                 return null;
         }
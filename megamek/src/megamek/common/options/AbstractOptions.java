@@ -32,6 +32,11 @@ public abstract class AbstractOptions implements IOptions, Serializable {
     private static final long serialVersionUID = 6406883135074654379L;
     private Hashtable<String, IOption> optionsHash = new Hashtable<String, IOption>();
 
+    /**
+     * The options asked for by handle, by the index of the handle
+     */
+    private transient volatile IOption[] handledOptions;
+
     protected AbstractOptions() {
         initialize();
         getOptionsInfoImp().finish();
@@ -78,6 +83,41 @@ public abstract class AbstractOptions implements IOptions, Serializable {
         return getOption(name).intValue();
     }
 
+    /**
+     * Like <code>booleanOption(String)</code>, but without looking the option
+     * up by name more than once.
+     */
+    public boolean booleanOption(BooleanOptionHandle handle) {
+        IOption opt = getOption(handle);
+        return (opt != null) && opt.booleanValue();
+    }
+
+    /**
+     * Like <code>intOption(String)</code>, but without looking the option up
+     * by name more than once.
+     */
+    public int intOption(IntOptionHandle handle) {
+        return getOption(handle).intValue();
+    }
+
+    private IOption getOption(OptionHandle handle) {
+        IOption[] options = handledOptions;
+        if ((options == null) || (handle.index >= options.length)) {
+            IOption[] grown = new IOption[OptionHandle.getHandleCount()];
+            if (options != null) {
+                System.arraycopy(options, 0, grown, 0, options.length);
+            }
+            options = grown;
+            handledOptions = options;
+        }
+        IOption opt = options[handle.index];
+        if (opt == null) {
+            opt = getOption(handle.getName());
+            options[handle.index] = opt;
+        }
+        return opt;
+    }
+
     public float floatOption(String name) {
         return getOption(name).floatValue();
     }
@@ -42,6 +42,13 @@ public class GameOptions extends AbstractOptions {
     private static final long serialVersionUID = 4916321960852747706L;
     private static final String GAME_OPTIONS_FILE_NAME = "mmconf/gameoptions.xml"; //$NON-NLS-1$
 
+    // Handles for the options checked over and over for every hex or unit
+    public static final BooleanOptionHandle DOUBLE_BLIND = new BooleanOptionHandle("double_blind"); //$NON-NLS-1$
+    public static final BooleanOptionHandle TACOPS_SENSORS = new BooleanOptionHandle("tacops_sensors"); //$NON-NLS-1$
+    public static final BooleanOptionHandle TEAM_VISION = new BooleanOptionHandle("team_vision"); //$NON-NLS-1$
+    public static final BooleanOptionHandle STRATOPS_ECM = new BooleanOptionHandle("stratops_ecm"); //$NON-NLS-1$
+    public static final IntOptionHandle YEAR = new IntOptionHandle("year"); //$NON-NLS-1$
+
     public GameOptions() {
         super();
     }
@@ -69,7 +76,9 @@ public class GameOptions extends AbstractOptions {
         addOption(base, "bridgeCF", 0); //$NON-NLS-1$
         addOption(base, "show_bay_detail", false); //$NON-NLS-1$
         addOption(base, "rng_type", 1); //$NON-NLS-1$
+        addOption(base, "rng_seed", 0); //$NON-NLS-1$
         addOption(base, "rng_log", false); //$NON-NLS-1$
+        addOption(base, "rng_journal", false); //$NON-NLS-1$
         addOption(base, "flamer_heat", true); //$NON-NLS-1$
         addOption(base, "indirect_fire", true); //$NON-NLS-1$
         addOption(base, "breeze", false); //$NON-NLS-1$
@@ -63,6 +63,15 @@ public interface IOptions {
      */
     public abstract boolean booleanOption(String name);
 
+    /**
+     * Returns the value of the desired boolean option, looking it up by name
+     * only the first time
+     * 
+     * @param handle the handle of the option
+     * @return the value of the desired option as the <code>boolean</code>
+     */
+    public abstract boolean booleanOption(BooleanOptionHandle handle);
+
     /**
      * Returns the value of the desired option as the <code>int</code>
      * 
@@ -71,6 +80,15 @@ public interface IOptions {
      */
     public abstract int intOption(String name);
 
+    /**
+     * Returns the value of the desired integer option, looking it up by name
+     * only the first time
+     * 
+     * @param handle the handle of the option
+     * @return the value of the desired option as the <code>int</code>
+     */
+    public abstract int intOption(IntOptionHandle handle);
+
     /**
      * Returns the value of the desired option as the <code>float</code>
      * 
@@ -0,0 +1,27 @@
+/*
+ * MegaMek - Copyright (C) 2000-2002 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.options;
+
+/**
+ * Stands for an integer option.
+ *
+ * @see AbstractOptions#intOption(IntOptionHandle)
+ */
+public final class IntOptionHandle extends OptionHandle {
+
+    public IntOptionHandle(String name) {
+        super(name);
+    }
+}
@@ -27,6 +27,13 @@ public class Option implements IOption, Serializable {
 
     private transient IOptionInfo info;
 
+    /**
+     * The value as primitives, so that reading an option doesn't need to
+     * unbox it; kept up to date with every change of value
+     */
+    private transient boolean booleanValue;
+    private transient int intValue;
+
     public Option(IOptions owner, String name, String defaultValue) {
         this(owner, name, STRING, defaultValue);
     }
@@ -54,6 +61,7 @@ public class Option implements IOption, Serializable {
         if (isValidValue(defaultValue)) {
             this.defaultValue = defaultValue;
             this.value = defaultValue;
+            updatePrimitives();
         } else {
             throw new IllegalArgumentException(
                     "Tried to give wrong type of value for option type."); //$NON-NLS-1$
@@ -107,20 +115,15 @@ public class Option implements IOption, Serializable {
     }
 
     public boolean booleanValue() {
-        if (type == INTEGER) {
-            return (Integer) value > 0;
-        }
-        if (type == CHOICE || type == STRING) {
-            if (value.equals("None") || value.equals("")) { //$NON-NLS-1$ //$NON-NLS-2$
-                return false;
-            }
-            return true;
-        }
-        return ((Boolean) value).booleanValue();
+        return booleanValue;
     }
 
     public int intValue() {
-        return ((Integer) value).intValue();
+        if (type != INTEGER) {
+            // As before, complain about asking for the wrong type
+            return ((Integer) value).intValue();
+        }
+        return intValue;
     }
 
     public float floatValue() {
@@ -134,6 +137,7 @@ public class Option implements IOption, Serializable {
     public void setValue(Object value) {
         if (isValidValue(value)) {
             this.value = value;
+            updatePrimitives();
         } else {
             throw new IllegalArgumentException(
                     "Tried to give wrong type of value for option type."); //$NON-NLS-1$
@@ -143,6 +147,7 @@ public class Option implements IOption, Serializable {
     public void setValue(String value) {
         if (type == STRING || type == CHOICE) {
             this.value = value;
+            updatePrimitives();
         } else {
             throw new IllegalArgumentException(
                     "Tried to give String value to non-String option."); //$NON-NLS-1$
@@ -152,6 +157,7 @@ public class Option implements IOption, Serializable {
     public void setValue(boolean value) {
         if (type == BOOLEAN) {
             this.value = new Boolean(value);
+            updatePrimitives();
         } else {
             throw new IllegalArgumentException(
                     "Tried to give boolean value to non-boolean option."); //$NON-NLS-1$
@@ -161,6 +167,7 @@ public class Option implements IOption, Serializable {
     public void setValue(int value) {
         if (type == INTEGER) {
             this.value = new Integer(value);
+            updatePrimitives();
         } else {
             throw new IllegalArgumentException(
                     "Tried to give integer value to non-integer option."); //$NON-NLS-1$
@@ -170,6 +177,7 @@ public class Option implements IOption, Serializable {
     public void setValue(float value) {
         if (type == FLOAT) {
             this.value = new Float(value);
+            updatePrimitives();
         } else {
             throw new IllegalArgumentException(
                     "Tried to give float value to non-float option."); //$NON-NLS-1$
@@ -210,6 +218,37 @@ public class Option implements IOption, Serializable {
         }
     }
 
+    /**
+     * Works out the value as primitives, after it has changed
+     */
+    private void updatePrimitives() {
+        switch (type) {
+            case INTEGER:
+                intValue = ((Integer) value).intValue();
+                booleanValue = intValue > 0;
+                break;
+            case CHOICE:
+            case STRING:
+                booleanValue = !(value.equals("None") || value.equals("")); //$NON-NLS-1$ //$NON-NLS-2$
+                break;
+            case BOOLEAN:
+                booleanValue = ((Boolean) value).booleanValue();
+                break;
+            default:
+                // Floats have no boolean value
+                booleanValue = false;
+        }
+    }
+
+    /**
+     * Works out the primitive values of options read back from a stream or a
+     * saved game.
+     */
+    private Object readResolve() {
+        updatePrimitives();
+        return this;
+    }
+
     /**
      * Updates the displayable info about the option
      */
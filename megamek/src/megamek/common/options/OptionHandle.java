@@ -0,0 +1,56 @@
+/*
+ * MegaMek - Copyright (C) 2000-2002 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.options;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stands for an option, so that the options it is read from only look it up
+ * by name the first time. Options read this way always give their current
+ * value; when they change, a <code>GameSettingsChangeEvent</code> lets
+ * anything worked out from them know.
+ */
+public abstract class OptionHandle {
+
+    private static final AtomicInteger handles = new AtomicInteger();
+
+    private final String name;
+
+    /**
+     * Where the options keep the option of this handle once looked up
+     */
+    final int index;
+
+    OptionHandle(String name) {
+        this.name = name;
+        index = handles.getAndIncrement();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of handles created so far
+     */
+    static int getHandleCount() {
+        return handles.get();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MegaMek - Copyright (C) 2000-2002 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.util;
+
+/**
+ * Picks an index at random, each with its own weight, in constant time
+ * however many there are (Vose's alias method). Each index gets an equal
+ * share of the range of the random number; the part of a share that its
+ * index's weight doesn't fill goes to one other, heavier index.
+ */
+public class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param weights the weight of each index, none negative and not all zero
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if ((weight < 0) || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Bad weight " + weight);
+            }
+            total += weight;
+        }
+        if (!(total > 0) || Double.isInfinite(total)) {
+            throw new IllegalArgumentException("Weights must add up to more than 0");
+        }
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (weights[i] * n) / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while ((smallCount > 0) && (largeCount > 0)) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // What's left is only off 1 by rounding
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * @return the number of indexes
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * @param random a random number, at least 0 and less than 1
+     * @return the index picked by it
+     */
+    public int sample(double random) {
+        double scaled = random * probability.length;
+        int column = Math.min((int) scaled, probability.length - 1);
+        return ((scaled - column) < probability[column]) ? column : alias[column];
+    }
+}
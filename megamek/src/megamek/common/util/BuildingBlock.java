@@ -37,11 +37,18 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Vector;
 
 /**
  * buildingBlock is based on a file format I used in an online game. The
  * original was written in PHP, this one is more robust, and written in Java.
+ * <p/>
+ * The tags are indexed as the lines are first looked at, so finding a block
+ * doesn't search the whole file again.
  */
 public class BuildingBlock {
 
@@ -49,6 +56,14 @@ public class BuildingBlock {
     private static final int version = 1;
     private static final char comment = '#';
 
+    /**
+     * The line of the first occurrence of each tag, such as "&lt;name&gt;" or
+     * "&lt;/name&gt;", in lower case, for the lines before
+     * <code>indexedLines</code>
+     */
+    private final HashMap<String, Integer> tagLines = new HashMap<String, Integer>();
+    private int indexedLines = 0;
+
     /**
      * Creates new empty buildingBlock
      */
@@ -96,6 +111,7 @@ public class BuildingBlock {
             in = new BufferedReader(new InputStreamReader(is, "UTF-8"));
             // empty the rawData holder...
             rawData.clear();
+            resetIndex();
 
             try {
 
@@ -110,11 +126,12 @@ public class BuildingBlock {
 
                     // check for blank lines & comment lines...
                     // don't add them to the rawData if they are
-                    if ((data.length() > 0) && !data.startsWith("" + BuildingBlock.comment)) {
+                    if ((data.length() > 0) && (data.charAt(0) != BuildingBlock.comment)) {
                         rawData.add(data);
                     }
                 }
                 in.close();
+                updateIndex();
             } catch (IOException e) {
                 System.err.println("An IO Exception occured while attempting to read a BuildingBlock stream."); //$NON-NLS-1$
                 return false;
@@ -139,42 +156,8 @@ public class BuildingBlock {
      * @see getAllDataAsVector()
      */
     public int findStartIndex(String blockName) {
-
-        String line;
-        int startIndex = -1;
-        StringBuffer buf = new StringBuffer();
-        String key = null;
-
-        // Translate the block name to a key.
-        buf.append('<').append(blockName).append('>');
-        key = buf.toString();
-        buf = null;
-
-        // look for the block...
-        for (int lineNum = 0; lineNum < rawData.size(); lineNum++) {
-
-            line = rawData.get(lineNum).toString();
-
-            // look for "<blockName>"
-            try {
-                if ((line.length() >= 3) && line.equalsIgnoreCase(key)) {
-                    startIndex = ++lineNum;
-                    break;
-                }
-            } catch (StringIndexOutOfBoundsException e) {
-
-                System.err.print("Was looking for "); //$NON-NLS-1$
-                System.err.print(key);
-                System.err.println(" and caught a"); //$NON-NLS-1$
-                System.err.print("string index out of bounds exception on line: \""); //$NON-NLS-1$
-                System.err.print(line);
-                System.err.println("\""); //$NON-NLS-1$
-                System.err.print("rawData index number: "); //$NON-NLS-1$
-                System.err.println(lineNum);
-
-            }
-        }
-        return startIndex;
+        Integer line = findTag("<" + blockName + ">"); //$NON-NLS-1$ //$NON-NLS-2$
+        return (line == null) ? -1 : line.intValue() + 1;
     }
 
     /**
@@ -189,40 +172,41 @@ public class BuildingBlock {
      * @see getAllDataAsVector()
      */
     public int findEndIndex(String blockName) {
-        String line;
-        int endIndex = -1;
-        StringBuffer buf = new StringBuffer();
-        String key = null;
-
-        // Translate the block name to a key.
-        buf.append('<').append('/').append(blockName).append('>');
-        key = buf.toString();
-        buf = null;
-
-        // look for the block...
-        for (int lineNum = 0; lineNum < rawData.size(); lineNum++) {
+        Integer line = findTag("</" + blockName + ">"); //$NON-NLS-1$ //$NON-NLS-2$
+        return (line == null) ? -1 : line.intValue();
+    }
 
-            line = rawData.get(lineNum).toString();
+    /**
+     * @return the line of the first occurrence of the tag, ignoring case, or
+     *         null if there is none
+     */
+    private Integer findTag(String tag) {
+        updateIndex();
+        return tagLines.get(tag.toLowerCase(Locale.ENGLISH));
+    }
 
-            // look for "</blockName>"
-            try {
-                if ((line.length() >= 3) && line.equalsIgnoreCase(key)) {
-                    endIndex = lineNum;
-                    break;
+    /**
+     * Adds the lines added since the last call to the index of tags.
+     */
+    private void updateIndex() {
+        if (indexedLines > rawData.size()) {
+            resetIndex();
+        }
+        for (; indexedLines < rawData.size(); indexedLines++) {
+            String line = rawData.get(indexedLines);
+            if ((line.length() >= 3) && (line.charAt(0) == '<')
+                    && (line.charAt(line.length() - 1) == '>')) {
+                String tag = line.toLowerCase(Locale.ENGLISH);
+                if (!tagLines.containsKey(tag)) {
+                    tagLines.put(tag, indexedLines);
                 }
-            } catch (StringIndexOutOfBoundsException e) {
-
-                System.err.print("Was looking for "); //$NON-NLS-1$
-                System.err.print(key);
-                System.err.println(" and caught a"); //$NON-NLS-1$
-                System.err.print("string index out of bounds exception on line: \""); //$NON-NLS-1$
-                System.err.print(line);
-                System.err.println("\""); //$NON-NLS-1$
-                System.err.print("rawData index number: "); //$NON-NLS-1$
-                System.err.println(lineNum);
             }
         }
-        return endIndex;
+    }
+
+    private void resetIndex() {
+        tagLines.clear();
+        indexedLines = 0;
     }
 
     /**
@@ -389,6 +373,23 @@ public class BuildingBlock {
 
     }
 
+    /**
+     * Gets data from a block without copying it.
+     *
+     * @param blockName
+     *            Name of the block to get data from.
+     * @return Returns a read only view of the lines of the block, which is
+     *         empty if the block isn't found.
+     */
+    public List<String> getDataAsList(String blockName) {
+        int startIndex = findStartIndex(blockName);
+        int endIndex = findEndIndex(blockName);
+        if ((startIndex == -1) || (endIndex == -1) || (endIndex < startIndex)) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(rawData.subList(startIndex, endIndex));
+    }
+
     /**
      * Gets data from a block.
      *
@@ -398,31 +399,7 @@ public class BuildingBlock {
      */
     public Vector<String> getDataAsVector(String blockName) {
 
-        Vector<String> data;
-        int startIndex = 0, endIndex = 0;
-
-        startIndex = findStartIndex(blockName);
-
-        endIndex = findEndIndex(blockName);
-
-        if ((startIndex == -1) || (endIndex == -1)) {
-
-            data = new Vector<String>();
-            data.clear();
-            return data;
-
-        }
-
-        data = new Vector<String>();
-
-        // fill up the data vector with the raw data we want...
-        for (int rawRecord = startIndex; rawRecord < endIndex; rawRecord++) {
-
-            data.add(rawData.get(rawRecord));
-
-        }
-
-        return data; // hand back the goods...
+        return new Vector<String>(getDataAsList(blockName));
 
     }
 
@@ -435,6 +412,7 @@ public class BuildingBlock {
     public boolean createNewBlock() {
 
         rawData.clear();
+        resetIndex();
 
         writeBlockComment("building block data file"); //$NON-NLS-1$
         this.writeBlockData("BlockVersion", "" + BuildingBlock.version); //$NON-NLS-1$ //$NON-NLS-2$
@@ -608,6 +586,7 @@ public class BuildingBlock {
     public void clearData() {
 
         rawData.clear();
+        resetIndex();
 
     }
 
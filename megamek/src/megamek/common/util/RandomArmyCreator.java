@@ -23,6 +23,7 @@ import megamek.common.Compute;
 import megamek.common.MechSearchFilter;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
+import megamek.common.MechSummaryIndex;
 import megamek.common.TechConstants;
 import megamek.common.UnitType;
 
@@ -196,100 +197,76 @@ public class RandomArmyCreator {
 
     }
 
-    public static ArrayList<MechSummary> generateArmy(Parameters p) {
-        int allowedVariance = java.lang.Math.abs(p.maxBV - p.minBV);
-        MechSummary[] all = MechSummaryCache.getInstance().getAllMechs();
-        ArrayList<MechSummary> allMechs = new ArrayList<MechSummary>();
-        ArrayList<MechSummary> allTanks = new ArrayList<MechSummary>();
-        ArrayList<MechSummary> allInfantry = new ArrayList<MechSummary>();
-        ArrayList<MechSummary> allBA = new ArrayList<MechSummary>();
-        for (MechSummary m : all) {
-            if ((p.tech != TechConstants.T_ALL) && (p.tech != m.getType())) {
-                // advanced rules includes basic too
-                if (p.tech == TechConstants.T_CLAN_ADVANCED) {
-                    if (m.getType() != TechConstants.T_CLAN_TW) {
-                        continue;
-                    }
-                } else if (p.tech == TechConstants.T_IS_ADVANCED) {
-                    if ((m.getType() != TechConstants.T_INTRO_BOXSET)
-                            && (m.getType() != TechConstants.T_IS_TW_NON_BOX)) {
-                        continue;
-                    }
-                } else if (p.tech == TechConstants.T_IS_TW_NON_BOX) {
-                    if (m.getType() != TechConstants.T_INTRO_BOXSET) {
-                        continue;
-                    }
-                } else if (p.tech == TechConstants.T_TW_ALL) {
-                    if ((m.getType() != TechConstants.T_INTRO_BOXSET)
-                            && (m.getType() != TechConstants.T_IS_TW_NON_BOX)
-                            && (m.getType() != TechConstants.T_CLAN_TW)) {
-                        continue;
-                    }
-                } else if (p.tech == TechConstants.T_IS_TW_ALL) {
-                    if ((m.getType() != TechConstants.T_INTRO_BOXSET)
-                            && (m.getType() != TechConstants.T_IS_TW_NON_BOX)) {
-                        continue;
-                    }
-                } else if (p.tech == TechConstants.T_ALL_IS) {
-                    if ((m.getType() != TechConstants.T_INTRO_BOXSET)
-                            && (m.getType() != TechConstants.T_IS_TW_NON_BOX)
-                            && (m.getType() != TechConstants.T_IS_ADVANCED)
-                            && (m.getType() != TechConstants.T_IS_EXPERIMENTAL)
-                            && (m.getType() != TechConstants.T_IS_UNOFFICIAL)) {
-                        continue;
-                    }
-                } else if (p.tech == TechConstants.T_ALL_CLAN) {
-                    if ((m.getType() != TechConstants.T_CLAN_TW)
-                            && (m.getType() != TechConstants.T_CLAN_ADVANCED)
-                            && (m.getType() != TechConstants.T_CLAN_EXPERIMENTAL)
-                            && (m.getType() != TechConstants.T_CLAN_UNOFFICIAL)) {
-                        continue;
-                    }
-                } else {
-                    continue;
-                }
-            }
-            if (((m.getYear() < p.minYear) || (m.getYear() > p.maxYear))
-                    && !m.getUnitType().equals(
-                            UnitType.getTypeName(UnitType.INFANTRY))) {
-                continue;
-            }
-            if (p.canon && !m.isCanon()) {
-                continue;
-            }
-
-
-            //ignoring infantry, BA and Proto for advancedSearch filter
-            if (((!m.getUnitType().equals(UnitType.getTypeName(UnitType.INFANTRY)))
-                    && (!m.getUnitType().equals(UnitType.getTypeName(UnitType.PROTOMEK)))
-                    && (!m.getUnitType().equals(UnitType.getTypeName(UnitType.BATTLE_ARMOR))))
-                    && (p.advancedSearchFilter != null && !MechSearchFilter.isMatch(m, p.advancedSearchFilter)))
-            {
-                continue;
-            }
-
-
-
-
-
-
+    /**
+     * Finds the units of the given types that meet the parameters.
+     */
+    private static ArrayList<MechSummary> findUnits(MechSummaryIndex index,
+            Parameters p, boolean checkYear, boolean useAdvancedSearch,
+            int... unitTypes) {
+        String[] typeNames = new String[unitTypes.length];
+        for (int i = 0; i < unitTypes.length; i++) {
+            typeNames[i] = UnitType.getTypeName(unitTypes[i]);
+        }
+        MechSummaryIndex.Query query = index.query().unitType(typeNames);
+        if (p.tech != TechConstants.T_ALL) {
+            query.techTypes(getTechTypes(p.tech));
+        }
+        if (checkYear) {
+            query.years(p.minYear, p.maxYear);
+        }
+        if (p.canon) {
+            query.canon();
+        }
+        if (useAdvancedSearch) {
+            query.filter(p.advancedSearchFilter);
+        }
+        return new ArrayList<MechSummary>(query.list());
+    }
 
-            // Unit accepted, add to the appropriate list
-            if (m.getUnitType().equals(UnitType.getTypeName(UnitType.MEK))) {
-                allMechs.add(m);
-            } else if (m.getUnitType()
-                    .equals(UnitType.getTypeName(UnitType.TANK))
-                    || m.getUnitType().equals(
-                            UnitType.getTypeName(UnitType.VTOL))) {
-                allTanks.add(m);
-            } else if (m.getUnitType().equals(
-                    UnitType.getTypeName(UnitType.BATTLE_ARMOR))) {
-                allBA.add(m);
-            } else if (m.getUnitType().equals(
-                    UnitType.getTypeName(UnitType.INFANTRY))) {
-                allInfantry.add(m);
-            }
+    /**
+     * Returns the unit tech levels included in the given tech level.
+     */
+    private static int[] getTechTypes(int tech) {
+        // advanced rules includes basic too
+        if (tech == TechConstants.T_CLAN_ADVANCED) {
+            return new int[] { tech, TechConstants.T_CLAN_TW };
+        } else if ((tech == TechConstants.T_IS_ADVANCED)
+                || (tech == TechConstants.T_IS_TW_ALL)) {
+            return new int[] { tech, TechConstants.T_INTRO_BOXSET,
+                    TechConstants.T_IS_TW_NON_BOX };
+        } else if (tech == TechConstants.T_IS_TW_NON_BOX) {
+            return new int[] { tech, TechConstants.T_INTRO_BOXSET };
+        } else if (tech == TechConstants.T_TW_ALL) {
+            return new int[] { tech, TechConstants.T_INTRO_BOXSET,
+                    TechConstants.T_IS_TW_NON_BOX, TechConstants.T_CLAN_TW };
+        } else if (tech == TechConstants.T_ALL_IS) {
+            return new int[] { tech, TechConstants.T_INTRO_BOXSET,
+                    TechConstants.T_IS_TW_NON_BOX,
+                    TechConstants.T_IS_ADVANCED,
+                    TechConstants.T_IS_EXPERIMENTAL,
+                    TechConstants.T_IS_UNOFFICIAL };
+        } else if (tech == TechConstants.T_ALL_CLAN) {
+            return new int[] { tech, TechConstants.T_CLAN_TW,
+                    TechConstants.T_CLAN_ADVANCED,
+                    TechConstants.T_CLAN_EXPERIMENTAL,
+                    TechConstants.T_CLAN_UNOFFICIAL };
         }
+        return new int[] { tech };
+    }
+
+    public static ArrayList<MechSummary> generateArmy(Parameters p) {
+        int allowedVariance = java.lang.Math.abs(p.maxBV - p.minBV);
+        MechSummaryIndex index = MechSummaryCache.getInstance().getIndex();
+        // the advanced search filter is ignored for infantry, BA and protos,
+        // and infantry are not restricted by year
+        ArrayList<MechSummary> allMechs = findUnits(index, p, true, true,
+                UnitType.MEK);
+        ArrayList<MechSummary> allTanks = findUnits(index, p, true, true,
+                UnitType.TANK, UnitType.VTOL);
+        ArrayList<MechSummary> allInfantry = findUnits(index, p, false, false,
+                UnitType.INFANTRY);
+        ArrayList<MechSummary> allBA = findUnits(index, p, true, false,
+                UnitType.BATTLE_ARMOR);
         Collections.<MechSummary> sort(allMechs, bvComparator);
         Collections.<MechSummary> sort(allTanks, bvComparator);
         Collections.<MechSummary> sort(allInfantry, bvComparator);
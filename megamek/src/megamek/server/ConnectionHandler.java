@@ -43,8 +43,6 @@ public class ConnectionHandler implements Runnable {
 	@Override
 	public void run() {
 		while (!shouldStop){
-		    // Write out any queued packets
-		    connection.flush();
 		    // Wait for input
 		    connection.update();			
 			if (connection.isClosed()){
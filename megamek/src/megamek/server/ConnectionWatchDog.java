@@ -32,6 +32,15 @@ class ConnectionWatchdog extends TimerTask {
 
     @Override
     public void run() {
+        Server previous = server.enter();
+        try {
+            check();
+        } finally {
+            Server.leave(previous);
+        }
+    }
+
+    private void check() {
         if (server.getPlayer(id) != null) {
             // fully connected
             cancel();
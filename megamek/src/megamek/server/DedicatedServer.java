@@ -17,6 +17,7 @@ package megamek.server;
 import java.io.File;
 import java.io.IOException;
 
+import megamek.common.net.ConnectionFactory;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.AbstractCommandLineParser;
 
@@ -24,7 +25,7 @@ public class DedicatedServer {
 
     private static final String INCORRECT_ARGUMENTS_MESSAGE = "Incorrect arguments:";
 
-    private static final String ARGUMENTS_DESCRIPTION_MESSAGE = "Arguments syntax:\n\t [-password <pass>] [-port <port>] [<saved game>]";
+    private static final String ARGUMENTS_DESCRIPTION_MESSAGE = "Arguments syntax:\n\t [-password <pass>] [-port <port>] [-games <count>] [-nio] [<saved game>]";
 
     public static void start(String[] args) {
         CommandLineParser cp = new CommandLineParser(args);
@@ -41,17 +42,31 @@ public class DedicatedServer {
             String announceUrl = cp.getAnnounceUrl();
             String password = cp.getPassword();
 
+            if (cp.useSelector()) {
+                ConnectionFactory.getInstance().setUsingSelector(true);
+            }
+
             // kick off a RNG check
             megamek.common.Compute.d6();
             // start server
-            Server dedicated;
+            Server[] dedicated;
             try {
                 if (password == null || password.length() == 0) {
                     password = PreferenceManager.getClientPreferences()
                             .getLastServerPass();
                 }
-                dedicated = new Server(password, usePort,
-                        !announceUrl.equals(""), announceUrl);
+                if (cp.getGames() > 1) {
+                    MultiGameHost host = new MultiGameHost(password, usePort,
+                            cp.getGames(), !announceUrl.equals(""),
+                            announceUrl);
+                    dedicated = new Server[host.getGameCount()];
+                    for (int i = 0; i < dedicated.length; i++) {
+                        dedicated[i] = host.getServer(i);
+                    }
+                } else {
+                    dedicated = new Server[] { new Server(password, usePort,
+                            !announceUrl.equals(""), announceUrl) };
+                }
             } catch (IOException ex) {
                 StringBuffer error = new StringBuffer();
                 error.append("Error: could not start server at localhost")
@@ -61,7 +76,10 @@ public class DedicatedServer {
                 return;
             }
             if (null != savegameFileName) {
-                dedicated.loadGame(new File(savegameFileName));
+                // Every game starts from the saved game
+                for (Server server : dedicated) {
+                    server.loadGame(new File(savegameFileName));
+                }
             }
             return;
         } catch (AbstractCommandLineParser.ParseException e) {
@@ -87,11 +105,15 @@ public class DedicatedServer {
         private int port;
         private String password;
         private String announceUrl = "";
+        private boolean useSelector;
+        private int games = 1;
 
         // Options
         private static final String OPTION_PORT = "port"; //$NON-NLS-1$
         private static final String OPTION_PASSWORD = "password"; //$NON-NLS-1$
         private static final String OPTION_ANNOUNCE = "announce"; //$NON-NLS-1$
+        private static final String OPTION_NIO = "nio"; //$NON-NLS-1$
+        private static final String OPTION_GAMES = "games"; //$NON-NLS-1$
 
         public CommandLineParser(String[] args) {
             super(args);
@@ -119,6 +141,22 @@ public class DedicatedServer {
             return announceUrl;
         }
 
+        /**
+         * Returns the number of games to host, each on its own port from the
+         * port option up
+         */
+        public int getGames() {
+            return games;
+        }
+
+        /**
+         * Returns <code>true</code> if connections should share a single
+         * selector thread
+         */
+        public boolean useSelector() {
+            return useSelector;
+        }
+
         /**
          * Returns the game file name option value or <code>null</code> if it
          * wasn't set
@@ -145,6 +183,11 @@ public class DedicatedServer {
                     } else if (getTokenValue().equals(OPTION_PASSWORD)) {
                         nextToken();
                         parsePassword();
+                    } else if (getTokenValue().equals(OPTION_NIO)) {
+                        useSelector = true;
+                    } else if (getTokenValue().equals(OPTION_GAMES)) {
+                        nextToken();
+                        parseGames();
                     }
                     break;
                 case TOK_LITERAL:
@@ -178,6 +221,21 @@ public class DedicatedServer {
             }
         }
 
+        private void parseGames() throws ParseException {
+            if (getToken() == TOK_LITERAL) {
+                try {
+                    games = Integer.parseInt(getTokenValue());
+                } catch (NumberFormatException e) {
+                    games = 0;
+                }
+                if (games < 1) {
+                    error("invalid number of games"); //$NON-NLS-1$
+                }
+            } else {
+                error("number of games expected"); //$NON-NLS-1$
+            }
+        }
+
         private void parseAnnounce() throws ParseException {
             if (getToken() == TOK_LITERAL) {
                 announceUrl = getTokenValue();
@@ -0,0 +1,268 @@
+/*
+ * MegaMek - Copyright (C) 2000-2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import megamek.common.Coords;
+import megamek.common.Crew;
+import megamek.common.CriticalSlot;
+import megamek.common.Entity;
+import megamek.common.Mounted;
+import megamek.common.net.Packet;
+
+/**
+ * Remembers which state of each entity every connection was last sent, so
+ * that the server only has to ship the entities that changed since then.
+ * <p>
+ * An entity's state is identified by a fingerprint of the state that changes
+ * during a game: position, facings, heat, armor, internal structure, critical
+ * slots, equipment, crew and the like. Changes outside of that, which are
+ * rare, are caught up with when the server forgets what it sent and sends
+ * every entity again, which it does every round. Packets always arrive in
+ * order, so what was sent on a connection is what the client has, as long as
+ * every other packet that adds, updates, removes or replaces entities is
+ * passed to {@link #packetSent(Collection, Packet)} as well.
+ */
+class EntityDeltaTracker {
+
+    /**
+     * The fingerprints of the entities last sent, by connection and entity id.
+     */
+    private final Map<Integer, Map<Integer, Long>> sent = new HashMap<Integer, Map<Integer, Long>>();
+
+    /**
+     * Creates a <code>COMMAND_SENDING_ENTITY_DELTA</code> packet that brings
+     * the given connection's entity list up to the given list, and records
+     * the list as sent.
+     *
+     * @param connId the connection the packet is for
+     * @param entities the complete list of entities the client should have
+     * @param fingerprints fingerprints computed so far during this update;
+     *            shared between the connections of one update so that every
+     *            entity is only fingerprinted once
+     * @return the delta packet
+     */
+    synchronized Packet createDeltaPacket(int connId, List<Entity> entities,
+            Map<Entity, Long> fingerprints) {
+        Map<Integer, Long> previous = sent.get(connId);
+        Map<Integer, Long> current = new HashMap<Integer, Long>();
+        Vector<Entity> changed = new Vector<Entity>();
+        ArrayList<Integer> entityIds = new ArrayList<Integer>(entities.size());
+        for (Entity entity : entities) {
+            Long fingerprint = fingerprints.get(entity);
+            if (fingerprint == null) {
+                fingerprint = fingerprint(entity);
+                fingerprints.put(entity, fingerprint);
+            }
+            entityIds.add(entity.getId());
+            current.put(entity.getId(), fingerprint);
+            if ((previous == null)
+                    || !fingerprint.equals(previous.get(entity.getId()))) {
+                changed.addElement(entity);
+            }
+        }
+        sent.put(connId, current);
+
+        Object[] data = new Object[2];
+        data[0] = changed;
+        data[1] = entityIds;
+        return new Packet(Packet.COMMAND_SENDING_ENTITY_DELTA, data);
+    }
+
+    /**
+     * Brings the record of what the given connections have up to date with a
+     * packet sent to them outside of the deltas: full entity lists replace the
+     * client's list, so the connection is forgotten; entity updates and
+     * additions are recorded as sent; removed entities are forgotten, so that
+     * they are sent again if they come back.
+     *
+     * @param connIds the connections the packet is sent to
+     * @param packet the packet
+     */
+    synchronized void packetSent(Collection<Integer> connIds, Packet packet) {
+        switch (packet.getCommand()) {
+            case Packet.COMMAND_SENDING_ENTITIES:
+                for (Integer connId : connIds) {
+                    sent.remove(connId);
+                }
+                break;
+            case Packet.COMMAND_ENTITY_UPDATE:
+                if (packet.getObject(1) instanceof Entity) {
+                    record(connIds, Collections.singletonList((Entity) packet
+                            .getObject(1)));
+                }
+                break;
+            case Packet.COMMAND_ENTITY_ADD:
+                List<Entity> added = new ArrayList<Entity>();
+                for (Object o : (List<?>) packet.getObject(1)) {
+                    if (o instanceof Entity) {
+                        added.add((Entity) o);
+                    }
+                }
+                record(connIds, added);
+                break;
+            case Packet.COMMAND_ENTITY_REMOVE:
+                for (Integer connId : connIds) {
+                    Map<Integer, Long> fingerprints = sent.get(connId);
+                    if (fingerprints != null) {
+                        fingerprints.keySet().removeAll(
+                                (List<?>) packet.getObject(0));
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void record(Collection<Integer> connIds, List<Entity> entities) {
+        Map<Integer, Long> current = null;
+        for (Integer connId : connIds) {
+            Map<Integer, Long> fingerprints = sent.get(connId);
+            // Connections that haven't been sent a delta yet will get
+            // everything with the next one anyway
+            if (fingerprints == null) {
+                continue;
+            }
+            if (current == null) {
+                current = new HashMap<Integer, Long>();
+                for (Entity entity : entities) {
+                    current.put(entity.getId(), fingerprint(entity));
+                }
+            }
+            fingerprints.putAll(current);
+        }
+    }
+
+    /**
+     * Forgets what was sent to the given connection; the next delta for it
+     * will contain every entity.
+     */
+    synchronized void forget(int connId) {
+        sent.remove(connId);
+    }
+
+    /**
+     * Forgets what was sent to every connection; the next deltas will
+     * contain every entity, which brings back in sync anything the
+     * fingerprints don't cover.
+     */
+    synchronized void forgetAll() {
+        sent.clear();
+    }
+
+    /**
+     * Returns a fingerprint of the state of the given entity that changes
+     * during a game. It only reads fields, so it costs a small part of what
+     * serializing the entity does.
+     */
+    static long fingerprint(Entity entity) {
+        Fingerprint f = new Fingerprint();
+        f.add(entity.getId());
+        f.add(entity.getOwnerId());
+        Coords position = entity.getPosition();
+        f.add((position != null) ? position.hashCode() : -1);
+        f.add(entity.getFacing());
+        f.add(entity.getSecondaryFacing());
+        f.add(entity.getElevation());
+        f.add(entity.getAltitude());
+        f.add(entity.getVelocity());
+        f.add(entity.heat);
+        f.add(entity.heatBuildup);
+        f.add(entity.mpUsed);
+        f.add(entity.delta_distance);
+        f.add(entity.moved.ordinal());
+        f.add(entity.damageThisRound);
+        f.add(entity.getTransportId());
+        f.add(entity.getSwarmTargetId());
+        f.add(entity.getSwarmAttackerId());
+        f.add(entity.getGrappled());
+        f.add(entity.getTaggedBy());
+        f.add(entity.getRemovalCondition());
+        f.add(entity.isDone());
+        f.add(entity.isDeployed());
+        f.add(entity.isProne());
+        f.add(entity.isHullDown());
+        f.add(entity.isShutDown());
+        f.add(entity.isDoomed());
+        f.add(entity.isDestroyed());
+        f.add(entity.isCarcass());
+        f.add(entity.isEvading());
+        f.add(entity.isStuck());
+        f.add(entity.isUnjammingRAC());
+        f.add(entity.isEverSeenByEnemy());
+        f.add(entity.isVisibleToEnemy());
+        f.add(entity.isDetectedByEnemy());
+        Crew crew = entity.getCrew();
+        if (crew != null) {
+            f.add(crew.getHits());
+            f.add(crew.isUnconscious());
+            f.add(crew.isDead());
+            f.add(crew.isDoomed());
+            f.add(crew.isEjected());
+        }
+        for (int loc = 0; loc < entity.locations(); loc++) {
+            f.add(entity.getArmor(loc, false));
+            f.add(entity.getArmor(loc, true));
+            f.add(entity.getInternal(loc));
+            for (int i = 0; i < entity.getNumberOfCriticals(loc); i++) {
+                CriticalSlot slot = entity.getCritical(loc, i);
+                if (slot != null) {
+                    f.add(slot.isHit());
+                    f.add(slot.isDestroyed());
+                    f.add(slot.isMissing());
+                    f.add(slot.isBreached());
+                }
+            }
+        }
+        for (Mounted m : entity.getEquipment()) {
+            f.add(m.isHit());
+            f.add(m.isDestroyed());
+            f.add(m.isMissing());
+            f.add(m.isBreached());
+            f.add(m.isJammed());
+            f.add(m.isDumping());
+            f.add(m.isUsedThisRound());
+            f.add(m.isFired());
+            f.add(m.getBaseShotsLeft());
+            f.add(m.curMode().getName().hashCode());
+            Mounted linked = m.getLinked();
+            f.add((linked != null) ? System.identityHashCode(linked) : -1);
+        }
+        return f.value;
+    }
+
+    /**
+     * Accumulates a 64-bit hash of the values added to it.
+     */
+    private static class Fingerprint {
+        long value = 17;
+
+        void add(int v) {
+            value = (value * 0x9E3779B97F4A7C15L) + v;
+            value ^= value >>> 29;
+        }
+
+        void add(boolean b) {
+            add(b ? 1 : 0);
+        }
+    }
+}
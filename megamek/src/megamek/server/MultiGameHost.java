@@ -0,0 +1,112 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.io.IOException;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import megamek.common.EquipmentType;
+
+/**
+ * Hosts several independent games in one process. Each game has a
+ * <code>Server</code> of its own, identified by a game id from 0 up, that
+ * listens on the base port plus its game id. The servers share the equipment
+ * tables and any other static data loaded once for the process, and handle
+ * their received packets on a shared pool of threads rather than a packet
+ * pump thread each.
+ */
+public class MultiGameHost {
+
+    private final Vector<Server> servers = new Vector<Server>();
+
+    private final ExecutorService packetPumps = Executors
+            .newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    // Not a daemon, like the packet pump threads of single
+                    // servers, so that the process stays up
+                    return new Thread(r, "Packet Pump " + count.incrementAndGet());
+                }
+            });
+
+    /**
+     * Starts the given number of games.
+     *
+     * @param password the password for all games
+     * @param basePort the port of the first game; game <code>n</code>
+     *            listens on <code>basePort + n</code>, or on any free port if
+     *            this is 0
+     * @param games the number of games to host
+     * @param registerWithServerBrowser whether to register the games with the
+     *            meta server
+     * @param metaServerUrl the meta server to register with
+     * @throws IOException if a game's port can't be opened; any games started
+     *             before are shut down again
+     */
+    public MultiGameHost(String password, int basePort, int games,
+            boolean registerWithServerBrowser, String metaServerUrl)
+            throws IOException {
+        // Load the shared equipment tables up front; loading them lazily
+        // isn't safe with several games starting at once
+        EquipmentType.initializeTypes();
+        try {
+            for (int gameId = 0; gameId < games; gameId++) {
+                System.out.println("s: starting game #" + gameId + " ...");
+                int port = (basePort == 0) ? 0 : basePort + gameId;
+                servers.add(new Server(password, port,
+                        registerWithServerBrowser, metaServerUrl, packetPumps));
+            }
+        } catch (IOException ex) {
+            die();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return the number of games hosted
+     */
+    public int getGameCount() {
+        return servers.size();
+    }
+
+    /**
+     * @return the server of the game with the given id
+     */
+    public Server getServer(int gameId) {
+        return servers.get(gameId);
+    }
+
+    /**
+     * @return the port that clients of the given game connect to
+     */
+    public int getPort(int gameId) {
+        return servers.get(gameId).getPort();
+    }
+
+    /**
+     * Shuts down all games.
+     */
+    public synchronized void die() {
+        for (Server server : servers) {
+            server.die();
+        }
+        servers.clear();
+        packetPumps.shutdownNow();
+    }
+}
@@ -96,6 +96,15 @@ public class ScenarioLoader {
      * the random damage until a server is made available to us.
      */
     public void applyDamage(Server s) {
+        Server previous = s.enter();
+        try {
+            applyDamagePlans(s);
+        } finally {
+            Server.leave(previous);
+        }
+    }
+
+    private void applyDamagePlans(Server s) {
         for (int x = 0, n = m_vDamagePlans.size(); x < n; x++) {
             DamagePlan dp = m_vDamagePlans.elementAt(x);
             System.out
@@ -27,13 +27,17 @@ import java.io.InputStreamReader;
 import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
+import java.nio.channels.ServerSocketChannel;
+import java.security.SecureRandom;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -42,7 +46,9 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -54,6 +60,8 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -73,14 +81,12 @@ import megamek.common.BuildingTarget;
 import megamek.common.CalledShot;
 import megamek.common.CommonConstants;
 import megamek.common.Compute;
-import megamek.common.ComputeECM;
 import megamek.common.Configuration;
 import megamek.common.ConvFighter;
 import megamek.common.Coords;
 import megamek.common.Crew;
 import megamek.common.CriticalSlot;
 import megamek.common.Dropship;
-import megamek.common.ECMInfo;
 import megamek.common.EjectedCrew;
 import megamek.common.Engine;
 import megamek.common.Entity;
@@ -114,6 +120,7 @@ import megamek.common.Jumpship;
 import megamek.common.LargeSupportTank;
 import megamek.common.LocationFullException;
 import megamek.common.LosEffects;
+import megamek.common.MMRandom;
 import megamek.common.MapSettings;
 import megamek.common.Mech;
 import megamek.common.MechWarrior;
@@ -132,6 +139,7 @@ import megamek.common.Protomech;
 import megamek.common.QuadMech;
 import megamek.common.Report;
 import megamek.common.Roll;
+import megamek.common.RollJournal;
 import megamek.common.SmallCraft;
 import megamek.common.SpaceStation;
 import megamek.common.SpecialHexDisplay;
@@ -191,20 +199,23 @@ import megamek.common.actions.UnloadStrandedAction;
 import megamek.common.actions.WeaponAttackAction;
 import megamek.common.containers.PlayerIDandList;
 import megamek.common.event.GameListener;
+import megamek.common.event.GameSettingsChangeEvent;
 import megamek.common.event.GameVictoryEvent;
+import megamek.common.net.AbstractConnection;
 import megamek.common.net.ConnectionFactory;
 import megamek.common.net.ConnectionListenerAdapter;
 import megamek.common.net.DisconnectedEvent;
 import megamek.common.net.IConnection;
 import megamek.common.net.Packet;
 import megamek.common.net.PacketReceivedEvent;
+import megamek.common.net.SendPacket;
+import megamek.common.net.marshall.PacketMarshaller;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
 import megamek.common.options.IOption;
 import megamek.common.options.OptionsConstants;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.BoardUtilities;
-import megamek.common.util.HashCodeUtil;
 import megamek.common.util.StringUtil;
 import megamek.common.verifier.EntityVerifier;
 import megamek.common.verifier.TestAero;
@@ -262,36 +273,6 @@ import com.thoughtworks.xstream.XStream;
  */
 public class Server implements Runnable {
 
-    private static class EntityTargetPair {
-        Entity ent;
-
-        Targetable target;
-
-        EntityTargetPair (Entity e, Targetable t) {
-            ent = e;
-            target = t;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof EntityTargetPair)) {
-                return false;
-            }
-            EntityTargetPair other = (EntityTargetPair)o;
-            return ent.equals(other.ent)
-                    && (((target != null) && target.equals(other.target))
-                            || ((target == null) && (other.target == null)));
-        }
-
-        @Override
-        public int hashCode() {
-            int hashCode = HashCodeUtil.SEED;
-            hashCode = HashCodeUtil.hash(hashCode, ent.getId());
-            hashCode = HashCodeUtil.hash(hashCode, target);
-            return hashCode;
-        }
-
-    }
     /**
      * The DamageType enumeration is used for the damageEntity function.
      */
@@ -311,6 +292,12 @@ public class Server implements Runnable {
 
     private ServerSocket serverSocket;
 
+    /**
+     * Whether connections are served by the connection factory's selector
+     * thread instead of a <code>ConnectionHandler</code> thread each
+     */
+    private boolean useSelector;
+
     private String motd;
 
     private class ReceivedPacket {
@@ -324,10 +311,20 @@ public class Server implements Runnable {
 
     }
 
+    /**
+     * Handles the received packets, either on a thread of its own or, when
+     * the server was given an executor, as tasks on the executor's threads.
+     */
     private class PacketPump implements Runnable {
 
         boolean shouldStop;
 
+        /**
+         * Set while a task to handle the queued packets is waiting or running
+         * on the executor
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
         PacketPump() {
             shouldStop = false;
         }
@@ -336,23 +333,60 @@ public class Server implements Runnable {
             shouldStop = true;
         }
 
+        /**
+         * Called after a packet was added to the queue.
+         */
+        void packetQueued() {
+            if (pumpExecutor == null) {
+                synchronized (packetQueue) {
+                    packetQueue.notifyAll();
+                }
+            } else if (scheduled.compareAndSet(false, true)) {
+                pumpExecutor.execute(this);
+            }
+        }
+
+        /**
+         * Handles packets until the queue is empty.
+         */
+        private void handleQueuedPackets() {
+            while (!shouldStop && !packetQueue.isEmpty()) {
+                ReceivedPacket rp = packetQueue.poll();
+                synchronized (serverLock) {
+                    handle(rp.connId, rp.packet);
+                }
+            }
+        }
+
         @Override
         public void run() {
-            while (!shouldStop) {
-                while (!packetQueue.isEmpty()) {
-                    ReceivedPacket rp = packetQueue.poll();
-                    synchronized (serverLock) {
-                        handle(rp.connId, rp.packet);
+            activeServer.set(Server.this);
+            try {
+                if (pumpExecutor != null) {
+                    handleQueuedPackets();
+                    scheduled.set(false);
+                    // A packet may have arrived after the queue was found
+                    // empty, but before the task was marked as done
+                    if (!packetQueue.isEmpty()) {
+                        packetQueued();
                     }
+                    return;
                 }
-                try {
-                    synchronized (packetQueue) {
-                        packetQueue.wait();
+                while (!shouldStop) {
+                    handleQueuedPackets();
+                    try {
+                        synchronized (packetQueue) {
+                            if (packetQueue.isEmpty()) {
+                                packetQueue.wait();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        // If we are interrupted, just keep going, generally
+                        // this happens after we are signalled to stop.
                     }
-                } catch (InterruptedException e) {
-                    // If we are interrupted, just keep going, generally
-                    // this happens after we are signalled to stop.
                 }
+            } finally {
+                activeServer.remove();
             }
         }
 
@@ -395,6 +429,11 @@ public class Server implements Runnable {
     private PacketPump packetPump;
     private Thread packetPumpThread;
 
+    /**
+     * Runs the packet pump when several servers share threads, otherwise null
+     */
+    private final ExecutorService pumpExecutor;
+
     // Track buildings that are affected by an entity's movement.
     private Hashtable<Building, Boolean> affectedBldgs = new Hashtable<Building, Boolean>();
 
@@ -410,7 +449,28 @@ public class Server implements Runnable {
 
     private ArrayList<int[]> scheduledNukes = new ArrayList<int[]>();
 
-    private static Server serverInstance = null;
+    /**
+     * The server whose code the current thread is running; threads that
+     * don't belong to a server, such as those of clients and bots, have none
+     */
+    private static final ThreadLocal<Server> activeServer = new ThreadLocal<Server>();
+
+    /**
+     * The RNG of this game, or <code>null</code> to use the shared one
+     */
+    private MMRandom random = null;
+
+    /**
+     * The RNG type and seed options <code>random</code> was generated from
+     */
+    private int rngType;
+    private int rngSeed;
+
+    /**
+     * The seed <code>random</code> was actually generated with, which is a
+     * new one if the seed option is 0
+     */
+    private long rngActualSeed;
 
     private String serverAccessKey = null;
 
@@ -437,6 +497,12 @@ public class Server implements Runnable {
      */
     private Set<Coords> hexUpdateSet = new LinkedHashSet<Coords>();
 
+    /**
+     * Keeps track of the entities each connection was sent, so that
+     * entityAllUpdate() only sends the ones that changed.
+     */
+    private EntityDeltaTracker entityDeltas = new EntityDeltaTracker();
+
     private ConnectionListenerAdapter connectionListener = new ConnectionListenerAdapter() {
 
         /**
@@ -444,6 +510,16 @@ public class Server implements Runnable {
          */
         @Override
         public void disconnected(DisconnectedEvent e) {
+            // Connection events may come from threads shared by all servers
+            Server previous = enter();
+            try {
+                handleDisconnect(e);
+            } finally {
+                leave(previous);
+            }
+        }
+
+        private void handleDisconnect(DisconnectedEvent e) {
             synchronized (serverLock) {
                 IConnection conn = e.getConnection();
 
@@ -454,6 +530,7 @@ public class Server implements Runnable {
                 connections.removeElement(conn);
                 connectionsPending.removeElement(conn);
                 connectionIds.remove(conn.getId());
+                entityDeltas.forget(conn.getId());
                 ConnectionHandler ch = connectionHandlers.get(conn.getId());
                 if (ch != null) {
                     ch.signalStop();
@@ -479,10 +556,8 @@ public class Server implements Runnable {
                     cfrPacketQueue.notifyAll();
                 }
             } else {
-                synchronized (packetQueue) {
-                    packetQueue.add(rp);
-                    packetQueue.notifyAll();
-                }
+                packetQueue.add(rp);
+                packetPump.packetQueued();
             }
         }
 
@@ -509,10 +584,36 @@ public class Server implements Runnable {
      */
     public Server(String password, int port, boolean registerWithServerBrowser,
                   String metaServerUrl) throws IOException {
+        this(password, port, registerWithServerBrowser, metaServerUrl, null);
+    }
+
+    /**
+     * Construct a new GameHost and begin listening for incoming clients.
+     *
+     * @param password                  the <code>String</code> that is set as a password
+     * @param port                      the <code>int</code> value that specifies the port that is
+     *                                  used
+     * @param registerWithServerBrowser a <code>boolean</code> indicating wether we should register
+     *                                  with the master server browser on megamek.info
+     * @param pumpExecutor              the executor to handle received packets on, shared with other
+     *                                  servers, or <code>null</code> to handle them on a thread of
+     *                                  this server's own
+     */
+    public Server(String password, int port, boolean registerWithServerBrowser,
+                  String metaServerUrl, ExecutorService pumpExecutor)
+            throws IOException {
         this.metaServerUrl = metaServerUrl;
+        this.pumpExecutor = pumpExecutor;
         this.password = password.length() > 0 ? password : null;
         // initialize server socket
-        serverSocket = new ServerSocket(port);
+        useSelector = ConnectionFactory.getInstance().isUsingSelector();
+        if (useSelector) {
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.socket().bind(new InetSocketAddress(port));
+            serverSocket = channel.socket();
+        } else {
+            serverSocket = new ServerSocket(port);
+        }
 
         motd = createMotd();
 
@@ -583,16 +684,23 @@ public class Server implements Runnable {
         terrainProcessors.add(new QuicksandProcessor(this));
 
         packetPump = new PacketPump();
-        packetPumpThread = new Thread(packetPump, "Packet Pump");
-        packetPumpThread.start();
+        if (pumpExecutor == null) {
+            packetPumpThread = new Thread(packetPump, "Packet Pump");
+            packetPumpThread.start();
+        }
 
         if (registerWithServerBrowser) {
 
             final TimerTask register = new TimerTask() {
                 @Override
                 public void run() {
-                    registerWithServerBrowser(true,
-                                              Server.getServerInstance().metaServerUrl);
+                    Server previous = enter();
+                    try {
+                        registerWithServerBrowser(true,
+                                                  Server.this.metaServerUrl);
+                    } finally {
+                        leave(previous);
+                    }
                 }
             };
             serverBrowserUpdateTimer = new Timer(
@@ -603,8 +711,6 @@ public class Server implements Runnable {
         // Fully initialised, now accept connections
         connector = new Thread(this, "Connection Listener");
         connector.start();
-
-        serverInstance = this;
     }
 
     /**
@@ -613,45 +719,49 @@ public class Server implements Runnable {
      * initialization before any players have connected.
      */
     public void setGame(IGame g) {
-        // game listeners are transient so we need to save and restore them
-        Vector<GameListener> gameListenersClone = new Vector<GameListener>();
-        for (GameListener listener : getGame().getGameListeners()) {
-            gameListenersClone.add(listener);
-        }
+        Server previous = enter();
+        try {
+            // game listeners are transient so we need to save and restore them
+            Vector<GameListener> gameListenersClone = new Vector<GameListener>();
+            for (GameListener listener : getGame().getGameListeners()) {
+                gameListenersClone.add(listener);
+            }
 
-        game = g;
+            game = g;
 
-        for (GameListener listener : gameListenersClone) {
-            getGame().addGameListener(listener);
-        }
+            for (GameListener listener : gameListenersClone) {
+                getGame().addGameListener(listener);
+            }
 
-        // reattach the transient fields and ghost the players
-        for (Iterator<Entity> e = game.getEntities(); e.hasNext(); ) {
-            Entity ent = e.next();
-            ent.setGame(game);
-            if (ent instanceof Mech) {
-                ((Mech) ent).setBAGrabBars();
+            // reattach the transient fields and ghost the players
+            for (Iterator<Entity> e = game.getEntities(); e.hasNext(); ) {
+                Entity ent = e.next();
+                ent.setGame(game);
+                if (ent instanceof Mech) {
+                    ((Mech) ent).setBAGrabBars();
+                }
+                if (ent instanceof Tank) {
+                    ((Tank) ent).setBAGrabBars();
+                }
             }
-            if (ent instanceof Tank) {
-                ((Tank) ent).setBAGrabBars();
+            game.setOutOfGameEntitiesVector(game.getOutOfGameEntitiesVector());
+            for (Enumeration<IPlayer> e = game.getPlayers(); e.hasMoreElements(); ) {
+                IPlayer p = e.nextElement();
+                p.setGame(game);
+                p.setGhost(true);
             }
-        }
-        game.setOutOfGameEntitiesVector(game.getOutOfGameEntitiesVector());
-        for (Enumeration<IPlayer> e = game.getPlayers(); e.hasMoreElements(); ) {
-            IPlayer p = e.nextElement();
-            p.setGame(game);
-            p.setGhost(true);
-        }
-        // might need to restore weapon type for some attacks that take multiple
-        // turns (like artillery)
-        for (Enumeration<AttackHandler> a = game.getAttacks(); a
-                .hasMoreElements(); ) {
-            AttackHandler handler = a.nextElement();
-            if (handler instanceof WeaponHandler) {
-                ((WeaponHandler) handler).restore();
+            // might need to restore weapon type for some attacks that take multiple
+            // turns (like artillery)
+            for (Enumeration<AttackHandler> a = game.getAttacks(); a
+                    .hasMoreElements(); ) {
+                AttackHandler handler = a.nextElement();
+                if (handler instanceof WeaponHandler) {
+                    ((WeaponHandler) handler).restore();
+                }
             }
+        } finally {
+            leave(previous);
         }
-
     }
 
     /**
@@ -717,8 +827,10 @@ public class Server implements Runnable {
         // kill thread accepting new connections
         connector = null;
         packetPump.signalEnd();
-        packetPumpThread.interrupt();
-        packetPumpThread = null;
+        if (packetPumpThread != null) {
+            packetPumpThread.interrupt();
+            packetPumpThread = null;
+        }
 
         // close socket
         try {
@@ -742,10 +854,14 @@ public class Server implements Runnable {
             send(conn.getId(), new Packet(Packet.COMMAND_CLOSE_CONNECTION));
         }
 
-        // kill active connnections
+        // kill active connnections; they are all written at the same time,
+        // so they share one timeout
+        long flushEnd = System.currentTimeMillis()
+                + AbstractConnection.SEND_TIMEOUT;
         for (Enumeration<IConnection> connEnum = connections.elements(); connEnum
                 .hasMoreElements(); ) {
             IConnection conn = connEnum.nextElement();
+            conn.flush(Math.max(0, flushEnd - System.currentTimeMillis()));
             conn.close();
         }
 
@@ -773,7 +889,10 @@ public class Server implements Runnable {
      */
     void greeting(int cn) {
         // send server greeting -- client should reply with client info.
-        sendToPending(cn, new Packet(Packet.COMMAND_SERVER_GREETING));
+        // The greeting offers the binary marshalling; clients that understand
+        // it switch to it and the connection follows once they reply.
+        sendToPending(cn, new Packet(Packet.COMMAND_SERVER_GREETING,
+                new Integer(PacketMarshaller.BINARY_MARSHALING)));
     }
 
     /**
@@ -1328,6 +1447,16 @@ public class Server implements Runnable {
                     sFinalFile + ".gz"));
             xstream.toXML(game, gzo);
             gzo.close();
+
+            // Keep the rolls so far next to the game
+            RollJournal journal = (random != null) ? random.getJournal() : null;
+            if (journal != null) {
+                FileOutputStream fos = new FileOutputStream(
+                        sFinalFile.substring(0, sFinalFile.length() - 4)
+                        + ".rolls");
+                journal.writeTo(fos);
+                fos.close();
+            }
         } catch (Exception e) {
             System.err.println("Unable to save file: " + sFinalFile);
             e.printStackTrace();
@@ -1373,24 +1502,29 @@ public class Server implements Runnable {
      * successfull
      */
     public boolean loadGame(File f) {
-        System.out.println("s: loading saved game file '" + f + '\'');
-        IGame newGame;
+        Server previous = enter();
         try {
-            XStream xstream = new XStream();
-            newGame = (IGame) xstream.fromXML(new GZIPInputStream(
-                    new FileInputStream(f)));
-        } catch (Exception e) {
-            System.err.println("Unable to load file: " + f);
-            e.printStackTrace();
-            return false;
-        }
+            System.out.println("s: loading saved game file '" + f + '\'');
+            IGame newGame;
+            try {
+                XStream xstream = new XStream();
+                newGame = (IGame) xstream.fromXML(new GZIPInputStream(
+                        new FileInputStream(f)));
+            } catch (Exception e) {
+                System.err.println("Unable to load file: " + f);
+                e.printStackTrace();
+                return false;
+            }
 
-        setGame(newGame);
-        // update all the clients with the new game info
-        for (IConnection conn : connections) {
-            sendCurrentInfo(conn.getId());
+            setGame(newGame);
+            // update all the clients with the new game info
+            for (IConnection conn : connections) {
+                sendCurrentInfo(conn.getId());
+            }
+            return true;
+        } finally {
+            leave(previous);
         }
-        return true;
     }
 
     /**
@@ -2549,9 +2683,14 @@ public class Server implements Runnable {
      * Calculates all players initial BV, should only be called at start of game
      */
     public void calculatePlayerBVs() {
-        for (Enumeration<IPlayer> players = game.getPlayers(); players
-                .hasMoreElements(); ) {
-            players.nextElement().setInitialBV();
+        Server previous = enter();
+        try {
+            for (Enumeration<IPlayer> players = game.getPlayers(); players
+                    .hasMoreElements(); ) {
+                players.nextElement().setInitialBV();
+            }
+        } finally {
+            leave(previous);
         }
     }
 
@@ -2913,14 +3052,7 @@ public class Server implements Runnable {
     }
 
     private void sendTagInfoUpdates() {
-        if (connections == null) {
-            return;
-        }
-        for (int i = 0; i < connections.size(); i++) {
-            if (connections.get(i) != null) {
-                connections.get(i).send(createTagInfoUpdatesPacket());
-            }
-        }
+        send(createTagInfoUpdatesPacket());
     }
 
     public void sendTagInfoReset() {
@@ -2940,6 +3072,9 @@ public class Server implements Runnable {
      */
     private void incrementAndSendGameRound() {
         game.incrementRoundCount();
+        // Entity deltas only cover the state that usually changes; start the
+        // round from a full list so that anything else gets caught up with.
+        entityDeltas.forgetAll();
         send(new Packet(Packet.COMMAND_ROUND_UPDATE, new Integer(
                 game.getRoundCount())));
     }
@@ -4751,7 +4886,7 @@ public class Server implements Runnable {
      * the current turn.
      */
     private void receiveMovement(Packet packet, int connId) {
-        Map<EntityTargetPair, LosEffects> losCache = new HashMap<>();
+        VisibilityMatrix visibility = new VisibilityMatrix(game);
         Entity entity = game.getEntity(packet.getIntValue(0));
         MovePath md = (MovePath) packet.getObject(1);
 
@@ -4773,7 +4908,7 @@ public class Server implements Runnable {
         }
 
         // looks like mostly everything's okay
-        processMovement(entity, md, losCache);
+        processMovement(entity, md, visibility);
 
         // The attacker may choose to break a chain whip grapple by expending MP
         if ((entity.getGrappled() != Entity.NONE)
@@ -4813,7 +4948,7 @@ public class Server implements Runnable {
 
         // Update visibility indications if using double blind.
         if (doBlind()) {
-            updateVisibilityIndicator(losCache);
+            updateVisibilityIndicator(visibility);
         }
 
         // This entity's turn is over.
@@ -6250,16 +6385,16 @@ public class Server implements Runnable {
      *
      * @param entity   The Entity that is moving
      * @param md       The MovePath that defines how the Entity moves
-     * @param losCache A cache that stores Los between various Entities and
-     *                 targets.  In doubleblind games, we may need to compute a
-     *                 lot of LosEffects, so caching them can really speed
-     *                 things up.
+     * @param visibility A cache that stores visibility between the Entities.
+     *                   In doubleblind games, we may need to compute a lot of
+     *                   LosEffects, so caching them can really speed things up.
+     *                   It is only filled once the Entity has moved.
      */
     private void processMovement(Entity entity, MovePath md,
-            Map<EntityTargetPair, LosEffects> losCache) {
+            VisibilityMatrix visibility) {
         // Make sure the cache isn't null
-        if (losCache == null) {
-            losCache = new HashMap<>();
+        if (visibility == null) {
+            visibility = new VisibilityMatrix(game);
         }
         Report r;
         boolean sideslipped = false; // for VTOL sideslipping
@@ -8795,7 +8930,7 @@ public class Server implements Runnable {
         // Update the entitiy's position,
         // unless it is off the game map.
         if (!game.isOutOfGame(entity)) {
-            entityUpdate(entity.getId(), movePath, true, losCache);
+            entityUpdate(entity.getId(), movePath, true, visibility);
             if (entity.isDoomed()) {
                 send(createRemoveEntityPacket(entity.getId(),
                                               entity.getRemovalCondition()));
@@ -8852,7 +8987,7 @@ public class Server implements Runnable {
         // if using double blind, update the player on new units he might see
         if (doBlind()) {
             send(entity.getOwner().getId(),
-                 createFilteredEntitiesPacket(entity.getOwner(), losCache));
+                 createFilteredEntitiesPacket(entity.getOwner(), visibility));
         }
 
         // if we generated a charge attack, report it now
@@ -12502,22 +12637,18 @@ public class Server implements Runnable {
      * can see what in double blind reports.
      */
     private void resolveWhatPlayersCanSeeWhatUnits() {
-        List<ECMInfo> allECMInfo = null;
-        if (game.getOptions().booleanOption("tacops_sensors")) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
-        }
-        Map<EntityTargetPair, LosEffects> losCache = new HashMap<>();
+        VisibilityMatrix visibility = new VisibilityMatrix(game);
+        visibility.computeAll();
         for (Entity entity : game.getEntitiesVector()) {
             // We are hidden once again!
             entity.clearSeenBy();
             entity.clearDetectedBy();
             // Handle visual spotting
-            for (IPlayer p : whoCanSee(entity, false, losCache)) {
+            for (IPlayer p : whoCanSee(entity, false, visibility)) {
                 entity.addBeenSeenBy(p);
             }
             // Handle detection by sensors
-            for (IPlayer p : whoCanDetect(entity, allECMInfo, losCache)) {
+            for (IPlayer p : whoCanDetect(entity, visibility)) {
                     entity.addBeenDetectedBy(p);
             }
         }
@@ -12700,7 +12831,7 @@ public class Server implements Runnable {
         // large craft in space, then check the roll
         // and report it
         if (!game.getBoard().inSpace()
-            || !game.getOptions().booleanOption("stratops_ecm")) {
+            || !game.getOptions().booleanOption(GameOptions.STRATOPS_ECM)) {
             return;
         }
         Report r;
@@ -26754,7 +26885,7 @@ public class Server implements Runnable {
      * the current phase
      */
     private boolean doBlind() {
-        return game.getOptions().booleanOption("double_blind")
+        return game.getOptions().booleanOption(GameOptions.DOUBLE_BLIND)
                && game.getPhase()
                       .isDuringOrAfter(IGame.Phase.PHASE_DEPLOYMENT);
     }
@@ -26776,8 +26907,7 @@ public class Server implements Runnable {
      *                         double-blind games.
      */
     public void entityUpdate(int nEntityID, Vector<UnitLocation> movePath,
-            boolean updateVisibility,
-            Map<EntityTargetPair, LosEffects> losCache) {
+            boolean updateVisibility, VisibilityMatrix visibility) {
         Entity eTarget = game.getEntity(nEntityID);
         if (eTarget == null) {
             if (game.getOutOfGameEntity(nEntityID) != null) {
@@ -26798,7 +26928,7 @@ public class Server implements Runnable {
             Vector<IPlayer> playersVector = game.getPlayersVector();
             Vector<IPlayer> vCanSee;
             if (updateVisibility) {
-                vCanSee = whoCanSee(eTarget, true, losCache);
+                vCanSee = whoCanSee(eTarget, true, visibility);
             } else {
                 vCanSee = eTarget.getWhoCanSee();
             }
@@ -26891,25 +27021,21 @@ public class Server implements Runnable {
      *
      * @param entity     The entity to check visiblity for
      * @param useSensors A flag that determines whether sensors are allowed
+     * @param visibility Cached visibility between Entities.  Can be passed in
+     *                   null.
      * @return A vector of the players who can see the entity
      */
     private Vector<IPlayer> whoCanSee(Entity entity, boolean useSensors,
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
+            VisibilityMatrix visibility) {
+        if (visibility == null) {
+            visibility = new VisibilityMatrix(game);
         }
         // Some times Null entities are sent to this
         if (entity == null) {
             return new Vector<IPlayer>();
         }
 
-        List<ECMInfo> allECMInfo = null;
-        if (game.getOptions().booleanOption("tacops_sensors") && useSensors) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
-        }
-
-        boolean bTeamVision = game.getOptions().booleanOption("team_vision");
+        boolean bTeamVision = game.getOptions().booleanOption(GameOptions.TEAM_VISION);
         List<Entity> vEntities = game.getEntitiesVector();
 
         Vector<IPlayer> vCanSee = new Vector<IPlayer>();
@@ -26937,15 +27063,7 @@ public class Server implements Runnable {
                     || vCanSee.contains(spotter.getOwner())) {
                 continue;
             }
-            // See if the LosEffects is cached, and if not cache it
-            EntityTargetPair etp = new EntityTargetPair(spotter, entity);
-            LosEffects los = losCache.get(etp);
-            if (los == null) {
-                los = LosEffects.calculateLos(game, spotter.getId(), entity);
-                losCache.put(etp, los);
-            }
-            if (Compute.canSee(game, spotter, entity, useSensors, los,
-                    allECMInfo)) {
+            if (visibility.canSee(spotter, entity, useSensors)) {
                 if (!vCanSee.contains(spotter.getOwner())) {
                     vCanSee.addElement(spotter.getOwner());
                 }
@@ -26964,19 +27082,17 @@ public class Server implements Runnable {
      * data can be cached and passed in.
      *
      * @param entity        The Entity being detected.
-     * @param allECMInfo    Cached ECMInfo for all Entities in the game.
-     * @param losCache      Cached LosEffects for particular Entity/Targetable
-     *                      pairs.  Can be passed in null.
+     * @param visibility    Cached ECMInfo and visibility between Entities.
+     *                      Can be passed in null.
      * @return
      */
     private Vector<IPlayer> whoCanDetect(Entity entity,
-            List<ECMInfo> allECMInfo,
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
+            VisibilityMatrix visibility) {
+        if (visibility == null) {
+            visibility = new VisibilityMatrix(game);
         }
 
-        boolean bTeamVision = game.getOptions().booleanOption("team_vision");
+        boolean bTeamVision = game.getOptions().booleanOption(GameOptions.TEAM_VISION);
         List<Entity> vEntities = game.getEntitiesVector();
 
         Vector<IPlayer> vCanDetect = new Vector<IPlayer>();
@@ -26991,14 +27107,7 @@ public class Server implements Runnable {
                     || vCanDetect.contains(spotter.getOwner())) {
                 continue;
             }
-            // See if the LosEffects is cached, and if not cache it
-            EntityTargetPair etp = new EntityTargetPair(spotter, entity);
-            LosEffects los = losCache.get(etp);
-            if (los == null) {
-                los = LosEffects.calculateLos(game, spotter.getId(), entity);
-                losCache.put(etp, los);
-            }
-            if (Compute.inSensorRange(game, los, spotter, entity, allECMInfo)) {
+            if (visibility.inSensorRange(spotter, entity)) {
                 if (!vCanDetect.contains(spotter.getOwner())) {
                     vCanDetect.addElement(spotter.getOwner());
                 }
@@ -27043,52 +27152,79 @@ public class Server implements Runnable {
      * effect, enforce it by filtering the entities
      */
     private void entityAllUpdate() {
-        // If double-blind is in effect, filter each players' list individually,
-        // and then quit out...
+        // Only the entities that changed since the last update are sent; each
+        // entity is fingerprinted once no matter how many players see it.
+        Map<Entity, Long> fingerprints = new IdentityHashMap<Entity, Long>();
+
+        // If double-blind is in effect, each connection is sent the entities
+        // its player can see; every player needs most of the same lines of
+        // sight, so they are worked out once.
+        VisibilityMatrix visibility = null;
         if (doBlind()) {
-            Vector<IPlayer> playersVector = game.getPlayersVector();
-            for (int x = 0; x < playersVector.size(); x++) {
-                IPlayer p = playersVector.elementAt(x);
-                send(p.getId(), createFilteredEntitiesPacket(p, null));
+            visibility = new VisibilityMatrix(game);
+            visibility.computeAll();
+        }
+
+        // The deltas are kept for the connections that actually get them.
+        // Connections that see the same entities and are in sync with each
+        // other get the same packet, which is then only marshalled once.
+        Map<List<List<Integer>>, Packet> packets = new HashMap<List<List<Integer>>, Packet>();
+        Map<Packet, List<IConnection>> recipients = new LinkedHashMap<Packet, List<IConnection>>();
+        for (IConnection conn : new ArrayList<IConnection>(connections)) {
+            List<Entity> entities = game.getEntitiesVector();
+            if (visibility != null) {
+                IPlayer player = game.getPlayer(conn.getId());
+                if (player == null) {
+                    continue;
+                }
+                entities = filterEntities(player, entities, visibility);
             }
-            return;
+            Packet packet = entityDeltas.createDeltaPacket(conn.getId(),
+                    entities, fingerprints);
+            List<Integer> changedIds = new ArrayList<Integer>();
+            for (Object entity : (List<?>) packet.getObject(0)) {
+                changedIds.add(((Entity) entity).getId());
+            }
+            @SuppressWarnings("unchecked")
+            List<Integer> entityIds = (List<Integer>) packet.getObject(1);
+            List<List<Integer>> key = Arrays.asList(changedIds, entityIds);
+            if (packets.containsKey(key)) {
+                packet = packets.get(key);
+            } else {
+                packets.put(key, packet);
+                recipients.put(packet, new ArrayList<IConnection>());
+            }
+            recipients.get(packet).add(conn);
+        }
+        for (Packet packet : recipients.keySet()) {
+            send(recipients.get(packet), packet);
         }
-
-        // Otherwise, send the full list.
-        send(createEntitiesPacket());
     }
 
     /**
      * Filters an entity vector according to LOS
      */
     private List<Entity> filterEntities(IPlayer pViewer,
-            List<Entity> vEntities,
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
+            List<Entity> vEntities, VisibilityMatrix visibility) {
+        if (visibility == null) {
+            visibility = new VisibilityMatrix(game);
         }
         Vector<Entity> vCanSee = new Vector<Entity>();
         Vector<Entity> vMyEntities = new Vector<Entity>();
-        boolean bTeamVision = game.getOptions().booleanOption("team_vision");
+        boolean bTeamVision = game.getOptions().booleanOption(GameOptions.TEAM_VISION);
 
         // If they can see all, return the input list
         if (pViewer.canSeeAll()) {
             return vEntities;
         }
 
-        List<ECMInfo> allECMInfo = null;
-        if (game.getOptions().booleanOption("tacops_sensors")) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
-        }
-
         // If they're an observer, they can see anything seen by any enemy.
         if (pViewer.isObserver()) {
             vMyEntities.addAll(vEntities);
             for (Entity a : vMyEntities) {
                 for (Entity b : vMyEntities) {
                     if (a.isEnemyOf(b)
-                        && Compute.canSee(game, b, a, true, null, allECMInfo)) {
+                        && visibility.canSee(b, a, true)) {
                         addVisibleEntity(vCanSee, a);
                         break;
                     }
@@ -27126,15 +27262,8 @@ public class Server implements Runnable {
                     continue;
                 }
 
-                // See if the LosEffects is cached, and if not cache it
-                EntityTargetPair etp = new EntityTargetPair(spotter, e);
-                LosEffects los = losCache.get(etp);
-                if (los == null) {
-                    los = LosEffects.calculateLos(game, spotter.getId(), e);
-                    losCache.put(etp, los);
-                }
                 // Otherwise, if they can see the entity in question
-                if (Compute.canSee(game, spotter, e, true, los, allECMInfo)) {
+                if (visibility.canSee(spotter, e, true)) {
                     addVisibleEntity(vCanSee, e);
                     break;
                 }
@@ -27320,20 +27449,17 @@ public class Server implements Runnable {
      * Updates entities graphical "visibility indications" which are used in
      * double-blind games.
      *
-     * @param losCache  It can be expensive to have to recompute LoSEffects
-     *                  again and again, so in some cases where this may happen,
-     *                  the LosEffects are cached.   This can safely be null.
+     * @param visibility It can be expensive to have to recompute LoSEffects
+     *                   again and again, so in some cases where this may
+     *                   happen, the visibility is cached.   This can safely be
+     *                   null.
      */
-    private void updateVisibilityIndicator(
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
-        }
-        List<ECMInfo> allECMInfo = null;
-        if (game.getOptions().booleanOption("tacops_sensors")) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
+    private void updateVisibilityIndicator(VisibilityMatrix visibility) {
+        if (visibility == null) {
+            visibility = new VisibilityMatrix(game);
         }
+        // Every pair is going to be looked at
+        visibility.computeAll();
 
         List<Entity> vAllEntities = game.getEntitiesVector();
         for (int x = 0; x < vAllEntities.size(); x++) {
@@ -27345,7 +27471,7 @@ public class Server implements Runnable {
             e.setDetectedByEnemy(false);
             e.clearSeenBy();
             e.clearDetectedBy();
-            Vector<IPlayer> vCanSee = whoCanSee(e, false, losCache);
+            Vector<IPlayer> vCanSee = whoCanSee(e, false, visibility);
             // Who can See this unit?
             for (IPlayer p : vCanSee) {
                 if (e.getOwner().isEnemyOf(p) && !p.isObserver()) {
@@ -27357,7 +27483,7 @@ public class Server implements Runnable {
                 e.addBeenSeenBy(p);
             }
             // Who can Detect this unit?
-            Vector<IPlayer> vCanDetect = whoCanDetect(e, allECMInfo, losCache);
+            Vector<IPlayer> vCanDetect = whoCanDetect(e, visibility);
             for (IPlayer p : vCanDetect) {
                 if (e.getOwner().isEnemyOf(p) && !p.isObserver()) {
                     e.setDetectedByEnemy(true);
@@ -27369,7 +27495,8 @@ public class Server implements Runnable {
             // possible that the enemy's client doesn't know about the unit
             if ((!previousVisibleValue && e.isVisibleToEnemy())
                 || (!previousDetectedValue && e.isDetectedByEnemy())) {
-                entityUpdate(e.getId(), new Vector<UnitLocation>(), false, losCache);
+                entityUpdate(e.getId(), new Vector<UnitLocation>(), false,
+                        visibility);
             } else if ((previousVisibleValue != e.isVisibleToEnemy())
                        || (previousSeenValue != e.isEverSeenByEnemy())
                        || (previousDetectedValue != e.isDetectedByEnemy())) {
@@ -28101,12 +28228,15 @@ public class Server implements Runnable {
         }
 
         // Set proper RNG
-        Compute.setRNG(game.getOptions().intOption("rng_type"));
+        setRNG();
 
         if (changed > 0) {
             for (Entity en : game.getEntitiesVector()) {
                 en.setGameOptions();
             }
+            // The options were changed in place, so tell anything that
+            // worked something out from them
+            game.processGameEvent(new GameSettingsChangeEvent(this));
             entityAllUpdate();
             return true;
         }
@@ -28341,9 +28471,9 @@ public class Server implements Runnable {
      * game
      */
     private Packet createFilteredEntitiesPacket(IPlayer p,
-            Map<EntityTargetPair, LosEffects> losCache) {
+            VisibilityMatrix visibility) {
         return new Packet(Packet.COMMAND_SENDING_ENTITIES, filterEntities(p,
-                game.getEntitiesVector(), losCache));
+                game.getEntitiesVector(), visibility));
     }
 
     /**
@@ -28634,16 +28764,44 @@ public class Server implements Runnable {
     }
 
     /**
-     * Send a packet to all connected clients.
+     * Send a packet to all connected clients. The packet is marshalled once
+     * for each distinct connection encoding (normally just one) and the same
+     * bytes are queued on every connection.
      */
     private void send(Packet packet) {
         if (connections == null) {
             return;
         }
-        for (Enumeration<IConnection> connEnum = connections.elements(); connEnum
-                .hasMoreElements(); ) {
-            IConnection conn = connEnum.nextElement();
-            conn.send(packet);
+        send(connections, packet);
+    }
+
+    /**
+     * Send a packet to the given connections, marshalling it once for each
+     * distinct connection encoding.
+     */
+    private void send(List<IConnection> targets, Packet packet) {
+        List<IConnection> recipients = new ArrayList<IConnection>(targets);
+        List<Integer> connIds = new ArrayList<Integer>(recipients.size());
+        for (IConnection conn : recipients) {
+            connIds.add(conn.getId());
+        }
+        entityDeltas.packetSent(connIds, packet);
+        List<SendPacket> encoded = new ArrayList<SendPacket>(1);
+        for (IConnection conn : recipients) {
+            SendPacket sendPacket = null;
+            for (SendPacket sp : encoded) {
+                if (sp.isEncodedFor(conn.getMarshallingType(),
+                                    conn.isCompressed())) {
+                    sendPacket = sp;
+                    break;
+                }
+            }
+            if (sendPacket == null) {
+                sendPacket = new SendPacket(packet, conn.getMarshallingType(),
+                                            conn.isCompressed());
+                encoded.add(sendPacket);
+            }
+            conn.send(sendPacket);
         }
     }
 
@@ -28686,6 +28844,7 @@ public class Server implements Runnable {
      */
     public void send(int connId, Packet packet) {
         if (getClient(connId) != null) {
+            entityDeltas.packetSent(Collections.singletonList(connId), packet);
             getClient(connId).send(packet);
         } else {
             // What should we do if we've lost this client?
@@ -29011,6 +29170,7 @@ public class Server implements Runnable {
      */
     public void run() {
         Thread currentThread = Thread.currentThread();
+        activeServer.set(this);
         System.out.println("s: listening for clients...");
         // HashSet<IConnection> toUpdate = new HashSet<IConnection>();
         while (connector == currentThread) {
@@ -29026,10 +29186,13 @@ public class Server implements Runnable {
                     c.addConnectionListener(connectionListener);
                     c.open();
                     connectionsPending.addElement(c);
-                    ConnectionHandler ch = new ConnectionHandler(c);
-                    Thread newConnThread = new Thread(ch, "Connection " + id);
-                    newConnThread.start();
-                    connectionHandlers.put(id, ch);
+                    if (!useSelector) {
+                        ConnectionHandler ch = new ConnectionHandler(c);
+                        Thread newConnThread = new Thread(ch, "Connection "
+                                + id);
+                        newConnThread.start();
+                        connectionHandlers.put(id, ch);
+                    }
 
                     greeting(id);
                     ConnectionWatchdog w = new ConnectionWatchdog(this, id);
@@ -32898,10 +33061,80 @@ public class Server implements Runnable {
     }
 
     /**
-     * @return
+     * Sets the RNG of this game from the game options. A new RNG is only
+     * generated if the type or seed changed; turning the journal on or off
+     * keeps the RNG where it is, so a journal started mid-game records the
+     * rolls from then on. A splittable RNG without a seed gets a new one,
+     * which is announced so that the game can be played again with the same
+     * rolls.
+     */
+    private void setRNG() {
+        int type = game.getOptions().intOption("rng_type");
+        int seed = game.getOptions().intOption("rng_seed");
+        boolean journal = game.getOptions().booleanOption("rng_journal");
+        if ((random == null) || (type != rngType) || (seed != rngSeed)) {
+            rngType = type;
+            rngSeed = seed;
+            rngActualSeed = seed;
+            if ((type == MMRandom.R_SPLITTABLE) && (seed == 0)) {
+                while (rngActualSeed == 0) {
+                    rngActualSeed = new SecureRandom().nextInt();
+                }
+                sendServerChat("The random seed of this game is "
+                               + rngActualSeed + ".");
+            }
+            random = MMRandom.generate(type, rngActualSeed);
+        } else if (journal == (random.getJournal() != null)) {
+            return;
+        }
+        if (!journal) {
+            random.setJournal(null);
+        } else if (random.getJournal() == null) {
+            random.setJournal(new RollJournal(type, rngActualSeed));
+        }
+    }
+
+    /**
+     * @return the RNG of this game, or <code>null</code> if it uses the
+     *         shared one
+     */
+    public MMRandom getRNG() {
+        return random;
+    }
+
+    /**
+     * Returns the server whose code the current thread is running.
+     *
+     * @return the server, or <code>null</code> if the thread doesn't belong
+     *         to a server, such as a client's or a bot's thread
      */
     public static Server getServerInstance() {
-        return serverInstance;
+        return activeServer.get();
+    }
+
+    /**
+     * Makes this the server of the current thread, for server code that runs
+     * on a thread this server doesn't own.
+     *
+     * @return the server the thread had before, to be given back with
+     *         {@link #leave(Server)}
+     */
+    Server enter() {
+        Server previous = activeServer.get();
+        activeServer.set(this);
+        return previous;
+    }
+
+    /**
+     * Gives the current thread back the server it had before
+     * {@link #enter()}.
+     */
+    static void leave(Server previous) {
+        if (previous == null) {
+            activeServer.remove();
+        } else {
+            activeServer.set(previous);
+        }
     }
 
     /**
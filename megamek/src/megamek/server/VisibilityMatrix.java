@@ -0,0 +1,258 @@
+/*
+ * MegaMek - Copyright (C) 2000-2005 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import megamek.common.Compute;
+import megamek.common.ComputeECM;
+import megamek.common.ECMInfo;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.LosEffects;
+import megamek.common.options.GameOptions;
+
+/**
+ * Caches line of sight and visibility between every pair of entities in the
+ * game, along with a single snapshot of the ECM fields, for use by the
+ * double-blind code. Entries are computed on demand; when most pairs are going
+ * to be needed anyway (filtering entities for every player, working out who
+ * can see what) {@link #computeAll()} computes them on all available cores.
+ * <p>
+ * The cache reflects the game at the time it was filled, so an instance must
+ * only be used while entity positions and states do not change.
+ */
+class VisibilityMatrix {
+
+    private static final byte COMPUTED = 1;
+    private static final byte VISUAL = 2;
+    private static final byte SENSOR = 4;
+
+    private static final int THREADS = Runtime.getRuntime()
+            .availableProcessors();
+
+    /**
+     * Shared by all games on this server; the threads are daemons so they
+     * never keep the JVM alive.
+     */
+    private static final ExecutorService executor = Executors
+            .newFixedThreadPool(THREADS, new ThreadFactory() {
+                private int count = 0;
+
+                public synchronized Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "Visibility " + (++count));
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    private final IGame game;
+
+    private final List<Entity> entities;
+
+    private final Map<Integer, Integer> indexes = new HashMap<Integer, Integer>();
+
+    private final LosEffects[] los;
+
+    private final byte[] state;
+
+    private final boolean useECM;
+
+    private List<ECMInfo> allECMInfo;
+
+    VisibilityMatrix(IGame game) {
+        this.game = game;
+        entities = new ArrayList<Entity>(game.getEntitiesVector());
+        for (int i = 0; i < entities.size(); i++) {
+            indexes.put(entities.get(i).getId(), i);
+        }
+        los = new LosEffects[entities.size() * entities.size()];
+        state = new byte[entities.size() * entities.size()];
+        useECM = game.getOptions().booleanOption(GameOptions.TACOPS_SENSORS);
+    }
+
+    /**
+     * Returns the ECM information for all entities, or <code>null</code> if
+     * sensors are not in use. It is computed once per matrix.
+     */
+    synchronized List<ECMInfo> getECMInfo() {
+        if (useECM && (allECMInfo == null)) {
+            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(entities);
+        }
+        return allECMInfo;
+    }
+
+    /**
+     * Returns the line of sight from the spotter to the target.
+     */
+    LosEffects getLos(Entity spotter, Entity target) {
+        int index = indexOf(spotter, target);
+        if (index < 0) {
+            return LosEffects.calculateLos(game, spotter.getId(), target);
+        }
+        compute(index, spotter, target);
+        return los[index];
+    }
+
+    /**
+     * Equivalent to
+     * {@link Compute#canSee(IGame, Entity, megamek.common.Targetable, boolean, LosEffects, List)}
+     * with this matrix' line of sight and ECM information.
+     */
+    boolean canSee(Entity spotter, Entity target, boolean useSensors) {
+        if (!spotter.getCrew().isActive() || target.isOffBoard()) {
+            return false;
+        }
+        int index = indexOf(spotter, target);
+        if (index < 0) {
+            return Compute.canSee(game, spotter, target, useSensors, null,
+                    getECMInfo());
+        }
+        compute(index, spotter, target);
+        return ((state[index] & VISUAL) != 0)
+                || (useSensors && ((state[index] & SENSOR) != 0));
+    }
+
+    /**
+     * Equivalent to
+     * {@link Compute#inSensorRange(IGame, LosEffects, Entity, megamek.common.Targetable, List)}
+     * with this matrix' line of sight and ECM information.
+     */
+    boolean inSensorRange(Entity spotter, Entity target) {
+        int index = indexOf(spotter, target);
+        if (index < 0) {
+            return Compute.inSensorRange(game, null, spotter, target,
+                    getECMInfo());
+        }
+        compute(index, spotter, target);
+        return (state[index] & SENSOR) != 0;
+    }
+
+    /**
+     * Computes the line of sight and visibility for every pair of deployed,
+     * on-board entities, spreading the spotters over all cores. Other pairs
+     * are still computed on demand.
+     */
+    void computeAll() {
+        final int size = entities.size();
+        if (size == 0) {
+            return;
+        }
+        // Compute the shared data up front rather than inside the workers
+        getECMInfo();
+
+        // The workers run the game code of this thread's server
+        final Server server = Server.getServerInstance();
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        int chunk = Math.max(1, (size + THREADS - 1) / THREADS);
+        for (int start = 0; start < size; start += chunk) {
+            final int first = start;
+            final int last = Math.min(size, start + chunk);
+            tasks.add(new Callable<Void>() {
+                public Void call() {
+                    Server previous = (server != null) ? server.enter()
+                            : null;
+                    try {
+                        computeSpotters(first, last);
+                    } finally {
+                        if (server != null) {
+                            Server.leave(previous);
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Whatever is left is computed on demand
+            e.getCause().printStackTrace();
+        }
+    }
+
+    /**
+     * Computes every pair of on-board entities whose spotter's index is from
+     * the first up to, but not including, the last.
+     */
+    private void computeSpotters(int first, int last) {
+        int size = entities.size();
+        for (int s = first; s < last; s++) {
+            Entity spotter = entities.get(s);
+            if (!isOnBoard(spotter)) {
+                continue;
+            }
+            for (int t = 0; t < size; t++) {
+                Entity target = entities.get(t);
+                if (isOnBoard(target)) {
+                    compute((s * size) + t, spotter, target);
+                }
+            }
+        }
+    }
+
+    private static boolean isOnBoard(Entity entity) {
+        return (entity.getPosition() != null) && !entity.isOffBoard();
+    }
+
+    private int indexOf(Entity spotter, Entity target) {
+        Integer s = indexes.get(spotter.getId());
+        Integer t = indexes.get(target.getId());
+        if ((s == null) || (t == null) || (entities.get(s) != spotter)
+                || (entities.get(t) != target)) {
+            return -1;
+        }
+        return (s * entities.size()) + t;
+    }
+
+    /**
+     * Fills in the given entry if that hasn't happened yet. Each entry is only
+     * ever written by one thread: {@link #computeAll()} splits the entries
+     * between its workers and waits for them before returning.
+     */
+    private void compute(int index, Entity spotter, Entity target) {
+        if (state[index] != 0) {
+            return;
+        }
+        LosEffects effects = LosEffects.calculateLos(game, spotter.getId(),
+                target);
+        byte result = COMPUTED;
+        if (effects.canSee()
+                && Compute.inVisualRange(game, effects, spotter, target)) {
+            result |= VISUAL;
+        }
+        List<ECMInfo> ecm = allECMInfo;
+        if (useECM && (ecm == null)) {
+            ecm = getECMInfo();
+        }
+        if (Compute.inSensorRange(game, effects, spotter, target, ecm)) {
+            result |= SENSOR;
+        }
+        los[index] = effects;
+        state[index] = result;
+    }
+}
@@ -71,7 +71,7 @@ public class KickCommand extends ServerCommand {
                         + server.getPlayer(kickedId).getName() + ")...");
                 
                 server.send(kickedId, new Packet(Packet.COMMAND_CLOSE_CONNECTION));
-                server.getConnection(kickedId).close();
+                server.getConnection(kickedId).closeWhenSent();
 
             } catch (ArrayIndexOutOfBoundsException ex) {
                 server
@@ -22,6 +22,7 @@ package megamek.server.commands;
 
 import java.io.File;
 
+import megamek.common.options.GameOptions;
 import megamek.server.Server;
 
 /**
@@ -42,7 +43,7 @@ public class LocalSaveGameCommand extends ServerCommand {
      */
     @Override
     public void run(int connId, String[] args) {
-        if (server.getGame().getOptions().booleanOption("double_blind") &&
+        if (server.getGame().getOptions().booleanOption(GameOptions.DOUBLE_BLIND) &&
                 server.getGame().getOptions().booleanOption("disable_local_save")) {
             server
                     .sendServerChat("Local Save only outside double blind games.");
@@ -20,6 +20,7 @@
 
 package megamek.server.commands;
 
+import megamek.common.options.GameOptions;
 import megamek.server.Server;
 
 /**
@@ -44,7 +45,7 @@ public class SeeAllCommand extends ServerCommand {
     @Override
     public void run(int connId, String[] args) {
         boolean doBlind = server.getGame().getOptions().booleanOption(
-                "double_blind");
+                GameOptions.DOUBLE_BLIND);
 
         int playerArg = server.isPassworded() ? 2 : 1;
 
@@ -44,7 +44,7 @@ public class WhoCommand extends ServerCommand {
         server.sendServerChat(connId, "Listing all connections...");
         server
                 .sendServerChat(connId,
-                        "[id#] : [name], [address], [pending], [bytes sent], [bytes received]");
+                        "[id#] : [name], [address], [pending], [queued packets/max/bytes], [coalesced], [bytes sent], [bytes received]");
         for (Enumeration<IConnection> i = server.getConnections(); i.hasMoreElements();) {
             IConnection conn = i.nextElement();
             StringBuffer cb = new StringBuffer();
@@ -52,6 +52,10 @@ public class WhoCommand extends ServerCommand {
             cb.append(server.getPlayer(conn.getId()).getName()).append(", ");
             cb.append(conn.getInetAddress());
             cb.append(", ").append(conn.hasPending()).append(", ");
+            cb.append(conn.getSendQueueDepth()).append('/');
+            cb.append(conn.getMaxSendQueueDepth()).append('/');
+            cb.append(conn.getSendQueueBytes()).append(", ");
+            cb.append(conn.getCoalescedCount()).append(", ");
             cb.append(conn.bytesSent());
             cb.append(", ").append(conn.bytesReceived());
             server.sendServerChat(connId, cb.toString());
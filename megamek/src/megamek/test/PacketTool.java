@@ -428,6 +428,9 @@ public class PacketTool extends Frame implements Runnable {
                 case Packet.COMMAND_SENDING_ENTITIES:
                     System.out.print("COMMAND_SENDING_ENTITIES");
                     break;
+                case Packet.COMMAND_SENDING_ENTITY_DELTA:
+                    System.out.print("COMMAND_SENDING_ENTITY_DELTA");
+                    break;
                 case Packet.COMMAND_SENDING_PLAYERS:
                     System.out.print("COMMAND_SENDING_PLAYERS");
                     break;
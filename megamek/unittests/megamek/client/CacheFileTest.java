@@ -0,0 +1,121 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CacheFileTest {
+
+    private static final int MAGIC = 0x54455354; // "TEST"
+
+    private static byte[] compile(long fingerprint, String... strings) throws IOException {
+        CacheFile.Strings table = new CacheFile.Strings();
+        for (String s : strings) {
+            table.add(s);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        table.writeHeader(out, MAGIC, 1, fingerprint);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static CacheFile read(ByteBuffer buffer) throws IOException {
+        return new CacheFile(buffer, MAGIC, 1) {
+        };
+    }
+
+    private static void assertCorrupt(byte[] data) {
+        try {
+            read(ByteBuffer.wrap(data));
+            Assert.fail("Corrupt cache file was read");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStringsAreStoredOnce() throws Exception {
+        CacheFile.Strings strings = new CacheFile.Strings();
+        strings.add("Atlas");
+        strings.add("Wasp");
+        strings.add("Atlas");
+        Assert.assertEquals(0, strings.indexOf("Atlas"));
+        Assert.assertEquals(1, strings.indexOf("Wasp"));
+
+        ByteBuffer buffer = ByteBuffer.wrap(compile(42, "Atlas", "Wasp", "Atlas", "\u00d1ame"));
+        CacheFile cache = read(buffer);
+        Assert.assertEquals(42, cache.getFingerprint());
+        Assert.assertArrayEquals(new String[] { "Atlas", "Wasp", "\u00d1ame" }, cache.strings);
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(2, cache.checkString(2));
+        try {
+            cache.checkString(3);
+            Assert.fail("Missing string was accepted");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRejectsCorruptHeaders() throws Exception {
+        byte[] data = compile(42, "Atlas");
+
+        assertCorrupt(Arrays.copyOf(data, data.length - 1));
+
+        byte[] badMagic = data.clone();
+        ByteBuffer.wrap(badMagic).putInt(0, 0);
+        assertCorrupt(badMagic);
+
+        byte[] badVersion = data.clone();
+        ByteBuffer.wrap(badVersion).putInt(4, 2);
+        assertCorrupt(badVersion);
+
+        byte[] badStringCount = data.clone();
+        ByteBuffer.wrap(badStringCount).putInt(16, Integer.MAX_VALUE);
+        assertCorrupt(badStringCount);
+
+        byte[] badStringLength = data.clone();
+        ByteBuffer.wrap(badStringLength).putInt(20, -1);
+        assertCorrupt(badStringLength);
+    }
+
+    @Test
+    public void testSaveReplacesFile() throws Exception {
+        File file = File.createTempFile("test", ".cache");
+        try {
+            CacheFile.save(file, compile(1));
+            CacheFile.save(file, compile(2));
+            Assert.assertEquals(2, read(CacheFile.readFile(file)).getFingerprint());
+            File[] left = file.getParentFile().listFiles();
+            for (File other : (left == null) ? new File[0] : left) {
+                Assert.assertFalse(other.getName().startsWith(file.getName())
+                                   && other.getName().endsWith(".tmp"));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class NameTableTest {
+
+    @Test
+    public void testRollsFallOnWeightedNames() {
+        NameTable names = new NameTable(1);
+        names.add("Adams", 3);
+        names.add("Nobody", 0);
+        names.add("Baker", 1);
+        names.add("Clark", 2);
+        names.trim();
+
+        Assert.assertEquals(3, names.size());
+        Assert.assertEquals(6, names.getTotalWeight());
+        Assert.assertEquals(1, names.getWeight(1));
+        String[] expected = { "Adams", "Adams", "Adams", "Baker", "Clark", "Clark" };
+        for (int roll = 0; roll < expected.length; roll++) {
+            Assert.assertEquals(expected[roll], names.get(roll));
+        }
+    }
+
+    @Test
+    public void testEmptyTable() {
+        NameTable names = new NameTable();
+        names.add("Nobody", 0);
+        Assert.assertEquals(0, names.getTotalWeight());
+        Assert.assertNull(names.pick());
+    }
+
+    @Test
+    public void testCompileAndRead() throws Exception {
+        Map<String, NameTable> firstm = new HashMap<String, NameTable>();
+        firstm.put("1", table("John", 5, "Adam", 2));
+        Map<String, NameTable> firstf = new HashMap<String, NameTable>();
+        firstf.put("1", table("Mary", 4));
+        Map<String, NameTable> last = new HashMap<String, NameTable>();
+        last.put("1", table("Adams", 725));
+        last.put("2", table("Kurita", 10, "Adams", 1));
+        Map<String, NameTable> factionLast = new HashMap<String, NameTable>();
+        factionLast.put("DC", table("1", 10, "2", 40));
+        Map<String, Map<String, NameTable>> factionFirst = new HashMap<String, Map<String, NameTable>>();
+        Map<String, NameTable> dcFirst = new HashMap<String, NameTable>();
+        dcFirst.put("2", table("1", 1, "2", 100));
+        factionFirst.put("DC", dcFirst);
+
+        NameCacheFile cache = NameCacheFile.read(NameCacheFile.compile(42, firstm,
+                firstf, last, factionLast, factionFirst));
+        Assert.assertEquals(42, cache.getFingerprint());
+        assertTable(cache.firstm.get("1"), "John", 5, "Adam", 2);
+        assertTable(cache.firstf.get("1"), "Mary", 4);
+        assertTable(cache.last.get("2"), "Kurita", 10, "Adams", 1);
+        // Strings are only stored once
+        Assert.assertSame(cache.last.get("1").getName(0), cache.last.get("2").getName(1));
+        assertTable(cache.factionLast.get("DC"), "1", 10, "2", 40);
+        assertTable(cache.factionFirst.get("DC").get("2"), "1", 1, "2", 100);
+        Assert.assertNull(cache.factionFirst.get("DC").get("1"));
+    }
+
+    private static NameTable table(Object... entries) {
+        NameTable names = new NameTable();
+        for (int i = 0; i < entries.length; i += 2) {
+            names.add((String) entries[i], (Integer) entries[i + 1]);
+        }
+        return names;
+    }
+
+    private static void assertTable(NameTable names, Object... entries) {
+        Assert.assertEquals(entries.length / 2, names.size());
+        for (int i = 0; i < entries.length; i += 2) {
+            Assert.assertEquals(entries[i], names.getName(i / 2));
+            Assert.assertEquals(entries[i + 1], names.getWeight(i / 2));
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.junit.runners.JUnit4;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
 
 /**
@@ -97,6 +98,9 @@ public class RandomUnitGeneratorTest {
         MechSummary mockMech8 = Mockito.mock(MechSummary.class);
         Mockito.doReturn(mockMech8).when(testRug).getMechByName(M8);
 
+        // The random number picks one of four equal columns of the alias
+        // table, each holding its own unit and the rest of a heavier one:
+        // Mech 1 and Mech 2, Mech 2, Mech 3, and the other RAT and Mech 3.
         ArrayList<MechSummary> expected = new ArrayList<>(1);
         expected.add(mockMech1);
         Mockito.doReturn(0.1).when(testRug).getRandom();
@@ -104,7 +108,7 @@ public class RandomUnitGeneratorTest {
 
         expected = new ArrayList<>(1);
         expected.add(mockMech2);
-        Mockito.doReturn(0.5).when(testRug).getRandom();
+        Mockito.doReturn(0.3).when(testRug).getRandom();
         Assert.assertEquals(expected, testRug.generate(1, "mockRat"));
 
         expected = new ArrayList<>(1);
@@ -114,8 +118,49 @@ public class RandomUnitGeneratorTest {
 
         expected = new ArrayList<>(1);
         expected.add(mockMech8);
-        Mockito.doReturn(0.99).when(testRug).getRandom();
+        Mockito.doReturn(0.8).when(testRug).getRandom();
         Assert.assertEquals(expected, testRug.generate(1, "mockRat"));
     }
 
+    @Test
+    public void testRatsFromCache() throws Exception {
+        List<RatCacheFile.Table> tables = new ArrayList<>();
+        RatCacheFile.Table heavy = new RatCacheFile.Table("Heavy");
+        heavy.names.add("Atlas AS7-D");
+        heavy.weights.add(1);
+        tables.add(heavy);
+        RatCacheFile.Table missing = new RatCacheFile.Table("Missing");
+        missing.names.add("No Such Mech");
+        missing.weights.add(1);
+        tables.add(missing);
+        RandomUnitGenerator.RatTreeNode tree = new RandomUnitGenerator.RatTreeNode("Random Assignment Tables");
+        RandomUnitGenerator.RatTreeNode era = new RandomUnitGenerator.RatTreeNode("3025");
+        era.children.add(new RandomUnitGenerator.RatTreeNode("Heavy"));
+        tree.children.add(era);
+        RandomUnitGenerator.RatTreeNode other = new RandomUnitGenerator.RatTreeNode("3050");
+        other.children.add(new RandomUnitGenerator.RatTreeNode("Missing"));
+        tree.children.add(other);
+
+        RandomUnitGenerator testRug = Mockito.spy(new RandomUnitGenerator());
+        testRug.initRats();
+        MechSummary atlas = Mockito.mock(MechSummary.class);
+        Mockito.doReturn(atlas).when(testRug).getMechByName("Atlas AS7-D");
+        Mockito.doReturn(null).when(testRug).getMechByName("No Such Mech");
+        testRug.loadRatsFromCache(RatCacheFile.read(RatCacheFile.compile(42, tables, tree)));
+
+        // A RAT none of whose units exist is left out, as is its category
+        Assert.assertTrue(testRug.getRatMap().containsKey("Heavy"));
+        Assert.assertFalse(testRug.getRatMap().containsKey("Missing"));
+        Assert.assertEquals(1, testRug.getRatTree().children.size());
+        Assert.assertEquals("3025", testRug.getRatTree().children.get(0).name);
+
+        Mockito.doReturn(0.5).when(testRug).getRandom();
+        Assert.assertSame(atlas, testRug.generate(1, "Heavy").get(0));
+
+        // Units are looked up again when rolled, so a reloaded unit cache
+        // gives its own units
+        MechSummary reloaded = Mockito.mock(MechSummary.class);
+        Mockito.doReturn(reloaded).when(testRug).getMechByName("Atlas AS7-D");
+        Assert.assertSame(reloaded, testRug.generate(1, "Heavy").get(0));
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RatCacheFileTest {
+
+    private static RatCacheFile.Table table(String key, Object... entries) {
+        RatCacheFile.Table table = new RatCacheFile.Table(key);
+        for (int i = 0; i < entries.length; i += 2) {
+            table.names.add((String) entries[i]);
+            table.weights.add((Integer) entries[i + 1]);
+        }
+        return table;
+    }
+
+    private static byte[] compileHeavy(long fingerprint) throws IOException {
+        List<RatCacheFile.Table> tables = new ArrayList<>();
+        tables.add(table("Heavy", "Atlas AS7-D", 3, "@Heavy", 1));
+        return RatCacheFile.compile(fingerprint, tables, new RandomUnitGenerator.RatTreeNode("Heavy"));
+    }
+
+    private static void assertCorrupt(byte[] data) {
+        try {
+            RatCacheFile.read(data);
+            Assert.fail("Corrupt RAT cache file was read");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCompileAndRead() throws Exception {
+        List<RatCacheFile.Table> tables = new ArrayList<>();
+        tables.add(table("Heavy", "Atlas AS7-D", 3, "@Light", 1, "@Missing", 2));
+        tables.add(table("Light", "Locust LCT-1V", 5));
+        // A later RAT with the same name is the one referred to
+        tables.add(table("Light", "Wasp WSP-1A", 4));
+
+        RandomUnitGenerator.RatTreeNode tree = new RandomUnitGenerator.RatTreeNode("Random Assignment Tables");
+        RandomUnitGenerator.RatTreeNode era = new RandomUnitGenerator.RatTreeNode("3025");
+        era.children.add(new RandomUnitGenerator.RatTreeNode("Heavy"));
+        tree.children.add(era);
+
+        RatCacheFile cache = RatCacheFile.read(RatCacheFile.compile(42, tables, tree));
+        Assert.assertEquals(42, cache.getFingerprint());
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals("Heavy", cache.getKey(0));
+        Assert.assertEquals("Light", cache.getKey(2));
+
+        RatCacheFile.Entries heavy = cache.getEntries(0);
+        Assert.assertArrayEquals(new String[] { "Atlas AS7-D", "@Light", "@Missing" }, heavy.names);
+        Assert.assertArrayEquals(new int[] { -1, 2, -1 }, heavy.references);
+        Assert.assertArrayEquals(new int[] { 3, 1, 2 }, heavy.weights);
+        Assert.assertArrayEquals(new String[] { "Wasp WSP-1A" }, cache.getEntries(2).names);
+
+        RandomUnitGenerator.RatTreeNode read = cache.getTree();
+        Assert.assertEquals("Random Assignment Tables", read.name);
+        Assert.assertEquals("3025", read.children.get(0).name);
+        Assert.assertEquals("Heavy", read.children.get(0).children.get(0).name);
+    }
+
+    @Test
+    public void testRejectsCorruptFiles() throws Exception {
+        byte[] data = compileHeavy(42);
+        // The strings "Heavy", "Atlas AS7-D" and "@Heavy", the RAT record, the
+        // tree and the two entries
+        int pool = data.length - (2 * 12);
+        int tree = pool - 8;
+        int record = tree - 12;
+
+        assertCorrupt(Arrays.copyOf(data, data.length - 1));
+        assertCorrupt(Arrays.copyOf(data, data.length + 12));
+
+        byte[] badString = data.clone();
+        ByteBuffer.wrap(badString).putInt(pool + 12, 3);
+        assertCorrupt(badString);
+
+        byte[] badReference = data.clone();
+        ByteBuffer.wrap(badReference).putInt(pool + 16, 1);
+        assertCorrupt(badReference);
+
+        byte[] badRecord = data.clone();
+        ByteBuffer.wrap(badRecord).putInt(record + 8, 3);
+        assertCorrupt(badRecord);
+
+        byte[] badTree = data.clone();
+        ByteBuffer.wrap(badTree).putInt(tree + 4, Integer.MAX_VALUE);
+        assertCorrupt(badTree);
+
+        // The file the copies were made from is fine
+        Assert.assertEquals(2, RatCacheFile.read(data).getEntries(0).names.length);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.ga;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GATest {
+
+    private static class SumGA extends GA {
+        private final boolean threadSafe;
+
+        SumGA(int populationDim, boolean threadSafe) {
+            super(5, populationDim, .7, .05, 10, .4);
+            this.threadSafe = threadSafe;
+        }
+
+        @Override
+        protected void initPopulation() {
+            for (int i = 0; i < populationDim; i++) {
+                for (int iGene = 0; iGene < chromosomeDim; iGene++) {
+                    chromosomes[i].genes[iGene] = ((i * 7) + (iGene * 13)) % 11;
+                }
+            }
+        }
+
+        @Override
+        protected void doRandomMutation(int index) {
+            chromosomes[index].genes[0] = getRandom(11);
+        }
+
+        @Override
+        protected double getFitness(int index) {
+            double fitness = 0;
+            for (int gene : chromosomes[index].genes) {
+                fitness += gene;
+            }
+            return fitness;
+        }
+
+        @Override
+        protected boolean isFitnessThreadSafe() {
+            return threadSafe;
+        }
+    }
+
+    @Test
+    public void testParallelRankingMatchesSerial() {
+        SumGA serial = new SumGA(500, false);
+        SumGA parallel = new SumGA(500, true);
+        serial.initPopulation();
+        parallel.initPopulation();
+        serial.computeFitnessRankings();
+        parallel.computeFitnessRankings();
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals(serial.chromosomes[i].fitness, parallel.chromosomes[i].fitness, 0);
+            Assert.assertArrayEquals(serial.chromosomes[i].genes, parallel.chromosomes[i].genes);
+            if (i > 0) {
+                Assert.assertTrue(parallel.chromosomes[i - 1].fitness <= parallel.chromosomes[i].fitness);
+            }
+        }
+    }
+}
@@ -44,6 +44,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
@@ -52,6 +54,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Deric "Netzilla" Page (deric dot page at usa dot net)
@@ -1005,6 +1011,123 @@ public class BasicPathRankerTest {
                .findClosestEnemy(Mockito.eq(mockMover), Mockito.any(Coords.class), Mockito.any(IGame.class));
     }
 
+    @Test
+    public void testRankPathOnSeveralThreads() throws Exception {
+        // A real FireControl, so the twists are guessed for real; only the plans themselves are made up, worth
+        // more the further the guessed state is twisted to the right.
+        FireControl testFireControl = Mockito.spy(new FireControl(mockPrincess));
+        Answer<FiringPlan> planByTwist = new Answer<FiringPlan>() {
+            @Override
+            public FiringPlan answer(InvocationOnMock invocation) {
+                EntityState shooterState = (EntityState) invocation.getArguments()[1];
+                int facing = (shooterState == null) ? ((Entity) invocation.getArguments()[0]).getSecondaryFacing()
+                                                    : shooterState.getSecondaryFacing();
+                FiringPlan plan = new FiringPlan((Targetable) invocation.getArguments()[2]);
+                plan.setUtility((facing + 1) * 2.5);
+                return plan;
+            }
+        };
+        Mockito.doAnswer(planByTwist)
+               .when(testFireControl)
+               .guessBestFiringPlan(Mockito.any(Entity.class), Mockito.any(EntityState.class),
+                                    Mockito.any(Targetable.class), Mockito.any(EntityState.class),
+                                    Mockito.any(IGame.class));
+        Mockito.doAnswer(planByTwist)
+               .when(testFireControl)
+               .guessBestFiringPlanUnderHeat(Mockito.any(Entity.class), Mockito.any(EntityState.class),
+                                             Mockito.any(Targetable.class), Mockito.any(EntityState.class),
+                                             Mockito.anyInt(), Mockito.any(IGame.class));
+        Mockito.when(mockPrincess.getFireControl()).thenReturn(testFireControl);
+
+        final BasicPathRanker testRanker = Mockito.spy(new BasicPathRanker(mockPrincess));
+        testRanker.setFireControl(testFireControl);
+        Mockito.doReturn(1.0)
+               .when(testRanker)
+               .getMovePathSuccessProbability(Mockito.any(MovePath.class), Mockito.any(StringBuilder.class));
+        Mockito.doReturn(12.0)
+               .when(testRanker)
+               .distanceToClosestEnemy(Mockito.any(Entity.class), Mockito.any(Coords.class), Mockito.any(IGame.class));
+        Mockito.doReturn(0.0)
+               .when(testRanker)
+               .checkPathForHazards(Mockito.any(MovePath.class), Mockito.any(Entity.class), Mockito.any(IGame.class));
+        LosEffects mockLosEffects = Mockito.mock(LosEffects.class);
+        Mockito.when(mockLosEffects.canSee()).thenReturn(true);
+        Mockito.doReturn(mockLosEffects)
+               .when(testRanker)
+               .calcLosEffects(Mockito.any(IGame.class), Mockito.anyInt(), Mockito.any(Targetable.class));
+
+        PilotOptions mockOptions = Mockito.mock(PilotOptions.class);
+        Crew mockCrew = Mockito.mock(Crew.class);
+        Mockito.when(mockCrew.getOptions()).thenReturn(mockOptions);
+
+        Entity mockMover = Mockito.mock(BipedMech.class);
+        Mockito.when(mockMover.getId()).thenReturn(1);
+        Mockito.when(mockMover.getCrew()).thenReturn(mockCrew);
+        Mockito.when(mockMover.getPosition()).thenReturn(new Coords(0, 0));
+        Mockito.when(mockMover.getMaxWeaponRange()).thenReturn(20);
+        Mockito.when(mockMover.canChangeSecondaryFacing()).thenReturn(true);
+        Mockito.when(mockMover.getSecondaryFacing()).thenReturn(0);
+
+        final MovePath mockPath = Mockito.mock(MovePath.class);
+        Mockito.when(mockPath.getEntity()).thenReturn(mockMover);
+        Mockito.when(mockPath.getFinalCoords()).thenReturn(new Coords(0, 0));
+        Mockito.when(mockPath.getFinalFacing()).thenReturn(0);
+        Mockito.when(mockPath.getLastStepMovementType()).thenReturn(EntityMovementType.MOVE_WALK);
+        Mockito.when(mockPath.clone()).thenReturn(mockPath);
+
+        IBoard mockBoard = Mockito.mock(IBoard.class);
+        Mockito.when(mockBoard.contains(Mockito.any(Coords.class))).thenReturn(true);
+
+        final IGame mockGame = Mockito.mock(IGame.class);
+        Mockito.when(mockGame.getBoard()).thenReturn(mockBoard);
+        Mockito.when(mockGame.getOptions()).thenReturn(Mockito.mock(GameOptions.class));
+
+        final List<Entity> testEnemies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Entity mockEnemy = Mockito.mock(BipedMech.class);
+            Mockito.when(mockEnemy.getId()).thenReturn(i + 2);
+            Mockito.when(mockEnemy.getCrew()).thenReturn(mockCrew);
+            Mockito.when(mockEnemy.getPosition()).thenReturn(new Coords(5, 5 + i));
+            Mockito.when(mockEnemy.getFacing()).thenReturn(i);
+            Mockito.when(mockEnemy.getSecondaryFacing()).thenReturn(i);
+            Mockito.when(mockEnemy.getMaxWeaponRange()).thenReturn(20);
+            Mockito.when(mockEnemy.getHeatCapacity()).thenReturn(20);
+            Mockito.when(mockEnemy.canChangeSecondaryFacing()).thenReturn(true);
+            Mockito.when(mockEnemy.isSelectableThisTurn()).thenReturn(false);
+            testEnemies.add(mockEnemy);
+        }
+        Mockito.doReturn(testEnemies.get(0))
+               .when(testRanker)
+               .findClosestEnemy(Mockito.eq(mockMover), Mockito.any(Coords.class), Mockito.any(IGame.class));
+
+        final Coords friendsCoords = new Coords(2, 2);
+        RankedPath expected = testRanker.rankPath(mockPath, mockGame, 18, 0.5, 20, testEnemies, friendsCoords);
+
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RankedPath>> ranked = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                ranked.add(threads.submit(new Callable<RankedPath>() {
+                    @Override
+                    public RankedPath call() {
+                        return testRanker.rankPath(mockPath, mockGame, 18, 0.5, 20, testEnemies, friendsCoords);
+                    }
+                }));
+            }
+            for (Future<RankedPath> actual : ranked) {
+                assertRankedPathEquals(expected, actual.get());
+            }
+        } finally {
+            threads.shutdown();
+        }
+
+        // The twists are guessed on states, never by turning the shared units.
+        Mockito.verify(mockMover, Mockito.never()).setSecondaryFacing(Mockito.anyInt());
+        for (Entity enemy : testEnemies) {
+            Mockito.verify(enemy, Mockito.never()).setSecondaryFacing(Mockito.anyInt());
+        }
+    }
+
     @Test
     public void testFindClosestEnemy() {
         List<Entity> enemyList = new ArrayList<>(3);
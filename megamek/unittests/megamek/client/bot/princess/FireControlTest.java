@@ -26,6 +26,7 @@ import megamek.common.Dropship;
 import megamek.common.Entity;
 import megamek.common.EntityMovementType;
 import megamek.common.EntityWeightClass;
+import megamek.common.EquipmentFlags;
 import megamek.common.EquipmentType;
 import megamek.common.IBoard;
 import megamek.common.IGame;
@@ -61,9 +62,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -293,7 +296,7 @@ public class FireControlTest {
         Mockito.when(mockAmmoSRM5.getType()).thenReturn(mockAmmoTypeSRM5);
         Mockito.when(mockAmmoSRM5.isAmmoUsable()).thenReturn(true);
         Mockito.when(mockAmmoTypeLRM5.getMunitionType()).thenReturn(AmmoType.M_STANDARD);
-        Mockito.when(mockAmmoTypeLRM5.hasFlag(Mockito.any(BigInteger.class))).thenReturn(false);
+        Mockito.when(mockAmmoTypeLRM5.hasFlag(Mockito.any(EquipmentFlags.class))).thenReturn(false);
         Mockito.when(mockAmmoTypeLRM5.hasFlag(Mockito.eq(AmmoType.F_MML_LRM))).thenReturn(true);
         Mockito.when(mockAmmoTypeLRM5.getAmmoType()).thenReturn(AmmoType.T_MML);
         Mockito.when(mockAmmoLRM5.getType()).thenReturn(mockAmmoTypeLRM5);
@@ -2358,6 +2361,50 @@ public class FireControlTest {
                                                                           mockTargetState, mockGame));
     }
 
+    @Test
+    public void testGuessBestFiringPlanWithTwists() {
+        // Each plan is worth the secondary facing it was guessed with.
+        final List<Integer> guessedFacings = new ArrayList<>();
+        Answer<FiringPlan> planByFacing = new Answer<FiringPlan>() {
+            @Override
+            public FiringPlan answer(InvocationOnMock invocation) {
+                EntityState shooterState = (EntityState) invocation.getArguments()[1];
+                int facing = (shooterState == null) ? mockShooter.getSecondaryFacing()
+                                                    : shooterState.getSecondaryFacing();
+                guessedFacings.add(facing);
+                FiringPlan plan = new FiringPlan(mockTarget);
+                plan.setUtility(facing);
+                return plan;
+            }
+        };
+        Mockito.doAnswer(planByFacing)
+               .when(testFireControl)
+               .guessBestFiringPlan(Mockito.any(Entity.class), Mockito.any(EntityState.class),
+                                    Mockito.any(Targetable.class), Mockito.any(EntityState.class),
+                                    Mockito.any(IGame.class));
+        Mockito.when(mockShooter.canChangeSecondaryFacing()).thenReturn(true);
+        Mockito.when(mockShooter.getSecondaryFacing()).thenReturn(2);
+        Mockito.when(mockCrew.getOptions()).thenReturn(Mockito.mock(PilotOptions.class));
+        Mockito.when(mockShooterState.getSecondaryFacing()).thenReturn(4);
+
+        // Without a state, the twists are guessed from the shooter's own facing.
+        FiringPlan actual = testFireControl.guessBestFiringPlanWithTwists(mockShooter, null, mockTarget,
+                                                                          mockTargetState, mockGame);
+        Assert.assertEquals(1, actual.getTwist());
+        Assert.assertEquals(3, actual.getUtility(), 0.00001);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), new HashSet<>(guessedFacings));
+
+        // A given state is used as it is for every guess.
+        guessedFacings.clear();
+        actual = testFireControl.guessBestFiringPlanWithTwists(mockShooter, mockShooterState, mockTarget,
+                                                               mockTargetState, mockGame);
+        Assert.assertEquals(4, actual.getUtility(), 0.00001);
+        Assert.assertEquals(Arrays.asList(4, 4, 4), guessedFacings);
+
+        // The shooter itself is never turned.
+        Mockito.verify(mockShooter, Mockito.never()).setSecondaryFacing(Mockito.anyInt());
+    }
+
     @Test
     public void testGuessFullAirToGroundPlan() {
         FiringPlan expected;
@@ -0,0 +1,72 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import megamek.common.Aero;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.MovePath;
+import megamek.common.logging.LogLevel;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+@RunWith(JUnit4.class)
+public class PathRankerTest {
+
+    @Test
+    public void testParallelRankingKeepsPathOrder() {
+        Princess mockPrincess = Mockito.mock(Princess.class);
+        Mockito.when(mockPrincess.getVerbosity()).thenReturn(LogLevel.ERROR);
+
+        // Paths of aero units aren't validated, so all of them get ranked.
+        Entity mockAero = Mockito.mock(Aero.class);
+        List<MovePath> paths = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            MovePath mockPath = Mockito.mock(MovePath.class);
+            Mockito.when(mockPath.getEntity()).thenReturn(mockAero);
+            Mockito.when(mockPath.length()).thenReturn(i);
+            paths.add(mockPath);
+        }
+
+        PathRanker testRanker = new PathRanker(mockPrincess) {
+            @Override
+            public RankedPath rankPath(MovePath path, IGame game, int maxRange, double fallTolerance,
+                                       int distanceHome, List<Entity> enemies, Coords friendsCoords) {
+                return new RankedPath(path.length(), path, "length");
+            }
+        };
+        IGame mockGame = Mockito.mock(IGame.class);
+        List<Entity> noUnits = new ArrayList<>();
+
+        testRanker.setParallelRanking(true);
+        List<RankedPath> parallel = testRanker.rankPaths(paths, mockGame, 10, 1, 0, noUnits, noUnits);
+        testRanker.setParallelRanking(false);
+        List<RankedPath> sequential = testRanker.rankPaths(paths, mockGame, 10, 1, 0, noUnits, noUnits);
+
+        Assert.assertEquals(paths.size(), parallel.size());
+        for (int i = 0; i < paths.size(); i++) {
+            Assert.assertSame(paths.get(i), parallel.get(i).path);
+            Assert.assertSame(sequential.get(i).path, parallel.get(i).path);
+            Assert.assertEquals(i, parallel.get(i).rank, 0);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import megamek.common.Coords;
+import megamek.common.TargetRoll;
+import megamek.common.ToHitData;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ToHitCacheTest {
+
+    @Test
+    public void testGetReturnsCopies() {
+        ToHitCache cache = new ToHitCache();
+        ToHitCache.Key key = new ToHitCache.Key("line of sight", 1, new Coords(2, 3), 0, 2, new Coords(4, 5));
+
+        Assert.assertNull(cache.get(key));
+
+        ToHitData toHit = new ToHitData(1, "woods");
+        toHit.addModifier(2, "smoke");
+        cache.put(key, toHit);
+        // Changing the stored modifiers doesn't change the cache
+        toHit.addModifier(TargetRoll.IMPOSSIBLE, "blocked");
+
+        ToHitCache.Key sameKey = new ToHitCache.Key("line of sight", 1, new Coords(2, 3), 0, 2, new Coords(4, 5));
+        ToHitData cached = cache.get(sameKey);
+        Assert.assertEquals(3, cached.getValue());
+        Assert.assertEquals(toHit.getModifiers().get(0).getDesc(), cached.getModifiers().get(0).getDesc());
+        cached.addModifier(TargetRoll.IMPOSSIBLE, "blocked");
+        Assert.assertEquals(3, cache.get(sameKey).getValue());
+
+        Assert.assertNull(cache.get(new ToHitCache.Key("line of sight", 1, new Coords(2, 3), 0, 2,
+                                                       new Coords(4, 6))));
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+
+        cache.clear();
+        Assert.assertNull(cache.get(sameKey));
+        Assert.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.client.ui.swing.util;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ImageCacheTest {
+
+    private static BufferedImage image(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBeyondMaxSize() {
+        ImageCache<Integer, BufferedImage> cache = new ImageCache<Integer, BufferedImage>(
+                3, Long.MAX_VALUE);
+        cache.put(1, image(1, 1));
+        cache.put(2, image(1, 1));
+        cache.put(3, image(1, 1));
+        // Using 1 makes 2 the least recently used
+        Assert.assertNotNull(cache.get(1));
+        cache.put(4, image(1, 1));
+
+        Assert.assertEquals(3, cache.size());
+        Assert.assertNull(cache.get(2));
+        Assert.assertNotNull(cache.get(1));
+        Assert.assertNotNull(cache.get(3));
+        Assert.assertNotNull(cache.get(4));
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(4, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testEvictsBeyondByteBudget() {
+        // Room for two 10x10 ARGB images
+        ImageCache<String, BufferedImage> cache = new ImageCache<String, BufferedImage>(
+                100, 800);
+        cache.put("a", image(10, 10));
+        Assert.assertEquals(400, cache.getByteSize());
+        cache.put("b", image(10, 10));
+        cache.put("c", image(10, 10));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(800, cache.getByteSize());
+        Assert.assertNull(cache.get("a"));
+
+        // Replacing a value accounts for the old one
+        cache.put("c", image(5, 5));
+        Assert.assertEquals(500, cache.getByteSize());
+        cache.remove("b");
+        Assert.assertEquals(100, cache.getByteSize());
+        cache.clear();
+        Assert.assertEquals(0, cache.getByteSize());
+
+        // A value bigger than the budget still gets cached on its own
+        cache.put("big", image(100, 100));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEstimateSize() {
+        Assert.assertEquals(4 * 6, ImageCache.estimateSize(image(2, 3)));
+        Assert.assertEquals(3 * 2, ImageCache.estimateSize(new BufferedImage(
+                3, 2, BufferedImage.TYPE_BYTE_GRAY)));
+        Assert.assertEquals(4 + 16, ImageCache.estimateSize(Arrays.asList(
+                image(1, 1), image(2, 2))));
+    }
+}
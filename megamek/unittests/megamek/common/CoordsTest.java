@@ -0,0 +1,114 @@
+/*
+ * MegaMek - Copyright (C) 2000-2002 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CoordsTest {
+
+    /**
+     * Walks the line hex by hex, the way intervening() does without its cache.
+     */
+    private List<Coords> walk(Coords src, Coords dest, boolean split) {
+        IdealHex iSrc = IdealHex.get(src);
+        IdealHex iDest = IdealHex.get(dest);
+        int centerDirection = src.direction(dest);
+        if (split) {
+            centerDirection = (int) Math.round(src.radian(dest) + 0.0001
+                    / Coords.HEXSIDE) % 6;
+        }
+        int[] directions = { (centerDirection + 1) % 6,
+                (centerDirection + 5) % 6, centerDirection };
+        List<Coords> hexes = new ArrayList<Coords>();
+        Coords current = src;
+        hexes.add(current);
+        while (!dest.equals(current)) {
+            current = Coords.nextHex(current, iSrc, iDest, directions);
+            hexes.add(current);
+        }
+        return hexes;
+    }
+
+    @Test
+    public void testInterveningMatchesLineWalk() {
+        // Same offsets from odd and even columns, so most lines come from the
+        // cache the second time round
+        for (int x = 6; x < 10; x++) {
+            for (int y = 6; y < 9; y++) {
+                Coords src = new Coords(x, y);
+                for (int dx = -6; dx <= 6; dx++) {
+                    for (int dy = -6; dy <= 6; dy++) {
+                        Coords dest = new Coords(x + dx, y + dy);
+                        Assert.assertEquals(walk(src, dest, false),
+                                Coords.intervening(src, dest));
+                        Assert.assertEquals(walk(src, dest, true),
+                                Coords.intervening(src, dest, true));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInterveningSameHex() {
+        Coords c = new Coords(3, 3);
+        List<Coords> hexes = Coords.intervening(c, new Coords(3, 3));
+        Assert.assertEquals(1, hexes.size());
+        Assert.assertEquals(c, hexes.get(0));
+    }
+
+    @Test
+    public void testValueOfSharesBoardCoords() {
+        Assert.assertSame(Coords.valueOf(4, 7), Coords.valueOf(4, 7));
+        Assert.assertSame(Coords.valueOf(3, 3), new Coords(3, 2).translated(3));
+        Assert.assertEquals(new Coords(-1, 2), Coords.valueOf(-1, 2));
+    }
+
+    @Test
+    public void testStaticHelpersMatchInstanceMethods() {
+        Coords src = new Coords(5, 5);
+        for (int x = 0; x < 11; x++) {
+            for (int y = 0; y < 11; y++) {
+                Coords dest = new Coords(x, y);
+                Assert.assertEquals(src.distance(dest),
+                        Coords.distance(5, 5, x, y));
+                Assert.assertEquals(dest.distance(src),
+                        Coords.distance(x, y, 5, 5));
+                Assert.assertEquals(src.direction(dest),
+                        Coords.direction(5, 5, x, y));
+            }
+        }
+        Assert.assertEquals(3, src.distance(new Coords(8, 5)));
+        Assert.assertEquals(3, Coords.direction(5, 5, 5, 8));
+    }
+
+    @Test
+    public void testIdealHexCacheKeepsEveryBoardSize() {
+        IdealHex.ensureCacheSize(60, 10);
+        IdealHex wide = IdealHex.get(55, 5);
+        // A tall board mustn't lose the wide board's hexes
+        IdealHex.ensureCacheSize(10, 60);
+        Assert.assertSame(IdealHex.get(55, 5), IdealHex.get(55, 5));
+        Assert.assertSame(IdealHex.get(5, 55), IdealHex.get(5, 55));
+        Assert.assertEquals(wide.cx, IdealHex.get(55, 5).cx, 0.0);
+        Assert.assertEquals(new IdealHex(5, 55).cy, IdealHex.get(5, 55).cy, 0.0);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class EquipmentFlagsTest {
+
+    @Test
+    public void testFlagOperations() {
+        EquipmentFlags low = EquipmentFlags.of(3);
+        EquipmentFlags high = EquipmentFlags.of(188);
+        EquipmentFlags both = low.or(high);
+
+        Assert.assertTrue(both.intersects(low));
+        Assert.assertTrue(both.intersects(high));
+        Assert.assertFalse(low.intersects(high));
+        Assert.assertFalse(both.intersects(EquipmentFlags.of(64)));
+        Assert.assertFalse(both.intersects(EquipmentFlags.NONE));
+
+        Assert.assertEquals(high, both.andNot(low));
+        Assert.assertEquals(low, both.and(high.not()));
+        Assert.assertEquals(low, both.and(low));
+        Assert.assertTrue(low.and(high).isEmpty());
+        Assert.assertEquals(both.hashCode(), high.or(low).hashCode());
+        Assert.assertEquals("{3, 188}", both.toString());
+    }
+
+    @Test
+    public void testEquipmentHasFlag() {
+        MiscType misc = new MiscType();
+        misc.setFlags(MiscType.F_HEAT_SINK.or(MiscType.F_SCM));
+        Assert.assertTrue(misc.hasFlag(MiscType.F_HEAT_SINK));
+        Assert.assertTrue(misc.hasFlag(MiscType.F_SCM));
+        Assert.assertFalse(misc.hasFlag(MiscType.F_DOUBLE_HEAT_SINK));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyFlags() {
+        EquipmentFlags.of(EquipmentFlags.SIZE);
+    }
+}
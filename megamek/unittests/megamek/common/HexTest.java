@@ -0,0 +1,126 @@
+/*
+ * MegaMek - Copyright (C) 2000-2003 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.thoughtworks.xstream.XStream;
+
+@RunWith(JUnit4.class)
+public class HexTest {
+
+    @Test
+    public void testAddAndRemoveTerrain() {
+        IHex hex = new Hex(2, "woods:2;water:1;road:1", null);
+        Assert.assertEquals(3, hex.terrainsPresent());
+        Assert.assertArrayEquals(new int[] { Terrains.WOODS, Terrains.WATER,
+                Terrains.ROAD }, hex.getTerrainTypes());
+        Assert.assertEquals(2, hex.terrainLevel(Terrains.WOODS));
+        Assert.assertEquals(1, hex.terrainLevel(Terrains.WATER));
+        Assert.assertFalse(hex.containsTerrain(Terrains.JUNGLE));
+        Assert.assertNull(hex.getTerrain(Terrains.JUNGLE));
+
+        // Replacing a terrain keeps the others where they are
+        hex.addTerrain(Terrains.getTerrainFactory().createTerrain(
+                Terrains.WATER, 3));
+        Assert.assertEquals(3, hex.terrainsPresent());
+        Assert.assertEquals(3, hex.terrainLevel(Terrains.WATER));
+        Assert.assertEquals(1, hex.terrainLevel(Terrains.ROAD));
+
+        hex.removeTerrain(Terrains.WATER);
+        Assert.assertFalse(hex.containsTerrain(Terrains.WATER));
+        Assert.assertEquals(2, hex.terrainLevel(Terrains.WOODS));
+        Assert.assertEquals(1, hex.terrainLevel(Terrains.ROAD));
+        Assert.assertArrayEquals(new int[] { Terrains.WOODS, Terrains.ROAD },
+                hex.getTerrainTypes());
+
+        // Removing a terrain that isn't there does nothing
+        hex.removeTerrain(Terrains.WATER);
+        Assert.assertEquals(2, hex.terrainsPresent());
+
+        hex.removeAllTerrains();
+        Assert.assertEquals(0, hex.terrainsPresent());
+        Assert.assertFalse(hex.containsTerrain(Terrains.WOODS));
+    }
+
+    @Test
+    public void testTerrainMasks() {
+        Assert.assertTrue(new Hex(0, "woods:1", null).isIgnitable());
+        Assert.assertFalse(new Hex(0, "water:1", null).isIgnitable());
+        Assert.assertTrue(new Hex(0, "pavement:1;smoke:1", null)
+                .isClearForTakeoff());
+        Assert.assertFalse(new Hex(0, "pavement:1;rough:1", null)
+                .isClearForTakeoff());
+        Assert.assertTrue(new Hex(0).isClearForTakeoff());
+    }
+
+    @Test
+    public void testDuplicate() {
+        IHex hex = new Hex(1, "bldg_elev:2;building:1", null);
+        IHex copy = hex.duplicate();
+        Assert.assertEquals(1, copy.getLevel());
+        Assert.assertEquals(2, copy.terrainLevel(Terrains.BLDG_ELEV));
+        Assert.assertNotSame(hex.getTerrain(Terrains.BUILDING),
+                copy.getTerrain(Terrains.BUILDING));
+    }
+
+    /**
+     * A hex as saved games wrote it before the terrains were kept in a mask,
+     * with the terrains by type and a set of the types present.
+     */
+    private static final String OLD_HEX_XML = "<megamek.common.Hex>"
+            + "<level>2</level>"
+            + "<terrains>"
+            + "<null/>"
+            + "<megamek.common.Terrain><type>1</type><level>2</level>"
+            + "<exitsSpecified>false</exitsSpecified><exits>0</exits>"
+            + "<terrainFactor>90</terrainFactor></megamek.common.Terrain>"
+            + "<null/><null/><null/><null/><null/><null/><null/><null/>"
+            + "<null/><null/><null/>"
+            + "<megamek.common.Terrain><type>13</type><level>1</level>"
+            + "<exitsSpecified>true</exitsSpecified><exits>3</exits>"
+            + "<terrainFactor>150</terrainFactor></megamek.common.Terrain>"
+            + "<null/><null/>"
+            + "</terrains>"
+            + "<hsTerrains><int>1</int><int>13</int></hsTerrains>"
+            + "<theme>grass</theme>"
+            + "<fireTurn>0</fireTurn>"
+            + "<coords><x>3</x><y>4</y></coords>"
+            + "</megamek.common.Hex>";
+
+    @Test
+    public void testLoadOldSavedHex() {
+        XStream xstream = new XStream();
+        IHex hex = (IHex) xstream.fromXML(OLD_HEX_XML);
+        Assert.assertEquals(2, hex.getLevel());
+        Assert.assertArrayEquals(new int[] { Terrains.WOODS, Terrains.ROAD },
+                hex.getTerrainTypes());
+        Assert.assertEquals(2, hex.terrainLevel(Terrains.WOODS));
+        Assert.assertEquals(3, hex.getTerrain(Terrains.ROAD).getExits());
+        Assert.assertFalse(hex.containsTerrain(Terrains.WATER));
+        Assert.assertEquals("grass", hex.getTheme());
+        Assert.assertEquals(Coords.valueOf(3, 4), hex.getCoords());
+
+        // Saving it again only writes the new form
+        String xml = xstream.toXML(hex);
+        Assert.assertFalse(xml.contains("hsTerrains"));
+        Assert.assertFalse(xml.contains("<terrains>"));
+        hex = (IHex) xstream.fromXML(xml);
+        Assert.assertArrayEquals(new int[] { Terrains.WOODS, Terrains.ROAD },
+                hex.getTerrainTypes());
+    }
+}
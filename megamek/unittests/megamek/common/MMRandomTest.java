@@ -0,0 +1,127 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MMRandomTest {
+
+    @Test
+    public void testSameSeedSameRolls() {
+        MMRandom first = MMRandom.generate(MMRandom.R_SPLITTABLE, 1234);
+        MMRandom second = MMRandom.generate(MMRandom.R_SPLITTABLE, 1234);
+        MMRandom other = MMRandom.generate(MMRandom.R_SPLITTABLE, 4321);
+        boolean differs = false;
+        for (int i = 0; i < 1000; i++) {
+            int roll = first.d6(2).getIntValue();
+            Assert.assertTrue((roll >= 2) && (roll <= 12));
+            Assert.assertEquals(roll, second.d6(2).getIntValue());
+            differs |= (roll != other.d6(2).getIntValue());
+        }
+        Assert.assertTrue(differs);
+    }
+
+    @Test
+    public void testStreamsAreIndependent() {
+        MMRandom first = MMRandom.generate(MMRandom.R_SPLITTABLE, 99);
+        MMRandom second = MMRandom.generate(MMRandom.R_SPLITTABLE, 99);
+        Assert.assertSame(first, first.getStream(MMRandom.Stream.COMBAT));
+        Assert.assertNotSame(first, first.getStream(MMRandom.Stream.WEATHER));
+
+        // The weather changing in one game doesn't change the combat rolls
+        for (int i = 0; i < 100; i++) {
+            first.getStream(MMRandom.Stream.WEATHER).randomInt(10);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(second.randomInt(37), first.randomInt(37));
+        }
+
+        // Other RNGs use the same numbers everywhere
+        MMRandom sun = MMRandom.generate(MMRandom.R_SUN);
+        Assert.assertSame(sun, sun.getStream(MMRandom.Stream.WEATHER));
+    }
+
+    @Test
+    public void testSplitsDontDependOnScheduling() {
+        MMRandom first = MMRandom.generate(MMRandom.R_SPLITTABLE, 77);
+        MMRandom second = MMRandom.generate(MMRandom.R_SPLITTABLE, 77);
+        MMRandom firstA = first.split();
+        MMRandom firstB = first.split();
+        MMRandom secondA = second.split();
+        MMRandom secondB = second.split();
+        Assert.assertNotSame(first, firstA);
+
+        // However the work using the splits takes turns, each gets the same
+        // numbers, and so does the RNG they were split off
+        for (int i = 0; i < 100; i++) {
+            firstB.randomInt(1000);
+        }
+        boolean differs = false;
+        for (int i = 0; i < 100; i++) {
+            int roll = firstA.randomInt(1000);
+            Assert.assertEquals(secondA.randomInt(1000), roll);
+            differs |= (roll != firstB.randomInt(1000));
+        }
+        for (int i = 0; i < 200; i++) {
+            secondB.randomInt(1000);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(second.randomInt(1000), first.randomInt(1000));
+        }
+        Assert.assertTrue(differs);
+
+        // RNGs without a seed are shared
+        MMRandom sun = MMRandom.generate(MMRandom.R_SUN);
+        Assert.assertSame(sun, sun.split());
+    }
+
+    @Test
+    public void testJournal() throws Exception {
+        MMRandom first = MMRandom.generate(MMRandom.R_SPLITTABLE, 5);
+        RollJournal firstJournal = new RollJournal(MMRandom.R_SPLITTABLE, 5);
+        first.setJournal(firstJournal);
+        MMRandom second = MMRandom.generate(MMRandom.R_SPLITTABLE, 5);
+        RollJournal secondJournal = new RollJournal(MMRandom.R_SPLITTABLE, 5);
+        second.setJournal(secondJournal);
+
+        for (int i = 0; i < 50; i++) {
+            first.d6(2);
+            first.getStream(MMRandom.Stream.WEATHER).d6();
+            second.d6(2);
+            second.getStream(MMRandom.Stream.WEATHER).d6();
+        }
+        Assert.assertEquals(150, firstJournal.size());
+        Assert.assertEquals(-1, firstJournal.firstDifference(secondJournal));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        firstJournal.writeTo(out);
+        RollJournal read = RollJournal.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(MMRandom.R_SPLITTABLE, read.getType());
+        Assert.assertEquals(5, read.getSeed());
+        Assert.assertEquals(-1, read.firstDifference(firstJournal));
+
+        // A roll from the wrong stream is found
+        first.d6();
+        second.getStream(MMRandom.Stream.WEATHER).d6();
+        Assert.assertEquals(150, firstJournal.firstDifference(secondJournal));
+        Assert.assertEquals(150, read.firstDifference(firstJournal));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MegaMek - Copyright (C) 2000-2004 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.common;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Vector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MechSummaryCacheFileTest {
+
+    private MechSummary createSummary(String model, String entryName) {
+        MechSummary ms = new MechSummary();
+        ms.setName("Atlas " + model);
+        ms.setChassis("Atlas");
+        ms.setModel(model);
+        ms.setUnitType("Mek");
+        ms.setUnitSubType("BattleMech");
+        ms.setSourceFile(new File("data/mechs/atlas.zip"));
+        ms.setEntryName(entryName);
+        ms.setYear(2755);
+        ms.setType(TechConstants.T_IS_TW_NON_BOX);
+        ms.setTons(100);
+        ms.setBV(1897);
+        ms.setGMBV(1850);
+        ms.setRHBV(1900);
+        ms.setRHGMBV(1860);
+        ms.setCost(9626000L);
+        ms.setUnloadedCost(9600000L);
+        ms.setAlternateCost(1234L);
+        ms.setLevel("TW");
+        ms.setCanon(true);
+        ms.setWalkMp(3);
+        ms.setRunMp(5);
+        ms.setTotalArmor(304);
+        ms.setTotalInternal(152);
+        ms.setCockpitType(Mech.COCKPIT_STANDARD);
+        ms.setEngineName("300 Fusion Engine");
+        ms.setMyomerName("Standard");
+        int[] armor = { EquipmentType.T_ARMOR_STANDARD,
+                EquipmentType.T_ARMOR_FERRO_FIBROUS };
+        ms.setArmorType(armor);
+        ms.setArmorTypes(armor);
+        ms.setArmorTechTypes(new int[] { 1, 2 });
+        Vector<String> names = new Vector<String>();
+        names.add("ISAC20");
+        names.add("ISMediumLaser");
+        Vector<Integer> quantities = new Vector<Integer>();
+        quantities.add(1);
+        quantities.add(4);
+        ms.setEquipment(names, quantities);
+        return ms;
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        File file = File.createTempFile("units", ".cache");
+        try {
+            MechSummary[] data = { createSummary("AS7-D", "atlas-d.mtf"),
+                    createSummary("AS7-K", null) };
+            MechSummaryCacheFile.write(file, data);
+
+            MechSummaryCacheFile cache = MechSummaryCacheFile.open(file);
+            Assert.assertEquals(2, cache.size());
+            MechSummary ms = cache.get(0);
+            Assert.assertEquals(data[0], ms);
+            Assert.assertEquals("Atlas AS7-D", ms.getName());
+            Assert.assertEquals("atlas-d.mtf", ms.getEntryName());
+            Assert.assertEquals(100, ms.getTons(), 0);
+            Assert.assertEquals(1850, ms.getGMBV());
+            Assert.assertEquals(9626000L, ms.getCost());
+            Assert.assertEquals(1234L, ms.getAlternateCost());
+            Assert.assertTrue(ms.isCanon());
+            Assert.assertFalse(ms.isClan());
+            Assert.assertEquals(5, ms.getRunMp());
+            Assert.assertEquals("300 Fusion Engine", ms.getEngineName());
+            Assert.assertArrayEquals(new int[] { 1, 2 },
+                    ms.getArmorTechTypes());
+            Assert.assertEquals(2, ms.getArmorType().size());
+            Assert.assertEquals(data[0].getEquipmentNames(),
+                    ms.getEquipmentNames());
+            Assert.assertEquals(data[0].getEquipmentQuantities(),
+                    ms.getEquipmentQuantities());
+
+            MechSummary other = cache.get(1);
+            Assert.assertEquals(data[1], other);
+            Assert.assertNull(other.getEntryName());
+            // Shared strings are only read once
+            Assert.assertSame(ms.getChassis(), other.getChassis());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOldFormat() throws IOException {
+        File file = File.createTempFile("units", ".cache");
+        try {
+            ObjectOutputStream out = new ObjectOutputStream(
+                    new FileOutputStream(file));
+            out.writeObject(Integer.valueOf(0));
+            out.close();
+            MechSummaryCacheFile.open(file);
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * MegaMek - Copyright (C) 2002, 2003 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MechSummaryIndexTest {
+
+    private static final String[] UNIT_TYPES = { "Mek", "Tank", "VTOL",
+            "Infantry" };
+    private static final String[] EQUIPMENT = { "ISMediumLaser", "ISAC20",
+            "ISLRM10", "CLERPPC" };
+
+    private MechSummary[] createSummaries() {
+        MechSummary[] units = new MechSummary[200];
+        for (int i = 0; i < units.length; i++) {
+            MechSummary ms = new MechSummary();
+            ms.setName("Unit " + i);
+            ms.setUnitType(UNIT_TYPES[i % UNIT_TYPES.length]);
+            ms.setType(i % 11);
+            ms.setYear(3000 + (i % 80));
+            ms.setBV(500 + (i * 13) % 2000);
+            ms.setTons(20 + (5 * (i % 17)));
+            ms.setCanon((i % 3) != 0);
+            ms.setClan((i % 5) == 0);
+            ms.setSupport((i % 7) == 0);
+            ms.setWalkMp(i % 8);
+            ms.setJumpMp(i % 5);
+            ms.setTotalInternal(50 + (i % 30));
+            ms.setTotalArmor((i * 7) % 200);
+            ms.setInternalsType(i % 4);
+            ms.setCockpitType(i % 3);
+            ms.setArmorType(new int[] { i % 4, (i / 4) % 4 });
+            Vector<String> names = new Vector<String>();
+            Vector<Integer> quantities = new Vector<Integer>();
+            for (int e = 0; e < EQUIPMENT.length; e++) {
+                if (((i >> e) & 1) != 0) {
+                    names.add(EQUIPMENT[e]);
+                    quantities.add(1 + ((i + e) % 4));
+                }
+            }
+            ms.setEquipment(names, quantities);
+            units[i] = ms;
+        }
+        return units;
+    }
+
+    private List<MechSummary> scan(MechSummary[] units, MechSearchFilter f) {
+        List<MechSummary> result = new ArrayList<MechSummary>();
+        for (MechSummary ms : units) {
+            if (MechSearchFilter.isMatch(ms, f)) {
+                result.add(ms);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testSimpleCriteria() {
+        MechSummary[] units = createSummaries();
+        MechSummaryIndex index = new MechSummaryIndex(units);
+        Assert.assertEquals(units.length, index.query().count());
+
+        List<MechSummary> expected = new ArrayList<MechSummary>();
+        for (MechSummary ms : units) {
+            if ((ms.getUnitType().equals("Mek") || ms.getUnitType().equals(
+                    "VTOL"))
+                    && MechSearchFilter.isTechMatch(ms,
+                            TechConstants.T_ALL_IS)
+                    && (ms.getYear() >= 3020) && (ms.getYear() <= 3050)
+                    && (ms.getBV() <= 1500) && (ms.getTons() >= 40)
+                    && ms.isCanon() && !ms.isClan()) {
+                expected.add(ms);
+            }
+        }
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, index.query().unitType("Mek", "VTOL")
+                .techLevel(TechConstants.T_ALL_IS).years(3020, 3050)
+                .bv(0, 1500).tons(40, 100).canon().clan(false).list());
+    }
+
+    @Test
+    public void testMatchesSearchFilter() {
+        MechSummary[] units = createSummaries();
+        MechSummaryIndex index = new MechSummaryIndex(units);
+
+        MechSearchFilter f = new MechSearchFilter();
+        f.isDisabled = false;
+        f.sWalk = "4";
+        f.iWalk = 0;
+        f.sJump = "";
+        f.sStartYear = "3010";
+        f.sEndYear = "3070";
+        f.iArmor = 1;
+        Assert.assertEquals(scan(units, f), index.query().filter(f).list());
+
+        f.checkArmorType = true;
+        f.armorType = 2;
+        f.sJump = "2";
+        f.iJump = 2;
+        Assert.assertEquals(scan(units, f), index.query().filter(f).list());
+
+        // (2 medium lasers OR an AC/20) AND an LRM 10
+        f = new MechSearchFilter();
+        f.isDisabled = false;
+        f.checkEquipment = true;
+        MechSearchFilter.ExpNode or = f.new ExpNode();
+        or.operation = MechSearchFilter.BoolOp.OR;
+        or.children.add(f.new ExpNode("ISMediumLaser", 2));
+        or.children.add(f.new ExpNode("ISAC20", 1));
+        MechSearchFilter.ExpNode root = f.equipmentCriteria.getRoot();
+        root.operation = MechSearchFilter.BoolOp.AND;
+        root.children.add(or);
+        root.children.add(f.new ExpNode("ISLRM10", 1));
+        List<MechSummary> expected = scan(units, f);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, index.query().filter(f).list());
+    }
+}
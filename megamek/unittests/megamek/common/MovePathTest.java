@@ -35,26 +35,64 @@ public class MovePathTest {
         IGame mockGame = Mockito.mock(IGame.class);
         Entity mockMech = Mockito.mock(BipedMech.class);
 
-        Vector<MoveStep> stepVector = new Vector<MoveStep>();
+        MovePath testPath = new MovePath(mockGame, mockMech);
+        Assert.assertNull(testPath.getLastStep());
 
         MoveStep mockStep1 = Mockito.mock(MoveStep.class);
-        stepVector.add(mockStep1);
+        testPath.addStep(mockStep1, false);
+        Assert.assertEquals(mockStep1, testPath.getLastStep());
 
         MoveStep mockStep2 = Mockito.mock(MoveStep.class);
-        stepVector.add(mockStep2);
+        testPath.addStep(mockStep2, false);
 
         MoveStep mockStep3 = Mockito.mock(MoveStep.class);
-        stepVector.add(mockStep3);
+        testPath.addStep(mockStep3, false);
 
         MoveStep mockStep4 = Mockito.mock(MoveStep.class);
-        stepVector.add(mockStep4);
-
-        MovePath testPath = Mockito.spy(new MovePath(mockGame, mockMech));
-        Mockito.doReturn(stepVector).when(testPath).getStepVector();
+        testPath.addStep(mockStep4, false);
 
         Assert.assertEquals(mockStep4, testPath.getLastStep());
+        Assert.assertEquals(mockStep4, testPath.getStepVector().lastElement());
+    }
 
-        stepVector.add(null);
-        Assert.assertEquals(mockStep4, testPath.getLastStep());
+    @Test
+    public void testCloneSharesSteps() {
+        IGame mockGame = Mockito.mock(IGame.class);
+        Entity mockMech = Mockito.mock(BipedMech.class);
+
+        MoveStep mockStep1 = Mockito.mock(MoveStep.class);
+        MoveStep mockStep2 = Mockito.mock(MoveStep.class);
+        MoveStep mockStep3 = Mockito.mock(MoveStep.class);
+
+        MovePath path = new MovePath(mockGame, mockMech);
+        path.addStep(mockStep1, false);
+        path.addStep(mockStep2, false);
+
+        // Adding to or removing from a clone leaves the original alone
+        MovePath clone = path.clone();
+        clone.addStep(mockStep3, false);
+        Assert.assertEquals(2, path.length());
+        Assert.assertEquals(mockStep2, path.getLastStep());
+        Assert.assertEquals(3, clone.length());
+        Assert.assertEquals(mockStep3, clone.getLastStep());
+        Assert.assertEquals(mockStep2, clone.getSecondLastStep());
+        Assert.assertEquals(mockStep1, clone.getStep(0));
+        Assert.assertNull(clone.getStep(3));
+
+        Vector<MoveStep> expected = new Vector<MoveStep>();
+        expected.add(mockStep1);
+        expected.add(mockStep2);
+        expected.add(mockStep3);
+        Assert.assertEquals(expected, clone.getStepVector());
+
+        clone.removeLastStep();
+        clone.removeLastStep();
+        Assert.assertEquals(1, clone.length());
+        Assert.assertEquals(mockStep1, clone.getLastStep());
+        Assert.assertEquals(2, path.length());
+
+        MovePath upTo = path.getPathUpTo(mockStep1);
+        Assert.assertEquals(1, upTo.length());
+        Assert.assertEquals(mockStep1, upTo.getLastStep());
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.common.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class NioConnectionTest {
+
+    /**
+     * Collects the packets received on a connection.
+     */
+    private static class Received extends ConnectionListenerAdapter {
+
+        private final List<Packet> packets = new ArrayList<Packet>();
+        private boolean disconnected;
+
+        @Override
+        public synchronized void packetReceived(PacketReceivedEvent e) {
+            packets.add(e.getPacket());
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void disconnected(DisconnectedEvent e) {
+            disconnected = true;
+            notifyAll();
+        }
+
+        synchronized void waitFor(int count) throws InterruptedException {
+            long end = System.currentTimeMillis() + 10000;
+            while ((packets.size() < count)
+                    && (System.currentTimeMillis() < end)) {
+                wait(100);
+            }
+        }
+
+        synchronized void waitForDisconnect() throws InterruptedException {
+            long end = System.currentTimeMillis() + 10000;
+            while (!disconnected && (System.currentTimeMillis() < end)) {
+                wait(100);
+            }
+        }
+    }
+
+    @Test
+    public void testTalksToStreamConnection() throws IOException,
+            InterruptedException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().bind(new InetSocketAddress("localhost", 0));
+            int port = serverChannel.socket().getLocalPort();
+
+            final IConnection client = new DataStreamConnection("localhost",
+                    port, 1);
+            Assert.assertTrue(client.open());
+            Socket socket = serverChannel.socket().accept();
+            ConnectionSelector selector = new ConnectionSelector();
+            IConnection server = new NioConnection(socket, 1, selector);
+            Received serverReceived = new Received();
+            server.addConnectionListener(serverReceived);
+            Assert.assertTrue(server.open());
+
+            Received clientReceived = new Received();
+            client.addConnectionListener(clientReceived);
+            Thread reader = new Thread() {
+                @Override
+                public void run() {
+                    while (!client.isClosed()) {
+                        client.update();
+                    }
+                }
+            };
+            reader.start();
+
+            // Enough data that the socket buffers fill up
+            int[] big = new int[500000];
+            big[big.length - 1] = 42;
+            for (int i = 0; i < 20; i++) {
+                server.send(new Packet(Packet.COMMAND_CHAT, "s" + i));
+                client.send(new Packet(Packet.COMMAND_CHAT, "c" + i));
+            }
+            server.send(new Packet(Packet.COMMAND_CHAT, big));
+            server.flush();
+            client.flush();
+
+            serverReceived.waitFor(20);
+            clientReceived.waitFor(21);
+            Assert.assertEquals(20, serverReceived.packets.size());
+            Assert.assertEquals(21, clientReceived.packets.size());
+            for (int i = 0; i < 20; i++) {
+                Assert.assertEquals("c" + i, serverReceived.packets.get(i)
+                        .getObject(0));
+                Assert.assertEquals("s" + i, clientReceived.packets.get(i)
+                        .getObject(0));
+            }
+            int[] received = (int[]) clientReceived.packets.get(20).getObject(
+                    0);
+            Assert.assertEquals(42, received[big.length - 1]);
+            Assert.assertFalse(server.hasPending());
+
+            // Closing the client is noticed by the selector
+            client.close();
+            serverReceived.waitForDisconnect();
+            Assert.assertTrue(serverReceived.disconnected);
+            reader.join(10000);
+        } finally {
+            serverChannel.close();
+        }
+    }
+}
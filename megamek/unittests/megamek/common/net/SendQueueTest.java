@@ -0,0 +1,132 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.common.net;
+
+import megamek.common.net.marshall.PacketMarshaller;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SendQueueTest {
+
+    private static SendPacket packet(int command, Object data) {
+        return new SendPacket(new Packet(command, data),
+                PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING, false);
+    }
+
+    @Test
+    public void testCoalescesSupersededPackets() throws InterruptedException {
+        AbstractConnection.SendQueue queue = new AbstractConnection.SendQueue(
+                100, Long.MAX_VALUE);
+        SendPacket oldSettings = packet(
+                Packet.COMMAND_SENDING_GAME_SETTINGS, "old");
+        SendPacket chat = packet(Packet.COMMAND_CHAT, "hello");
+        SendPacket newSettings = packet(
+                Packet.COMMAND_SENDING_GAME_SETTINGS, "new");
+        Assert.assertTrue(queue.addPacket(oldSettings, 0));
+        Assert.assertTrue(queue.addPacket(chat, 0));
+        Assert.assertTrue(queue.addPacket(packet(Packet.COMMAND_CHAT, "bye"),
+                0));
+        Assert.assertTrue(queue.addPacket(newSettings, 0));
+
+        // Chat is never dropped, and the old settings are dropped in favour
+        // of the newest ones, which are sent after everything queued before
+        Assert.assertEquals(3, queue.size());
+        Assert.assertEquals(1, queue.getCoalescedCount());
+        Assert.assertEquals(3, queue.getMaxSize());
+        Assert.assertSame(chat, queue.getPacket());
+        Assert.assertEquals(Packet.COMMAND_CHAT, queue.getPacket()
+                .getCommand());
+        Assert.assertSame(newSettings, queue.getPacket());
+        Assert.assertNull(queue.getPacket());
+        Assert.assertEquals(0, queue.getBytes());
+
+        // Superseding a queued packet doesn't need room
+        queue = new AbstractConnection.SendQueue(1, Long.MAX_VALUE);
+        Assert.assertTrue(queue.addPacket(oldSettings, 0));
+        Assert.assertFalse(queue.addPacket(chat, 0));
+        Assert.assertTrue(queue.addPacket(newSettings, 0));
+        Assert.assertEquals(1, queue.size());
+        Assert.assertSame(newSettings, queue.getPacket());
+    }
+
+    @Test
+    public void testBoundedQueue() throws InterruptedException {
+        SendPacket chat = packet(Packet.COMMAND_CHAT, "hello");
+        long size = chat.getData().length;
+        final AbstractConnection.SendQueue queue = new AbstractConnection.SendQueue(
+                2, 10 * size);
+        Assert.assertTrue(queue.addPacket(chat, 0));
+        Assert.assertTrue(queue.addPacket(chat, 0));
+        Assert.assertEquals(2 * size, queue.getBytes());
+        // Full, so this times out
+        Assert.assertFalse(queue.addPacket(chat, 10));
+        Assert.assertEquals(2, queue.size());
+
+        // A writer taking packets makes room for a waiting sender
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    SendPacket p;
+                    while ((p = queue.takePacket()) != null) {
+                        Thread.sleep(1);
+                        queue.packetSent();
+                    }
+                } catch (InterruptedException e) {
+                    // done
+                }
+            }
+        };
+        writer.start();
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(queue.addPacket(chat, 10000));
+        }
+        Assert.assertTrue(queue.waitUntilSent(10000));
+        Assert.assertFalse(queue.hasPending());
+
+        // Finishing the queue stops the writer and refuses new packets
+        queue.finish();
+        writer.join(10000);
+        Assert.assertFalse(writer.isAlive());
+        Assert.assertFalse(queue.addPacket(chat, 0));
+    }
+
+    @Test
+    public void testClosingTheQueue() throws InterruptedException {
+        SendPacket chat = packet(Packet.COMMAND_CHAT, "hello");
+        AbstractConnection.SendQueue queue = new AbstractConnection.SendQueue(
+                10, Long.MAX_VALUE);
+        Assert.assertTrue(queue.addPacket(chat, 0));
+        queue.closeWhenSent();
+        Assert.assertFalse(queue.addPacket(chat, 0));
+        // The queued packet is still written, then the writer is told to stop
+        Assert.assertSame(chat, queue.takePacket());
+        queue.packetSent();
+        Assert.assertNull(queue.takePacket());
+        Assert.assertTrue(queue.isClosing());
+        Assert.assertFalse(queue.isAborted());
+
+        // Giving up on the queue drops what is in it
+        queue = new AbstractConnection.SendQueue(10, Long.MAX_VALUE);
+        Assert.assertTrue(queue.addPacket(chat, 0));
+        queue.abort();
+        Assert.assertNull(queue.takePacket());
+        Assert.assertEquals(0, queue.getBytes());
+        Assert.assertTrue(queue.isAborted());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * MegaMek - Copyright (C) 2005 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.common.net.marshall;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Vector;
+
+import megamek.common.BipedMech;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.Mech;
+import megamek.common.Report;
+import megamek.common.Targetable;
+import megamek.common.UnitLocation;
+import megamek.common.actions.FiringModeChangeAction;
+import megamek.common.actions.TorsoTwistAction;
+import megamek.common.actions.WeaponAttackAction;
+import megamek.common.net.Packet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class BinaryMarshallerTest {
+
+    private Packet roundTrip(Packet packet) {
+        PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+                .getMarshaller(PacketMarshaller.BINARY_MARSHALING);
+        byte[] data = marshaller.marshall(packet);
+        Assert.assertNotNull(data);
+        Packet result = marshaller.unmarshall(data);
+        Assert.assertNotNull(result);
+        Assert.assertEquals(packet.getCommand(), result.getCommand());
+        return result;
+    }
+
+    @Test
+    public void testPrimitives() {
+        Object[] data = {new Integer(42), Boolean.TRUE, Boolean.FALSE,
+                "chat \u00e9", null, new Long(7L), new int[] {1, 2, 3},
+                IGame.Phase.PHASE_FIRING};
+        Packet result = roundTrip(new Packet(Packet.COMMAND_CHAT, data));
+        Assert.assertEquals(42, result.getIntValue(0));
+        Assert.assertTrue(result.getBooleanValue(1));
+        Assert.assertFalse(result.getBooleanValue(2));
+        Assert.assertEquals("chat \u00e9", result.getObject(3));
+        Assert.assertNull(result.getObject(4));
+        Assert.assertEquals(new Long(7L), result.getObject(5));
+        Assert.assertArrayEquals(new int[] {1, 2, 3},
+                (int[]) result.getObject(6));
+        Assert.assertSame(IGame.Phase.PHASE_FIRING, result.getObject(7));
+    }
+
+    @Test
+    public void testCollectionsKeepTheirType() {
+        Vector<Coords> coords = new Vector<Coords>();
+        coords.add(new Coords(3, 4));
+        ArrayList<Integer> ids = new ArrayList<Integer>();
+        ids.add(5);
+        Vector<UnitLocation> path = new Vector<UnitLocation>();
+        path.add(new UnitLocation(5, new Coords(1, 2), 3, 4));
+        Object[] data = {coords, ids, path};
+        Packet result = roundTrip(new Packet(Packet.COMMAND_ENTITY_UPDATE,
+                data));
+        Assert.assertEquals(Vector.class, result.getObject(0).getClass());
+        Assert.assertEquals(coords, result.getObject(0));
+        Assert.assertEquals(ArrayList.class, result.getObject(1).getClass());
+        Assert.assertEquals(ids, result.getObject(1));
+        UnitLocation loc = (UnitLocation) ((Vector<?>) result.getObject(2))
+                .get(0);
+        Assert.assertEquals(5, loc.getId());
+        Assert.assertEquals(new Coords(1, 2), loc.getCoords());
+        Assert.assertEquals(3, loc.getFacing());
+        Assert.assertEquals(4, loc.getElevation());
+    }
+
+    @Test
+    public void testReports() {
+        Report r = new Report(1000);
+        r.add(6);
+        r.add("Atlas", true);
+        r.indent(2);
+        r.addObscuredRecipient("Bob");
+        Vector<Report> reports = new Vector<Report>();
+        reports.add(r);
+        Packet result = roundTrip(new Packet(Packet.COMMAND_SENDING_REPORTS,
+                reports));
+        Report copy = (Report) ((Vector<?>) result.getObject(0)).get(0);
+        Assert.assertEquals(r.messageId, copy.messageId);
+        Assert.assertEquals(r.dataCount(), copy.dataCount());
+        Assert.assertTrue(copy.isValueObscured(1));
+        Assert.assertTrue(copy.isObscuredRecipient("Bob"));
+    }
+
+    @Test
+    public void testSerializedFallback() {
+        HashSet<Coords> hexes = new HashSet<Coords>();
+        hexes.add(new Coords(1, 1));
+        hexes.add(new Coords(2, 2));
+        Object[] data = {hexes, new Integer(1), hexes};
+        Packet result = roundTrip(new Packet(
+                Packet.COMMAND_SENDING_ILLUM_HEXES, data));
+        Assert.assertEquals(hexes, result.getObject(0));
+        Assert.assertEquals(1, result.getIntValue(1));
+        // serialized objects share one stream, so references survive
+        Assert.assertSame(result.getObject(0), result.getObject(2));
+    }
+
+    @Test
+    public void testActionsAreWrittenByHand() throws Exception {
+        WeaponAttackAction attack = new WeaponAttackAction(7,
+                Targetable.TYPE_ENTITY, 8, 2);
+        attack.setAmmoId(3);
+        attack.setAimedLocation(Mech.LOC_HEAD);
+        attack.setSwarmMissiles(4);
+        attack.setStrafing(true);
+        Vector<Object> actions = new Vector<Object>();
+        actions.add(attack);
+        actions.add(new TorsoTwistAction(7, 5));
+        actions.add(new FiringModeChangeAction(7, 9));
+        Packet packet = new Packet(Packet.COMMAND_ENTITY_ATTACK,
+                new Object[] {7, actions});
+
+        PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+                .getMarshaller(PacketMarshaller.BINARY_MARSHALING);
+        byte[] data = marshaller.marshall(packet);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                data));
+        in.readUnsignedByte();
+        // Nothing was left to Java serialization
+        Assert.assertEquals(data.length, 5 + in.readInt());
+
+        Packet result = marshaller.unmarshall(data);
+        Vector<?> copies = (Vector<?>) result.getObject(1);
+        WeaponAttackAction attackCopy = (WeaponAttackAction) copies.get(0);
+        Assert.assertEquals(7, attackCopy.getEntityId());
+        Assert.assertEquals(Targetable.TYPE_ENTITY, attackCopy.getTargetType());
+        Assert.assertEquals(8, attackCopy.getTargetId());
+        Assert.assertEquals(2, attackCopy.getWeaponId());
+        Assert.assertEquals(3, attackCopy.getAmmoId());
+        Assert.assertEquals(Mech.LOC_HEAD, attackCopy.getAimedLocation());
+        Assert.assertEquals(4, attackCopy.getSwarmMissiles());
+        Assert.assertTrue(attackCopy.isStrafing());
+        Assert.assertArrayEquals(attack.getBombPayload(),
+                attackCopy.getBombPayload());
+        Assert.assertEquals(5, ((TorsoTwistAction) copies.get(1)).getFacing());
+        Assert.assertEquals(9, ((FiringModeChangeAction) copies.get(2))
+                .getEquipmentId());
+    }
+
+    @Test
+    public void testEntitiesAreSerialized() {
+        Entity mech = new BipedMech();
+        mech.setId(7);
+        mech.setChassis("Atlas");
+        mech.setModel("AS7-D");
+        mech.setPosition(new Coords(3, 4));
+        mech.setFacing(2);
+        mech.setArmor(12, Mech.LOC_CT);
+        mech.getCrew().setName("Bob");
+        Vector<Entity> entities = new Vector<Entity>();
+        entities.add(mech);
+        entities.add(mech);
+        ArrayList<Integer> ids = new ArrayList<Integer>();
+        ids.add(7);
+        Packet result = roundTrip(new Packet(
+                Packet.COMMAND_SENDING_ENTITY_DELTA, new Object[] {entities,
+                        ids}));
+
+        Vector<?> copies = (Vector<?>) result.getObject(0);
+        Assert.assertSame(copies.get(0), copies.get(1));
+        Entity copy = (Entity) copies.get(0);
+        Assert.assertEquals(BipedMech.class, copy.getClass());
+        Assert.assertEquals(7, copy.getId());
+        Assert.assertEquals("Atlas AS7-D", copy.getShortName());
+        Assert.assertEquals(new Coords(3, 4), copy.getPosition());
+        Assert.assertEquals(2, copy.getFacing());
+        Assert.assertEquals(12, copy.getArmor(Mech.LOC_CT));
+        Assert.assertEquals("Bob", copy.getCrew().getName());
+        Assert.assertEquals(ids, result.getObject(1));
+    }
+
+    private byte[] binary(Report r) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        r.writeBinary(out);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testLongReportText() throws Exception {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 70000) {
+            text.append("The Atlas fires its AC/20. ");
+        }
+        Report r = new Report(1230);
+        r.add(text.toString());
+        Packet result = roundTrip(new Packet(Packet.COMMAND_SENDING_REPORTS,
+                r));
+        Report copy = (Report) result.getObject(0);
+        Assert.assertEquals(r.dataCount(), copy.dataCount());
+        Assert.assertArrayEquals(binary(r), binary(copy));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.options;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class OptionHandleTest {
+
+    @Test
+    public void testHandlesFollowChanges() {
+        GameOptions options = new GameOptions();
+        Assert.assertFalse(options.booleanOption(GameOptions.DOUBLE_BLIND));
+        Assert.assertTrue(options.booleanOption(GameOptions.TEAM_VISION));
+        Assert.assertEquals(options.intOption("year"), options.intOption(GameOptions.YEAR));
+
+        options.getOption("double_blind").setValue(true);
+        options.getOption("year").setValue(3050);
+        Assert.assertTrue(options.booleanOption(GameOptions.DOUBLE_BLIND));
+        Assert.assertEquals(3050, options.intOption(GameOptions.YEAR));
+
+        // Options this set doesn't have are off
+        Assert.assertFalse(new PilotOptions().booleanOption(GameOptions.DOUBLE_BLIND));
+    }
+
+    @Test
+    public void testSerializedOptions() throws Exception {
+        GameOptions options = new GameOptions();
+        options.getOption("tacops_sensors").setValue(true);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(options);
+        out.close();
+        GameOptions read = (GameOptions) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+                .readObject();
+
+        Assert.assertTrue(read.booleanOption(GameOptions.TACOPS_SENSORS));
+        Assert.assertTrue(read.booleanOption("tacops_sensors"));
+        Assert.assertFalse(read.booleanOption(GameOptions.STRATOPS_ECM));
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AliasTableTest {
+
+    @Test
+    public void testSampleFollowsWeights() {
+        double[] weights = { 5, 0, 1, 12, 2 };
+        AliasTable table = new AliasTable(weights);
+        Assert.assertEquals(5, table.size());
+
+        // Evenly spread random numbers hit each index in proportion to its
+        // weight
+        int steps = 20000;
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < steps; i++) {
+            counts[table.sample((i + 0.5) / steps)]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            Assert.assertEquals((weights[i] * steps) / 20, counts[i], 2);
+        }
+        Assert.assertEquals(3, table.sample(0.9999999));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoWeight() {
+        new AliasTable(new double[] { 0, 0 });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        new AliasTable(new double[] { 2, -1 });
+    }
+}
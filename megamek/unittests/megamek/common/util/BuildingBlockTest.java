@@ -0,0 +1,73 @@
+/*
+ * MegaMek - Copyright (C) 2000-2011 Ben Mazur (bmazur@sev.org)
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.util;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class BuildingBlockTest {
+
+    private static final String FILE = "#a comment\n"
+            + "<Name>\nAtlas\n</Name>\n\n"
+            + "<Armor>\n  10\n12\n1,000\n</armor>\n"
+            + "<Empty>\n</Empty>\n"
+            + "<name>\nSecond\n</name>\n";
+
+    @Test
+    public void testReadBlocks() throws Exception {
+        BuildingBlock bb = new BuildingBlock(new ByteArrayInputStream(FILE.getBytes("UTF-8")));
+
+        Assert.assertEquals(13, bb.dataSize());
+        Assert.assertTrue(bb.exists("name"));
+        Assert.assertTrue(bb.exists("ARMOR"));
+        Assert.assertFalse(bb.exists("Heat"));
+
+        // The first block of a name wins, whatever its case
+        Assert.assertArrayEquals(new String[] { "Atlas" }, bb.getDataAsString("NAME"));
+        Assert.assertArrayEquals(new int[] { 10, 12, 1000 }, bb.getDataAsInt("Armor"));
+        Assert.assertEquals(Arrays.asList("10", "12", "1,000"), bb.getDataAsList("Armor"));
+        Assert.assertEquals(bb.findStartIndex("Empty"), bb.findEndIndex("Empty"));
+        Assert.assertArrayEquals(new String[] { "" }, bb.getDataAsString("Empty"));
+        Assert.assertArrayEquals(new int[] { 0 }, bb.getDataAsInt("Heat"));
+        Assert.assertTrue(bb.getDataAsList("Heat").isEmpty());
+        Assert.assertEquals(-1, bb.findStartIndex("Heat"));
+    }
+
+    @Test
+    public void testWrittenBlocks() {
+        BuildingBlock bb = new BuildingBlock();
+        bb.createNewBlock();
+        bb.writeBlockData("Name", "Atlas");
+        Assert.assertEquals("Atlas", bb.getDataAsString("Name")[0]);
+
+        // Blocks written after a lookup are found too
+        bb.writeBlockData("Tonnage", 100.0f);
+        Assert.assertEquals(100.0f, bb.getDataAsFloat("tonnage")[0], 0);
+        List<String> version = bb.getDataAsList("BlockVersion");
+        Assert.assertEquals("1", version.get(0));
+
+        bb.clearData();
+        Assert.assertFalse(bb.exists("Name"));
+        bb.writeBlockData("Model", "AS7-D");
+        Assert.assertEquals("AS7-D", bb.getDataAsString("Model")[0]);
+        Assert.assertFalse(bb.exists("Name"));
+    }
+}
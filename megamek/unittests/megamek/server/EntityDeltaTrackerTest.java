@@ -0,0 +1,195 @@
+/*
+ * MegaMek - Copyright (C) 2000-2005 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Vector;
+
+import megamek.common.BipedMech;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Mech;
+import megamek.common.net.Packet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class EntityDeltaTrackerTest {
+
+    private Entity createMech(int id) {
+        Entity mech = new BipedMech();
+        mech.setId(id);
+        mech.setPosition(new Coords(id, id));
+        return mech;
+    }
+
+    private List<?> changed(Packet packet) {
+        return (List<?>) packet.getObject(0);
+    }
+
+    @Test
+    public void testOnlyChangedEntitiesAreSent() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        List<Entity> entities = new ArrayList<Entity>();
+        entities.add(createMech(1));
+        entities.add(createMech(2));
+
+        Packet packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(Packet.COMMAND_SENDING_ENTITY_DELTA,
+                packet.getCommand());
+        Assert.assertEquals(2, changed(packet).size());
+
+        packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertTrue(changed(packet).isEmpty());
+        List<?> ids = (List<?>) packet.getObject(1);
+        Assert.assertEquals(2, ids.size());
+        Assert.assertEquals(1, ids.get(0));
+        Assert.assertEquals(2, ids.get(1));
+
+        entities.get(1).setFacing(3);
+        packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(1, changed(packet).size());
+        Assert.assertSame(entities.get(1), changed(packet).get(0));
+
+        // Another connection has not been sent anything yet
+        packet = tracker.createDeltaPacket(2, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(2, changed(packet).size());
+    }
+
+    @Test
+    public void testForgetResendsEverything() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        List<Entity> entities = new ArrayList<Entity>();
+        entities.add(createMech(1));
+        tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        tracker.forget(1);
+        Packet packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(1, changed(packet).size());
+
+        // A full entity list replaces the client's entities as well
+        tracker.packetSent(Collections.singletonList(1), new Packet(
+                Packet.COMMAND_SENDING_ENTITIES, new Vector<Entity>(entities)));
+        packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(1, changed(packet).size());
+    }
+
+    @Test
+    public void testDamageIsSent() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        List<Entity> entities = new ArrayList<Entity>();
+        entities.add(createMech(1));
+        tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+
+        Entity mech = entities.get(0);
+        mech.setArmor(mech.getArmor(Mech.LOC_CT) - 1, Mech.LOC_CT);
+        Packet packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(1, changed(packet).size());
+
+        mech.heat = 5;
+        packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(1, changed(packet).size());
+    }
+
+    @Test
+    public void testForgetAllResendsEverything() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        List<Entity> entities = new ArrayList<Entity>();
+        entities.add(createMech(1));
+        tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        tracker.createDeltaPacket(2, entities,
+                new IdentityHashMap<Entity, Long>());
+        tracker.forgetAll();
+        Assert.assertEquals(1, changed(tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>())).size());
+        Assert.assertEquals(1, changed(tracker.createDeltaPacket(2, entities,
+                new IdentityHashMap<Entity, Long>())).size());
+    }
+
+    @Test
+    public void testEntityUpdateIsRecorded() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        List<Entity> entities = new ArrayList<Entity>();
+        entities.add(createMech(1));
+        entities.add(createMech(2));
+        tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+
+        // The client is sent the turned entity by itself...
+        Entity mech = entities.get(1);
+        mech.setFacing(3);
+        tracker.packetSent(Collections.singletonList(1), new Packet(
+                Packet.COMMAND_ENTITY_UPDATE, new Object[] { mech.getId(),
+                        mech, null }));
+        Packet packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertTrue(changed(packet).isEmpty());
+
+        // ...so turning it back has to be sent as well
+        mech.setFacing(0);
+        tracker.packetSent(Collections.singletonList(1), new Packet(
+                Packet.COMMAND_ENTITY_UPDATE, new Object[] { mech.getId(),
+                        mech, null }));
+        mech.setFacing(3);
+        packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(1, changed(packet).size());
+        Assert.assertSame(mech, changed(packet).get(0));
+    }
+
+    @Test
+    public void testAddedAndRemovedEntitiesAreRecorded() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        List<Entity> entities = new ArrayList<Entity>();
+        entities.add(createMech(1));
+        tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+
+        Entity added = createMech(2);
+        entities.add(added);
+        ArrayList<Integer> ids = new ArrayList<Integer>();
+        ids.add(added.getId());
+        ArrayList<Entity> addedEntities = new ArrayList<Entity>();
+        addedEntities.add(added);
+        tracker.packetSent(Collections.singletonList(1), new Packet(
+                Packet.COMMAND_ENTITY_ADD, new Object[] { ids, addedEntities }));
+        Packet packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertTrue(changed(packet).isEmpty());
+
+        // A removed entity that comes back unchanged has to be sent again
+        tracker.packetSent(Collections.singletonList(1), new Packet(
+                Packet.COMMAND_ENTITY_REMOVE, new Object[] { ids, 0 }));
+        packet = tracker.createDeltaPacket(1, entities,
+                new IdentityHashMap<Entity, Long>());
+        Assert.assertEquals(1, changed(packet).size());
+        Assert.assertSame(added, changed(packet).get(0));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * MegaMek - Copyright (C) 2000-2005 Ben Mazur (bmazur@sev.org)
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megamek.server;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ServerInstanceTest {
+
+    @Test
+    public void testOnlyServerThreadsHaveAServer() throws IOException {
+        Server first = new Server("", 0);
+        Server second = new Server("", 0);
+        try {
+            // Creating a server doesn't make it the server of other threads
+            Assert.assertNull(Server.getServerInstance());
+
+            Server previous = first.enter();
+            Assert.assertNull(previous);
+            Assert.assertSame(first, Server.getServerInstance());
+            previous = second.enter();
+            Assert.assertSame(first, previous);
+            Assert.assertSame(second, Server.getServerInstance());
+            Server.leave(previous);
+            Assert.assertSame(first, Server.getServerInstance());
+            Server.leave(null);
+            Assert.assertNull(Server.getServerInstance());
+        } finally {
+            first.die();
+            second.die();
+        }
+        Assert.assertNull(Server.getServerInstance());
+    }
+}